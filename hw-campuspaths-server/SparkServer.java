@@ -14,6 +14,8 @@ package campuspaths;
 import campuspaths.utils.CORSFilter;
 import com.google.gson.Gson;
 import pathfinder.CampusMap;
+import pathfinder.SearchBudget;
+import pathfinder.SearchBudgetExceededException;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import spark.Request;
@@ -21,6 +23,7 @@ import spark.Response;
 import spark.Route;
 import spark.Spark;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -32,6 +35,12 @@ public class SparkServer {
 
     private static CampusMap campusMap = new CampusMap(); // CampusMap to fulfill requests of server
 
+    // The longest a single route search may run before its request is answered with 503 instead,
+    // so that a pathological query cannot hold a server thread. The default "table" engine (like "ch")
+    // reads precomputed paths and ignores the budget, so the guard only applies to ?engine= overrides and
+    // to the A* search that "table" and "ch" fall back to while they are rebuilt after a closure.
+    private static final Duration QUERY_TIMEOUT = Duration.ofSeconds(2);
+
     public static void main(String[] args) {
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
@@ -42,13 +51,16 @@ public class SparkServer {
 
         /**
          * Finds shortest path between two buildings via their short names in following HTML path
-         * "/find-path?start=BLDG1&end=BLDG2".
+         * "/find-path?start=BLDG1&end=BLDG2", or with a chosen routing engine in following HTML path
+         * "/find-path?start=BLDG1&end=BLDG2&engine=ENGINE".
          */
         Spark.get("/find-path", new Route() {
             @Override
             /**
              * Handles finding shortest path between two buildings via their short names in following HTML path
-             * "/find-path?start=BLDG1&end=BLDG2". Returns a JSON object that stores the shortest path.
+             * "/find-path?start=BLDG1&end=BLDG2". Returns a JSON object that stores the shortest path. The
+             * optional "engine" parameter names the routing engine to use (for example "dijkstra", "astar" or
+             * "bidirectional"); without it, the default engine of the campus map is used.
              *
              * @spec.requires BLDG1 and BLDG 2 are non-null building names, represent actual locations on the campus map,
              *                and are short names for the locations that they represent.
@@ -60,6 +72,7 @@ public class SparkServer {
             public Object handle(Request request, Response response) throws Exception {
                 String startingPt = request.queryParams("start");
                 String destination = request.queryParams("end");
+                String engine = request.queryParams("engine");
 
                 if (startingPt == null || destination == null || !(campusMap.shortNameExists(startingPt)) ||
                                 !(campusMap.shortNameExists(destination))) {
@@ -67,8 +80,18 @@ public class SparkServer {
                     // and sends back just the status code we provide.
                     Spark.halt(400, "must have valid start and end");
                 }
+                if (engine != null && !(campusMap.hasEngine(engine))) {
+                    Spark.halt(400, "engine must be one of " + campusMap.engineNames());
+                }
 
-                Path<Point> shortestPath = campusMap.findShortestPath(startingPt, destination);
+                Path<Point> shortestPath = null;
+                try {
+                    shortestPath = campusMap.findShortestPath(startingPt, destination,
+                            (engine == null) ? campusMap.getDefaultEngine() : engine,
+                            SearchBudget.unlimited().withTimeout(QUERY_TIMEOUT));
+                } catch (SearchBudgetExceededException e) {
+                    Spark.halt(503, "route search took too long");
+                }
                 Gson gson = new Gson();
                 return gson.toJson(shortestPath);
             }
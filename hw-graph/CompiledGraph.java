@@ -0,0 +1,286 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * <p>This immutable class represents a read-only snapshot of a directed labeled Graph stored in
+ * compressed-sparse-row form. Every node is given a dense integer id in [0, getNodeCount()), and the
+ * outgoing edges of a node with id i occupy the edge indices in [getEdgeStart(i), getEdgeEnd(i)).
+ * Each edge index has a target node id and a label stored in parallel arrays, so walking the children
+ * of a node touches contiguous memory instead of a HashSet of Edge objects.</p>
+ *
+ * @param <N> the node type
+ * @param <E> the edge label type
+ * @spec.specfield <p>nodes : a sequence of nodes where the node at index i has the id i.
+ *                                                                          // The nodes of the snapshot.</p>
+ * @spec.specfield <p>edges : a set of (source id, target id, label) triples.
+ *                                                                          // The edges of the snapshot.</p>
+ */
+public class CompiledGraph<N,E> {
+
+    /** The dense ids of the nodes of the snapshot. */
+    private final NodeIndex<N> index;
+
+    /** The first edge index of each node, with offsets[getNodeCount()] == getEdgeCount(). */
+    private final int[] offsets;
+
+    /** The target node id of each edge index. */
+    private final int[] targets;
+
+    /** The label of each edge index. */
+    private final Object[] labels;
+
+    /** The version of the Graph that this snapshot was compiled at. */
+    private final long version;
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    // Abstraction Function:
+    //    AF(r) = snapshot s such that
+    //      s.nodes = r.index.nodes
+    //      s.edges = {(i, r.targets[k], r.labels[k]) | 0 <= i < r.index.size() && r.offsets[i] <= k < r.offsets[i + 1]}
+    //
+    // Representation Invariant for every CompiledGraph g:
+    //  index != null && offsets != null && targets != null && labels != null &&
+    //  offsets.length == index.size() + 1 && offsets[0] == 0 && offsets is non-decreasing &&
+    //  offsets[index.size()] == targets.length == labels.length &&
+    //  for all k, 0 <= targets[k] < index.size() && labels[k] != null
+    //  In other words:
+    //  - The arrays and the index are not null
+    //  - The offsets split the edge arrays into one contiguous run per node
+    //  - Every edge points at a valid node and has a non-null label
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert index != null : "index should be created";
+        assert offsets != null && targets != null && labels != null : "edge arrays should be created";
+        if (DEBUG) {
+            assert offsets.length == index.size() + 1 : "offsets has the wrong length";
+            assert offsets[0] == 0 : "offsets does not start at 0";
+            for (int i = 0; i < index.size(); i++) {
+                assert offsets[i] <= offsets[i + 1] : "offsets is not non-decreasing";
+            }
+            assert offsets[index.size()] == targets.length : "offsets does not cover the edges";
+            assert targets.length == labels.length : "targets and labels have different lengths";
+            for (int k = 0; k < targets.length; k++) {
+                assert targets[k] >= 0 && targets[k] < index.size() : "an edge points outside the graph";
+                assert labels[k] != null : "a label is null";
+            }
+        }
+    }
+
+    /**
+     * Creates a new snapshot of the passed-in adjacency (helper constructor for Graph#compile()).
+     *
+     * @param index the ids of the nodes of adjacency, which the snapshot keeps
+     * @param adjacency the Map between each node and a Map from each of its destinations to the Edges going there
+     * @param version the version of the Graph that adjacency belongs to
+     * @spec.requires index and adjacency != null, the nodes of index are exactly the keys of adjacency,
+     *                and every Edge in adjacency points between keys of adjacency
+     * @spec.effects sets nodes as the nodes of index and edges as the Edges of adjacency
+     */
+    CompiledGraph(NodeIndex<N> index, Map<N, ? extends Map<N, ? extends Collection<Graph.Edge<N,E>>>> adjacency,
+                  long version) {
+        int nodeCount = index.size();
+        this.index = index;
+        this.version = version;
+        this.offsets = new int[nodeCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            int degree = 0;
+            for (Collection<Graph.Edge<N,E>> edges : adjacency.get(index.getNode(i)).values()) {
+                degree += edges.size();
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+        this.targets = new int[offsets[nodeCount]];
+        this.labels = new Object[offsets[nodeCount]];
+        for (int i = 0; i < nodeCount; i++) {
+            int k = offsets[i];
+            for (Map.Entry<N, ? extends Collection<Graph.Edge<N,E>>> entry
+                    : adjacency.get(index.getNode(i)).entrySet()) {
+                int target = index.getId(entry.getKey()); // one lookup for every edge to this destination
+                for (Graph.Edge<N,E> edge : entry.getValue()) {
+                    targets[k] = target;
+                    labels[k] = edge.getLabel();
+                    k++;
+                }
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Creates a new snapshot from the passed-in arrays (helper constructor for renumber(int[])).
+     *
+     * @param index the dense ids of the nodes of the snapshot
+     * @param offsets the first edge index of each node, followed by the number of edges
+     * @param targets the target node id of each edge index
+     * @param labels the label of each edge index
+     * @param version the version of the Graph that the arrays were compiled from
+     * @spec.requires the arguments satisfy the representation invariant and are not modified afterwards
+     * @spec.effects sets nodes and edges as described by the passed-in arrays
+     */
+    private CompiledGraph(NodeIndex<N> index, int[] offsets, int[] targets, Object[] labels, long version) {
+        this.index = index;
+        this.version = version;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.labels = labels;
+        checkRep();
+    }
+
+    /**
+     * Returns a snapshot with the same nodes and edges as this one, in which the nodes have new ids in the
+     * passed-in order. Giving nodes that are searched together nearby ids, for example with
+     * NodeOrder#breadthFirst(CompiledGraph), keeps the arrays that a search touches close together in memory.
+     * The edges of each node keep their relative order.
+     *
+     * @param order an array holding, at each new id, the old id of the node that takes it
+     * @throws IllegalArgumentException if order == null or if order is not a permutation of the node ids
+     * @return a snapshot where the node with id order[i] in this snapshot has the id i
+     */
+    public CompiledGraph<N,E> renumber(int[] order) throws IllegalArgumentException {
+        int nodeCount = index.size();
+        int[] newIds = NodeOrder.inverse(order, nodeCount);
+        NodeIndex<N> renumbered = new NodeIndex<>(nodeCount);
+        int[] newOffsets = new int[nodeCount + 1];
+        int[] newTargets = new int[targets.length];
+        Object[] newLabels = new Object[labels.length];
+        for (int newId = 0; newId < nodeCount; newId++) {
+            int oldId = order[newId];
+            renumbered.add(index.getNode(oldId));
+            int k = newOffsets[newId];
+            for (int j = offsets[oldId]; j < offsets[oldId + 1]; j++) {
+                newTargets[k] = newIds[targets[j]];
+                newLabels[k] = labels[j];
+                k++;
+            }
+            newOffsets[newId + 1] = k;
+        }
+        return new CompiledGraph<>(renumbered, newOffsets, newTargets, newLabels, version);
+    }
+
+    /**
+     * Gets the version of the Graph that this snapshot was compiled at. The snapshot is up to date with the Graph
+     * exactly when this equals Graph#getVersion().
+     *
+     * @return the version of the Graph that this snapshot was compiled at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of nodes in the snapshot.
+     *
+     * @return the number of nodes in the snapshot
+     */
+    public int getNodeCount() {
+        return index.size();
+    }
+
+    /**
+     * Gets the number of edges in the snapshot.
+     *
+     * @return the number of edges in the snapshot
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns true iff this node exists in the snapshot. Returns false otherwise.
+     *
+     * @param node the node to search for in the snapshot
+     * @return true iff the passed-in node is a node in the snapshot. Otherwise, returns false.
+     */
+    public boolean containsNode(N node) {
+        return index.contains(node);
+    }
+
+    /**
+     * Gets the id of the passed-in node.
+     *
+     * @param node the node to look up
+     * @throws IllegalArgumentException if node == null or if !(this.containsNode(node))
+     * @return the id of the passed-in node
+     */
+    public int getId(N node) throws IllegalArgumentException {
+        return index.getId(node);
+    }
+
+    /**
+     * Gets the node with the passed-in id.
+     *
+     * @param id the id of the node
+     * @spec.requires 0 <= id < getNodeCount()
+     * @return the node with the passed-in id
+     */
+    public N getNode(int id) {
+        return index.getNode(id);
+    }
+
+    /**
+     * Gets the first edge index of the children of the node with the passed-in id.
+     *
+     * @param id the id of the source node
+     * @spec.requires 0 <= id < getNodeCount()
+     * @return the first edge index whose source is the node with the passed-in id
+     */
+    public int getEdgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Gets the edge index one past the last child of the node with the passed-in id.
+     *
+     * @param id the id of the source node
+     * @spec.requires 0 <= id < getNodeCount()
+     * @return the edge index one past the last edge whose source is the node with the passed-in id
+     */
+    public int getEdgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Gets the id of the destination of the edge at the passed-in edge index.
+     *
+     * @param edge the edge index
+     * @spec.requires 0 <= edge < getEdgeCount()
+     * @return the id of the node that the edge is directed to
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Gets the label of the edge at the passed-in edge index.
+     *
+     * @param edge the edge index
+     * @spec.requires 0 <= edge < getEdgeCount()
+     * @return the label of the edge
+     */
+    @SuppressWarnings("unchecked")
+    public E getLabel(int edge) {
+        return (E) labels[edge];
+    }
+
+    // The following package-private accessors let other immutable snapshots in this package share the
+    // node index and edge structure instead of copying them. Callers must not modify the results.
+
+    /** @return the dense ids of the nodes of the snapshot */
+    NodeIndex<N> nodeIndex() {
+        return index;
+    }
+
+    /** @return the first edge index of each node, followed by getEdgeCount() */
+    int[] offsetArray() {
+        return offsets;
+    }
+
+    /** @return the target node id of each edge index */
+    int[] targetArray() {
+        return targets;
+    }
+}
@@ -0,0 +1,357 @@
+package graph;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * <p>This mutable, thread-safe class represents a directed labeled graph that can be changed while other
+ * threads keep reading it. Writers are serialized on the ConcurrentGraph and apply their changes to a private
+ * Graph. After each write, a new immutable Snapshot is published, so readers never take a lock: they read the
+ * latest published Snapshot and keep using it for as long as they need a consistent view, even if more writes
+ * happen in the meantime.</p>
+ *
+ * <p>Publishing a Snapshot compiles the whole graph, so a group of related changes should be made with a
+ * single call to update(Consumer) rather than one call per change.</p>
+ *
+ * <p>The version of a Snapshot is the version of the Graph that it was compiled from (see Graph#getVersion()),
+ * so it goes up by one for every change rather than for every write, and is the same number that
+ * getGraph().getVersion() gives.</p>
+ *
+ * @param <N> the node type
+ * @param <E> the edge label type
+ * @spec.specfield <p>graph : the directed labeled graph as of the latest write. // The current graph.</p>
+ * @spec.specfield <p>version : the version of graph as of the latest published write. // The current version.</p>
+ */
+public class ConcurrentGraph<N,E> {
+
+    /** The Graph that writers change, which is only touched while holding the lock on this. */
+    private final Graph<N,E> graph;
+
+    /** The latest published Snapshot of graph. */
+    private volatile Snapshot<N,E> current;
+
+    // Abstraction Function:
+    //    AF(r) = concurrent graph c such that
+    //      c.graph = r.graph
+    //      c.version = r.current.getVersion()
+    //
+    // Representation Invariant for every ConcurrentGraph c:
+    //  graph != null && current != null &&
+    //  while no write is in progress, current.getGraph() has the same nodes, ids and edges as graph and
+    //  current.getVersion() == graph.getVersion()
+    //  In other words:
+    //  - The Graph and the published Snapshot are not null
+    //  - Outside of a write, the published Snapshot is up to date with the Graph
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert graph != null : "graph should be created";
+        assert current != null : "a snapshot should be published";
+    }
+
+    /**
+     * <p>This immutable class represents a consistent, read-only view of a ConcurrentGraph at one version.</p>
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     */
+    public static class Snapshot<N,E> {
+
+        /** The compiled graph, which records the version it was compiled at. */
+        private final CompiledGraph<N,E> graph;
+
+        /**
+         * Creates a new Snapshot.
+         *
+         * @param graph the compiled graph
+         * @spec.requires graph != null
+         */
+        private Snapshot(CompiledGraph<N,E> graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * @return the version of the ConcurrentGraph that this Snapshot was taken at, which is
+         * getGraph().getVersion()
+         */
+        public long getVersion() {
+            return graph.getVersion();
+        }
+
+        /**
+         * @return the graph as of this Snapshot's version
+         */
+        public CompiledGraph<N,E> getGraph() {
+            return graph;
+        }
+    }
+
+    /**
+     * <p>This mutable class represents the access to the graph that update(Consumer) gives its changes. It can
+     * change the graph and read what the changes need to decide on, but only until the changes return: after
+     * that, every method throws an IllegalStateException, so a Writer that is kept cannot change the graph
+     * without holding the write lock.</p>
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     */
+    public static final class Writer<N,E> {
+
+        /** The graph that the changes are made to, or null once the Writer is closed. */
+        private Graph<N,E> graph;
+
+        /**
+         * Creates a new open Writer.
+         *
+         * @param graph the graph that the changes are made to
+         * @spec.requires graph != null
+         */
+        private Writer(Graph<N,E> graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * Gets the graph if the Writer is still open (helper procedure).
+         *
+         * @throws IllegalStateException if the Writer is closed
+         * @return the graph that the changes are made to
+         */
+        private Graph<N,E> open() throws IllegalStateException {
+            if (graph == null) {
+                throw new IllegalStateException("The update that this Writer belongs to has finished.");
+            }
+            return graph;
+        }
+
+        /**
+         * Closes the Writer, so that it can no longer be used (helper procedure).
+         *
+         * @spec.effects makes every later call throw an IllegalStateException
+         */
+        private void close() {
+            graph = null;
+        }
+
+        /**
+         * Adds a node into the graph.
+         *
+         * @param name the name of the node to be created
+         * @throws IllegalArgumentException under the same conditions as Graph#addNode(N)
+         * @throws IllegalStateException if the update has finished
+         */
+        public void addNode(N name) throws IllegalArgumentException, IllegalStateException {
+            open().addNode(name);
+        }
+
+        /**
+         * Adds an Edge into the graph.
+         *
+         * @param source the name of the starting location of the Edge
+         * @param destination the name of the ending location of the Edge
+         * @param label the name of the label of the Edge
+         * @throws IllegalArgumentException under the same conditions as Graph#addEdge(N, N, E)
+         * @throws IllegalStateException if the update has finished
+         */
+        public void addEdge(N source, N destination, E label) throws IllegalArgumentException, IllegalStateException {
+            open().addEdge(source, destination, label);
+        }
+
+        /**
+         * Removes an Edge from the graph.
+         *
+         * @param source the name of the starting location of the Edge
+         * @param destination the name of the ending location of the Edge
+         * @param label the name of the label of the Edge
+         * @throws IllegalArgumentException under the same conditions as Graph#removeEdge(N, N, E)
+         * @throws IllegalStateException if the update has finished
+         */
+        public void removeEdge(N source, N destination, E label)
+                throws IllegalArgumentException, IllegalStateException {
+            open().removeEdge(source, destination, label);
+        }
+
+        /**
+         * Removes a node, and every Edge to or from it, from the graph.
+         *
+         * @param name the name of the node to remove
+         * @throws IllegalArgumentException under the same conditions as Graph#removeNode(N)
+         * @throws IllegalStateException if the update has finished
+         */
+        public void removeNode(N name) throws IllegalArgumentException, IllegalStateException {
+            open().removeNode(name);
+        }
+
+        /**
+         * @param name the name of the node to search for
+         * @throws IllegalStateException if the update has finished
+         * @return true iff the passed-in node is in the graph
+         */
+        public boolean containsNode(N name) throws IllegalStateException {
+            return open().containsNode(name);
+        }
+
+        /**
+         * Returns a copy of the Edges from the node of the passed-in source name to the node of the passed-in
+         * destination name, which does not change with later changes to the graph.
+         *
+         * @param source the name of the starting location of the Edges
+         * @param destination the name of the ending location of the Edges
+         * @throws IllegalArgumentException under the same conditions as Graph#getEdgesBetween(N, N)
+         * @throws IllegalStateException if the update has finished
+         * @return the set of Edges x such that x.source = source and x.destination = destination
+         */
+        public Set<Graph.Edge<N,E>> getEdgesBetween(N source, N destination)
+                throws IllegalArgumentException, IllegalStateException {
+            return new HashSet<>(open().getEdgesBetween(source, destination));
+        }
+    }
+
+    /**
+     * Creates a new empty ConcurrentGraph.
+     *
+     * @spec.effects sets graph as an empty graph and version as 0
+     */
+    public ConcurrentGraph() {
+        this(new Graph<>());
+    }
+
+    /**
+     * Creates a new ConcurrentGraph that starts out with the nodes and edges of the passed-in Graph. The
+     * ConcurrentGraph takes ownership of the Graph, so the caller must not use it afterwards.
+     *
+     * @param initial the Graph to start out with
+     * @throws IllegalArgumentException if initial == null
+     * @spec.effects sets graph as initial and version as initial.getVersion()
+     */
+    public ConcurrentGraph(Graph<N,E> initial) throws IllegalArgumentException {
+        if (initial == null) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = initial;
+        this.current = new Snapshot<>(graph.compile());
+        checkRep();
+    }
+
+    /**
+     * Gets the latest published Snapshot without taking a lock.
+     *
+     * @return the latest published Snapshot
+     */
+    public Snapshot<N,E> snapshot() {
+        return current;
+    }
+
+    /**
+     * Gets the version of the latest published Snapshot without taking a lock.
+     *
+     * @return the version of the graph as of the latest published write
+     */
+    public long getVersion() {
+        return current.getVersion();
+    }
+
+    /**
+     * Adds a node into the graph and publishes a new Snapshot.
+     *
+     * @param name the name of the node to be created
+     * @throws IllegalArgumentException if name == null or if the graph already contains name
+     * @spec.modifies graph, version
+     * @spec.effects adds a node with passed-in name to graph and sets version as the new version of graph
+     */
+    public synchronized void addNode(N name) throws IllegalArgumentException {
+        checkRep();
+        graph.addNode(name);
+        publish();
+    }
+
+    /**
+     * Adds an Edge into the graph and publishes a new Snapshot.
+     *
+     * @param source the name of the starting location of the Edge
+     * @param destination the name of the ending location of the Edge
+     * @param label the name of the label of the Edge
+     * @throws IllegalArgumentException under the same conditions as Graph#addEdge(N, N, E)
+     * @spec.modifies graph, version
+     * @spec.effects adds the Edge to graph and sets version as the new version of graph
+     */
+    public synchronized void addEdge(N source, N destination, E label) throws IllegalArgumentException {
+        checkRep();
+        graph.addEdge(source, destination, label);
+        publish();
+    }
+
+    /**
+     * Removes an Edge from the graph and publishes a new Snapshot.
+     *
+     * @param source the name of the starting location of the Edge
+     * @param destination the name of the ending location of the Edge
+     * @param label the name of the label of the Edge
+     * @throws IllegalArgumentException under the same conditions as Graph#removeEdge(N, N, E)
+     * @spec.modifies graph, version
+     * @spec.effects removes the Edge from graph and sets version as the new version of graph
+     */
+    public synchronized void removeEdge(N source, N destination, E label) throws IllegalArgumentException {
+        checkRep();
+        graph.removeEdge(source, destination, label);
+        publish();
+    }
+
+    /**
+     * Removes a node, and every Edge to or from it, from the graph and publishes a new Snapshot.
+     *
+     * @param name the name of the node to remove
+     * @throws IllegalArgumentException under the same conditions as Graph#removeNode(N)
+     * @spec.modifies graph, version
+     * @spec.effects removes the node and its Edges from graph and sets version as the new
+     *               version of graph
+     */
+    public synchronized void removeNode(N name) throws IllegalArgumentException {
+        checkRep();
+        graph.removeNode(name);
+        publish();
+    }
+
+    /**
+     * Applies a group of changes to the graph while holding the write lock, and then publishes a single new
+     * Snapshot if anything changed. If changes returns normally, readers see either none or all of the changes.
+     * If changes throws an exception, the changes that were already made are kept and published before the
+     * exception is passed on, so readers can then see only part of the group.
+     *
+     * <p>The changes are made through a Writer that stops working once changes returns, so they cannot be
+     * made outside of the write lock.</p>
+     *
+     * @param changes the changes to make to the graph
+     * @throws IllegalArgumentException if changes == null
+     * @spec.modifies graph, version
+     * @spec.effects applies changes to graph and sets version as the new version of graph
+     */
+    public synchronized void update(Consumer<Writer<N,E>> changes) throws IllegalArgumentException {
+        checkRep();
+        if (changes == null) {
+            throw new IllegalArgumentException();
+        }
+        Writer<N,E> writer = new Writer<>(graph);
+        try {
+            changes.accept(writer);
+        } finally {
+            writer.close();
+            publish();
+        }
+    }
+
+    /**
+     * Compiles graph and publishes it, unless the latest Snapshot already has its version (helper procedure).
+     *
+     * @spec.requires the caller holds the lock on this
+     * @spec.modifies version
+     * @spec.effects sets version as graph.getVersion()
+     */
+    private void publish() {
+        if (graph.getVersion() != current.getVersion()) {
+            current = new Snapshot<>(graph.compile());
+        }
+        checkRep();
+    }
+}
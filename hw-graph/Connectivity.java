@@ -0,0 +1,362 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * <p>This mutable class represents an index of the connected components of a Graph, which tells in constant
+ * time whether two nodes are joined by any chain of edges, ignoring their direction. Two nodes in different
+ * components have no path between them in either direction, so a search between them can be skipped.</p>
+ *
+ * <p>The index is kept with union-find over the node ids of the Graph. It registers itself as a
+ * GraphChangeListener, so adding a node or an edge updates it right away with a single union. Removing an edge
+ * or a node can split a component, which union-find cannot undo, so a removal only marks the index as outdated
+ * and it is built again from the Graph at the next query. Like the Graph it is attached to, the index is not
+ * thread-safe.</p>
+ *
+ * <p>For directed graphs, the static strongComponents methods label the strongly connected components of a
+ * snapshot, in which every node can reach every other node.</p>
+ *
+ * @param <N> the node type
+ * @param <E> the edge label type
+ * @spec.specfield <p>graph : the Graph that the index is attached to.</p>
+ * @spec.specfield <p>components : a partition of the nodes of graph into its connected components, ignoring the
+ *                              direction of the edges.</p>
+ */
+public class Connectivity<N,E> implements GraphChangeListener<N,E> {
+
+    /** The Graph that the index is attached to. */
+    private final Graph<N,E> graph;
+
+    /** The parent of each node id in its union-find tree, or the id itself for the root of a tree. */
+    private int[] parent;
+
+    /** The number of node ids in the tree of each root. */
+    private int[] size;
+
+    /** The number of node ids in the index. */
+    private int nodeCount;
+
+    /** The number of union-find trees, which is the number of components. */
+    private int componentCount;
+
+    /** Whether a removal has made the trees outdated, so they must be built again before the next query. */
+    private boolean outdated;
+
+    // Abstraction Function:
+    //    AF(r) = connectivity index c such that
+    //      c.graph = r.graph
+    //      c.components = the sets of nodes whose ids share a union-find root in parent, after building the
+    //                     trees again if r.outdated
+    //
+    // Representation Invariant for every Connectivity c:
+    //  graph != null && parent != null && size != null && parent.length == size.length &&
+    //  0 <= nodeCount <= parent.length && 0 <= componentCount <= nodeCount &&
+    //  if !outdated: nodeCount is the number of nodes of graph, and two node ids share a root iff there is a
+    //  chain of edges of graph between their nodes, ignoring direction
+    //  In other words:
+    //  - Unless a removal happened since the last build, the trees are exactly the components of the graph
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert graph != null && parent != null && size != null : "index should be created";
+        assert parent.length == size.length : "arrays have different lengths";
+        assert 0 <= nodeCount && nodeCount <= parent.length : "node count is out of range";
+        assert 0 <= componentCount && componentCount <= nodeCount : "component count is out of range";
+    }
+
+    /**
+     * Creates a new index of the passed-in Graph.
+     *
+     * @param graph the Graph to index
+     * @spec.requires graph != null
+     * @spec.effects sets graph as the passed-in Graph and components as its components
+     */
+    private Connectivity(Graph<N,E> graph) {
+        this.graph = graph;
+        this.parent = new int[0];
+        this.size = new int[0];
+        rebuild();
+    }
+
+    /**
+     * Builds the connectivity index of the passed-in Graph and registers it with the Graph, so that it stays up
+     * to date with later changes until it is detached.
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     * @param graph the Graph to index
+     * @throws IllegalArgumentException if graph == null
+     * @return a Connectivity index attached to graph
+     */
+    public static <N,E> Connectivity<N,E> attach(Graph<N,E> graph) throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        Connectivity<N,E> connectivity = new Connectivity<>(graph);
+        graph.addChangeListener(connectivity);
+        return connectivity;
+    }
+
+    /**
+     * Unregisters this index from its Graph, after which it no longer follows the changes made to the Graph.
+     *
+     * @spec.effects stops graph from telling this index about later changes
+     */
+    public void detach() {
+        graph.removeChangeListener(this);
+    }
+
+    /**
+     * Returns true iff the two passed-in nodes are in the same component, that is, iff there is a chain of edges
+     * between them when the direction of the edges is ignored.
+     *
+     * @param first one of the nodes
+     * @param second the other node
+     * @throws IllegalArgumentException if either node is null or not in the Graph
+     * @return true iff first and second are in the same component
+     */
+    public boolean connected(N first, N second) throws IllegalArgumentException {
+        return getComponent(first) == getComponent(second);
+    }
+
+    /**
+     * Gets a number that identifies the component of the passed-in node. Two nodes are in the same component iff
+     * their numbers are equal, but the numbers can change with any change made to the Graph.
+     *
+     * @param node the node to look up
+     * @throws IllegalArgumentException if node == null or if node is not in the Graph
+     * @return the number of the component of node
+     */
+    public int getComponent(N node) throws IllegalArgumentException {
+        int id = graph.getNodeId(node);
+        refresh();
+        return find(id);
+    }
+
+    /**
+     * @return the number of components of the Graph
+     */
+    public int getComponentCount() {
+        refresh();
+        return componentCount;
+    }
+
+    @Override
+    public void nodeAdded(N node, int id, long version) {
+        if (!outdated) {
+            if (id >= parent.length) {
+                int capacity = Math.max(id + 1, 2 * parent.length);
+                parent = Arrays.copyOf(parent, capacity);
+                size = Arrays.copyOf(size, capacity);
+            }
+            parent[id] = id;
+            size[id] = 1;
+            nodeCount = Math.max(nodeCount, id + 1);
+            componentCount++;
+            checkRep();
+        }
+    }
+
+    @Override
+    public void edgeAdded(Graph.Edge<N,E> edge, long version) {
+        if (!outdated) {
+            union(graph.getNodeId(edge.getSource()), graph.getNodeId(edge.getDestination()));
+            checkRep();
+        }
+    }
+
+    @Override
+    public void edgeRemoved(Graph.Edge<N,E> edge, long version) {
+        outdated = true;
+    }
+
+    @Override
+    public void nodeRemoved(N node, long version) {
+        outdated = true;
+    }
+
+    /**
+     * Builds the trees again if a removal made them outdated (helper procedure).
+     *
+     * @spec.effects makes the trees the components of graph
+     */
+    private void refresh() {
+        if (outdated) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds the trees from the nodes and edges of graph (helper procedure).
+     *
+     * @spec.effects makes the trees the components of graph
+     */
+    private void rebuild() {
+        nodeCount = graph.getNodeSet().size();
+        if (parent.length < nodeCount) {
+            parent = new int[nodeCount];
+            size = new int[nodeCount];
+        }
+        for (int id = 0; id < nodeCount; id++) {
+            parent[id] = id;
+            size[id] = 1;
+        }
+        componentCount = nodeCount;
+        outdated = false;
+        for (int id = 0; id < nodeCount; id++) {
+            for (Graph.Edge<N,E> edge : graph.getChildrenOf(graph.getNode(id))) {
+                union(id, graph.getNodeId(edge.getDestination()));
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Finds the root of the tree of the passed-in id, halving the path to it on the way (helper procedure).
+     *
+     * @param id a node id in the index
+     * @return the root of the tree that id is in
+     */
+    private int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Joins the trees of the two passed-in ids, hanging the smaller tree below the root of the larger one
+     * (helper procedure).
+     *
+     * @param first a node id in the index
+     * @param second another node id in the index
+     * @spec.effects merges the components of first and second
+     */
+    private void union(int first, int second) {
+        int a = find(first);
+        int b = find(second);
+        if (a != b) {
+            if (size[a] < size[b]) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            parent[b] = a;
+            size[a] += size[b];
+            componentCount--;
+        }
+    }
+
+    /**
+     * Labels the strongly connected components of the passed-in snapshot. Two nodes are in the same strongly
+     * connected component iff each can reach the other by following the direction of the edges.
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     * @param graph the snapshot to label
+     * @throws IllegalArgumentException if graph == null
+     * @return an array holding, at each node id, the number of its strongly connected component, where the
+     * components are numbered from 0 in an order in which no edge goes from a component to one with a larger
+     * number
+     */
+    public static <N,E> int[] strongComponents(CompiledGraph<N,E> graph) throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        return strongComponents(graph.offsetArray(), graph.targetArray());
+    }
+
+    /**
+     * Labels the strongly connected components of the passed-in weighted snapshot, in the same way as
+     * strongComponents(CompiledGraph).
+     *
+     * @param <N> the node type
+     * @param graph the snapshot to label
+     * @throws IllegalArgumentException if graph == null
+     * @return an array holding, at each node id, the number of its strongly connected component, where the
+     * components are numbered from 0 in an order in which no edge goes from a component to one with a larger
+     * number
+     */
+    public static <N> int[] strongComponents(DoubleWeightedGraph<N> graph) throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        return strongComponents(graph.offsetArray(), graph.targetArray());
+    }
+
+    /**
+     * Labels the strongly connected components of a compressed-sparse-row graph with Tarjan's algorithm, using
+     * explicit stacks instead of recursion so that long chains of nodes cannot overflow the call stack (helper
+     * procedure). A component is numbered when its root is finished, so every component that it has an edge to
+     * already has a smaller number.
+     *
+     * @param offsets the first edge index of each node id, followed by the number of edges
+     * @param targets the target node id of each edge index
+     * @return an array holding the number of the strongly connected component of each node id
+     */
+    private static int[] strongComponents(int[] offsets, int[] targets) {
+        int nodeCount = offsets.length - 1;
+        int[] component = new int[nodeCount];
+        int[] index = new int[nodeCount];
+        int[] low = new int[nodeCount];
+        Arrays.fill(index, -1);
+        // the nodes that have been visited but not yet given a component
+        int[] open = new int[nodeCount];
+        int openCount = 0;
+        boolean[] isOpen = new boolean[nodeCount];
+        // the depth-first path, with the next edge to follow from each node on it
+        int[] path = new int[nodeCount];
+        int[] nextEdge = new int[nodeCount];
+        int depth = 0;
+        int visited = 0;
+        int components = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            index[root] = low[root] = visited++;
+            open[openCount++] = root;
+            isOpen[root] = true;
+            path[0] = root;
+            nextEdge[0] = offsets[root];
+            depth = 1;
+            while (depth > 0) {
+                int v = path[depth - 1];
+                if (nextEdge[depth - 1] < offsets[v + 1]) {
+                    int w = targets[nextEdge[depth - 1]++];
+                    if (index[w] == -1) {
+                        // go down to w
+                        index[w] = low[w] = visited++;
+                        open[openCount++] = w;
+                        isOpen[w] = true;
+                        path[depth] = w;
+                        nextEdge[depth] = offsets[w];
+                        depth++;
+                    } else if (isOpen[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                } else {
+                    // every edge of v has been followed, so go back up
+                    depth--;
+                    if (low[v] == index[v]) {
+                        int w;
+                        do {
+                            w = open[--openCount];
+                            isOpen[w] = false;
+                            component[w] = components;
+                        } while (w != v);
+                        components++;
+                    }
+                    if (depth > 0) {
+                        int u = path[depth - 1];
+                        low[u] = Math.min(low[u], low[v]);
+                    }
+                }
+            }
+        }
+        return component;
+    }
+}
@@ -0,0 +1,446 @@
+package graph;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>This immutable class represents a read-only snapshot of a directed graph whose edge labels are
+ * non-negative double weights. It has the same compressed-sparse-row layout as CompiledGraph, except that
+ * the weights are kept unboxed in a double[] so that searches never touch a Double object.</p>
+ *
+ * <p>The children of a node can be walked either by edge index, using getEdgeStart(int), getEdgeEnd(int),
+ * getTarget(int) and getWeight(int), or with a reusable EdgeCursor, which does not allocate per node.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>nodes : a sequence of nodes where the node at index i has the id i.
+ *                                                                          // The nodes of the snapshot.</p>
+ * @spec.specfield <p>edges : a set of (source id, target id, weight) triples.
+ *                                                                          // The weighted edges of the snapshot.</p>
+ */
+public class DoubleWeightedGraph<N> {
+
+    /** The dense ids of the nodes of the snapshot. */
+    private final NodeIndex<N> index;
+
+    /** The first edge index of each node, with offsets[getNodeCount()] == getEdgeCount(). */
+    private final int[] offsets;
+
+    /** The target node id of each edge index. */
+    private final int[] targets;
+
+    /** The weight of each edge index. */
+    private final double[] weights;
+
+    /** The version of the Graph that this snapshot was compiled at. */
+    private final long version;
+
+    /** The snapshot with every edge of this one turned around, or null until reverse() is first called. */
+    private volatile DoubleWeightedGraph<N> reversed;
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    // Abstraction Function:
+    //    AF(r) = weighted snapshot s such that
+    //      s.nodes = r.index.nodes
+    //      s.edges = {(i, r.targets[k], r.weights[k]) | 0 <= i < r.index.size() && r.offsets[i] <= k < r.offsets[i + 1]}
+    //
+    // Representation Invariant for every DoubleWeightedGraph g:
+    //  index != null && offsets != null && targets != null && weights != null &&
+    //  offsets.length == index.size() + 1 && offsets[0] == 0 && offsets is non-decreasing &&
+    //  offsets[index.size()] == targets.length == weights.length &&
+    //  for all k, 0 <= targets[k] < index.size() && weights[k] >= 0 && weights[k] is finite &&
+    //  if reversed != null, reversed has the same index as this and the edges of this turned around
+    //  In other words:
+    //  - The arrays and the index are not null
+    //  - The offsets split the edge arrays into one contiguous run per node
+    //  - Every edge points at a valid node and has a finite, non-negative weight
+    //  - The cached reverse snapshot, once made, is the transpose of this one
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert index != null : "index should be created";
+        assert offsets != null && targets != null && weights != null : "edge arrays should be created";
+        if (DEBUG) {
+            assert offsets.length == index.size() + 1 : "offsets has the wrong length";
+            assert offsets[0] == 0 : "offsets does not start at 0";
+            for (int i = 0; i < index.size(); i++) {
+                assert offsets[i] <= offsets[i + 1] : "offsets is not non-decreasing";
+            }
+            assert offsets[index.size()] == targets.length : "offsets does not cover the edges";
+            assert targets.length == weights.length : "targets and weights have different lengths";
+            for (int k = 0; k < targets.length; k++) {
+                assert targets[k] >= 0 && targets[k] < index.size() : "an edge points outside the graph";
+                assert weights[k] >= 0 && Double.isFinite(weights[k]) : "a weight is negative or not finite";
+            }
+        }
+    }
+
+    /**
+     * Creates a new weighted snapshot from the passed-in arrays (helper constructor).
+     *
+     * @param index the dense ids of the nodes of the snapshot
+     * @param offsets the first edge index of each node, followed by the number of edges
+     * @param targets the target node id of each edge index
+     * @param weights the weight of each edge index
+     * @param version the version of the Graph that the arrays were compiled from
+     * @spec.requires the arguments satisfy the representation invariant and are not modified afterwards
+     * @spec.effects sets nodes and edges as described by the passed-in arrays
+     */
+    private DoubleWeightedGraph(NodeIndex<N> index, int[] offsets, int[] targets, double[] weights, long version) {
+        this.index = index;
+        this.version = version;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        checkRep();
+    }
+
+    /**
+     * Returns a weighted snapshot of the passed-in Graph as it is right now.
+     *
+     * @param <N> the node type
+     * @param graph the Graph to take a snapshot of
+     * @throws IllegalArgumentException if graph == null or if any edge weight is negative or not finite
+     * @return a DoubleWeightedGraph with the same nodes and edges as the passed-in Graph
+     */
+    public static <N> DoubleWeightedGraph<N> of(Graph<N,Double> graph) throws IllegalArgumentException {
+        return DoubleWeightedGraph.of(graph, Double::doubleValue);
+    }
+
+    /**
+     * Returns a weighted snapshot of the passed-in Graph as it is right now, where the weight of each edge is
+     * read from its label by the passed-in function.
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     * @param graph the Graph to take a snapshot of
+     * @param weight the function that gives the weight of an edge from its label
+     * @throws IllegalArgumentException if graph == null or weight == null, or if any edge weight is negative or
+     *                                  not finite
+     * @return a DoubleWeightedGraph with the same nodes and edges as the passed-in Graph
+     */
+    public static <N,E> DoubleWeightedGraph<N> of(Graph<N,E> graph, ToDoubleFunction<? super E> weight)
+            throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        return DoubleWeightedGraph.of(graph.compile(), weight);
+    }
+
+    /**
+     * Returns a weighted snapshot with the same nodes, ids and edges as the passed-in CompiledGraph. The node
+     * ids and edge structure are shared with the passed-in snapshot rather than copied.
+     *
+     * @param <N> the node type
+     * @param compiled the compiled snapshot to unbox the weights of
+     * @throws IllegalArgumentException if compiled == null or if any edge weight is negative or not finite
+     * @return a DoubleWeightedGraph with the same nodes, ids and edges as the passed-in CompiledGraph
+     */
+    public static <N> DoubleWeightedGraph<N> of(CompiledGraph<N,Double> compiled) throws IllegalArgumentException {
+        return DoubleWeightedGraph.of(compiled, Double::doubleValue);
+    }
+
+    /**
+     * Returns a weighted snapshot with the same nodes, ids and edges as the passed-in CompiledGraph, where the
+     * weight of each edge is read from its label by the passed-in function. The node ids and edge structure are
+     * shared with the passed-in snapshot rather than copied, so several cost models over the same labels only
+     * cost one array of weights each.
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     * @param compiled the compiled snapshot to read the weights of
+     * @param weight the function that gives the weight of an edge from its label
+     * @throws IllegalArgumentException if compiled == null or weight == null, or if any edge weight is negative
+     *                                  or not finite
+     * @return a DoubleWeightedGraph with the same nodes, ids and edges as the passed-in CompiledGraph
+     */
+    public static <N,E> DoubleWeightedGraph<N> of(CompiledGraph<N,E> compiled, ToDoubleFunction<? super E> weight)
+            throws IllegalArgumentException {
+        if (compiled == null || weight == null) {
+            throw new IllegalArgumentException();
+        }
+        double[] weights = new double[compiled.getEdgeCount()];
+        for (int k = 0; k < weights.length; k++) {
+            double w = weight.applyAsDouble(compiled.getLabel(k));
+            if (w < 0 || !Double.isFinite(w)) {
+                throw new IllegalArgumentException();
+            }
+            weights[k] = w;
+        }
+        return new DoubleWeightedGraph<>(compiled.nodeIndex(), compiled.offsetArray(), compiled.targetArray(),
+                weights, compiled.getVersion());
+    }
+
+    /**
+     * Returns a weighted snapshot with the same nodes and ids as this one, in which every edge from a to b with
+     * weight w is replaced by an edge from b to a with weight w. A search that walks the children of a node in
+     * the reverse snapshot is walking the parents of that node in this one, which is what a backward search
+     * needs. The reverse snapshot is built the first time this method is called and then reused, and its own
+     * reverse is this snapshot.
+     *
+     * @return the reverse of this snapshot
+     */
+    public DoubleWeightedGraph<N> reverse() {
+        DoubleWeightedGraph<N> result = reversed;
+        if (result == null) {
+            // building the reverse is deterministic, so two threads that race here build equal snapshots
+            result = transpose();
+            result.reversed = this;
+            reversed = result;
+        }
+        return result;
+    }
+
+    /**
+     * Builds the reverse of this snapshot by counting the parents of each node and then placing every edge in
+     * the run of its target (helper procedure).
+     *
+     * @return a new snapshot with the edges of this snapshot turned around
+     */
+    private DoubleWeightedGraph<N> transpose() {
+        int nodeCount = index.size();
+        int[] reverseOffsets = new int[nodeCount + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+        int[] next = new int[nodeCount];
+        System.arraycopy(reverseOffsets, 0, next, 0, nodeCount);
+        int[] reverseTargets = new int[targets.length];
+        double[] reverseWeights = new double[weights.length];
+        for (int source = 0; source < nodeCount; source++) {
+            for (int k = offsets[source]; k < offsets[source + 1]; k++) {
+                int slot = next[targets[k]]++;
+                reverseTargets[slot] = source;
+                reverseWeights[slot] = weights[k];
+            }
+        }
+        return new DoubleWeightedGraph<>(index, reverseOffsets, reverseTargets, reverseWeights, version);
+    }
+
+    /**
+     * Returns a weighted snapshot with the same nodes and edges as this one, in which the nodes have new ids in the
+     * passed-in order. Giving nodes that are searched together nearby ids, for example with
+     * NodeOrder#breadthFirst(DoubleWeightedGraph), keeps the arrays that a search touches close together in
+     * memory. The edges of each node keep their relative order.
+     *
+     * @param order an array holding, at each new id, the old id of the node that takes it
+     * @throws IllegalArgumentException if order == null or if order is not a permutation of the node ids
+     * @return a snapshot where the node with id order[i] in this snapshot has the id i
+     */
+    public DoubleWeightedGraph<N> renumber(int[] order) throws IllegalArgumentException {
+        int nodeCount = index.size();
+        int[] newIds = NodeOrder.inverse(order, nodeCount);
+        NodeIndex<N> renumbered = new NodeIndex<>(nodeCount);
+        int[] newOffsets = new int[nodeCount + 1];
+        int[] newTargets = new int[targets.length];
+        double[] newWeights = new double[weights.length];
+        for (int newId = 0; newId < nodeCount; newId++) {
+            int oldId = order[newId];
+            renumbered.add(index.getNode(oldId));
+            int k = newOffsets[newId];
+            for (int j = offsets[oldId]; j < offsets[oldId + 1]; j++) {
+                newTargets[k] = newIds[targets[j]];
+                newWeights[k] = weights[j];
+                k++;
+            }
+            newOffsets[newId + 1] = k;
+        }
+        return new DoubleWeightedGraph<>(renumbered, newOffsets, newTargets, newWeights, version);
+    }
+
+    /**
+     * Gets the version of the Graph that this snapshot was compiled at. The snapshot is up to date with the Graph
+     * exactly when this equals Graph#getVersion().
+     *
+     * @return the version of the Graph that this snapshot was compiled at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of nodes in the snapshot.
+     *
+     * @return the number of nodes in the snapshot
+     */
+    public int getNodeCount() {
+        return index.size();
+    }
+
+    /**
+     * Gets the number of edges in the snapshot.
+     *
+     * @return the number of edges in the snapshot
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns true iff this node exists in the snapshot. Returns false otherwise.
+     *
+     * @param node the node to search for in the snapshot
+     * @return true iff the passed-in node is a node in the snapshot. Otherwise, returns false.
+     */
+    public boolean containsNode(N node) {
+        return index.contains(node);
+    }
+
+    /**
+     * Gets the id of the passed-in node.
+     *
+     * @param node the node to look up
+     * @throws IllegalArgumentException if node == null or if !(this.containsNode(node))
+     * @return the id of the passed-in node
+     */
+    public int getId(N node) throws IllegalArgumentException {
+        return index.getId(node);
+    }
+
+    /**
+     * Gets the node with the passed-in id.
+     *
+     * @param id the id of the node
+     * @spec.requires 0 <= id < getNodeCount()
+     * @return the node with the passed-in id
+     */
+    public N getNode(int id) {
+        return index.getNode(id);
+    }
+
+    /**
+     * Gets the first edge index of the children of the node with the passed-in id.
+     *
+     * @param id the id of the source node
+     * @spec.requires 0 <= id < getNodeCount()
+     * @return the first edge index whose source is the node with the passed-in id
+     */
+    public int getEdgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Gets the edge index one past the last child of the node with the passed-in id.
+     *
+     * @param id the id of the source node
+     * @spec.requires 0 <= id < getNodeCount()
+     * @return the edge index one past the last edge whose source is the node with the passed-in id
+     */
+    public int getEdgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Gets the id of the destination of the edge at the passed-in edge index.
+     *
+     * @param edge the edge index
+     * @spec.requires 0 <= edge < getEdgeCount()
+     * @return the id of the node that the edge is directed to
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Gets the weight of the edge at the passed-in edge index.
+     *
+     * @param edge the edge index
+     * @spec.requires 0 <= edge < getEdgeCount()
+     * @return the weight of the edge
+     */
+    public double getWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Creates a new EdgeCursor over this snapshot. A cursor can be moved to any node with
+     * EdgeCursor#at(int), so a search only needs one cursor for all of its nodes.
+     *
+     * @return a new EdgeCursor that is not yet positioned at any node
+     */
+    public EdgeCursor cursor() {
+        return new EdgeCursor();
+    }
+
+    // The following package-private accessors let other classes in this package walk the edge structure
+    // without going through a cursor. Callers must not modify the results.
+
+    /** @return the first edge index of each node, followed by getEdgeCount() */
+    int[] offsetArray() {
+        return offsets;
+    }
+
+    /** @return the target node id of each edge index */
+    int[] targetArray() {
+        return targets;
+    }
+
+    /**
+     * <p>EdgeCursor walks the children of one node of a DoubleWeightedGraph at a time without allocating.
+     * A typical loop looks like:</p>
+     *
+     * <pre>
+     *     for (cursor.at(id); cursor.next(); ) {
+     *         relax(cursor.targetId(), cursor.weight());
+     *     }
+     * </pre>
+     */
+    public class EdgeCursor {
+
+        /** The current edge index, which is one before the first child until next() is called. */
+        private int edge;
+
+        /** The edge index one past the last child of the current node. */
+        private int end;
+
+        /**
+         * Creates a new cursor that is not yet positioned at any node.
+         */
+        private EdgeCursor() {
+            this.edge = 0;
+            this.end = 0;
+        }
+
+        /**
+         * Moves this cursor to just before the first child of the node with the passed-in id.
+         *
+         * @param id the id of the node whose children should be walked
+         * @spec.requires 0 <= id < getNodeCount()
+         * @return this cursor
+         */
+        public EdgeCursor at(int id) {
+            this.edge = offsets[id] - 1;
+            this.end = offsets[id + 1];
+            return this;
+        }
+
+        /**
+         * Advances this cursor to the next child of the current node.
+         *
+         * @return true iff there was another child to move to. Otherwise, returns false.
+         */
+        public boolean next() {
+            edge++;
+            return edge < end;
+        }
+
+        /**
+         * @spec.requires the last call to next() returned true
+         * @return the id of the node that the current edge is directed to
+         */
+        public int targetId() {
+            return targets[edge];
+        }
+
+        /**
+         * @spec.requires the last call to next() returned true
+         * @return the weight of the current edge
+         */
+        public double weight() {
+            return weights[edge];
+        }
+    }
+}
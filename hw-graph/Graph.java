@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * <p>This mutable class represents a directed labeled graph with a collection of nodes and edges.
@@ -16,48 +17,97 @@ import java.util.*;
  */
 public class Graph<N,E> {
 
-    /** The Map between nodes as the keys and a Set of Edges as each key's corresponding value that represents the
-     *  node's children as Edges. */
-    private final Map<N, Set<Edge<N,E>>> graph;
+    /** The Map between nodes as the keys and, for each key, a Map from each of the node's destinations to the
+     *  LabelSet of the Edges from the key to that destination. Looking up an edge only hashes its two nodes and its
+     *  label, and never needs a new Edge object. */
+    private final Map<N, Map<N, LabelSet<N,E>>> graph;
+
+    /** The Map between nodes as the keys and the Set of nodes that have at least one Edge to the key as each
+     *  key's corresponding value, so that the Edges into a node can be found without scanning the Graph. */
+    private final Map<N, Set<N>> incoming;
+
+    /** The number of Edges in the Graph. */
+    private int edgeCount;
+
+    /** The dense ids of the nodes of the Graph, given out in the order that the nodes were added. */
+    private final NodeIndex<N> nodeIndex;
+
+    /** The number of changes made to the Graph since it was created or built. */
+    private long version;
+
+    /** The listeners that are told about every change made to the Graph. */
+    private final List<GraphChangeListener<N,E>> listeners;
 
     private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
 
     // Abstraction Function:
     //    AF(r) = directed labeled graph g such that
     //      g.nodes = r.graph.keySet()
-    //      g.edges = union r.graph.get(n) for all nodes n in r
+    //      g.edges = union r.graph.get(n).get(d) for all nodes n in r and all destinations d in r.graph.get(n)
+    //      the id of each node n in g = r.nodeIndex.getId(n)
+    //      the number of edges of g = r.edgeCount
+    //      g.version = r.version
     //
     // Representation Invariant for every Graph g:
-    //  graph != null &&
+    //  graph != null && incoming != null && nodeIndex != null && listeners != null && version >= 0 &&
+    //  the nodes of nodeIndex are exactly graph.keySet() && incoming.keySet() equals graph.keySet() &&
+    //  for all nodes n and p, incoming.get(n).contains(p) iff graph.get(p).containsKey(n) &&
+    //  edgeCount == the total size of every LabelSet in graph &&
     //  for all nodes n such that n is in the graph, n != null &&
     //  for all Edges<N,E> e such that e is in the graph, (e != null && graph.contains(e.getStart()) && graph.contains(e.getDest()))
+    //  && for all nodes n and destinations d of graph.get(n), graph.get(n).get(d) is not empty and every Edge in it
+    //     has source n and destination d
     //  In other words:
-    //  - The graph is not null
+    //  - The graph, the node index and the listeners are not null, and the version is not negative
+    //  - Every node of the graph has an id, and every id belongs to a node of the graph
+    //  - incoming is the exact reverse of graph, and edgeCount counts every Edge
     //  - No node in the graph is null
     //  - No Edge<N,E> in the graph is null and the graph contains both the source and destination nodes as a part of its nodes
+    //  - Every LabelSet is non-empty and is stored under the source and destination of its Edges
     /**
      * Throws an exception if the representation invariant is violated.
      */
     private void checkRep() {
         assert graph != null : "graph should be created";
+        assert incoming != null : "reverse index should be created";
+        assert nodeIndex != null : "node index should be created";
+        assert edgeCount >= 0 : "edge count is negative";
+        assert listeners != null : "listeners should be created";
+        assert version >= 0 : "version is negative";
         if (DEBUG) {
+            assert nodeIndex.size() == graph.size() : "node index and graph have different sizes";
+            for (N node : nodeIndex.getNodes()) {
+                assert graph.containsKey(node) : "node index has a node that is not in the graph";
+            }
+
             for (N node : graph.keySet()) {
                 assert node != null : "a node is null";
             }
 
+            assert incoming.keySet().equals(graph.keySet()) : "reverse index has different nodes than the graph";
+            int edges = 0;
             for (N node : graph.keySet()) {
-                Set<Edge<N,E>> children = graph.get(node);
-                assert children != null : "a set of children is null";
-                for (Edge<N,E> edge : children) {
-                    assert edge != null : "an edge is null";
-
-                    boolean isStartInGraph = graph.containsKey(edge.getSource());
-                    assert isStartInGraph : "graph does not contain the source of the edge as a node";
+                Map<N, LabelSet<N,E>> children = graph.get(node);
+                assert children != null : "a map of children is null";
+                for (N parent : incoming.get(node)) {
+                    assert graph.get(parent).containsKey(node) : "reverse index has a parent with no edge";
+                }
+                for (N dest : children.keySet()) {
+                    LabelSet<N,E> labels = children.get(dest);
+                    assert labels != null && !(labels.isEmpty()) : "a set of labels is null or empty";
+                    assert incoming.get(dest).contains(node) : "reverse index is missing a parent";
+                    edges += labels.size();
+                    for (Edge<N,E> edge : labels) {
+                        assert edge != null : "an edge is null";
+                        assert edge.getSource().equals(node) : "an edge is stored under the wrong source";
+                        assert edge.getDestination().equals(dest) : "an edge is stored under the wrong destination";
 
-                    boolean isDestInGraph = graph.containsKey(edge.getDestination());
-                    assert isDestInGraph : "graph does not contain the destination of the edge as a node";
+                        boolean isDestInGraph = graph.containsKey(edge.getDestination());
+                        assert isDestInGraph : "graph does not contain the destination of the edge as a node";
+                    }
                 }
             }
+            assert edges == edgeCount : "edge count is wrong";
         }
     }
 
@@ -168,7 +218,8 @@ public class Graph<N,E> {
         @Override
         public int hashCode() {
             checkRep();
-            int value = this.source.hashCode() ^ this.destination.hashCode() ^ this.label.hashCode();
+            // not a plain xor, so that the edges A -> B and B -> A with the same label do not collide
+            int value = 31 * (31 * this.source.hashCode() + this.destination.hashCode()) + this.label.hashCode();
             checkRep();
             return value;
         }
@@ -202,16 +253,218 @@ public class Graph<N,E> {
      */
     public Graph() {
         this.graph = new HashMap<>();
+        this.incoming = new HashMap<>();
+        this.edgeCount = 0;
+        this.nodeIndex = new NodeIndex<>();
+        this.version = 0;
+        this.listeners = new ArrayList<>();
         checkRep();
     }
 
     /**
-     * Adds a node based off its name into the Graph if the node is not already present.
+     * Creates a new empty Graph whose tables have room for the passed-in number of nodes before they have to
+     * grow (helper constructor for Builder).
+     *
+     * @param expectedNodes the number of nodes that the Graph is expected to hold
+     * @spec.requires expectedNodes >= 0
+     * @spec.effects sets both entries and nodes as new empty sets
+     */
+    private Graph(int expectedNodes) {
+        this.graph = new HashMap<>(Math.max(16, (int) (expectedNodes / 0.75f) + 1));
+        this.incoming = new HashMap<>(Math.max(16, (int) (expectedNodes / 0.75f) + 1));
+        this.edgeCount = 0;
+        this.nodeIndex = new NodeIndex<>(expectedNodes);
+        this.version = 0;
+        this.listeners = new ArrayList<>();
+        checkRep();
+    }
+
+    /**
+     * <p>This mutable class builds a Graph in bulk. Nodes are added on first use, and duplicate nodes and
+     * duplicate Edges are ignored instead of rejected, so input can be streamed in without checking
+     * containsNode or containsEdge first. Each node of an edge is looked up once, and the duplicate check is a
+     * single probe when the Edge is inserted. The tables of the Graph are sized up front from the expected
+     * counts.</p>
+     *
+     * <p>A Builder can only build one Graph. After build() is called, every other method throws
+     * IllegalStateException. The built Graph starts at version 0, with no listeners.</p>
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     */
+    public static class Builder<N,E> {
+
+        /** The Graph being built, or null once it has been returned by build(). */
+        private Graph<N,E> graph;
+
+        /** The expected number of children of each node, used to size each node's Map of children. */
+        private final int expectedDegree;
+
+        /**
+         * Creates a new Builder for a Graph of about the passed-in size.
+         *
+         * @param expectedNodes the number of nodes that the Graph is expected to hold
+         * @param expectedEdges the number of edges that the Graph is expected to hold
+         * @throws IllegalArgumentException if expectedNodes &lt; 0 or expectedEdges &lt; 0
+         */
+        public Builder(int expectedNodes, int expectedEdges) throws IllegalArgumentException {
+            if (expectedNodes < 0 || expectedEdges < 0) {
+                throw new IllegalArgumentException();
+            }
+            this.graph = new Graph<>(expectedNodes);
+            this.expectedDegree = (expectedNodes == 0) ? 0 : expectedEdges / expectedNodes;
+        }
+
+        /**
+         * Adds the passed-in node if it is not already present.
+         *
+         * @param name the name of the node to add
+         * @throws IllegalArgumentException if name == null
+         * @throws IllegalStateException if build() has already been called
+         * @return this Builder
+         */
+        public Builder<N,E> addNode(N name) throws IllegalArgumentException, IllegalStateException {
+            childrenOf(name);
+            return this;
+        }
+
+        /**
+         * Adds every node of the passed-in stream that is not already present.
+         *
+         * @param names the names of the nodes to add
+         * @throws IllegalArgumentException if names == null or contains null
+         * @throws IllegalStateException if build() has already been called
+         * @return this Builder
+         */
+        public Builder<N,E> addNodes(Stream<? extends N> names) throws IllegalArgumentException, IllegalStateException {
+            if (names == null) {
+                throw new IllegalArgumentException();
+            }
+            names.forEachOrdered(this::childrenOf);
+            return this;
+        }
+
+        /**
+         * Adds an Edge from source to destination with the passed-in label, adding either node first if it is
+         * not already present. Does nothing if the Edge is already present.
+         *
+         * @param source the name of the starting location of the Edge
+         * @param destination the name of the ending location of the Edge
+         * @param label the name of the label of the Edge
+         * @throws IllegalArgumentException if source == null, destination == null or label == null
+         * @throws IllegalStateException if build() has already been called
+         * @return this Builder
+         */
+        public Builder<N,E> addEdge(N source, N destination, E label)
+                throws IllegalArgumentException, IllegalStateException {
+            if (label == null) {
+                throw new IllegalArgumentException();
+            }
+            Map<N, LabelSet<N,E>> children = childrenOf(source);
+            childrenOf(destination);
+            graph.putEdge(children, new Edge<>(source, destination, label));
+            return this;
+        }
+
+        /**
+         * Adds an Edge in each direction between the two passed-in nodes with the passed-in label, adding
+         * either node first if it is not already present. Either Edge is skipped if it is already present.
+         *
+         * @param first the name of one end of the two Edges
+         * @param second the name of the other end of the two Edges
+         * @param label the name of the label of both Edges
+         * @throws IllegalArgumentException if first == null, second == null or label == null
+         * @throws IllegalStateException if build() has already been called
+         * @return this Builder
+         */
+        public Builder<N,E> addBidirectionalEdge(N first, N second, E label)
+                throws IllegalArgumentException, IllegalStateException {
+            if (label == null) {
+                throw new IllegalArgumentException();
+            }
+            Map<N, LabelSet<N,E>> firstChildren = childrenOf(first);
+            Map<N, LabelSet<N,E>> secondChildren = childrenOf(second);
+            graph.putEdge(firstChildren, new Edge<>(first, second, label));
+            graph.putEdge(secondChildren, new Edge<>(second, first, label));
+            return this;
+        }
+
+        /**
+         * Adds every Edge of the passed-in stream, in the same way as addEdge(N, N, E).
+         *
+         * @param edges the Edges to add
+         * @throws IllegalArgumentException if edges == null or contains an Edge with a null part
+         * @throws IllegalStateException if build() has already been called
+         * @return this Builder
+         */
+        public Builder<N,E> addEdges(Stream<? extends Edge<N,E>> edges)
+                throws IllegalArgumentException, IllegalStateException {
+            if (edges == null) {
+                throw new IllegalArgumentException();
+            }
+            edges.forEachOrdered(edge -> {
+                if (edge == null || edge.getLabel() == null) {
+                    throw new IllegalArgumentException();
+                }
+                // add the source before the destination, as addEdge does, so both give the same node ids
+                Map<N, LabelSet<N,E>> children = childrenOf(edge.getSource());
+                childrenOf(edge.getDestination());
+                graph.putEdge(children, edge);
+            });
+            return this;
+        }
+
+        /**
+         * Returns the finished Graph. The Builder cannot be used afterwards.
+         *
+         * @throws IllegalStateException if build() has already been called
+         * @return the Graph with every node and Edge that was added to this Builder
+         */
+        public Graph<N,E> build() throws IllegalStateException {
+            if (graph == null) {
+                throw new IllegalStateException();
+            }
+            Graph<N,E> built = graph;
+            graph = null;
+            built.checkRep();
+            return built;
+        }
+
+        /**
+         * Gets the Map of children of the passed-in node, adding the node first if it is not already
+         * present (helper procedure).
+         *
+         * @param name the name of the node
+         * @throws IllegalArgumentException if name == null
+         * @throws IllegalStateException if build() has already been called
+         * @return the Map from each destination of the passed-in node to the Edges going there
+         */
+        private Map<N, LabelSet<N,E>> childrenOf(N name) throws IllegalArgumentException, IllegalStateException {
+            if (graph == null) {
+                throw new IllegalStateException();
+            }
+            if (name == null) {
+                throw new IllegalArgumentException();
+            }
+            Map<N, LabelSet<N,E>> children = graph.graph.get(name);
+            if (children == null) {
+                children = new HashMap<>(Math.max(4, (int) (expectedDegree / 0.75f) + 1));
+                graph.graph.put(name, children);
+                graph.incoming.put(name, new HashSet<>(Math.max(4, (int) (expectedDegree / 0.75f) + 1)));
+                graph.nodeIndex.add(name);
+            }
+            return children;
+        }
+    }
+
+    /**
+     * Adds a node based off its name into the Graph if the node is not already present. The node is given the
+     * next unused id, which is the number of nodes that were in the Graph before it.
      *
      * @param name the name of the node to be created
      * @throws IllegalArgumentException if name == null or if this.contains(name)
-     * @spec.modifies nodes
-     * @spec.effects adds a node with passed-in name in nodes.
+     * @spec.modifies nodes, version
+     * @spec.effects adds a node with passed-in name in nodes, increments version and tells every listener.
      */
     public void addNode(N name) throws IllegalArgumentException {
         checkRep();
@@ -219,9 +472,15 @@ public class Graph<N,E> {
             checkRep();
             throw new IllegalArgumentException();
         }
-        Set<Edge<N,E>> edges = new HashSet<>();
-        graph.put(name, edges);
+        Map<N, LabelSet<N,E>> children = new HashMap<>();
+        graph.put(name, children);
+        incoming.put(name, new HashSet<>());
+        int id = nodeIndex.add(name);
+        version++;
         checkRep();
+        for (GraphChangeListener<N,E> listener : listeners) {
+            listener.nodeAdded(name, id, version);
+        }
     }
 
     /**
@@ -234,8 +493,9 @@ public class Graph<N,E> {
      * @throws IllegalArgumentException if source == null, destination == null, label == null,
      *                                          !(this.contains(source)), !(this.contains(destination)),
      *                                          or this.contains(Edge(source, destination, label))
-     * @spec.modifies edges
-     * @spec.effects adds an Edge with the passed-in source, destination, and label into edges.
+     * @spec.modifies edges, version
+     * @spec.effects adds an Edge with the passed-in source, destination, and label into edges, increments version
+     *               and tells every listener.
      */
     public void addEdge(N source, N destination, E label) throws IllegalArgumentException {
         checkRep();
@@ -244,14 +504,131 @@ public class Graph<N,E> {
             checkRep();
             throw new IllegalArgumentException();
         }
-        Edge<N,E> edge = new Edge<>(source, destination, label); // create an edge
-        Set<Edge<N,E>> children = graph.get(source); // find the children at the source node
-        if (children.contains(edge)) { // if the edge is already one of the children, throw exception
+        Map<N, LabelSet<N,E>> children = graph.get(source); // find the children at the source node
+        Edge<N,E> edge = new Edge<>(source, destination, label);
+        if (!(putEdge(children, edge))) { // if the edge is already one of the children, throw exception
+            throw new IllegalArgumentException();
+        }
+        version++;
+        checkRep();
+        for (GraphChangeListener<N,E> listener : listeners) {
+            listener.edgeAdded(edge, version);
+        }
+    }
+
+    /**
+     * Adds the passed-in Edge to the children of its source, and to the reverse index, unless an Edge with the
+     * same source, destination and label is already present (helper procedure). Does not change the version.
+     *
+     * @param children the Map of children of the source of edge
+     * @param edge the Edge to add
+     * @spec.requires children == graph.get(edge.getSource()) and edge.getDestination() is a node of the Graph
+     * @spec.modifies edges
+     * @spec.effects adds edge to edges if it is not already present
+     * @return true iff the Edge was added. Otherwise, returns false.
+     */
+    private boolean putEdge(Map<N, LabelSet<N,E>> children, Edge<N,E> edge) {
+        LabelSet<N,E> labels = children.get(edge.getDestination());
+        if (labels == null) {
+            labels = new LabelSet<>();
+            children.put(edge.getDestination(), labels);
+            incoming.get(edge.getDestination()).add(edge.getSource());
+        }
+        boolean added = labels.add(edge);
+        if (added) {
+            edgeCount++;
+        }
+        return added;
+    }
+
+    /**
+     * Removes the Edge of the passed-in source, destination, and label from the Graph. Takes time proportional to
+     * the number of labels between source and destination, independent of the size of the Graph.
+     *
+     * @param source the name of the starting location of the Edge
+     * @param destination the name of the ending location of the Edge
+     * @param label the name of the label of the Edge
+     * @throws IllegalArgumentException if !(this.containsEdge(source, destination, label))
+     * @spec.modifies edges, version
+     * @spec.effects removes the Edge with the passed-in source, destination, and label from edges, increments
+     *               version and tells every listener.
+     */
+    public void removeEdge(N source, N destination, E label) throws IllegalArgumentException {
+        checkRep();
+        Map<N, LabelSet<N,E>> children = (source == null) ? null : graph.get(source);
+        LabelSet<N,E> labels = (children == null || destination == null) ? null : children.get(destination);
+        if (label == null || labels == null || !(labels.containsLabel(label))) {
+            checkRep();
+            throw new IllegalArgumentException();
+        }
+        Edge<N,E> edge = new Edge<>(source, destination, label);
+        labels.removeLabel(label);
+        if (labels.isEmpty()) {
+            children.remove(destination);
+            incoming.get(destination).remove(source);
+        }
+        edgeCount--;
+        version++;
+        checkRep();
+        for (GraphChangeListener<N,E> listener : listeners) {
+            listener.edgeRemoved(edge, version);
+        }
+    }
+
+    /**
+     * Removes the node of the passed-in name from the Graph, along with every Edge to or from it. Takes time
+     * proportional to the number of Edges of the node, independent of the size of the Graph. To keep the ids
+     * dense, the node with the largest id takes over the id of the removed node.
+     *
+     * @param name the name of the node to remove
+     * @throws IllegalArgumentException if name == null or if !(this.containsNode(name))
+     * @spec.modifies nodes, edges, version
+     * @spec.effects removes every Edge to or from name from edges and then name from nodes. Each removal
+     *               increments version and is told to every listener, followed by the new id of the node
+     *               that took over the id of name, if any.
+     */
+    public void removeNode(N name) throws IllegalArgumentException {
+        checkRep();
+        if (name == null || !(graph.containsKey(name))) {
+            checkRep();
             throw new IllegalArgumentException();
-        } else {
-            children.add(edge); // else (edge isn't one of the children), simply add the edge
         }
+        // copy the neighbours first, since removing the edges changes both maps
+        for (N parent : new ArrayList<>(incoming.get(name))) {
+            for (Edge<N,E> edge : new ArrayList<>(graph.get(parent).get(name))) {
+                removeEdge(parent, name, edge.getLabel());
+            }
+        }
+        for (N dest : new ArrayList<>(graph.get(name).keySet())) {
+            for (Edge<N,E> edge : new ArrayList<>(graph.get(name).get(dest))) {
+                removeEdge(name, dest, edge.getLabel());
+            }
+        }
+        graph.remove(name);
+        incoming.remove(name);
+        int id = nodeIndex.getId(name);
+        N moved = nodeIndex.remove(name);
+        version++;
         checkRep();
+        for (GraphChangeListener<N,E> listener : listeners) {
+            listener.nodeRemoved(name, version);
+        }
+        if (moved != null) {
+            int oldId = nodeIndex.size();
+            for (GraphChangeListener<N,E> listener : listeners) {
+                listener.nodeRenumbered(moved, oldId, id, version);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of Edges in the Graph without building the set of Edges.
+     *
+     * @return the number of Edges in the Graph
+     */
+    public int getEdgeCount() {
+        checkRep();
+        return edgeCount;
     }
 
     /**
@@ -275,8 +652,9 @@ public class Graph<N,E> {
         checkRep();
         Set<Edge<N,E>> set = new HashSet<>();
         for (N node : graph.keySet()) {
-            Set<Edge<N,E>> children = graph.get(node);
-            set.addAll(children);
+            for (LabelSet<N,E> labels : graph.get(node).values()) {
+                set.addAll(labels);
+            }
         }
         set = Collections.unmodifiableSet(set);
         checkRep();
@@ -301,8 +679,7 @@ public class Graph<N,E> {
             throw new IllegalArgumentException();
         }
 
-        Set<Edge<N,E>> children = graph.get(name);
-        children = Collections.unmodifiableSet(children);
+        Set<Edge<N,E>> children = new ChildrenView<>(graph.get(name));
         checkRep();
         return children;
     }
@@ -334,17 +711,193 @@ public class Graph<N,E> {
      */
     public boolean containsEdge(N source, N destination, E label) {
         checkRep();
-        if (!(graph.containsKey(source)) || !(graph.containsKey(destination))) {
+        Map<N, LabelSet<N,E>> children = graph.get(source);
+        LabelSet<N,E> labels = (children == null) ? null : children.get(destination);
+        boolean isInGraph = labels != null && labels.containsLabel(label);
+        checkRep();
+        return isInGraph;
+    }
+
+    /**
+     * Returns an unmodifiable view of the Edges from the node of the passed-in source name to the node of the
+     * passed-in destination name, one for each distinct label.
+     *
+     * @param source the name of the starting location of the Edges
+     * @param destination the name of the ending location of the Edges
+     * @throws IllegalArgumentException if source == null, destination == null, !(this.contains(source)),
+     *                                  or !(this.contains(destination))
+     * @return an unmodifiable view of the set of Edges x such that x.source = source and
+     * x.destination = destination, which is empty if there are no such Edges
+     */
+    public Set<Edge<N,E>> getEdgesBetween(N source, N destination) throws IllegalArgumentException {
+        checkRep();
+        if (source == null || destination == null
+                                    || !(graph.containsKey(source)) || !(graph.containsKey(destination))) {
             checkRep();
-            return false;
-        } else {
-            Set<Edge<N,E>> set = graph.get(source);
-            Edge<N,E> edge = new Edge<>(source, destination, label);
-            boolean isInGraph = set.contains(edge);
+            throw new IllegalArgumentException();
+        }
+        LabelSet<N,E> labels = graph.get(source).get(destination);
+        Set<Edge<N,E>> edges = (labels == null) ? Collections.emptySet() : Collections.unmodifiableSet(labels);
+        checkRep();
+        return edges;
+    }
+
+    /**
+     * <p>ChildrenView is a read-only Set view of the Edges of one node, stored as a Map from destination to
+     * LabelSet. It walks the Map directly instead of copying the Edges into a new Set.</p>
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     */
+    private static class ChildrenView<N,E> extends AbstractSet<Edge<N,E>> {
+
+        /** The Map from each destination of the node to the Edges going there. */
+        private final Map<N, LabelSet<N,E>> children;
+
+        /**
+         * @param children the Map from each destination of the node to the Edges going there
+         */
+        private ChildrenView(Map<N, LabelSet<N,E>> children) {
+            this.children = children;
+        }
+
+        @Override
+        public boolean contains(Object obj) {
+            if (!(obj instanceof Edge<?,?>)) {
+                return false;
+            }
+            LabelSet<N,E> labels = children.get(((Edge<?,?>) obj).getDestination());
+            return labels != null && labels.contains(obj);
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (LabelSet<N,E> labels : children.values()) {
+                size += labels.size();
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<Edge<N,E>> iterator() {
+            return new Iterator<Edge<N,E>>() {
+
+                private final Iterator<LabelSet<N,E>> destinations = children.values().iterator();
+
+                private Iterator<Edge<N,E>> edges = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!(edges.hasNext()) && destinations.hasNext()) {
+                        edges = destinations.next().iterator();
+                    }
+                    return edges.hasNext();
+                }
+
+                @Override
+                public Edge<N,E> next() {
+                    if (!(hasNext())) {
+                        throw new NoSuchElementException();
+                    }
+                    return edges.next();
+                }
+            };
+        }
+    }
+
+    /**
+     * Gets the version of the Graph, which is the number of changes made to it since it was created or built.
+     * The version goes up by one with every change, so derived data that records the version it was computed at
+     * is up to date exactly when that version still equals getVersion().
+     *
+     * @return the version of the Graph
+     */
+    public long getVersion() {
+        checkRep();
+        return version;
+    }
+
+    /**
+     * Registers a listener that is told about every later change made to the Graph. A listener that is
+     * registered more than once is told about each change more than once.
+     *
+     * @param listener the listener to register
+     * @throws IllegalArgumentException if listener == null
+     * @spec.modifies listeners
+     * @spec.effects adds listener to the listeners of the Graph
+     */
+    public void addChangeListener(GraphChangeListener<N,E> listener) throws IllegalArgumentException {
+        checkRep();
+        if (listener == null) {
             checkRep();
-            return isInGraph;
+            throw new IllegalArgumentException();
         }
+        listeners.add(listener);
+        checkRep();
     }
 
+    /**
+     * Unregisters a listener so that it is not told about later changes made to the Graph.
+     *
+     * @param listener the listener to unregister
+     * @spec.modifies listeners
+     * @spec.effects removes one registration of listener from the listeners of the Graph
+     * @return true iff listener was registered. Otherwise, returns false.
+     */
+    public boolean removeChangeListener(GraphChangeListener<N,E> listener) {
+        checkRep();
+        boolean removed = listeners.remove(listener);
+        checkRep();
+        return removed;
+    }
+
+    /**
+     * Gets the id of the node of the passed-in name. Ids are dense: the nodes of a Graph with n nodes have
+     * the ids 0 through n - 1, in the order that they were added, except that removeNode moves the node with
+     * the largest id into the id of the removed node.
+     *
+     * @param name the name of the node to look up
+     * @throws IllegalArgumentException if name == null or if !(this.containsNode(name))
+     * @return the id of the node of the passed-in name
+     */
+    public int getNodeId(N name) throws IllegalArgumentException {
+        checkRep();
+        int id = nodeIndex.getId(name);
+        checkRep();
+        return id;
+    }
+
+    /**
+     * Gets the node with the passed-in id.
+     *
+     * @param id the id of the node to look up
+     * @throws IllegalArgumentException if id &lt; 0 or if id &gt;= the number of nodes
+     * @return the node with the passed-in id
+     */
+    public N getNode(int id) throws IllegalArgumentException {
+        checkRep();
+        if (id < 0 || id >= nodeIndex.size()) {
+            checkRep();
+            throw new IllegalArgumentException();
+        }
+        N node = nodeIndex.getNode(id);
+        checkRep();
+        return node;
+    }
+
+    /**
+     * Returns an immutable compressed-sparse-row snapshot of the Graph as it is right now. Later changes
+     * to the Graph are not reflected in the snapshot. Every node keeps the same id in the snapshot that
+     * it has in this Graph, and the snapshot records the version of the Graph that it was compiled at.
+     *
+     * @return a CompiledGraph with the same nodes, ids and edges as this Graph
+     */
+    public CompiledGraph<N,E> compile() {
+        checkRep();
+        CompiledGraph<N,E> compiled = new CompiledGraph<>(nodeIndex.copy(), graph, version);
+        checkRep();
+        return compiled;
+    }
 
 }
@@ -0,0 +1,67 @@
+package graph;
+
+/**
+ * <p>A GraphChangeListener is told about every change made to a Graph that it is registered with, right after
+ * the change is made. Each call carries the version of the Graph after the change, so a listener that keeps
+ * derived data (a cache, a precomputed table, a serialized snapshot) can record which version that data is
+ * valid for and drop only what a change affects.</p>
+ *
+ * <p>Every method does nothing by default, so a listener only needs to override the changes it cares about.
+ * Listeners are called on the thread that made the change and should return quickly.</p>
+ *
+ * @param <N> the node type
+ * @param <E> the edge label type
+ */
+public interface GraphChangeListener<N,E> {
+
+    /**
+     * Called after a node has been added to the Graph.
+     *
+     * @param node the node that was added
+     * @param id the id that the node was given
+     * @param version the version of the Graph after the node was added
+     */
+    default void nodeAdded(N node, int id, long version) {
+    }
+
+    /**
+     * Called after a node, and every Edge to or from it, has been removed from the Graph. The removal of each of
+     * those Edges is reported with edgeRemoved before this method is called.
+     *
+     * @param node the node that was removed
+     * @param version the version of the Graph after the node was removed
+     */
+    default void nodeRemoved(N node, long version) {
+    }
+
+    /**
+     * Called after a node has been given a new id. This only happens when another node is removed: to keep the
+     * ids dense, the node with the largest id takes over the id of the removed node. It is reported right after
+     * nodeRemoved, with the same version, so that data kept by id can be moved along with the node.
+     *
+     * @param node the node whose id changed
+     * @param oldId the id that the node had before the removal
+     * @param newId the id that the node has now
+     * @param version the version of the Graph after the removal
+     */
+    default void nodeRenumbered(N node, int oldId, int newId, long version) {
+    }
+
+    /**
+     * Called after an Edge has been added to the Graph.
+     *
+     * @param edge the Edge that was added
+     * @param version the version of the Graph after the Edge was added
+     */
+    default void edgeAdded(Graph.Edge<N,E> edge, long version) {
+    }
+
+    /**
+     * Called after an Edge has been removed from the Graph.
+     *
+     * @param edge the Edge that was removed
+     * @param version the version of the Graph after the Edge was removed
+     */
+    default void edgeRemoved(Graph.Edge<N,E> edge, long version) {
+    }
+}
@@ -0,0 +1,146 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * <p>This mutable class represents the set of Edges that share one source and one destination in a Graph,
+ * keyed by their labels. Most pairs of nodes have a single Edge between them, so that Edge is stored in a field
+ * of its own and a Map is only created once a second label is added.</p>
+ *
+ * <p>Edges are added through add(Edge) and removed through removeLabel(Object). Otherwise the Set view is
+ * read-only: its iterator does not support removal, so the inherited remove(Object) throws an
+ * UnsupportedOperationException for an Edge that is in the set.</p>
+ *
+ * @param <N> the node type
+ * @param <E> the edge label type
+ * @spec.specfield <p>edges : a set of Edges with the same source and destination and distinct labels.
+ *                                                                          // The Edges between one pair of nodes.</p>
+ */
+final class LabelSet<N,E> extends AbstractSet<Graph.Edge<N,E>> {
+
+    /** The only Edge of the set while it has at most one Edge, or null if it has none or more than one. */
+    private Graph.Edge<N,E> single;
+
+    /** The Map between labels and Edges once the set has held more than one Edge, or null before that. */
+    private Map<E, Graph.Edge<N,E>> many;
+
+    // Abstraction Function:
+    //    AF(r) = label set s such that
+    //      s.edges = {} if r.single == null && r.many == null
+    //              = {r.single} if r.single != null
+    //              = r.many.values() if r.many != null
+    //
+    // Representation Invariant for every LabelSet s:
+    //  !(single != null && many != null) &&
+    //  for all labels l in many, many.get(l).getLabel().equals(l)
+    //  In other words:
+    //  - At most one of single and many is in use
+    //  - Each Edge of many is stored under its own label
+
+    /**
+     * Creates a new empty LabelSet.
+     *
+     * @spec.effects sets edges as an empty set
+     */
+    LabelSet() {
+        this.single = null;
+        this.many = null;
+    }
+
+    /**
+     * Adds the passed-in Edge if no Edge with the same label is present.
+     *
+     * @param edge the Edge to add
+     * @spec.requires edge != null and edge has the same source and destination as the rest of the set
+     * @spec.modifies edges
+     * @spec.effects adds edge to edges if no Edge in edges has its label
+     * @return true iff the Edge was added. Otherwise, returns false.
+     */
+    @Override
+    public boolean add(Graph.Edge<N,E> edge) {
+        if (many != null) {
+            return many.putIfAbsent(edge.getLabel(), edge) == null;
+        }
+        if (single == null) {
+            single = edge;
+            return true;
+        }
+        if (single.getLabel().equals(edge.getLabel())) {
+            return false;
+        }
+        many = new HashMap<>(4);
+        many.put(single.getLabel(), single);
+        many.put(edge.getLabel(), edge);
+        single = null;
+        return true;
+    }
+
+    /**
+     * Returns true iff an Edge with the passed-in label is present. Returns false otherwise.
+     *
+     * @param label the label to look for
+     * @return true iff edges has an Edge with the passed-in label. Otherwise, returns false.
+     */
+    boolean containsLabel(Object label) {
+        if (many != null) {
+            return many.containsKey(label);
+        }
+        return single != null && single.getLabel().equals(label);
+    }
+
+    /**
+     * Removes the Edge with the passed-in label, if present.
+     *
+     * @param label the label of the Edge to remove
+     * @spec.modifies edges
+     * @spec.effects removes the Edge with the passed-in label from edges
+     * @return true iff an Edge was removed. Otherwise, returns false.
+     */
+    boolean removeLabel(Object label) {
+        if (many != null) {
+            boolean removed = many.remove(label) != null;
+            if (many.size() == 1) {
+                single = many.values().iterator().next();
+                many = null;
+            }
+            return removed;
+        }
+        if (single != null && single.getLabel().equals(label)) {
+            single = null;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        if (!(obj instanceof Graph.Edge<?,?>)) {
+            return false;
+        }
+        Graph.Edge<?,?> edge = (Graph.Edge<?,?>) obj;
+        if (many != null) {
+            Graph.Edge<N,E> stored = many.get(edge.getLabel());
+            return stored != null && stored.equals(edge);
+        }
+        return single != null && single.equals(edge);
+    }
+
+    @Override
+    public int size() {
+        if (many != null) {
+            return many.size();
+        }
+        return (single == null) ? 0 : 1;
+    }
+
+    @Override
+    public Iterator<Graph.Edge<N,E>> iterator() {
+        if (many != null) {
+            return Collections.unmodifiableCollection(many.values()).iterator();
+        }
+        if (single == null) {
+            return Collections.emptyIterator();
+        }
+        return Collections.singleton(single).iterator();
+    }
+}
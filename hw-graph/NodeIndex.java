@@ -0,0 +1,198 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * <p>This mutable class represents a bijection between a set of nodes and the dense integer ids
+ * 0, 1, ..., size() - 1. Every node is given the next unused id when it is added, so arrays indexed by id can
+ * stand in for Maps keyed by node. Ids only change when a node is removed: to keep the ids dense, the node
+ * with the largest id then takes over the id of the removed node.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>nodes : a sequence of distinct nodes where the node at index i has the id i.
+ *                                                                          // The nodes with an id.</p>
+ */
+public class NodeIndex<N> {
+
+    /** The nodes of the index, where the node at index i has the id i. */
+    private final List<N> nodes;
+
+    /** The Map between each node and its id. */
+    private final Map<N,Integer> ids;
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    // Abstraction Function:
+    //    AF(r) = index x such that
+    //      x.nodes = r.nodes
+    //
+    // Representation Invariant for every NodeIndex x:
+    //  nodes != null && ids != null && nodes.size() == ids.size() &&
+    //  for all i, nodes.get(i) != null && ids.get(nodes.get(i)) == i
+    //  In other words:
+    //  - The node list and the id map are not null and have the same size
+    //  - No node is null
+    //  - The id map is the inverse of the node list
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert nodes != null && ids != null : "index should be created";
+        if (DEBUG) {
+            assert nodes.size() == ids.size() : "node list and id map have different sizes";
+            for (int i = 0; i < nodes.size(); i++) {
+                assert nodes.get(i) != null : "a node is null";
+                assert ids.get(nodes.get(i)) == i : "a node does not map back to its id";
+            }
+        }
+    }
+
+    /**
+     * Creates a new empty NodeIndex.
+     *
+     * @spec.effects sets nodes as an empty sequence
+     */
+    public NodeIndex() {
+        this(16);
+    }
+
+    /**
+     * Creates a new empty NodeIndex with room for the passed-in number of nodes before it has to grow.
+     *
+     * @param expectedSize the number of nodes that the index is expected to hold
+     * @spec.requires expectedSize >= 0
+     * @spec.effects sets nodes as an empty sequence
+     */
+    public NodeIndex(int expectedSize) {
+        this.nodes = new ArrayList<>(expectedSize);
+        this.ids = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        checkRep();
+    }
+
+    /**
+     * Creates a new NodeIndex with the same nodes and ids as the passed-in index (helper constructor for copy()).
+     *
+     * @param other the index to copy
+     * @spec.effects sets nodes as other.nodes
+     */
+    private NodeIndex(NodeIndex<N> other) {
+        this.nodes = new ArrayList<>(other.nodes);
+        this.ids = new HashMap<>(other.ids);
+        checkRep();
+    }
+
+    /**
+     * Gives the passed-in node the next unused id.
+     *
+     * @param node the node to add
+     * @throws IllegalArgumentException if node == null or if this.contains(node)
+     * @spec.modifies nodes
+     * @spec.effects appends node to nodes
+     * @return the id given to the passed-in node, which is the old size()
+     */
+    public int add(N node) throws IllegalArgumentException {
+        checkRep();
+        if (node == null || ids.containsKey(node)) {
+            checkRep();
+            throw new IllegalArgumentException();
+        }
+        int id = nodes.size();
+        nodes.add(node);
+        ids.put(node, id);
+        checkRep();
+        return id;
+    }
+
+    /**
+     * Removes the passed-in node from the index. If the node did not have the largest id, the node that did
+     * takes over its id, so the ids stay dense.
+     *
+     * @param node the node to remove
+     * @throws IllegalArgumentException if node == null or if !(this.contains(node))
+     * @spec.modifies nodes
+     * @spec.effects removes node from nodes and moves the last node of nodes into its position
+     * @return the node whose id changed, or null if the removed node had the largest id
+     */
+    public N remove(N node) throws IllegalArgumentException {
+        checkRep();
+        Integer id = (node == null) ? null : ids.remove(node);
+        if (id == null) {
+            checkRep();
+            throw new IllegalArgumentException();
+        }
+        N last = nodes.remove(nodes.size() - 1);
+        if (id == nodes.size()) {
+            checkRep();
+            return null;
+        }
+        nodes.set(id, last);
+        ids.put(last, id);
+        checkRep();
+        return last;
+    }
+
+    /**
+     * Returns true iff the passed-in node has an id in this index. Returns false otherwise.
+     *
+     * @param node the node to look up
+     * @return true iff the passed-in node has an id. Otherwise, returns false.
+     */
+    public boolean contains(N node) {
+        return ids.containsKey(node);
+    }
+
+    /**
+     * Gets the id of the passed-in node.
+     *
+     * @param node the node to look up
+     * @throws IllegalArgumentException if node == null or if !(this.contains(node))
+     * @return the id of the passed-in node
+     */
+    public int getId(N node) throws IllegalArgumentException {
+        Integer id = (node == null) ? null : ids.get(node);
+        if (id == null) {
+            throw new IllegalArgumentException();
+        }
+        return id;
+    }
+
+    /**
+     * Gets the node with the passed-in id.
+     *
+     * @param id the id of the node
+     * @throws IndexOutOfBoundsException if id &lt; 0 or id &gt;= size()
+     * @return the node with the passed-in id
+     */
+    public N getNode(int id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * Gets the number of nodes in the index, which is also one more than the largest id.
+     *
+     * @return the number of nodes in the index
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns an unmodifiable view of the nodes of the index, in id order.
+     *
+     * @return an unmodifiable view of the sequence nodes
+     */
+    public List<N> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Returns a new NodeIndex with the same nodes and ids as this one. Later changes to either index are not
+     * reflected in the other.
+     *
+     * @return a copy of this index
+     */
+    public NodeIndex<N> copy() {
+        checkRep();
+        return new NodeIndex<>(this);
+    }
+}
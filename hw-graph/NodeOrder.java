@@ -0,0 +1,133 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * <p>NodeOrder computes orders of the nodes of a snapshot for CompiledGraph#renumber(int[]) and
+ * DoubleWeightedGraph#renumber(int[]). A search touches the arrays of a snapshot at the ids of the nodes it
+ * reaches, and it reaches the neighbors of a node soon after the node itself, so giving neighbors nearby ids keeps
+ * those arrays close together in memory and makes a search miss the cache less often on large graphs.</p>
+ *
+ * <p>An order is an int[] holding, at each new id, the old id of the node that takes it.</p>
+ */
+public class NodeOrder {
+
+    /**
+     * Orders the nodes of the passed-in snapshot by breadth-first search, so that the children of each node come
+     * soon after it. The search starts at the smallest id that has not been reached yet, until every node has been
+     * reached.
+     *
+     * @param <N> the node type
+     * @param <E> the edge label type
+     * @param graph the snapshot to order the nodes of
+     * @throws IllegalArgumentException if graph == null
+     * @return an array holding, at each new id, the old id of the node that takes it
+     */
+    public static <N,E> int[] breadthFirst(CompiledGraph<N,E> graph) throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        return breadthFirst(graph.offsetArray(), graph.targetArray());
+    }
+
+    /**
+     * Orders the nodes of the passed-in weighted snapshot by breadth-first search, in the same way as
+     * breadthFirst(CompiledGraph).
+     *
+     * @param <N> the node type
+     * @param graph the snapshot to order the nodes of
+     * @throws IllegalArgumentException if graph == null
+     * @return an array holding, at each new id, the old id of the node that takes it
+     */
+    public static <N> int[] breadthFirst(DoubleWeightedGraph<N> graph) throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        return breadthFirst(graph.offsetArray(), graph.targetArray());
+    }
+
+    /**
+     * Orders the nodes of a compressed-sparse-row graph by breadth-first search (helper procedure). The order
+     * itself is the queue of the search.
+     *
+     * @param offsets the first edge index of each node id, followed by the number of edges
+     * @param targets the target node id of each edge index
+     * @return an array holding, at each new id, the old id of the node that takes it
+     */
+    private static int[] breadthFirst(int[] offsets, int[] targets) {
+        int nodeCount = offsets.length - 1;
+        int[] order = new int[nodeCount];
+        boolean[] reached = new boolean[nodeCount];
+        int tail = 0;
+        for (int root = 0; root < nodeCount; root++) {
+            if (reached[root]) {
+                continue;
+            }
+            reached[root] = true;
+            order[tail++] = root;
+            for (int head = tail - 1; head < tail; head++) {
+                int id = order[head];
+                for (int k = offsets[id]; k < offsets[id + 1]; k++) {
+                    if (!reached[targets[k]]) {
+                        reached[targets[k]] = true;
+                        order[tail++] = targets[k];
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Orders node ids by the passed-in keys, from the smallest key to the largest, with ties broken by the smaller
+     * id. This turns any ranking of the nodes, such as their positions along a space-filling curve, into an
+     * order.
+     *
+     * @param keys the key of each node id, each of which is in the range 0 to 2^32 - 1
+     * @throws IllegalArgumentException if keys == null or if any key is out of range
+     * @return an array holding, at each new id, the old id of the node that takes it
+     */
+    public static int[] byKey(long[] keys) throws IllegalArgumentException {
+        if (keys == null) {
+            throw new IllegalArgumentException();
+        }
+        // pack each key above its id so that a single primitive sort orders both
+        long[] packed = new long[keys.length];
+        for (int id = 0; id < keys.length; id++) {
+            if (keys[id] < 0 || keys[id] > 0xFFFFFFFFL) {
+                throw new IllegalArgumentException();
+            }
+            packed[id] = (keys[id] << 31) | id;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) (packed[i] & Integer.MAX_VALUE);
+        }
+        return order;
+    }
+
+    /**
+     * Inverts the passed-in order of nodeCount nodes (helper procedure for renumbering).
+     *
+     * @param order an array holding, at each new id, the old id of the node that takes it
+     * @param nodeCount the number of nodes of the snapshot being renumbered
+     * @throws IllegalArgumentException if order == null or if order is not a permutation of 0 to nodeCount - 1
+     * @return an array holding, at each old id, the new id of the node that had it
+     */
+    static int[] inverse(int[] order, int nodeCount) throws IllegalArgumentException {
+        if (order == null || order.length != nodeCount) {
+            throw new IllegalArgumentException();
+        }
+        int[] newIds = new int[nodeCount];
+        Arrays.fill(newIds, -1);
+        for (int newId = 0; newId < nodeCount; newId++) {
+            int oldId = order[newId];
+            if (oldId < 0 || oldId >= nodeCount || newIds[oldId] != -1) {
+                throw new IllegalArgumentException();
+            }
+            newIds[oldId] = newId;
+        }
+        return newIds;
+    }
+}
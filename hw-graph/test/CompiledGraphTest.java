@@ -0,0 +1,75 @@
+package graph.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import org.junit.Test;
+
+public final class CompiledGraphTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String node3 = "node3";
+    private final static String label = "number";
+
+    private static Graph<String,String> makeTriangle() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addNode(node3);
+        graph.addEdge(node1, node2, label);
+        graph.addEdge(node1, node3, label);
+        graph.addEdge(node2, node3, label);
+        return graph;
+    }
+
+    @Test
+    public void compileEmptyGraph() {
+        CompiledGraph<String,String> compiled = new Graph<String,String>().compile();
+        assertEquals(0, compiled.getNodeCount());
+        assertEquals(0, compiled.getEdgeCount());
+    }
+
+    @Test
+    public void compileKeepsCounts() {
+        CompiledGraph<String,String> compiled = makeTriangle().compile();
+        assertEquals("snapshot has the wrong number of nodes!", 3, compiled.getNodeCount());
+        assertEquals("snapshot has the wrong number of edges!", 3, compiled.getEdgeCount());
+    }
+
+    @Test
+    public void compileKeepsIds() {
+        CompiledGraph<String,String> compiled = makeTriangle().compile();
+        for (int i = 0; i < compiled.getNodeCount(); i++) {
+            assertEquals("id does not map back to node!", i, compiled.getId(compiled.getNode(i)));
+        }
+    }
+
+    @Test
+    public void compileKeepsChildren() {
+        CompiledGraph<String,String> compiled = makeTriangle().compile();
+        int id = compiled.getId(node1);
+        assertEquals("node1 has the wrong number of children!", 2,
+                compiled.getEdgeEnd(id) - compiled.getEdgeStart(id));
+        for (int k = compiled.getEdgeStart(id); k < compiled.getEdgeEnd(id); k++) {
+            String child = compiled.getNode(compiled.getTarget(k));
+            assertTrue(child.equals(node2) || child.equals(node3));
+            assertEquals(label, compiled.getLabel(k));
+        }
+        int leaf = compiled.getId(node3);
+        assertEquals(compiled.getEdgeStart(leaf), compiled.getEdgeEnd(leaf));
+    }
+
+    @Test
+    public void compileIsSnapshot() {
+        Graph<String,String> graph = makeTriangle();
+        CompiledGraph<String,String> compiled = graph.compile();
+        graph.addEdge(node3, node1, label);
+        assertEquals("snapshot changed with the graph!", 3, compiled.getEdgeCount());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkGetIdOfNodeNotInGraph() {
+        CompiledGraph<String,String> compiled = makeTriangle().compile();
+        compiled.getId("node4");
+    }
+}
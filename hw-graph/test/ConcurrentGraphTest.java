@@ -0,0 +1,136 @@
+package graph.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class ConcurrentGraphTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String label = "number";
+    private final static int NUM_OF_THREADS = 4;
+    private final static int NUM_OF_NODES = 50;
+
+    @Test
+    public void createEmptyGraph() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        assertEquals(0, graph.getVersion());
+        assertEquals(0, graph.snapshot().getGraph().getNodeCount());
+    }
+
+    @Test
+    public void writesPublishNewVersions() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addEdge(node1, node2, label);
+        assertEquals("each write should publish a version!", 3, graph.getVersion());
+        assertEquals(1, graph.snapshot().getGraph().getEdgeCount());
+    }
+
+    @Test
+    public void updatePublishesOnce() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        graph.update(g -> {
+            g.addNode(node1);
+            g.addNode(node2);
+            g.addEdge(node1, node2, label);
+        });
+        assertEquals("the snapshot should count every change of the batch!", 3, graph.getVersion());
+        assertEquals(2, graph.snapshot().getGraph().getNodeCount());
+    }
+
+    @Test
+    public void snapshotHasOneVersion() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        graph.addNode(node1);
+        graph.update(g -> g.addNode(node2));
+        ConcurrentGraph.Snapshot<String,String> snapshot = graph.snapshot();
+        assertEquals(2, snapshot.getVersion());
+        assertEquals(snapshot.getVersion(), snapshot.getGraph().getVersion());
+    }
+
+    @Test
+    public void emptyUpdateKeepsSnapshot() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        graph.addNode(node1);
+        ConcurrentGraph.Snapshot<String,String> snapshot = graph.snapshot();
+        graph.update(g -> assertTrue(g.containsNode(node1)));
+        assertSame("nothing changed, so nothing should be published!", snapshot, graph.snapshot());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void checkWriterUsedAfterUpdate() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        List<ConcurrentGraph.Writer<String,String>> kept = new ArrayList<>();
+        graph.update(kept::add);
+        kept.get(0).addNode(node1);
+    }
+
+    @Test
+    public void snapshotDoesNotChange() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        graph.addNode(node1);
+        ConcurrentGraph.Snapshot<String,String> snapshot = graph.snapshot();
+        graph.addNode(node2);
+        assertEquals(1, snapshot.getVersion());
+        assertEquals("old snapshot changed!", 1, snapshot.getGraph().getNodeCount());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkAddDuplicateNode() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        graph.addNode(node1);
+        graph.addNode(node1);
+    }
+
+    @Test
+    public void concurrentWritersKeepEveryNode() throws InterruptedException, ExecutionException {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_OF_THREADS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < NUM_OF_THREADS; t++) {
+                final int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < NUM_OF_NODES; i++) {
+                        graph.addNode("node" + thread + "-" + i);
+                        assertTrue(graph.snapshot().getGraph().getNodeCount() > 0);
+                    }
+                }));
+            }
+            // get() passes on any assertion that failed in a writer, so it fails this test
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(NUM_OF_THREADS * NUM_OF_NODES, graph.snapshot().getGraph().getNodeCount());
+        assertEquals(NUM_OF_THREADS * NUM_OF_NODES, graph.getVersion());
+    }
+
+    @Test
+    public void failedUpdatePublishesPartialChanges() {
+        ConcurrentGraph<String,String> graph = new ConcurrentGraph<>();
+        try {
+            graph.update(g -> {
+                g.addNode(node1);
+                g.addNode(node1);
+            });
+            fail("duplicate node should have been rejected!");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals("changes made before the exception should be published!", 1,
+                graph.snapshot().getGraph().getNodeCount());
+    }
+}
@@ -0,0 +1,97 @@
+package graph.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import org.junit.Test;
+
+public final class ConnectivityTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String node3 = "node3";
+    private final static String node4 = "node4";
+    private final static String label = "number";
+
+    private static Graph<String,String> makeNodes() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addNode(node3);
+        graph.addNode(node4);
+        return graph;
+    }
+
+    @Test
+    public void attachLabelsExistingEdges() {
+        Graph<String,String> graph = makeNodes();
+        graph.addEdge(node1, node2, label);
+        Connectivity<String,String> connectivity = Connectivity.attach(graph);
+        assertEquals(3, connectivity.getComponentCount());
+        assertTrue(connectivity.connected(node2, node1));
+        assertFalse(connectivity.connected(node1, node3));
+    }
+
+    @Test
+    public void addEdgeJoinsComponents() {
+        Graph<String,String> graph = makeNodes();
+        Connectivity<String,String> connectivity = Connectivity.attach(graph);
+        assertEquals(4, connectivity.getComponentCount());
+        graph.addEdge(node1, node2, label);
+        graph.addEdge(node3, node2, label);
+        assertTrue("edges should join components!", connectivity.connected(node1, node3));
+        assertFalse(connectivity.connected(node1, node4));
+        graph.addNode("node5");
+        assertEquals(3, connectivity.getComponentCount());
+    }
+
+    @Test
+    public void removeEdgeSplitsComponents() {
+        Graph<String,String> graph = makeNodes();
+        Connectivity<String,String> connectivity = Connectivity.attach(graph);
+        graph.addEdge(node1, node2, label);
+        graph.addEdge(node2, node3, label);
+        assertTrue(connectivity.connected(node1, node3));
+        graph.removeEdge(node2, node3, label);
+        assertFalse("removal should split the component!", connectivity.connected(node1, node3));
+        graph.removeNode(node1);
+        assertEquals(3, connectivity.getComponentCount());
+        assertFalse(connectivity.connected(node2, node3));
+    }
+
+    @Test
+    public void detachStopsUpdates() {
+        Graph<String,String> graph = makeNodes();
+        Connectivity<String,String> connectivity = Connectivity.attach(graph);
+        connectivity.detach();
+        graph.addEdge(node1, node2, label);
+        assertFalse(connectivity.connected(node1, node2));
+    }
+
+    @Test
+    public void strongComponentsOfDirectedGraph() {
+        Graph<String,String> graph = makeNodes();
+        graph.addEdge(node1, node2, label);
+        graph.addEdge(node2, node1, label);
+        graph.addEdge(node2, node3, label);
+        graph.addEdge(node3, node4, label);
+        graph.addEdge(node4, node3, label);
+        CompiledGraph<String,String> compiled = graph.compile();
+        int[] components = Connectivity.strongComponents(compiled);
+        int first = components[compiled.getId(node1)];
+        int second = components[compiled.getId(node3)];
+        assertEquals(first, components[compiled.getId(node2)]);
+        assertEquals(second, components[compiled.getId(node4)]);
+        assertTrue("one-way edge should not join components!", first != second);
+        assertTrue("components should be numbered in reverse topological order!", second < first);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkConnectedWithNodeNotInGraph() {
+        Connectivity.attach(makeNodes()).connected(node1, "node5");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkAttachNull() {
+        Connectivity.attach(null);
+    }
+}
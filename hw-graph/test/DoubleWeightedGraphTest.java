@@ -0,0 +1,167 @@
+package graph.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import org.junit.Test;
+
+public final class DoubleWeightedGraphTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String node3 = "node3";
+
+    private static Graph<String,Double> makeWeighted() {
+        Graph<String,Double> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addNode(node3);
+        graph.addEdge(node1, node2, 1.5);
+        graph.addEdge(node1, node3, 2.5);
+        graph.addEdge(node2, node3, 4.0);
+        return graph;
+    }
+
+    @Test
+    public void weightedKeepsCounts() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        assertEquals("snapshot has the wrong number of nodes!", 3, weighted.getNodeCount());
+        assertEquals("snapshot has the wrong number of edges!", 3, weighted.getEdgeCount());
+    }
+
+    @Test
+    public void cursorWalksAllChildren() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        DoubleWeightedGraph<String>.EdgeCursor cursor = weighted.cursor();
+        double total = 0;
+        int count = 0;
+        for (cursor.at(weighted.getId(node1)); cursor.next(); ) {
+            String child = weighted.getNode(cursor.targetId());
+            assertTrue(child.equals(node2) || child.equals(node3));
+            total += cursor.weight();
+            count++;
+        }
+        assertEquals("cursor did not walk both children!", 2, count);
+        assertEquals("cursor read the wrong weights!", 4.0, total, 0.0);
+    }
+
+    @Test
+    public void cursorCanBeReused() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        DoubleWeightedGraph<String>.EdgeCursor cursor = weighted.cursor();
+        cursor.at(weighted.getId(node3));
+        assertFalse("node3 should not have any children!", cursor.next());
+        cursor.at(weighted.getId(node2));
+        assertTrue(cursor.next());
+        assertEquals(node3, weighted.getNode(cursor.targetId()));
+        assertEquals(4.0, cursor.weight(), 0.0);
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void reverseTurnsEdgesAround() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        DoubleWeightedGraph<String> reverse = weighted.reverse();
+        assertEquals("reverse has the wrong number of nodes!", 3, reverse.getNodeCount());
+        assertEquals("reverse has the wrong number of edges!", 3, reverse.getEdgeCount());
+        assertEquals("reverse changed an id!", weighted.getId(node3), reverse.getId(node3));
+        DoubleWeightedGraph<String>.EdgeCursor cursor = reverse.cursor();
+        double total = 0;
+        int count = 0;
+        for (cursor.at(reverse.getId(node3)); cursor.next(); ) {
+            String parent = reverse.getNode(cursor.targetId());
+            assertTrue(parent.equals(node1) || parent.equals(node2));
+            total += cursor.weight();
+            count++;
+        }
+        assertEquals("node3 should have two parents!", 2, count);
+        assertEquals("reverse has the wrong weights!", 6.5, total, 0.0);
+        cursor.at(reverse.getId(node1));
+        assertFalse("node1 should not have any parents!", cursor.next());
+    }
+
+    @Test
+    public void reverseIsCachedBothWays() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        assertSame(weighted.reverse(), weighted.reverse());
+        assertSame(weighted, weighted.reverse().reverse());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeWeight() {
+        Graph<String,Double> graph = makeWeighted();
+        graph.addEdge(node3, node1, -1.0);
+        DoubleWeightedGraph.of(graph);
+    }
+
+    @Test
+    public void weightFunctionReadsLabels() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addEdge(node1, node2, "stairs");
+        CompiledGraph<String,String> compiled = graph.compile();
+        DoubleWeightedGraph<String> byLength = DoubleWeightedGraph.of(compiled, String::length);
+        DoubleWeightedGraph<String> flat = DoubleWeightedGraph.of(compiled, label -> 1.0);
+        assertEquals("weight was not read from the label!", 6.0, byLength.getWeight(0), 0.0);
+        assertEquals("weight was not read from the label!", 1.0, flat.getWeight(0), 0.0);
+        assertEquals("cost models should share the nodes!", byLength.getId(node2), flat.getId(node2));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeWeightFunction() {
+        DoubleWeightedGraph.of(makeWeighted(), weight -> -weight);
+    }
+
+    @Test
+    public void renumberKeepsEdges() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        int[] order = {weighted.getId(node3), weighted.getId(node1), weighted.getId(node2)};
+        DoubleWeightedGraph<String> renumbered = weighted.renumber(order);
+        assertEquals("node should take its new id!", 0, renumbered.getId(node3));
+        assertEquals("node should take its new id!", node1, renumbered.getNode(1));
+        assertEquals(weighted.getEdgeCount(), renumbered.getEdgeCount());
+        int id = renumbered.getId(node1);
+        double total = 0;
+        for (int k = renumbered.getEdgeStart(id); k < renumbered.getEdgeEnd(id); k++) {
+            String child = renumbered.getNode(renumbered.getTarget(k));
+            assertTrue(child.equals(node2) || child.equals(node3));
+            total += renumbered.getWeight(k);
+        }
+        assertEquals("weights should follow their edges!", 4.0, total, 0.0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkRenumberWithRepeatedId() {
+        DoubleWeightedGraph.of(makeWeighted()).renumber(new int[] {0, 1, 1});
+    }
+
+    @Test
+    public void reverseTurnsEveryEdgeAround() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        DoubleWeightedGraph<String> reversed = weighted.reverse();
+        assertEquals(weighted.getNodeCount(), reversed.getNodeCount());
+        assertEquals(weighted.getEdgeCount(), reversed.getEdgeCount());
+        for (int id = 0; id < weighted.getNodeCount(); id++) {
+            assertEquals("reverse should keep the ids!", weighted.getNode(id), reversed.getNode(id));
+            for (int k = weighted.getEdgeStart(id); k < weighted.getEdgeEnd(id); k++) {
+                int target = weighted.getTarget(k);
+                boolean found = false;
+                for (int j = reversed.getEdgeStart(target); j < reversed.getEdgeEnd(target); j++) {
+                    found |= reversed.getTarget(j) == id && reversed.getWeight(j) == weighted.getWeight(k);
+                }
+                assertTrue("edge was not turned around!", found);
+            }
+        }
+        int id3 = reversed.getId(node3);
+        assertEquals("node3 should have both parents as children!", 2,
+                reversed.getEdgeEnd(id3) - reversed.getEdgeStart(id3));
+        assertEquals(reversed.getEdgeStart(reversed.getId(node1)), reversed.getEdgeEnd(reversed.getId(node1)));
+    }
+
+    @Test
+    public void reverseIsCachedAndInvolutive() {
+        DoubleWeightedGraph<String> weighted = DoubleWeightedGraph.of(makeWeighted());
+        assertSame("reverse should be built once!", weighted.reverse(), weighted.reverse());
+        assertSame("reverse of the reverse should be the original!", weighted, weighted.reverse().reverse());
+    }
+}
@@ -0,0 +1,151 @@
+package graph.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import graph.Graph.Edge;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class GraphChangeListenerTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String label = "number";
+
+    /** Records every change it is told about as a String. */
+    private static class RecordingListener implements GraphChangeListener<String,String> {
+
+        private final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void nodeAdded(String node, int id, long version) {
+            changes.add("node " + node + " " + id + " @" + version);
+        }
+
+        @Override
+        public void edgeAdded(Edge<String,String> edge, long version) {
+            changes.add("edge " + edge + " @" + version);
+        }
+
+        @Override
+        public void nodeRemoved(String node, long version) {
+            changes.add("removed node " + node + " @" + version);
+        }
+
+        @Override
+        public void nodeRenumbered(String node, int oldId, int newId, long version) {
+            changes.add("renumbered " + node + " " + oldId + " -> " + newId + " @" + version);
+        }
+
+        @Override
+        public void edgeRemoved(Edge<String,String> edge, long version) {
+            changes.add("removed edge " + edge + " @" + version);
+        }
+    }
+
+    @Test
+    public void newGraphStartsAtVersionZero() {
+        Graph<String,String> graph = new Graph<>();
+        assertEquals(0, graph.getVersion());
+    }
+
+    @Test
+    public void everyChangeIncrementsVersion() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        assertEquals(1, graph.getVersion());
+        graph.addNode(node2);
+        graph.addEdge(node1, node2, label);
+        assertEquals("graph did not count every change!", 3, graph.getVersion());
+    }
+
+    @Test
+    public void rejectedChangeKeepsVersion() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        try {
+            graph.addNode(node1);
+            fail("duplicate node was added!");
+        } catch (IllegalArgumentException e) {
+            assertEquals("a rejected change moved the version!", 1, graph.getVersion());
+        }
+    }
+
+    @Test
+    public void listenerSeesChangesInOrder() {
+        Graph<String,String> graph = new Graph<>();
+        RecordingListener listener = new RecordingListener();
+        graph.addChangeListener(listener);
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addEdge(node1, node2, label);
+
+        List<String> expected = new ArrayList<>();
+        expected.add("node node1 0 @1");
+        expected.add("node node2 1 @2");
+        expected.add("edge (node1, node2, number) @3");
+        assertEquals(expected, listener.changes);
+    }
+
+    @Test
+    public void removedListenerSeesNothing() {
+        Graph<String,String> graph = new Graph<>();
+        RecordingListener listener = new RecordingListener();
+        graph.addChangeListener(listener);
+        assertTrue(graph.removeChangeListener(listener));
+        graph.addNode(node1);
+        assertTrue(listener.changes.isEmpty());
+    }
+
+    @Test
+    public void snapshotRecordsVersion() {
+        Graph<String,Double> graph = new Graph<>();
+        graph.addNode(node1);
+        CompiledGraph<String,Double> compiled = graph.compile();
+        assertEquals(graph.getVersion(), compiled.getVersion());
+        assertEquals(graph.getVersion(), DoubleWeightedGraph.of(compiled).getVersion());
+        graph.addNode(node2);
+        assertTrue("snapshot should be out of date!", compiled.getVersion() != graph.getVersion());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkAddNullListener() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addChangeListener(null);
+    }
+    @Test
+    public void listenerSeesRemovals() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addEdge(node1, node2, label);
+        RecordingListener listener = new RecordingListener();
+        graph.addChangeListener(listener);
+        graph.removeNode(node2);
+
+        List<String> expected = new ArrayList<>();
+        expected.add("removed edge (node1, node2, number) @4");
+        expected.add("removed node node2 @5");
+        assertEquals(expected, listener.changes);
+    }
+
+    @Test
+    public void listenerSeesRenumbering() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addNode("node3");
+        RecordingListener listener = new RecordingListener();
+        graph.addChangeListener(listener);
+        graph.removeNode(node1);
+
+        List<String> expected = new ArrayList<>();
+        expected.add("removed node node1 @4");
+        expected.add("renumbered node3 2 -> 0 @4");
+        assertEquals(expected, listener.changes);
+        assertEquals(0, graph.getNodeId("node3"));
+    }
+
+}
@@ -164,4 +164,161 @@ public final class GraphTest {
         assertTrue(graph.containsEdge(node1, node2, label));
     }
 
+    @Test
+    public void checkBuilderAddsNodesOnFirstUse() {
+        Graph<String,String> graph = new Graph.Builder<String,String>(2, 1)
+                .addEdge(node1, node2, label)
+                .build();
+        assertTrue(graph.containsNode(node1));
+        assertTrue(graph.containsNode(node2));
+        assertTrue(graph.containsEdge(node1, node2, label));
+    }
+
+    @Test
+    public void checkBuilderIgnoresDuplicates() {
+        Graph<String,String> graph = new Graph.Builder<String,String>(2, 2)
+                .addNode(node1)
+                .addNode(node1)
+                .addBidirectionalEdge(node1, node2, label)
+                .addEdge(node2, node1, label)
+                .build();
+        assertEquals("builder kept a duplicate node!", 2, graph.getNodeSet().size());
+        assertEquals("builder kept a duplicate edge!", 2, graph.getEdgeSet().size());
+    }
+
+    @Test
+    public void checkBuilderAcceptsStreams() {
+        Graph<String,String> graph = new Graph.Builder<String,String>(NUM_OF_NODES, NUM_OF_NODES)
+                .addNodes(java.util.stream.IntStream.range(0, NUM_OF_NODES).mapToObj(i -> "node" + i))
+                .addEdges(java.util.stream.IntStream.range(1, NUM_OF_NODES)
+                        .mapToObj(i -> new Edge<>("node" + (i - 1), "node" + i, label)))
+                .build();
+        assertEquals(NUM_OF_NODES, graph.getNodeSet().size());
+        assertEquals(NUM_OF_NODES - 1, graph.getEdgeSet().size());
+        assertEquals("builder did not keep insertion order for ids!", 3, graph.getNodeId("node3"));
+    }
+
+    @Test
+    public void checkBuilderAddEdgesMatchesAddEdge() {
+        Graph<String,String> one = new Graph.Builder<String,String>(2, 1)
+                .addEdge(node1, node2, label)
+                .build();
+        Graph<String,String> many = new Graph.Builder<String,String>(2, 1)
+                .addEdges(java.util.stream.Stream.of(new Edge<>(node1, node2, label)))
+                .build();
+        assertEquals("source should get the first id!", 0, one.getNodeId(node1));
+        assertEquals("both ways of adding an edge should give the same ids!", one.getNodeId(node1),
+                many.getNodeId(node1));
+        assertEquals(one.getNodeId(node2), many.getNodeId(node2));
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void checkBuilderCannotBeReused() {
+        Graph.Builder<String,String> builder = new Graph.Builder<>(1, 0);
+        builder.addNode(node1);
+        builder.build();
+        builder.addNode(node2);
+    }
+
+    @Test
+    public void checkGetEdgesBetweenMultipleLabels() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        for (int i = 0; i < NUM_OF_NODES; i++) {
+            graph.addEdge(node1, node2, label + i);
+        }
+        assertEquals("not every label was kept!", NUM_OF_NODES, graph.getEdgesBetween(node1, node2).size());
+        assertTrue(graph.getEdgesBetween(node1, node2).contains(new Edge<>(node1, node2, label + 0)));
+        assertTrue(graph.getEdgesBetween(node2, node1).isEmpty());
+        assertEquals(NUM_OF_NODES, graph.getChildrenOf(node1).size());
+    }
+
+    @Test
+    public void checkContainsEdgeIsDirected() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addEdge(node1, node2, label);
+        assertTrue(graph.containsEdge(node1, node2, label));
+        assertFalse(graph.containsEdge(node2, node1, label));
+        assertFalse(graph.containsEdge(node1, node2, label + "2"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkGetEdgesBetweenNodeNotInGraph() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.getEdgesBetween(node1, node2);
+    }
+
+    @Test
+    public void checkRemoveEdge() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addEdge(node1, node2, label);
+        graph.addEdge(node2, node1, label);
+        graph.removeEdge(node1, node2, label);
+        assertFalse(graph.containsEdge(node1, node2, label));
+        assertTrue(graph.containsEdge(node2, node1, label));
+        assertEquals("edge count was not updated!", 1, graph.getEdgeCount());
+        assertTrue(graph.getChildrenOf(node1).isEmpty());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkRemoveMissingEdge() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.removeEdge(node1, node2, label);
+    }
+
+    @Test
+    public void checkRemoveNodeRemovesItsEdges() {
+        Graph<String,String> graph = new Graph<>();
+        for (int i = 0; i < NUM_OF_NODES; i++) {
+            graph.addNode("node" + i);
+        }
+        for (int i = 1; i < NUM_OF_NODES; i++) {
+            graph.addEdge("node0", "node" + i, label);
+            graph.addEdge("node" + i, "node0", label);
+        }
+        graph.addEdge("node0", "node0", label);
+        graph.addEdge(node1, node2, label);
+
+        graph.removeNode("node0");
+        assertFalse(graph.containsNode("node0"));
+        assertEquals("edges of the removed node are left!", 1, graph.getEdgeCount());
+        assertEquals(1, graph.getEdgeSet().size());
+        assertTrue(graph.getChildrenOf("node5").isEmpty());
+    }
+
+    @Test
+    public void checkRemoveNodeKeepsIdsDense() {
+        Graph<String,String> graph = new Graph<>();
+        for (int i = 0; i < NUM_OF_NODES; i++) {
+            graph.addNode("node" + i);
+        }
+        graph.removeNode("node3");
+        assertEquals("last node did not take over the free id!", 3, graph.getNodeId("node" + (NUM_OF_NODES - 1)));
+        for (int i = 0; i < NUM_OF_NODES - 1; i++) {
+            assertEquals(i, graph.getNodeId(graph.getNode(i)));
+        }
+        assertEquals(NUM_OF_NODES - 1, graph.compile().getNodeCount());
+    }
+
+    @Test
+    public void checkRemovedNodeCanBeAddedBack() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        graph.addEdge(node2, node1, label);
+        graph.removeNode(node1);
+        graph.addNode(node1);
+        assertFalse(graph.containsEdge(node2, node1, label));
+        graph.addEdge(node2, node1, label);
+        assertEquals(1, graph.getEdgeCount());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package graph.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import org.junit.Test;
+
+public final class NodeIndexTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static int NUM_OF_NODES = 20;
+
+    @Test
+    public void createEmptyIndex() {
+        NodeIndex<String> index = new NodeIndex<>();
+        assertEquals(0, index.size());
+        assertFalse(index.contains(node1));
+    }
+
+    @Test
+    public void idsAreDenseAndInInsertionOrder() {
+        NodeIndex<String> index = new NodeIndex<>();
+        for (int i = 0; i < NUM_OF_NODES; i++) {
+            assertEquals("node was not given the next id!", i, index.add("node" + i));
+        }
+        for (int i = 0; i < NUM_OF_NODES; i++) {
+            assertEquals(i, index.getId("node" + i));
+            assertEquals("node" + i, index.getNode(i));
+        }
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        NodeIndex<String> index = new NodeIndex<>();
+        index.add(node1);
+        NodeIndex<String> copy = index.copy();
+        index.add(node2);
+        assertEquals("copy changed with the index!", 1, copy.size());
+        assertEquals(0, copy.getId(node1));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkAddDuplicateNode() {
+        NodeIndex<String> index = new NodeIndex<>();
+        index.add(node1);
+        index.add(node1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkGetIdOfMissingNode() {
+        NodeIndex<String> index = new NodeIndex<>();
+        index.getId(node1);
+    }
+
+    @Test
+    public void graphAndSnapshotShareIds() {
+        Graph<String,String> graph = new Graph<>();
+        graph.addNode(node1);
+        graph.addNode(node2);
+        assertEquals(0, graph.getNodeId(node1));
+        assertEquals(1, graph.getNodeId(node2));
+        assertEquals(node2, graph.getNode(1));
+
+        CompiledGraph<String,String> compiled = graph.compile();
+        assertEquals(graph.getNodeId(node1), compiled.getId(node1));
+        assertEquals(graph.getNodeId(node2), compiled.getId(node2));
+    }
+}
@@ -0,0 +1,40 @@
+package graph.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import org.junit.Test;
+
+public final class NodeOrderTest {
+
+    private final static String label = "number";
+
+    @Test
+    public void breadthFirstVisitsChildrenFirst() {
+        Graph<String,String> graph = new Graph<>();
+        for (String node : new String[] {"a", "b", "c", "d", "e"}) {
+            graph.addNode(node);
+        }
+        graph.addEdge("a", "e", label);
+        graph.addEdge("e", "d", label);
+        graph.addEdge("a", "b", label);
+        CompiledGraph<String,String> compiled = graph.compile();
+        int[] order = NodeOrder.breadthFirst(compiled);
+        CompiledGraph<String,String> renumbered = compiled.renumber(order);
+        assertEquals("search should start at the first id!", "a", renumbered.getNode(0));
+        assertTrue("children should come right after their parent!",
+                renumbered.getId("e") <= 2 && renumbered.getId("b") <= 2);
+        assertEquals("d", renumbered.getNode(3));
+        assertEquals("unreached node should come last!", "c", renumbered.getNode(4));
+        assertEquals(label, renumbered.getLabel(renumbered.getEdgeStart(renumbered.getId("e"))));
+    }
+
+    @Test
+    public void byKeyBreaksTiesById() {
+        assertArrayEquals(new int[] {2, 0, 3, 1}, NodeOrder.byKey(new long[] {5, 9, 1, 5}));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkByKeyOutOfRange() {
+        NodeOrder.byKey(new long[] {-1});
+    }
+}
@@ -11,6 +11,9 @@
 
 package pathfinder;
 
+import graph.Connectivity;
+import graph.ConcurrentGraph;
+import graph.DoubleWeightedGraph;
 import graph.Graph;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
@@ -18,13 +21,20 @@ import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
 
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToDoubleBiFunction;
 
 /**
- * <p>This immutable class represents the concept of a map of a campus. The points along the map represent all locations
+ * <p>This mutable, thread-safe class represents the concept of a map of a campus. The points along the map represent all locations
  * across campus, including buildings and intermediary walkways, and there are connections that are between each of these
  * locations that are represented by the distance that it takes to travel from one place to another.</p>
  *
+ * <p>The only change that can be made to the map is closing a path with closePath. Route queries never wait for a
+ * closure: a query that is already running keeps using the map as it was when it started.</p>
+ *
  * @spec.specfield <p> locations: a set of points along the campus, including the campus buildings and the walkways in between.
  *                                          // A collection of locations across the entire campus. </p>
  * @spec.specfield <p> paths: a set of all mappings between two locations of the map, represented by the distance between the locations.
@@ -38,42 +48,102 @@ public class CampusMap implements ModelAPI {
     /** The file that represents the the paths of the campus that also store intermediary pathways along campus. */
     private static final String pathsFile = "campus_paths.tsv";
 
+    /** The system property that names a file to save the Contraction Hierarchy of the map in between runs. */
+    public static final String HIERARCHY_FILE_PROPERTY = "pathfinder.hierarchyFile";
+
+    /** The system property that names the engine that findShortestPath(String, String) uses by default. */
+    public static final String ENGINE_PROPERTY = "pathfinder.engine";
+
+    /** The number of landmarks that guide LANDMARKS searches. */
+    private static final int LANDMARK_COUNT = 8;
+
     private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
 
     /** The Graph is a bi-directional weighted graph that represents the CampusMap where the nodes
      *  are the points of locations along the campus and the edges represent straight-line walking
-     *  segments connecting two locations. */
-    private Graph<Point,Double> campusGraph;
+     *  segments connecting two locations. Closures are applied to this graph. */
+    private final ConcurrentGraph<Point,Double> liveGraph;
+
+    /** The latest snapshot of liveGraph, with unboxed weights and ids in Hilbert curve order, together with
+     *  everything that routing derives from it. Each closure replaces the whole Routing with a single write, so a
+     *  query that reads it once sees a snapshot and structures that belong together. */
+    private volatile Routing routing;
+
+    /** The single background thread that rebuilds the derived structures of routing after a closure. */
+    private final ExecutorService rebuilder;
 
     /** The Map represents the short names of each building matched with
      * their corresponding CampusBuilding objects. */
     private Map<String,CampusBuilding> shortToBuilding;
 
+    /** The Map represents the short names of each building matched with the id of the
+     * building's location in every snapshot, so that routing never has to hash a Point. */
+    private Map<String,Integer> shortToNodeId;
+
+    /** The straight-line lower bound on the walking distance between two locations that guides routing. */
+    private final ToDoubleBiFunction<Point,Point> heuristic;
+
+    /** The A* search that answers for the engines whose structures are still being rebuilt after a closure. */
+    private final RoutingEngine<Point> fallback;
+
+    /** The engines that route queries can be answered by, registered under the engine name of each SearchMode. */
+    private final RoutingEngineRegistry<Point> engines;
+
+    /** The name of the engine that findShortestPath(String, String) uses. */
+    private volatile String defaultEngine;
+
 
     //  Abstraction Function:
     //    AF(r) = map of the campus m such that
-    //      m.locations = r.campusGraph.getNodeSet()
-    //      m.paths = union r.campusGraph.getChildrenOf(n) for all nodes n in the campusGraph
+    //      m.locations = {r.routing.graph.getNode(i) | 0 <= i < r.routing.graph.getNodeCount()}
+    //      m.paths = union of the edges r.routing.graph.getEdgeStart(i) to r.routing.graph.getEdgeEnd(i)
+    //                for all node ids i in the routing.graph
     //
     //  Representation Invariant for every CampusMap m:
-    //  campusGraph != null &&
-    //  shortToBuilding != null
+    //  liveGraph != null && routing != null && rebuilder != null && heuristic != null && fallback != null &&
+    //  engines != null && engines.contains(defaultEngine) && engines has an engine for every SearchMode &&
+    //  routing.graph != null && routing.components != null &&
+    //  routing.routeTable, routing.hierarchy, routing.landmarks and routing.chains are either all null or all
+    //  not null &&
+    //  everything in routing was built for routing.graph &&
+    //  if routing.routeTable != null, every building's node id is a source of routing.routeTable &&
+    //  heuristic never overestimates the cost of a shortest path in routing.graph &&
+    //  outside of closePath, routing.graph has the same nodes and edges as liveGraph.snapshot(), with ids in
+    //  Hilbert curve order &&
+    //  shortToBuilding != null && shortToNodeId != null &&
+    //  shortToNodeId.keySet() equals shortToBuilding.keySet() &&
     //  for each short name s inside shortToBuilding, s != null &&
     //  for each CampusBuilding b as a value inside shortToBuilding, b != null &&
-    //                      Point(b.getX(), b.getY()) is a node of the campusGraph
+    //                      Point(b.getX(), b.getY()) is a node of the routing.graph
+    //                      with the id shortToNodeId.get(s)
     //
     //  In other words:
-    //  - campusGraph is not null
-    //  - shortToBuilding is not null
+    //  - liveGraph and routing are not null, and the snapshot of routing is up to date with liveGraph
+    //  - routing always has the component labels of its snapshot, and right after a closure it has nothing
+    //    else until the rebuilder publishes a Routing with the route table, hierarchy, landmarks and chains
+    //  - If routing has a route table, it has the paths from every building
+    //  - Every SearchMode and the default engine name a registered engine
+    //  - heuristic is not null and is a lower bound on the walking distance
+    //  - shortToBuilding and shortToNodeId are not null and have the same short names
     //  - No short name of shortToBuilding is null
     //  - No CampusBuilding inside shortToBuilding is null
-    //  - Each (x, y) location of the CampusBuildings stored inside shortToBuilding is a node in the campusGraph
+    //  - Each (x, y) location of the CampusBuildings stored inside shortToBuilding is a node in the routing.graph,
+    //    and shortToNodeId stores the id of that node
     /**
      * Throws an exception if the representation invariant is violated.
      */
     private void checkRep() {
-        assert campusGraph != null : "graph should be created";
+        Routing current = routing;
+        assert liveGraph != null && current != null && current.graph != null : "graph should be created";
+        assert rebuilder != null : "rebuilder should be created";
+        assert heuristic != null && fallback != null : "heuristic should be created";
+        assert current.components != null : "components should be labeled";
+        boolean built = current.routeTable != null;
+        assert (current.hierarchy != null) == built && (current.landmarks != null) == built &&
+                (current.chains != null) == built : "routing should be rebuilt all at once";
+        assert engines != null && engines.contains(defaultEngine) : "default engine should be registered";
         assert shortToBuilding != null : "map from short names to buildings should be created";
+        assert shortToNodeId != null : "map from short names to node ids should be created";
         if (DEBUG) {
             for (String shortName : shortToBuilding.keySet()) {
                 assert shortName != null : "a short name is null";
@@ -84,8 +154,11 @@ public class CampusMap implements ModelAPI {
                 assert building != null : "a CampusBuilding is null";
 
                 Point pointOfBuilding = new Point(building.getX(), building.getY());
-                boolean isLocationOfMap = campusGraph.containsNode(pointOfBuilding);
+                boolean isLocationOfMap = current.graph.containsNode(pointOfBuilding);
                 assert isLocationOfMap : "a building is not inside the map!";
+                assert current.graph.getId(pointOfBuilding) == shortToNodeId.get(shortName) : "a building has the wrong id!";
+                assert !(built) || current.routeTable.isSource(shortToNodeId.get(shortName)) :
+                        "a building is not in the route table!";
             }
 
         }
@@ -100,11 +173,79 @@ public class CampusMap implements ModelAPI {
      *               and sets up paths as all of the two-way walkways between each location of the map
      */
     public CampusMap() {
-        this.campusGraph = CampusMap.createGraph();
+        this.liveGraph = new ConcurrentGraph<>(CampusMap.createGraph());
+        DoubleWeightedGraph<Point> campusGraph = CampusMap.takeSnapshot(liveGraph);
+        this.heuristic = CampusMap.straightLineHeuristic(campusGraph);
+        this.fallback = RoutingEngine.aStar(heuristic);
         this.shortToBuilding = CampusMap.mapShortToBuilding();
+        this.shortToNodeId = new HashMap<>();
+        for (String shortName : shortToBuilding.keySet()) {
+            CampusBuilding building = shortToBuilding.get(shortName);
+            shortToNodeId.put(shortName, campusGraph.getId(new Point(building.getX(), building.getY())));
+        }
+        this.routing = Routing.build(campusGraph, buildingIds(shortToNodeId), CampusMap.loadHierarchy(campusGraph));
+        this.rebuilder = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "CampusMap rebuilder");
+            // a rebuild that is still running must not keep the program alive
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.engines = new RoutingEngineRegistry<>();
+        registerEngines();
+        String configured = System.getProperty(ENGINE_PROPERTY);
+        this.defaultEngine = engines.contains(configured) ? configured : SearchMode.ROUTE_TABLE.getEngineName();
         checkRep();
     }
 
+    /**
+     * Registers the engine of every SearchMode under its engine name (helper procedure). The engines that answer
+     * from a precomputed structure use the one of the latest Routing if it was built for the snapshot they are
+     * passed, and otherwise answer with fallback on that snapshot, which is the case while the structures are
+     * being rebuilt after a closure.
+     *
+     * @spec.modifies engines
+     * @spec.effects adds an engine for every SearchMode to engines
+     */
+    private void registerEngines() {
+        engines.register(SearchMode.DIJKSTRA.getEngineName(), RoutingEngine.dijkstra());
+        engines.register(SearchMode.A_STAR.getEngineName(), RoutingEngine.aStar(heuristic));
+        engines.register(SearchMode.BIDIRECTIONAL.getEngineName(), RoutingEngine.bidirectional());
+        engines.register(SearchMode.LANDMARKS.getEngineName(), (graph, startId, endId, budget) -> {
+            Routing current = builtRouting(graph);
+            return (current == null) ? fallback.getShortestPathById(graph, startId, endId, budget)
+                    : findWithLandmarks(current.landmarks, startId, endId, budget);
+        });
+        // a hierarchy query only climbs to the top of the hierarchy and a table query does not search, so
+        // neither needs a budget
+        engines.register(SearchMode.CONTRACTION_HIERARCHY.getEngineName(), (graph, startId, endId, budget) -> {
+            Routing current = builtRouting(graph);
+            return (current == null) ? fallback.getShortestPathById(graph, startId, endId, budget)
+                    : current.hierarchy.getShortestPathById(startId, endId);
+        });
+        engines.register(SearchMode.CHAINS.getEngineName(), (graph, startId, endId, budget) -> {
+            Routing current = builtRouting(graph);
+            return (current == null) ? fallback.getShortestPathById(graph, startId, endId, budget)
+                    : current.chains.getShortestPathById(startId, endId, budget);
+        });
+        engines.register(SearchMode.ROUTE_TABLE.getEngineName(), (graph, startId, endId, budget) -> {
+            Routing current = builtRouting(graph);
+            return (current == null) ? fallback.getShortestPathById(graph, startId, endId, budget)
+                    : current.routeTable.getShortestPathById(startId, endId);
+        });
+    }
+
+    /**
+     * Returns the latest Routing if it has its structures and was built for the passed-in snapshot (helper
+     * procedure).
+     *
+     * @param graph the snapshot that a query runs against
+     * @return the latest Routing if its snapshot is graph and its structures are built, or null otherwise
+     */
+    private Routing builtRouting(DoubleWeightedGraph<Point> graph) {
+        Routing current = routing;
+        return (current.graph == graph && current.routeTable != null) ? current : null;
+    }
+
     /**
      * Returns a Graph where its nodes are each point along the campus and its edges represent a segment from one
      * point of the campus to another point, which can be represented as (Point1, Point2), with an edge label
@@ -114,35 +255,122 @@ public class CampusMap implements ModelAPI {
      * between two points with an edge label that stores the distance between the two points.
      */
     private static Graph<Point,Double> createGraph() {
-        Graph<Point, Double> campusGraph = new Graph<>();
-
         List<CampusBuilding> listOfBuildings = CampusPathsParser.parseCampusBuildings(buildingsFile);
+        List<CampusPath> listOfPaths = CampusPathsParser.parseCampusPaths(pathsFile);
+
+        // walkway points are shared by several paths, so there are about as many points as paths,
+        // and every path is an edge in each direction
+        Graph.Builder<Point,Double> builder = new Graph.Builder<>(
+                listOfBuildings.size() + listOfPaths.size(), 2 * listOfPaths.size());
         for (CampusBuilding building : listOfBuildings) {
-            Point buildingPt = new Point(building.getX(), building.getY());
-            if (!(campusGraph.containsNode(buildingPt))) {
-                campusGraph.addNode(buildingPt);
-            }
+            builder.addNode(new Point(building.getX(), building.getY()));
         }
-        List<CampusPath> listOfPaths = CampusPathsParser.parseCampusPaths(pathsFile);
         for (CampusPath path : listOfPaths) {
             Point startPt = new Point(path.getX1(), path.getY1());
             Point endPt = new Point(path.getX2(), path.getY2());
+            builder.addBidirectionalEdge(startPt, endPt, path.getDistance());
+        }
+        return builder.build();
+    }
 
-            if (!(campusGraph.containsNode(startPt))) {
-                campusGraph.addNode(startPt);
-            }
-            if (!(campusGraph.containsNode(endPt))) {
-                campusGraph.addNode(endPt);
-            }
+    /**
+     * Returns a weighted snapshot of the passed-in campus graph in which the locations are numbered along the
+     * Hilbert curve over their coordinates, so that nearby locations have nearby ids (helper procedure). The
+     * order only depends on the locations, so closing a path does not change the id of any location.
+     *
+     * @param liveGraph the campus graph to take a snapshot of
+     * @return a weighted snapshot of liveGraph with ids in Hilbert curve order
+     */
+    private static DoubleWeightedGraph<Point> takeSnapshot(ConcurrentGraph<Point,Double> liveGraph) {
+        DoubleWeightedGraph<Point> snapshot = DoubleWeightedGraph.of(liveGraph.snapshot().getGraph());
+        return snapshot.renumber(PointOrder.hilbert(snapshot));
+    }
+
+    /**
+     * Returns the distinct node ids of the buildings, which are the sources of the route table (helper procedure).
+     * Buildings at the same location share a node id.
+     *
+     * @param shortToNodeId the Map between the short name of each building and its node id
+     * @return the distinct node ids that shortToNodeId maps to
+     */
+    private static int[] buildingIds(Map<String,Integer> shortToNodeId) {
+        return new TreeSet<>(shortToNodeId.values()).stream().mapToInt(Integer::intValue).toArray();
+    }
 
-            if (!(campusGraph.containsEdge(startPt, endPt, path.getDistance()))) {
-                campusGraph.addEdge(startPt, endPt, path.getDistance());
+    /**
+     * Returns the Contraction Hierarchy for the passed-in campus graph (helper procedure). If the system property
+     * HIERARCHY_FILE_PROPERTY names a file that holds a hierarchy saved for the same graph, that hierarchy is
+     * read back; otherwise a new one is built and, if the property is set, saved to that file for the next run.
+     * A missing, outdated or unreadable file only means that the hierarchy is built again.
+     *
+     * @param graph the campus graph to get the hierarchy of
+     * @return a Contraction Hierarchy for graph
+     */
+    private static ContractionHierarchy<Point> loadHierarchy(DoubleWeightedGraph<Point> graph) {
+        String fileName = System.getProperty(HIERARCHY_FILE_PROPERTY);
+        if (fileName == null) {
+            return ContractionHierarchy.build(graph);
+        }
+        File file = new File(fileName);
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                return ContractionHierarchy.readFrom(in, graph);
+            } catch (IOException | IllegalArgumentException e) {
+                // the saved hierarchy cannot be used, so build and save a new one
             }
-            if (!(campusGraph.containsEdge(endPt, startPt, path.getDistance()))) {
-                campusGraph.addEdge(endPt, startPt, path.getDistance());
+        }
+        ContractionHierarchy<Point> built = ContractionHierarchy.build(graph);
+        try (OutputStream out = new FileOutputStream(file)) {
+            built.writeTo(out);
+        } catch (IOException e) {
+            // saving is only an optimization for the next run
+        }
+        return built;
+    }
+
+    /**
+     * Returns a heuristic for A* search that estimates the walking distance between two points from the
+     * straight-line distance between them. The coordinates of the map and the distances of
+     * the walkways are not in the same unit, so the straight-line distance is scaled by the smallest ratio of
+     * walkway distance to straight-line length over all walkways of the passed-in graph. Any route is then at
+     * least as long as the scaled straight-line distance between its ends, so the estimate never overestimates
+     * and is consistent. Closing paths only removes walkways, so the estimate stays valid after closures.
+     *
+     * @param graph the campus graph that the heuristic will be used on
+     * @throws IllegalArgumentException if graph == null
+     * @return a consistent heuristic for the walking distance between two points of graph
+     */
+    public static ToDoubleBiFunction<Point,Point> straightLineHeuristic(DoubleWeightedGraph<Point> graph)
+            throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        double scale = Double.POSITIVE_INFINITY;
+        for (int id = 0; id < graph.getNodeCount(); id++) {
+            Point from = graph.getNode(id);
+            for (int k = graph.getEdgeStart(id); k < graph.getEdgeEnd(id); k++) {
+                double length = CampusMap.straightLineDistance(from, graph.getNode(graph.getTarget(k)));
+                if (length > 0) {
+                    scale = Math.min(scale, graph.getWeight(k) / length);
+                }
             }
         }
-        return campusGraph;
+        // no walkway has any length, so fall back to no estimate at all
+        double factor = (scale == Double.POSITIVE_INFINITY) ? 0 : scale;
+        return (from, to) -> factor * CampusMap.straightLineDistance(from, to);
+    }
+
+    /**
+     * Returns the straight-line distance between two points in map coordinates (helper procedure).
+     *
+     * @param first one of the points
+     * @param second the other point
+     * @return the straight-line distance between first and second
+     */
+    private static double straightLineDistance(Point first, Point second) {
+        double dx = first.getX() - second.getX();
+        double dy = first.getY() - second.getY();
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     /**
@@ -193,20 +421,300 @@ public class CampusMap implements ModelAPI {
         return mapBuildingNames;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The path is found by the default engine, which is the one named by the system property ENGINE_PROPERTY
+     * when the map was created, "table" if that property names no engine, or the one set by
+     * setDefaultEngine.</p>
+     */
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) throws IllegalArgumentException{
-        if (startShortName == null || endShortName == null ||
+        return findShortestPath(startShortName, endShortName, defaultEngine);
+    }
+
+    /**
+     * Finds the shortest path between the two buildings with the passed-in short names using the passed-in
+     * search algorithm. Every SearchMode returns a path with the same cost.
+     *
+     * @param startShortName the short name of the building to start at
+     * @param endShortName the short name of the building to end at
+     * @param mode the search algorithm to use
+     * @throws IllegalArgumentException if any argument is null, or if either short name is not a building
+     * @return the shortest path between the two buildings, or null if there is none
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchMode mode)
+            throws IllegalArgumentException {
+        if (mode == null) {
+            checkRep();
+            throw new IllegalArgumentException();
+        }
+        return findShortestPath(startShortName, endShortName, mode.getEngineName());
+    }
+
+    /**
+     * Finds the shortest path between the two buildings with the passed-in short names using the engine
+     * registered under the passed-in name, for example "dijkstra" or "astar". Every engine of a SearchMode
+     * returns a path with the same cost.
+     *
+     * @param startShortName the short name of the building to start at
+     * @param endShortName the short name of the building to end at
+     * @param engineName the name of the engine to use
+     * @throws IllegalArgumentException if any argument is null, if either short name is not a building, or if
+     *                                  !(hasEngine(engineName))
+     * @return the shortest path between the two buildings, or null if there is none
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, String engineName)
+            throws IllegalArgumentException {
+        return findShortestPath(startShortName, endShortName, engineName, SearchBudget.unlimited());
+    }
+
+    /**
+     * Finds the shortest path between the two buildings with the passed-in short names using the engine
+     * registered under the passed-in name, giving up once the passed-in budget is used up. Otherwise behaves
+     * the same as findShortestPath(String, String, String).
+     *
+     * @param startShortName the short name of the building to start at
+     * @param endShortName the short name of the building to end at
+     * @param engineName the name of the engine to use
+     * @param budget the limit on the work of the search
+     * @throws IllegalArgumentException if any argument is null, if either short name is not a building, or if
+     *                                  !(hasEngine(engineName))
+     * @throws SearchBudgetExceededException if the budget is used up before the engine is done
+     * @return the shortest path between the two buildings, or null if there is none
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, String engineName,
+                                        SearchBudget budget)
+            throws IllegalArgumentException, SearchBudgetExceededException {
+        if (startShortName == null || endShortName == null || budget == null || !(engines.contains(engineName)) ||
                 !(shortToBuilding.containsKey(startShortName)) || !(shortToBuilding.containsKey(endShortName))) {
             checkRep();
             throw new IllegalArgumentException();
         }
-        // obtain the starting point and the ending point
-        Point startPt = new Point(shortToBuilding.get(startShortName).getX(), shortToBuilding.get(startShortName).getY());
-        Point endPt = new Point(shortToBuilding.get(endShortName).getX(), shortToBuilding.get(endShortName).getY());
-        Path<Point> shortestPath = ShortestPath.getShortestPath(campusGraph, startPt, endPt);
+        // obtain the ids of the starting point and the ending point
+        int startId = shortToNodeId.get(startShortName);
+        int endId = shortToNodeId.get(endShortName);
+        // read the routing once so that the whole query runs against the same map
+        Routing current = routing;
+        if (current.components[startId] != current.components[endId]) {
+            checkRep();
+            return null;
+        }
+        Path<Point> shortestPath = engines.get(engineName).getShortestPathById(current.graph, startId, endId, budget);
         checkRep();
         return shortestPath;
+    }
+
+    /**
+     * @param engineName the name to look up
+     * @return true iff findShortestPath can use an engine with the passed-in name
+     */
+    public boolean hasEngine(String engineName) {
+        return engines.contains(engineName);
+    }
+
+    /**
+     * @return an unmodifiable set of the names of the engines that findShortestPath can use, in alphabetical
+     * order
+     */
+    public Set<String> engineNames() {
+        return engines.names();
+    }
+
+    /**
+     * Registers another engine that findShortestPath can use, for example to compare a new algorithm with the
+     * existing ones on real queries. An engine registered under the engine name of a SearchMode replaces the
+     * engine of that mode.
+     *
+     * @param engineName the name to register the engine under
+     * @param engine the engine to register
+     * @throws IllegalArgumentException if engineName == null or engine == null
+     * @spec.effects findShortestPath with engineName uses engine from now on
+     */
+    public void registerEngine(String engineName, RoutingEngine<Point> engine) throws IllegalArgumentException {
+        engines.register(engineName, engine);
+        checkRep();
+    }
+
+    /**
+     * @return the name of the engine that findShortestPath(String, String) uses
+     */
+    public String getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    /**
+     * Switches the engine that findShortestPath(String, String) uses, which takes effect for the queries that
+     * start afterwards.
+     *
+     * @param engineName the name of the engine to use by default
+     * @throws IllegalArgumentException if !(hasEngine(engineName))
+     * @spec.effects findShortestPath(String, String) uses the engine named engineName from now on
+     */
+    public void setDefaultEngine(String engineName) throws IllegalArgumentException {
+        if (!(engines.contains(engineName))) {
+            throw new IllegalArgumentException();
+        }
+        defaultEngine = engineName;
+        checkRep();
+    }
+
+    /**
+     * Builds the structures of the passed-in snapshot and publishes them, unless a later closure has replaced the
+     * snapshot in the meantime (helper procedure). Runs on the rebuilder thread.
+     *
+     * @param graph the snapshot to build the structures of
+     * @spec.modifies routing
+     * @spec.effects if routing.graph == graph, sets routing to a Routing of graph with all of its structures
+     */
+    private void rebuild(DoubleWeightedGraph<Point> graph) {
+        if (routing.graph != graph) {
+            return;
+        }
+        Routing built = Routing.build(graph, buildingIds(shortToNodeId), ContractionHierarchy.build(graph));
+        // closePath holds the same lock, so no closure can slip in between the check and the write
+        synchronized (this) {
+            if (routing.graph == graph) {
+                routing = built;
+            }
+        }
+    }
 
+    /**
+     * Finds the shortest path between the nodes with the passed-in ids with A* search, guided by the larger of
+     * the landmark bound and the straight-line estimate (helper procedure). Both are consistent, so their
+     * maximum is too, and it is never further from the true distance than either of them.
+     *
+     * @param current the landmarks to search with, whose snapshot the search runs against
+     * @param startId the id of the node to start at
+     * @param endId the id of the node to end at
+     * @param budget the limit on the work of the search
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @return the shortest path between the two nodes, or null if there is none
+     */
+    private Path<Point> findWithLandmarks(Landmarks<Point> current, int startId, int endId, SearchBudget budget)
+            throws SearchBudgetExceededException {
+        DoubleWeightedGraph<Point> graph = current.getGraph();
+        Point end = graph.getNode(endId);
+        return ShortestPath.getShortestPathByIdGuided(graph, startId, endId, id -> Math.max(
+                current.lowerBound(id, endId), heuristic.applyAsDouble(graph.getNode(id), end)), budget);
     }
 
+    /**
+     * Closes the path between the two passed-in locations in both directions, for example because of construction
+     * or an event. Only the edges between the two locations are removed, so the ids of every location stay the
+     * same, and queries that start after this method returns will route around the closure.
+     *
+     * <p>Only the new snapshot and its component labels are made before this method returns. The route table, the
+     * Contraction Hierarchy, the landmark tables and the collapsed chains are built again on a background thread,
+     * and until they are done, the engines that use them answer with A* search on the new snapshot instead. If
+     * another closure comes first, the older rebuild is dropped.</p>
+     *
+     * @param first one end of the path to close
+     * @param second the other end of the path to close
+     * @throws IllegalArgumentException if first == null or second == null
+     * @spec.modifies paths
+     * @spec.effects removes the paths from first to second and from second to first
+     * @return true iff there was a path between the two locations to close. Otherwise, returns false.
+     */
+    public synchronized boolean closePath(Point first, Point second) throws IllegalArgumentException {
+        checkRep();
+        if (first == null || second == null) {
+            checkRep();
+            throw new IllegalArgumentException();
+        }
+        boolean[] closed = new boolean[1];
+        liveGraph.update(graph -> {
+            if (graph.containsNode(first) && graph.containsNode(second)) {
+                // the Writer hands out copies, so the edges can be removed while walking them
+                for (Graph.Edge<Point,Double> edge : graph.getEdgesBetween(first, second)) {
+                    graph.removeEdge(first, second, edge.getLabel());
+                    closed[0] = true;
+                }
+                for (Graph.Edge<Point,Double> edge : graph.getEdgesBetween(second, first)) {
+                    graph.removeEdge(second, first, edge.getLabel());
+                    closed[0] = true;
+                }
+            }
+        });
+        if (closed[0]) {
+            Routing updated = new Routing(CampusMap.takeSnapshot(liveGraph));
+            routing = updated;
+            rebuilder.execute(() -> rebuild(updated.graph));
+        }
+        checkRep();
+        return closed[0];
+    }
+
+    /**
+     * <p>Routing is an immutable bundle of a snapshot of the campus and the structures that routing derives from
+     * it. Its component labels are always there, since they are cheap to find, while the route table, the
+     * Contraction Hierarchy, the landmarks and the collapsed chains are either all there or, while they are
+     * being built on the rebuilder thread, all null.</p>
+     */
+    private static final class Routing {
+
+        /** The snapshot that everything else was built for. */
+        private final DoubleWeightedGraph<Point> graph;
+
+        /** The strongly connected component of each node id of graph. Every walkway goes both ways, so two
+         *  locations can reach each other iff they share a component, and queries between different components
+         *  are answered without running any engine. */
+        private final int[] components;
+
+        /** The shortest paths from every building in graph, which the default route queries read, or null. */
+        private final RouteTable<Point> routeTable;
+
+        /** The Contraction Hierarchy of graph, or null. */
+        private final ContractionHierarchy<Point> hierarchy;
+
+        /** The landmarks of graph, whose distance tables guide LANDMARKS searches, or null. */
+        private final Landmarks<Point> landmarks;
+
+        /** The graph with every chain of walkway points between buildings and junctions collapsed, or null. */
+        private final ChainContraction<Point> chains;
+
+        /**
+         * Creates a Routing with the component labels of the passed-in snapshot and no other structures.
+         *
+         * @param graph the snapshot to route on
+         */
+        private Routing(DoubleWeightedGraph<Point> graph) {
+            this(graph, Connectivity.strongComponents(graph), null, null, null, null);
+        }
+
+        /**
+         * @param graph the snapshot to route on
+         * @param components the component labels of graph
+         * @param routeTable the route table of graph
+         * @param hierarchy the Contraction Hierarchy of graph
+         * @param landmarks the landmarks of graph
+         * @param chains the collapsed chains of graph
+         */
+        private Routing(DoubleWeightedGraph<Point> graph, int[] components, RouteTable<Point> routeTable,
+                        ContractionHierarchy<Point> hierarchy, Landmarks<Point> landmarks,
+                        ChainContraction<Point> chains) {
+            this.graph = graph;
+            this.components = components;
+            this.routeTable = routeTable;
+            this.hierarchy = hierarchy;
+            this.landmarks = landmarks;
+            this.chains = chains;
+        }
+
+        /**
+         * Builds a Routing with every structure of the passed-in snapshot.
+         *
+         * @param graph the snapshot to route on
+         * @param buildingIds the node ids of the buildings, which the route table has the paths from
+         * @param hierarchy the Contraction Hierarchy of graph
+         * @return a Routing of graph with all of its structures
+         */
+        private static Routing build(DoubleWeightedGraph<Point> graph, int[] buildingIds,
+                                     ContractionHierarchy<Point> hierarchy) {
+            RouteTable<Point> routeTable = RouteTable.build(graph, buildingIds);
+            return new Routing(graph, Connectivity.strongComponents(graph), routeTable, hierarchy,
+                    Landmarks.select(graph, LANDMARK_COUNT), ChainContraction.build(graph, routeTable::isSource));
+        }
+    }
 }
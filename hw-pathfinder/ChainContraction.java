@@ -0,0 +1,337 @@
+package pathfinder;
+
+import graph.CompiledGraph;
+import graph.DoubleWeightedGraph;
+import graph.Graph;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * <p>This immutable class represents a weighted snapshot in which every chain of pass-through nodes has been
+ * collapsed into a single edge. A node is a pass-through node if it is not kept, has exactly two neighbors, and
+ * is joined to each of them by exactly one edge in each direction, like the intermediate points of a walkway
+ * that only bends. Each chain from a remaining node through pass-through nodes to the next remaining node
+ * becomes one super-edge whose weight is the sum of the weights along the chain, and whose expansion lists the
+ * pass-through nodes and the weight of every original edge.</p>
+ *
+ * <p>Searches between remaining nodes run on the contracted snapshot, which has far fewer nodes and edges, and
+ * only the super-edges of the returned path are expanded back into original nodes. A search that starts or ends
+ * at a pass-through node runs on the original snapshot instead. The contracted snapshot is only valid for the
+ * snapshot it was built from.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>graph : the weighted snapshot that the chains were collapsed in. // The graph.</p>
+ * @spec.specfield <p>remaining : a set of node ids of graph that are not pass-through nodes, which includes every
+ *                              kept node. // The remaining nodes.</p>
+ * @spec.specfield <p>superEdges : a set of chains of graph that start and end at a remaining node and only pass
+ *                              through other nodes. // The collapsed chains.</p>
+ */
+public class ChainContraction<N> {
+
+    /** The weighted snapshot that the chains were collapsed in. */
+    private final DoubleWeightedGraph<N> graph;
+
+    /** The contracted snapshot, whose nodes are the original ids of the remaining nodes. */
+    private final DoubleWeightedGraph<Integer> contracted;
+
+    /** The id in contracted of each original node id, or -1 for a pass-through node. */
+    private final int[] contractedIds;
+
+    /** The super-edge of each edge index of contracted. */
+    private final int[] superEdgeOfArc;
+
+    /** The first index in interiors and hopWeights of each super-edge, followed by the length of interiors. */
+    private final int[] expansionOffsets;
+
+    /** The original ids of the pass-through nodes of every super-edge, in order along the chain. */
+    private final int[] interiors;
+
+    /** The weight of every original edge of every super-edge, with one more entry per super-edge than interiors. */
+    private final double[] hopWeights;
+
+    /** The original id at the end of each super-edge. */
+    private final int[] superEdgeEnds;
+
+    // Abstraction Function:
+    //    AF(r) = contraction c such that
+    //      c.graph = r.graph
+    //      c.remaining = {i | r.contractedIds[i] != -1}
+    //      c.superEdges = for each super-edge s, the chain that runs from the source of the arc of s in
+    //                     r.contracted through r.interiors[r.expansionOffsets[s] .. r.expansionOffsets[s + 1] - 1]
+    //                     to r.superEdgeEnds[s], where hop j has weight r.hopWeights[r.expansionOffsets[s] + s + j]
+    //
+    // Representation Invariant for every ChainContraction c:
+    //  graph != null && contracted != null && every array != null &&
+    //  contractedIds.length == graph.getNodeCount() &&
+    //  contracted.getNode(contractedIds[i]) == i for every remaining node id i &&
+    //  superEdgeOfArc.length == contracted.getEdgeCount() == superEdgeEnds.length &&
+    //  expansionOffsets.length == superEdgeEnds.length + 1 && expansionOffsets is non-decreasing &&
+    //  hopWeights.length == interiors.length + superEdgeEnds.length &&
+    //  the weight of the arc of each super-edge is the sum of its hop weights
+    //  In other words:
+    //  - The contracted snapshot holds exactly the remaining nodes, named by their original ids
+    //  - Each arc of the contracted snapshot is one super-edge, which expands into its original chain
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert graph != null && contracted != null : "contraction should be created";
+        assert contractedIds.length == graph.getNodeCount() : "every node should have a contracted id";
+        assert superEdgeOfArc.length == contracted.getEdgeCount() : "every arc should be a super-edge";
+        assert expansionOffsets.length == superEdgeEnds.length + 1 : "every super-edge should have an expansion";
+        assert hopWeights.length == interiors.length + superEdgeEnds.length : "every hop should have a weight";
+    }
+
+    /**
+     * Creates a new contraction from the passed-in tables (helper constructor).
+     *
+     * @param graph the weighted snapshot that the chains were collapsed in
+     * @param contracted the contracted snapshot
+     * @param contractedIds the id in contracted of each original node id, or -1
+     * @param superEdgeOfArc the super-edge of each edge index of contracted
+     * @param expansionOffsets the first index of the expansion of each super-edge
+     * @param interiors the pass-through nodes of every super-edge
+     * @param hopWeights the weight of every original edge of every super-edge
+     * @param superEdgeEnds the original id at the end of each super-edge
+     * @spec.requires the arguments satisfy the representation invariant and are not modified afterwards
+     * @spec.effects sets graph, remaining and superEdges as described by the passed-in tables
+     */
+    private ChainContraction(DoubleWeightedGraph<N> graph, DoubleWeightedGraph<Integer> contracted,
+                             int[] contractedIds, int[] superEdgeOfArc, int[] expansionOffsets, int[] interiors,
+                             double[] hopWeights, int[] superEdgeEnds) {
+        this.graph = graph;
+        this.contracted = contracted;
+        this.contractedIds = contractedIds;
+        this.superEdgeOfArc = superEdgeOfArc;
+        this.expansionOffsets = expansionOffsets;
+        this.interiors = interiors;
+        this.hopWeights = hopWeights;
+        this.superEdgeEnds = superEdgeEnds;
+        checkRep();
+    }
+
+    /**
+     * Collapses every chain of pass-through nodes of the passed-in snapshot. The nodes that the passed-in
+     * predicate accepts always remain, so that searches between them never fall back to the original snapshot.
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot to collapse the chains of
+     * @param keep accepts the ids of the nodes that must remain, such as the nodes that queries start and end at
+     * @throws IllegalArgumentException if graph == null or keep == null
+     * @return the contraction of graph
+     */
+    public static <N> ChainContraction<N> build(DoubleWeightedGraph<N> graph, IntPredicate keep)
+            throws IllegalArgumentException {
+        if (graph == null || keep == null) {
+            throw new IllegalArgumentException();
+        }
+        int nodeCount = graph.getNodeCount();
+        boolean[] passThrough = new boolean[nodeCount];
+        DoubleWeightedGraph<N> reverse = graph.reverse();
+        for (int id = 0; id < nodeCount; id++) {
+            passThrough[id] = !keep.test(id) && isPassThrough(graph, reverse, id);
+        }
+
+        // the remaining nodes keep their relative order, so the contracted ids follow the original ids
+        int[] contractedIds = new int[nodeCount];
+        int remainingCount = 0;
+        for (int id = 0; id < nodeCount; id++) {
+            contractedIds[id] = passThrough[id] ? -1 : remainingCount++;
+        }
+
+        List<Integer> superEdgeStarts = new ArrayList<>();
+        List<Integer> superEdgeEnds = new ArrayList<>();
+        List<Double> superEdgeWeights = new ArrayList<>();
+        List<Integer> expansionOffsets = new ArrayList<>();
+        List<Integer> interiors = new ArrayList<>();
+        List<Double> hopWeights = new ArrayList<>();
+        for (int source = 0; source < nodeCount; source++) {
+            if (passThrough[source]) {
+                continue;
+            }
+            for (int k = graph.getEdgeStart(source); k < graph.getEdgeEnd(source); k++) {
+                int interiorStart = interiors.size();
+                int hopStart = hopWeights.size();
+                int previous = source;
+                int current = graph.getTarget(k);
+                double hop = graph.getWeight(k);
+                double weight = hop;
+                hopWeights.add(hop);
+                // a chain cannot be longer than the number of nodes, which also guards against any cycle
+                for (int steps = 0; passThrough[current] && steps < nodeCount; steps++) {
+                    interiors.add(current);
+                    int next = -1;
+                    for (int j = graph.getEdgeStart(current); j < graph.getEdgeEnd(current); j++) {
+                        if (graph.getTarget(j) != previous) {
+                            next = graph.getTarget(j);
+                            hop = graph.getWeight(j);
+                        }
+                    }
+                    weight = weight + hop;
+                    hopWeights.add(hop);
+                    previous = current;
+                    current = next;
+                }
+                if (current == source || passThrough[current]) {
+                    // a loop back to the source is never part of a shortest path
+                    interiors.subList(interiorStart, interiors.size()).clear();
+                    hopWeights.subList(hopStart, hopWeights.size()).clear();
+                    continue;
+                }
+                expansionOffsets.add(interiorStart);
+                superEdgeStarts.add(source);
+                superEdgeEnds.add(current);
+                superEdgeWeights.add(weight);
+            }
+        }
+        expansionOffsets.add(interiors.size());
+
+        // label each arc with its super-edge, so that parallel chains between the same two nodes stay apart
+        int superEdgeCount = superEdgeEnds.size();
+        Graph.Builder<Integer,Integer> builder = new Graph.Builder<>(remainingCount, superEdgeCount);
+        for (int id = 0; id < nodeCount; id++) {
+            if (!passThrough[id]) {
+                builder.addNode(id);
+            }
+        }
+        for (int s = 0; s < superEdgeCount; s++) {
+            builder.addEdge(superEdgeStarts.get(s), superEdgeEnds.get(s), s);
+        }
+        CompiledGraph<Integer,Integer> compiled = builder.build().compile();
+        DoubleWeightedGraph<Integer> contracted = DoubleWeightedGraph.of(compiled, superEdgeWeights::get);
+        for (int id = 0; id < nodeCount; id++) {
+            if (!passThrough[id]) {
+                contractedIds[id] = compiled.getId(id);
+            }
+        }
+        int[] superEdgeOfArc = new int[compiled.getEdgeCount()];
+        for (int k = 0; k < superEdgeOfArc.length; k++) {
+            superEdgeOfArc[k] = compiled.getLabel(k);
+        }
+        return new ChainContraction<>(graph, contracted, contractedIds, superEdgeOfArc,
+                expansionOffsets.stream().mapToInt(Integer::intValue).toArray(),
+                interiors.stream().mapToInt(Integer::intValue).toArray(),
+                hopWeights.stream().mapToDouble(Double::doubleValue).toArray(),
+                superEdgeEnds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Returns true iff the passed-in node has exactly two neighbors and exactly one edge to and one edge from each
+     * of them (helper procedure).
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot that the node is in
+     * @param reverse the reverse of graph
+     * @param id the id of the node to check
+     * @return true iff the node with id id could be a pass-through node
+     */
+    private static <N> boolean isPassThrough(DoubleWeightedGraph<N> graph, DoubleWeightedGraph<N> reverse, int id) {
+        int start = graph.getEdgeStart(id);
+        int reverseStart = reverse.getEdgeStart(id);
+        if (graph.getEdgeEnd(id) - start != 2 || reverse.getEdgeEnd(id) - reverseStart != 2) {
+            return false;
+        }
+        int first = graph.getTarget(start);
+        int second = graph.getTarget(start + 1);
+        if (first == second || first == id || second == id) {
+            return false;
+        }
+        int parent = reverse.getTarget(reverseStart);
+        int otherParent = reverse.getTarget(reverseStart + 1);
+        return (parent == first && otherParent == second) || (parent == second && otherParent == first);
+    }
+
+    /**
+     * Finds the shortest path between the nodes with the passed-in ids. If both nodes remain, the search runs on
+     * the contracted snapshot and the super-edges of the result are expanded; otherwise it runs on the original
+     * snapshot.
+     *
+     * @param startId the id of the starting node of the path
+     * @param endId the id of the ending node of the path
+     * @param budget the limit on the work of the search
+     * @throws IllegalArgumentException if budget == null, or if startId or endId is not a node id of the graph
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public Path<N> getShortestPathById(int startId, int endId, SearchBudget budget)
+            throws IllegalArgumentException, SearchBudgetExceededException {
+        if (budget == null || startId < 0 || startId >= contractedIds.length ||
+                endId < 0 || endId >= contractedIds.length) {
+            throw new IllegalArgumentException();
+        }
+        int start = contractedIds[startId];
+        int end = contractedIds[endId];
+        if (start == -1 || end == -1) {
+            return ShortestPath.getShortestPathById(graph, startId, endId, budget);
+        }
+        Path<Integer> route = ShortestPath.getShortestPathById(contracted, start, end, budget);
+        return (route == null) ? null : expand(route);
+    }
+
+    /**
+     * Expands every super-edge of the passed-in path over the contracted snapshot into its original nodes and
+     * edges (helper procedure). Each segment of the path took the lightest arc between its two nodes, which is
+     * the arc that is expanded.
+     *
+     * @param route a path over the contracted snapshot
+     * @return the same route as a path over the original snapshot
+     */
+    private Path<N> expand(Path<Integer> route) {
+        List<N> nodes = new ArrayList<>();
+        double[] costs = new double[0];
+        int costCount = 0;
+        for (Path<Integer>.Segment segment : route) {
+            int from = contractedIds[segment.getStart()];
+            int to = contractedIds[segment.getEnd()];
+            int arc = -1;
+            for (int k = contracted.getEdgeStart(from); k < contracted.getEdgeEnd(from); k++) {
+                if (contracted.getTarget(k) == to &&
+                        (arc == -1 || contracted.getWeight(k) < contracted.getWeight(arc))) {
+                    arc = k;
+                }
+            }
+            int superEdge = superEdgeOfArc[arc];
+            int first = expansionOffsets[superEdge];
+            int last = expansionOffsets[superEdge + 1];
+            int hops = last - first + 1;
+            if (costCount + hops > costs.length) {
+                costs = Arrays.copyOf(costs, Math.max(2 * costs.length, costCount + hops));
+            }
+            for (int i = first; i < last; i++) {
+                nodes.add(graph.getNode(interiors[i]));
+            }
+            nodes.add(graph.getNode(superEdgeEnds[superEdge]));
+            // the hops of a super-edge come after the hops of every earlier super-edge, one more than its interiors
+            System.arraycopy(hopWeights, first + superEdge, costs, costCount, hops);
+            costCount += hops;
+        }
+        return new Path<>(graph.getNode(route.getStart())).extend(nodes, Arrays.copyOf(costs, costCount));
+    }
+
+    /**
+     * @return the weighted snapshot that the chains were collapsed in
+     */
+    public DoubleWeightedGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the contracted snapshot, whose nodes are the original ids of the remaining nodes
+     */
+    public DoubleWeightedGraph<Integer> getContractedGraph() {
+        return contracted;
+    }
+
+    /**
+     * @param id a node id of the graph
+     * @return true iff the node with the passed-in id remains in the contracted snapshot
+     */
+    public boolean isRemaining(int id) {
+        return contractedIds[id] != -1;
+    }
+}
@@ -0,0 +1,840 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import graph.Graph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.NodeQueue;
+import pathfinder.datastructures.Path;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * <p>This immutable class represents a Contraction Hierarchy over a weighted snapshot, which answers shortest
+ * path queries much faster than a plain search once it has been built.</p>
+ *
+ * <p>Building the hierarchy contracts the nodes one at a time, least important first. Contracting a node takes
+ * it out of the remaining graph, and adds a shortcut arc from each remaining parent to each remaining child
+ * whenever the path through the contracted node is the only shortest way between them. The order in which the
+ * nodes are contracted is their rank. Every shortest path in the snapshot then has an equally short path in the
+ * hierarchy that first only goes up in rank and then only goes down, so a query runs a bidirectional search
+ * that only ever follows arcs to higher-ranked nodes and finishes a tiny part of the graph. The shortcuts on the
+ * path that it finds are then unpacked back into edges of the snapshot.</p>
+ *
+ * <p>A hierarchy is only valid for the snapshot it was built for. It can be saved with writeTo(OutputStream)
+ * and read back with readFrom(InputStream, DoubleWeightedGraph) so that it does not have to be built again for
+ * the same snapshot.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>graph : the weighted snapshot that the hierarchy was built for. // The graph.</p>
+ * @spec.specfield <p>rank : a sequence giving the contraction order of each node id. // The node ordering.</p>
+ * @spec.specfield <p>shortcuts : a set of (source id, target id, weight) arcs that each stand for a path of
+ *                                  graph. // The added shortcut arcs.</p>
+ */
+public class ContractionHierarchy<N> {
+
+    /** The first int of a saved hierarchy. */
+    private static final int MAGIC = 0x43484831;
+
+    /** The most nodes that a witness search finishes before it gives up and the shortcut is kept. */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /** The weighted snapshot that the hierarchy was built for. */
+    private final DoubleWeightedGraph<N> graph;
+
+    /** The contraction order of each node id. */
+    private final int[] rank;
+
+    /** The source node id of each arc, where arcs 0 to graph.getEdgeCount() - 1 are the edges of graph. */
+    private final int[] arcFrom;
+
+    /** The target node id of each arc. */
+    private final int[] arcTo;
+
+    /** The weight of each arc. */
+    private final double[] arcWeight;
+
+    /** The first of the two arcs that each shortcut stands for, or -1 for an edge of graph. */
+    private final int[] arcFirst;
+
+    /** The second of the two arcs that each shortcut stands for, or -1 for an edge of graph. */
+    private final int[] arcSecond;
+
+    /** The first index into upArcs of each node id, with upOffsets[n] == upArcs.length. */
+    private final int[] upOffsets;
+
+    /** The arcs that go from a node to a higher-ranked node, grouped by their source. */
+    private final int[] upArcs;
+
+    /** The first index into downArcs of each node id, with downOffsets[n] == downArcs.length. */
+    private final int[] downOffsets;
+
+    /** The arcs that go from a higher-ranked node to a node, grouped by their target. */
+    private final int[] downArcs;
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    // Abstraction Function:
+    //    AF(r) = hierarchy h such that
+    //      h.graph = r.graph
+    //      h.rank = r.rank
+    //      h.shortcuts = {(r.arcFrom[a], r.arcTo[a], r.arcWeight[a]) | r.graph.getEdgeCount() <= a < r.arcFrom.length}
+    //
+    // Representation Invariant for every ContractionHierarchy h:
+    //  all fields != null && rank is a permutation of 0 to graph.getNodeCount() - 1 &&
+    //  the arc arrays all have the same length m >= graph.getEdgeCount() &&
+    //  for all a < graph.getEdgeCount(), arc a is edge a of graph and arcFirst[a] == arcSecond[a] == -1 &&
+    //  for all a >= graph.getEdgeCount(), arcFirst[a] < a && arcSecond[a] < a &&
+    //      arcFrom[a] == arcFrom[arcFirst[a]] && arcTo[arcFirst[a]] == arcFrom[arcSecond[a]] &&
+    //      arcTo[arcSecond[a]] == arcTo[a] && arcWeight[a] == arcWeight[arcFirst[a]] + arcWeight[arcSecond[a]] &&
+    //  upArcs holds exactly the arcs a with rank[arcFrom[a]] < rank[arcTo[a]], grouped by arcFrom[a] &&
+    //  downArcs holds exactly the arcs a with rank[arcFrom[a]] > rank[arcTo[a]], grouped by arcTo[a]
+    //  In other words:
+    //  - Every node has a distinct rank
+    //  - The first arcs are the edges of the snapshot, and every later arc is a shortcut for two earlier arcs
+    //    that meet at a node of lower rank than both of its ends
+    //  - The upward and downward arc lists hold every arc that is not a loop, each in the right direction
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert graph != null && rank != null : "hierarchy should be created";
+        assert arcFrom.length == arcTo.length && arcFrom.length == arcWeight.length : "arc arrays differ";
+        if (DEBUG) {
+            for (int a = graph.getEdgeCount(); a < arcFrom.length; a++) {
+                assert arcFirst[a] < a && arcSecond[a] < a : "a shortcut refers to a later arc";
+                assert arcFrom[arcFirst[a]] == arcFrom[a] && arcTo[arcSecond[a]] == arcTo[a] : "shortcut ends differ";
+                assert arcTo[arcFirst[a]] == arcFrom[arcSecond[a]] : "shortcut halves do not meet";
+            }
+            for (int i = 0; i < upArcs.length; i++) {
+                assert rank[arcFrom[upArcs[i]]] < rank[arcTo[upArcs[i]]] : "an upward arc goes down";
+            }
+            for (int i = 0; i < downArcs.length; i++) {
+                assert rank[arcFrom[downArcs[i]]] > rank[arcTo[downArcs[i]]] : "a downward arc goes up";
+            }
+        }
+    }
+
+    /**
+     * Creates a new hierarchy from the passed-in node ordering and arcs, and groups the arcs into the upward and
+     * downward lists that queries walk (helper constructor).
+     *
+     * @param graph the weighted snapshot that the hierarchy is for
+     * @param rank the contraction order of each node id
+     * @param arcFrom the source node id of each arc
+     * @param arcTo the target node id of each arc
+     * @param arcWeight the weight of each arc
+     * @param arcFirst the first of the two arcs that each shortcut stands for, or -1
+     * @param arcSecond the second of the two arcs that each shortcut stands for, or -1
+     * @spec.requires the arguments satisfy the representation invariant and are not modified afterwards
+     */
+    private ContractionHierarchy(DoubleWeightedGraph<N> graph, int[] rank, int[] arcFrom, int[] arcTo,
+                                 double[] arcWeight, int[] arcFirst, int[] arcSecond) {
+        this.graph = graph;
+        this.rank = rank;
+        this.arcFrom = arcFrom;
+        this.arcTo = arcTo;
+        this.arcWeight = arcWeight;
+        this.arcFirst = arcFirst;
+        this.arcSecond = arcSecond;
+
+        int nodeCount = graph.getNodeCount();
+        this.upOffsets = new int[nodeCount + 1];
+        this.downOffsets = new int[nodeCount + 1];
+        for (int a = 0; a < arcFrom.length; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) {
+                upOffsets[arcFrom[a] + 1]++;
+            } else if (rank[arcFrom[a]] > rank[arcTo[a]]) {
+                downOffsets[arcTo[a] + 1]++;
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            upOffsets[i + 1] += upOffsets[i];
+            downOffsets[i + 1] += downOffsets[i];
+        }
+        this.upArcs = new int[upOffsets[nodeCount]];
+        this.downArcs = new int[downOffsets[nodeCount]];
+        int[] nextUp = Arrays.copyOf(upOffsets, nodeCount);
+        int[] nextDown = Arrays.copyOf(downOffsets, nodeCount);
+        for (int a = 0; a < arcFrom.length; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) {
+                upArcs[nextUp[arcFrom[a]]++] = a;
+            } else if (rank[arcFrom[a]] > rank[arcTo[a]]) {
+                downArcs[nextDown[arcTo[a]]++] = a;
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Builds a Contraction Hierarchy for a weighted snapshot of the passed-in Graph.
+     *
+     * @param <N> the node type
+     * @param graph the Graph to build the hierarchy for
+     * @throws IllegalArgumentException if graph == null or if any edge weight is negative or not finite
+     * @return a hierarchy for DoubleWeightedGraph.of(graph)
+     */
+    public static <N> ContractionHierarchy<N> build(Graph<N,Double> graph) throws IllegalArgumentException {
+        return ContractionHierarchy.build(DoubleWeightedGraph.of(graph));
+    }
+
+    /**
+     * Builds a Contraction Hierarchy for the passed-in weighted snapshot. Nodes are contracted in order of their
+     * edge difference (the number of shortcuts that contracting them would add, minus the number of arcs that it
+     * would remove) plus the number of their neighbors that were already contracted, which keeps the number of
+     * shortcuts low and spreads the contracted nodes evenly over the graph.
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot to build the hierarchy for
+     * @throws IllegalArgumentException if graph == null
+     * @return a hierarchy for graph
+     */
+    public static <N> ContractionHierarchy<N> build(DoubleWeightedGraph<N> graph) throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        Contractor contractor = new Contractor(graph);
+        contractor.run();
+        int arcCount = contractor.arcCount;
+        return new ContractionHierarchy<>(graph, contractor.rank,
+                Arrays.copyOf(contractor.from, arcCount), Arrays.copyOf(contractor.to, arcCount),
+                Arrays.copyOf(contractor.weight, arcCount), Arrays.copyOf(contractor.first, arcCount),
+                Arrays.copyOf(contractor.second, arcCount));
+    }
+
+    /**
+     * @return the weighted snapshot that this hierarchy was built for
+     */
+    public DoubleWeightedGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the number of shortcut arcs that were added while building this hierarchy
+     */
+    public int getShortcutCount() {
+        return arcFrom.length - graph.getEdgeCount();
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two provided nodes of the snapshot.
+     * Looks up the ids of the two nodes and then behaves the same as getShortestPathById(int, int).
+     *
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @throws IllegalArgumentException if either node is not in the snapshot
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public Path<N> getShortestPath(N startPt, N endPt) throws IllegalArgumentException {
+        return getShortestPathById(graph.getId(startPt), graph.getId(endPt));
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes of the snapshot with the
+     * provided ids. A forward search from the start node and a backward search from the end node each only
+     * follow arcs towards higher-ranked nodes, and each stops once the smallest distance on its queue is at
+     * least the cost of the best path found through a node that both have reached. The shortcuts on that path
+     * are then unpacked into edges of the snapshot. The Path found has the same cost as the one found by
+     * ShortestPath#getShortestPathById(DoubleWeightedGraph, int, int).
+     *
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @spec.requires 0 &lt;= startId, endId &lt; getGraph().getNodeCount()
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public Path<N> getShortestPathById(int startId, int endId) {
+        if (startId == endId) {
+            return new Path<>(graph.getNode(startId));
+        }
+        SearchWorkspace workspace = SearchWorkspace.acquire();
+        try {
+            // each side remembers the arc that it reached a node through in place of a predecessor
+            SearchWorkspace.Side fromStart = workspace.forward();
+            fromStart.begin(graph.getNodeCount(), ShortestPath.getQueueKind());
+            NodeQueue activeFromStart = fromStart.queue();
+            SearchWorkspace.Side toEnd = workspace.backward();
+            toEnd.begin(graph.getNodeCount(), ShortestPath.getQueueKind());
+            NodeQueue activeToEnd = toEnd.queue();
+
+            fromStart.reach(startId, 0, -1, 0);
+            activeFromStart.insertOrDecrease(startId, 0);
+            toEnd.reach(endId, 0, -1, 0);
+            activeToEnd.insertOrDecrease(endId, 0);
+
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+            while (true) {
+                boolean forward = !(activeFromStart.isEmpty())
+                        && activeFromStart.getKey(activeFromStart.peekMin()) < best;
+                boolean backward = !(activeToEnd.isEmpty())
+                        && activeToEnd.getKey(activeToEnd.peekMin()) < best;
+                if (!forward && !backward) {
+                    break;
+                }
+                if (forward && (!backward || activeFromStart.getKey(activeFromStart.peekMin())
+                        <= activeToEnd.getKey(activeToEnd.peekMin()))) {
+                    int minId = activeFromStart.pollMin();
+                    if (fromStart.dist(minId) + toEnd.dist(minId) < best) {
+                        best = fromStart.dist(minId) + toEnd.dist(minId);
+                        meeting = minId;
+                    }
+                    for (int i = upOffsets[minId]; i < upOffsets[minId + 1]; i++) {
+                        int arc = upArcs[i];
+                        int child = arcTo[arc];
+                        double childDist = fromStart.dist(minId) + arcWeight[arc];
+                        if (childDist < fromStart.dist(child)) {
+                            fromStart.reach(child, childDist, arc, arcWeight[arc]);
+                            activeFromStart.insertOrDecrease(child, childDist);
+                        }
+                    }
+                } else {
+                    int minId = activeToEnd.pollMin();
+                    if (fromStart.dist(minId) + toEnd.dist(minId) < best) {
+                        best = fromStart.dist(minId) + toEnd.dist(minId);
+                        meeting = minId;
+                    }
+                    for (int i = downOffsets[minId]; i < downOffsets[minId + 1]; i++) {
+                        int arc = downArcs[i];
+                        int parent = arcFrom[arc];
+                        double parentDist = toEnd.dist(minId) + arcWeight[arc];
+                        if (parentDist < toEnd.dist(parent)) {
+                            toEnd.reach(parent, parentDist, arc, arcWeight[arc]);
+                            activeToEnd.insertOrDecrease(parent, parentDist);
+                        }
+                    }
+                }
+            }
+            if (meeting < 0) {
+                return null;
+            }
+
+            // the arcs of the path in order: up from the start to the meeting node, then down to the end
+            int[] hierarchyArcs = new int[8];
+            int size = 0;
+            for (int id = meeting; fromStart.pred(id) != -1; id = arcFrom[fromStart.pred(id)]) {
+                hierarchyArcs = ensureCapacity(hierarchyArcs, size + 1);
+                hierarchyArcs[size++] = fromStart.pred(id);
+            }
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int swap = hierarchyArcs[i];
+                hierarchyArcs[i] = hierarchyArcs[j];
+                hierarchyArcs[j] = swap;
+            }
+            for (int id = meeting; toEnd.pred(id) != -1; id = arcTo[toEnd.pred(id)]) {
+                hierarchyArcs = ensureCapacity(hierarchyArcs, size + 1);
+                hierarchyArcs[size++] = toEnd.pred(id);
+            }
+            return unpack(startId, hierarchyArcs, size);
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * Builds the Path made of the edges of the snapshot that the passed-in arcs stand for (helper procedure).
+     *
+     * @param startId the id of the node that the first arc starts at
+     * @param hierarchyArcs the arcs of the path in order, in hierarchyArcs[0] to hierarchyArcs[size - 1]
+     * @param size the number of arcs on the path
+     * @spec.requires each arc starts at the node that the one before it ends at
+     * @return the Path that the arcs stand for
+     */
+    private Path<N> unpack(int startId, int[] hierarchyArcs, int size) {
+        List<N> nodes = new ArrayList<>();
+        double[] costs = new double[Math.max(size, 8)];
+        int[] stack = new int[16];
+        for (int i = 0; i < size; i++) {
+            int top = 0;
+            stack[top++] = hierarchyArcs[i];
+            while (top > 0) {
+                int arc = stack[--top];
+                if (arcFirst[arc] == -1) {
+                    costs = ensureCapacity(costs, nodes.size() + 1);
+                    costs[nodes.size()] = arcWeight[arc];
+                    nodes.add(graph.getNode(arcTo[arc]));
+                } else {
+                    // the second half goes on the stack first so that the first half comes off first
+                    stack = ensureCapacity(stack, top + 2);
+                    stack[top++] = arcSecond[arc];
+                    stack[top++] = arcFirst[arc];
+                }
+            }
+        }
+        return new Path<>(graph.getNode(startId)).extend(nodes, Arrays.copyOf(costs, nodes.size()));
+    }
+
+    /**
+     * Saves this hierarchy to the passed-in stream so that it can be read back with
+     * readFrom(InputStream, DoubleWeightedGraph) instead of being built again. Only the node ordering, the
+     * shortcuts and a fingerprint of the snapshot are written; the snapshot itself is not. The stream is
+     * flushed but not closed.
+     *
+     * @param out the stream to save this hierarchy to
+     * @throws IllegalArgumentException if out == null
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException();
+        }
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(graph.getNodeCount());
+        data.writeInt(graph.getEdgeCount());
+        data.writeLong(fingerprint(graph));
+        for (int r : rank) {
+            data.writeInt(r);
+        }
+        data.writeInt(getShortcutCount());
+        for (int a = graph.getEdgeCount(); a < arcFrom.length; a++) {
+            data.writeInt(arcFirst[a]);
+            data.writeInt(arcSecond[a]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a hierarchy that was saved with writeTo(OutputStream) for the passed-in snapshot. The stream is not
+     * closed.
+     *
+     * @param <N> the node type
+     * @param in the stream to read the hierarchy from
+     * @param graph the weighted snapshot that the hierarchy was built for
+     * @throws IllegalArgumentException if in == null or graph == null, or if the saved hierarchy was built
+     *                                  for a snapshot with different edges
+     * @throws IOException if reading from the stream fails or the stream does not hold a valid hierarchy
+     * @return the hierarchy that was saved
+     */
+    public static <N> ContractionHierarchy<N> readFrom(InputStream in, DoubleWeightedGraph<N> graph)
+            throws IOException {
+        if (in == null || graph == null) {
+            throw new IllegalArgumentException();
+        }
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("The stream does not hold a saved ContractionHierarchy.");
+        }
+        int nodeCount = data.readInt();
+        int edgeCount = data.readInt();
+        long fingerprint = data.readLong();
+        if (nodeCount != graph.getNodeCount() || edgeCount != graph.getEdgeCount()
+                || fingerprint != fingerprint(graph)) {
+            throw new IllegalArgumentException("The saved ContractionHierarchy was built for a different graph.");
+        }
+        int[] rank = new int[nodeCount];
+        boolean[] used = new boolean[nodeCount];
+        for (int id = 0; id < nodeCount; id++) {
+            rank[id] = data.readInt();
+            if (rank[id] < 0 || rank[id] >= nodeCount || used[rank[id]]) {
+                throw new IOException("The saved node ordering is not valid.");
+            }
+            used[rank[id]] = true;
+        }
+        int shortcutCount = data.readInt();
+        if (shortcutCount < 0) {
+            throw new IOException("The saved shortcut count is not valid.");
+        }
+        int arcCount = edgeCount + shortcutCount;
+        int[] arcFrom = new int[arcCount];
+        int[] arcTo = new int[arcCount];
+        double[] arcWeight = new double[arcCount];
+        int[] arcFirst = new int[arcCount];
+        int[] arcSecond = new int[arcCount];
+        for (int id = 0; id < nodeCount; id++) {
+            for (int k = graph.getEdgeStart(id); k < graph.getEdgeEnd(id); k++) {
+                arcFrom[k] = id;
+                arcTo[k] = graph.getTarget(k);
+                arcWeight[k] = graph.getWeight(k);
+                arcFirst[k] = -1;
+                arcSecond[k] = -1;
+            }
+        }
+        for (int a = edgeCount; a < arcCount; a++) {
+            int first = data.readInt();
+            int second = data.readInt();
+            if (first < 0 || first >= a || second < 0 || second >= a || arcTo[first] != arcFrom[second]) {
+                throw new IOException("A saved shortcut is not valid.");
+            }
+            arcFrom[a] = arcFrom[first];
+            arcTo[a] = arcTo[second];
+            arcWeight[a] = arcWeight[first] + arcWeight[second];
+            arcFirst[a] = first;
+            arcSecond[a] = second;
+        }
+        return new ContractionHierarchy<>(graph, rank, arcFrom, arcTo, arcWeight, arcFirst, arcSecond);
+    }
+
+    /**
+     * Computes a hash of the edges of the passed-in snapshot, so that a saved hierarchy is not used with a
+     * different graph (helper procedure). The nodes themselves are not part of the hash because their hash codes
+     * need not be the same from one run to the next.
+     *
+     * @param graph the snapshot to hash
+     * @return a hash of the node count and of the source, target and weight of every edge
+     */
+    private static long fingerprint(DoubleWeightedGraph<?> graph) {
+        long hash = graph.getNodeCount();
+        for (int id = 0; id < graph.getNodeCount(); id++) {
+            for (int k = graph.getEdgeStart(id); k < graph.getEdgeEnd(id); k++) {
+                hash = 31 * hash + id;
+                hash = 31 * hash + graph.getTarget(k);
+                hash = 31 * hash + Double.doubleToLongBits(graph.getWeight(k));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the passed-in array, or a copy of it with room for at least the passed-in number of elements
+     * (helper procedure).
+     *
+     * @param array the array to grow
+     * @param capacity the number of elements that the result must have room for
+     * @return array if it is long enough, otherwise a longer copy of it
+     */
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return (capacity <= array.length) ? array : Arrays.copyOf(array, Math.max(capacity, 2 * array.length));
+    }
+
+    /**
+     * Returns the passed-in array, or a copy of it with room for at least the passed-in number of elements
+     * (helper procedure).
+     *
+     * @param array the array to grow
+     * @param capacity the number of elements that the result must have room for
+     * @return array if it is long enough, otherwise a longer copy of it
+     */
+    private static double[] ensureCapacity(double[] array, int capacity) {
+        return (capacity <= array.length) ? array : Arrays.copyOf(array, Math.max(capacity, 2 * array.length));
+    }
+
+    /**
+     * <p>Contractor holds the working state of building a hierarchy: the arcs added so far, and the arcs of the
+     * graph that remains after the nodes contracted so far are taken out of it.</p>
+     */
+    private static final class Contractor {
+
+        /** The number of nodes of the snapshot. */
+        private final int nodeCount;
+
+        /** The source node id of each arc. */
+        private int[] from;
+
+        /** The target node id of each arc. */
+        private int[] to;
+
+        /** The weight of each arc. */
+        private double[] weight;
+
+        /** The first of the two arcs that each shortcut stands for, or -1 for an edge of the snapshot. */
+        private int[] first;
+
+        /** The second of the two arcs that each shortcut stands for, or -1 for an edge of the snapshot. */
+        private int[] second;
+
+        /** The number of arcs. */
+        private int arcCount;
+
+        /** The arcs leaving each node, some of which may lead to contracted nodes. */
+        private final int[][] outArcs;
+
+        /** The number of arcs in each row of outArcs. */
+        private final int[] outSize;
+
+        /** The arcs entering each node, some of which may come from contracted nodes. */
+        private final int[][] inArcs;
+
+        /** The number of arcs in each row of inArcs. */
+        private final int[] inSize;
+
+        /** Whether each node has been contracted. */
+        private final boolean[] contracted;
+
+        /** The contraction order of each node. */
+        private final int[] rank;
+
+        /** The number of neighbors of each node that have been contracted. */
+        private final int[] contractedNeighbors;
+
+        /** The lightest arc into the node being contracted from each parent, or -1. */
+        private final int[] bestIn;
+
+        /** The lightest arc from the node being contracted to each child, or -1. */
+        private final int[] bestOut;
+
+        /** The remaining parents of the node being contracted, in parents[0] to parents[parentCount - 1]. */
+        private final int[] parents;
+
+        /** The number of remaining parents of the node being contracted. */
+        private int parentCount;
+
+        /** The remaining children of the node being contracted, in children[0] to children[childCount - 1]. */
+        private final int[] children;
+
+        /** The number of remaining children of the node being contracted. */
+        private int childCount;
+
+        /** The distance of each node reached by the current witness search, or infinity. */
+        private final double[] witnessDist;
+
+        /** The nodes whose witnessDist has to be reset after the current witness search. */
+        private final int[] touched;
+
+        /** The number of nodes in touched. */
+        private int touchedCount;
+
+        /** The queue of the witness search. */
+        private final IndexedMinHeap witnessQueue;
+
+        /**
+         * Creates the working state for contracting the passed-in snapshot, with one arc per edge.
+         *
+         * @param graph the snapshot to contract
+         */
+        private Contractor(DoubleWeightedGraph<?> graph) {
+            this.nodeCount = graph.getNodeCount();
+            int capacity = Math.max(16, 2 * graph.getEdgeCount());
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.weight = new double[capacity];
+            this.first = new int[capacity];
+            this.second = new int[capacity];
+            this.outArcs = new int[nodeCount][];
+            this.outSize = new int[nodeCount];
+            this.inArcs = new int[nodeCount][];
+            this.inSize = new int[nodeCount];
+            for (int id = 0; id < nodeCount; id++) {
+                outArcs[id] = new int[4];
+                inArcs[id] = new int[4];
+            }
+            this.contracted = new boolean[nodeCount];
+            this.rank = new int[nodeCount];
+            this.contractedNeighbors = new int[nodeCount];
+            this.bestIn = new int[nodeCount];
+            this.bestOut = new int[nodeCount];
+            Arrays.fill(bestIn, -1);
+            Arrays.fill(bestOut, -1);
+            this.parents = new int[nodeCount];
+            this.children = new int[nodeCount];
+            this.witnessDist = new double[nodeCount];
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+            this.touched = new int[nodeCount];
+            this.witnessQueue = new IndexedMinHeap(nodeCount);
+
+            for (int id = 0; id < nodeCount; id++) {
+                for (int k = graph.getEdgeStart(id); k < graph.getEdgeEnd(id); k++) {
+                    // loops are kept as arcs so that arc k is edge k, but can never be on a shortest path
+                    addArc(id, graph.getTarget(k), graph.getWeight(k), -1, -1, graph.getTarget(k) != id);
+                }
+            }
+        }
+
+        /**
+         * Contracts every node, least important first, and records the order in rank.
+         */
+        private void run() {
+            IndexedMinHeap queue = new IndexedMinHeap(nodeCount);
+            for (int id = 0; id < nodeCount; id++) {
+                queue.insertOrDecrease(id, priority(id));
+            }
+            int order = 0;
+            while (!(queue.isEmpty())) {
+                int id = queue.pollMin();
+                double priority = priority(id);
+                if (!(queue.isEmpty()) && priority > queue.getKey(queue.peekMin())) {
+                    // the priority went up since it was queued, so another node may now come first
+                    queue.insertOrDecrease(id, priority);
+                    continue;
+                }
+                contract(id, false);
+                contracted[id] = true;
+                rank[id] = order;
+                order++;
+                for (int i = 0; i < parentCount; i++) {
+                    contractedNeighbors[parents[i]]++;
+                }
+                for (int i = 0; i < childCount; i++) {
+                    contractedNeighbors[children[i]]++;
+                }
+            }
+        }
+
+        /**
+         * Computes how important the passed-in node is, where less important nodes are contracted first.
+         *
+         * @param id the node to rate
+         * @return the edge difference of the node plus its number of contracted neighbors
+         */
+        private double priority(int id) {
+            int shortcuts = contract(id, true);
+            return shortcuts - (parentCount + childCount) + contractedNeighbors[id];
+        }
+
+        /**
+         * Finds the shortcuts that contracting the passed-in node needs, and adds them unless simulating. Leaves
+         * the remaining parents and children of the node in parents and children.
+         *
+         * @param id the node to contract
+         * @param simulate true to only count the shortcuts without adding them
+         * @return the number of shortcuts that contracting the node needs
+         */
+        private int contract(int id, boolean simulate) {
+            collectNeighbors(id);
+            double maxOut = 0;
+            for (int i = 0; i < childCount; i++) {
+                maxOut = Math.max(maxOut, weight[bestOut[children[i]]]);
+            }
+            int shortcuts = 0;
+            for (int i = 0; i < parentCount; i++) {
+                int parent = parents[i];
+                int inArc = bestIn[parent];
+                witnessSearch(parent, id, weight[inArc] + maxOut);
+                for (int j = 0; j < childCount; j++) {
+                    int child = children[j];
+                    if (child == parent) {
+                        continue;
+                    }
+                    int outArc = bestOut[child];
+                    double via = weight[inArc] + weight[outArc];
+                    if (witnessDist[child] > via) {
+                        // the path through id is the only shortest way from parent to child
+                        shortcuts++;
+                        if (!simulate) {
+                            addArc(parent, child, via, inArc, outArc, true);
+                        }
+                    }
+                }
+                resetWitness();
+            }
+            for (int i = 0; i < parentCount; i++) {
+                bestIn[parents[i]] = -1;
+            }
+            for (int i = 0; i < childCount; i++) {
+                bestOut[children[i]] = -1;
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Finds the remaining parents and children of the passed-in node and the lightest arc to or from each.
+         *
+         * @param id the node whose neighbors to find
+         */
+        private void collectNeighbors(int id) {
+            parentCount = 0;
+            for (int i = 0; i < inSize[id]; i++) {
+                int arc = inArcs[id][i];
+                int parent = from[arc];
+                if (contracted[parent]) {
+                    continue;
+                }
+                if (bestIn[parent] == -1) {
+                    parents[parentCount++] = parent;
+                    bestIn[parent] = arc;
+                } else if (weight[arc] < weight[bestIn[parent]]) {
+                    bestIn[parent] = arc;
+                }
+            }
+            childCount = 0;
+            for (int i = 0; i < outSize[id]; i++) {
+                int arc = outArcs[id][i];
+                int child = to[arc];
+                if (contracted[child]) {
+                    continue;
+                }
+                if (bestOut[child] == -1) {
+                    children[childCount++] = child;
+                    bestOut[child] = arc;
+                } else if (weight[arc] < weight[bestOut[child]]) {
+                    bestOut[child] = arc;
+                }
+            }
+        }
+
+        /**
+         * Runs a Dijkstra search from source over the remaining graph without the node avoid, which stops after
+         * passing limit or finishing WITNESS_SETTLE_LIMIT nodes. Afterwards, witnessDist holds the length of some
+         * path avoiding the node for every node that was reached.
+         *
+         * @param source the node to search from
+         * @param avoid the node being contracted
+         * @param limit the largest distance that matters
+         */
+        private void witnessSearch(int source, int avoid, double limit) {
+            witnessDist[source] = 0;
+            touched[touchedCount++] = source;
+            witnessQueue.insertOrDecrease(source, 0);
+            int settled = 0;
+            while (!(witnessQueue.isEmpty())) {
+                int minId = witnessQueue.pollMin();
+                double minDist = witnessDist[minId];
+                settled++;
+                if (minDist > limit || settled > WITNESS_SETTLE_LIMIT) {
+                    break;
+                }
+                for (int i = 0; i < outSize[minId]; i++) {
+                    int arc = outArcs[minId][i];
+                    int child = to[arc];
+                    if (contracted[child] || child == avoid) {
+                        continue;
+                    }
+                    double childDist = minDist + weight[arc];
+                    if (childDist < witnessDist[child]) {
+                        if (witnessDist[child] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = child;
+                        }
+                        witnessDist[child] = childDist;
+                        witnessQueue.insertOrDecrease(child, childDist);
+                    }
+                }
+            }
+            witnessQueue.clear();
+        }
+
+        /**
+         * Clears the distances left behind by the last witness search.
+         */
+        private void resetWitness() {
+            for (int i = 0; i < touchedCount; i++) {
+                witnessDist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+        }
+
+        /**
+         * Adds an arc, and if it is linked, adds it to the arcs leaving its source and entering its target.
+         *
+         * @param source the source node of the arc
+         * @param target the target node of the arc
+         * @param arcWeight the weight of the arc
+         * @param firstArc the first arc that the new arc stands for, or -1
+         * @param secondArc the second arc that the new arc stands for, or -1
+         * @param linked true to add the arc to the remaining graph
+         */
+        private void addArc(int source, int target, double arcWeight, int firstArc, int secondArc, boolean linked) {
+            if (arcCount == from.length) {
+                int capacity = 2 * from.length;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+            }
+            int arc = arcCount;
+            arcCount++;
+            from[arc] = source;
+            to[arc] = target;
+            weight[arc] = arcWeight;
+            first[arc] = firstArc;
+            second[arc] = secondArc;
+            if (linked) {
+                outArcs[source] = ensureCapacity(outArcs[source], outSize[source] + 1);
+                outArcs[source][outSize[source]++] = arc;
+                inArcs[target] = ensureCapacity(inArcs[target], inSize[target] + 1);
+                inArcs[target][inSize[target]++] = arc;
+            }
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import graph.Graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+
+/**
+ * <p>This immutable class represents a parallel single-source shortest path engine that uses delta-stepping.
+ * Nodes are grouped into buckets of width delta by their tentative distance, and the buckets are finished in
+ * order. All of the nodes of the current bucket relax their edges at the same time, split into tasks on a
+ * ForkJoinPool, so a large graph keeps every core busy instead of finishing one node at a time as Dijkstra
+ * does. Light edges (weight at most delta) can lead back into the current bucket and are relaxed until the
+ * bucket stops changing; heavy edges can not and are relaxed once, when the bucket is done.</p>
+ *
+ * <p>A small delta does little wasted work but has few nodes per bucket to run in parallel; a large delta has
+ * the opposite trade-off. suggestDelta(DoubleWeightedGraph) gives a reasonable default. Whatever the delta, the
+ * distances are exactly the ones that ShortestPath#getDistancesById(DoubleWeightedGraph, int) finds.</p>
+ *
+ * @spec.specfield <p>delta : double // The width of a bucket.</p>
+ * @spec.specfield <p>pool : the ForkJoinPool that relaxations run on. // The pool.</p>
+ */
+public class DeltaStepping {
+
+    /** The largest number of nodes that one task relaxes before splitting. */
+    private static final int GRAIN = 256;
+
+    /** The width of a bucket. */
+    private final double delta;
+
+    /** The ForkJoinPool that relaxations run on. */
+    private final ForkJoinPool pool;
+
+    // Abstraction Function:
+    //    AF(r) = engine e such that
+    //      e.delta = r.delta
+    //      e.pool = r.pool
+    //
+    // Representation Invariant for every DeltaStepping e:
+    //  delta > 0 && delta is finite && pool != null
+    //  In other words:
+    //  - The bucket width is a positive number
+    //  - There is a pool to run on
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert delta > 0 && Double.isFinite(delta) : "delta should be positive";
+        assert pool != null : "pool should be set";
+    }
+
+    /**
+     * Creates a new engine with the passed-in bucket width that runs on the common ForkJoinPool.
+     *
+     * @param delta the width of a bucket
+     * @throws IllegalArgumentException if delta is not a positive, finite number
+     * @spec.effects sets delta as the passed-in value and pool as the common pool
+     */
+    public DeltaStepping(double delta) throws IllegalArgumentException {
+        this(delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new engine with the passed-in bucket width that runs on the passed-in pool.
+     *
+     * @param delta the width of a bucket
+     * @param pool the pool to run relaxations on
+     * @throws IllegalArgumentException if delta is not a positive, finite number, or if pool == null
+     * @spec.effects sets delta and pool as the passed-in values
+     */
+    public DeltaStepping(double delta, ForkJoinPool pool) throws IllegalArgumentException {
+        if (!(delta > 0) || !Double.isFinite(delta) || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        this.delta = delta;
+        this.pool = pool;
+        checkRep();
+    }
+
+    /**
+     * Suggests a bucket width for the passed-in snapshot: the average edge weight, which puts about one hop of
+     * every path in each bucket.
+     *
+     * @param graph the snapshot that the engine will run on
+     * @throws IllegalArgumentException if graph == null
+     * @return the average positive edge weight of graph, or 1 if it has none
+     */
+    public static double suggestDelta(DoubleWeightedGraph<?> graph) throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        double total = 0;
+        int count = 0;
+        for (int k = 0; k < graph.getEdgeCount(); k++) {
+            if (graph.getWeight(k) > 0) {
+                total += graph.getWeight(k);
+                count++;
+            }
+        }
+        return (count == 0) ? 1 : total / count;
+    }
+
+    /**
+     * @return the width of a bucket
+     */
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * Finds the distance, by the weights of the edges, from the passed-in node to every node of the passed-in
+     * Graph. The result is indexed by the node ids of the Graph, as given by Graph#getNodeId(N).
+     *
+     * @param <N> the node type
+     * @param graph the Graph to search
+     * @param source the node to measure the distances from
+     * @throws IllegalArgumentException if graph == null, if source is not in graph, or if any edge weight is
+     *                                  negative or not finite
+     * @return an array holding, at each node id, the cost of the shortest path from source to that node, or
+     * {@link Double#POSITIVE_INFINITY} if there is no such path
+     */
+    public <N> double[] distancesFrom(Graph<N,Double> graph, N source) throws IllegalArgumentException {
+        DoubleWeightedGraph<N> weighted = DoubleWeightedGraph.of(graph);
+        return distancesFromById(weighted, weighted.getId(source));
+    }
+
+    /**
+     * Finds the distance, by the weights of the edges, from the node with the passed-in id to every node of the
+     * passed-in snapshot.
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot to search
+     * @param sourceId the id of the node to measure the distances from
+     * @throws IllegalArgumentException if graph == null, or if sourceId is not a node id of graph
+     * @return an array holding, at each node id, the cost of the shortest path from the source to that node,
+     * or {@link Double#POSITIVE_INFINITY} if there is no such path
+     */
+    public <N> double[] distancesFromById(DoubleWeightedGraph<N> graph, int sourceId)
+            throws IllegalArgumentException {
+        if (graph == null || sourceId < 0 || sourceId >= graph.getNodeCount()) {
+            throw new IllegalArgumentException();
+        }
+        int nodeCount = graph.getNodeCount();
+        // non-negative doubles order the same way as their bits, so a compare-and-set on the bits lowers a distance
+        AtomicLongArray dist = new AtomicLongArray(nodeCount);
+        long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int id = 0; id < nodeCount; id++) {
+            dist.set(id, infinity);
+        }
+        dist.set(sourceId, Double.doubleToLongBits(0.0));
+
+        // the nodes that were lowered into each bucket; a node may be listed in a bucket it has since left
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        buckets.computeIfAbsent(0L, key -> new IntList()).add(sourceId);
+        // stamps that drop repeated nodes from a frontier, and that mark the nodes already in finished
+        int[] inFrontier = new int[nodeCount];
+        int frontierRound = 0;
+        int[] inFinished = new int[nodeCount];
+        int bucketRound = 0;
+
+        while (!(buckets.isEmpty())) {
+            Map.Entry<Long, IntList> entry = buckets.pollFirstEntry();
+            long bucket = entry.getKey();
+            bucketRound++;
+            frontierRound++;
+            int[] frontier = entry.getValue().retain(id -> bucketOf(dist, id) == bucket, inFrontier, frontierRound);
+            IntList finished = new IntList();
+            while (frontier.length > 0) {
+                for (int id : frontier) {
+                    if (inFinished[id] != bucketRound) {
+                        inFinished[id] = bucketRound;
+                        finished.add(id);
+                    }
+                }
+                int[] lowered = pool.invoke(new RelaxTask(graph, dist, frontier, 0, frontier.length, true));
+                IntList again = new IntList();
+                distribute(dist, lowered, bucket, buckets, again);
+                frontierRound++;
+                frontier = again.retain(id -> true, inFrontier, frontierRound);
+            }
+            int[] settled = finished.toArray();
+            int[] lowered = pool.invoke(new RelaxTask(graph, dist, settled, 0, settled.length, false));
+            IntList same = new IntList();
+            distribute(dist, lowered, bucket, buckets, same);
+            if (same.size > 0) {
+                // rounding put a node reached by a heavy edge in this bucket, so go through the bucket again
+                buckets.computeIfAbsent(bucket, key -> new IntList()).addAll(same);
+            }
+        }
+
+        double[] result = new double[nodeCount];
+        for (int id = 0; id < nodeCount; id++) {
+            result[id] = Double.longBitsToDouble(dist.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the passed-in lowered nodes into the bucket of their current distance (helper procedure).
+     *
+     * @param dist the bits of the tentative distance of each node id
+     * @param lowered the ids of the nodes whose distance was lowered
+     * @param bucket the bucket being finished
+     * @param buckets the later buckets, to add the nodes that now belong to them
+     * @param current the list to add the nodes that now belong to the bucket being finished
+     */
+    private void distribute(AtomicLongArray dist, int[] lowered, long bucket, TreeMap<Long, IntList> buckets,
+                            IntList current) {
+        for (int id : lowered) {
+            long target = bucketOf(dist, id);
+            if (target <= bucket) {
+                current.add(id);
+            } else {
+                buckets.computeIfAbsent(target, key -> new IntList()).add(id);
+            }
+        }
+    }
+
+    /**
+     * @param dist the bits of the tentative distance of each node id
+     * @param id the id of a node with a finite tentative distance
+     * @return the bucket that the node's tentative distance falls in
+     */
+    private long bucketOf(AtomicLongArray dist, int id) {
+        return (long) Math.floor(Double.longBitsToDouble(dist.get(id)) / delta);
+    }
+
+    /**
+     * <p>A RelaxTask relaxes either the light or the heavy edges of a range of nodes, splitting the range into
+     * subtasks while it is larger than GRAIN, and returns the nodes whose distance it lowered.</p>
+     */
+    private final class RelaxTask extends RecursiveTask<int[]> {
+
+        /** The snapshot being searched. */
+        private final DoubleWeightedGraph<?> graph;
+
+        /** The bits of the tentative distance of each node id. */
+        private final AtomicLongArray dist;
+
+        /** The nodes to relax the edges of, in nodes[from] to nodes[to - 1]. */
+        private final int[] nodes;
+
+        /** The first index of nodes that this task relaxes. */
+        private final int from;
+
+        /** One past the last index of nodes that this task relaxes. */
+        private final int to;
+
+        /** True to relax the edges with weight at most delta, false to relax the others. */
+        private final boolean light;
+
+        /**
+         * @param graph the snapshot being searched
+         * @param dist the bits of the tentative distance of each node id
+         * @param nodes the nodes to relax the edges of
+         * @param from the first index of nodes to relax
+         * @param to one past the last index of nodes to relax
+         * @param light true to relax the light edges, false to relax the heavy edges
+         */
+        private RelaxTask(DoubleWeightedGraph<?> graph, AtomicLongArray dist, int[] nodes, int from, int to,
+                          boolean light) {
+            this.graph = graph;
+            this.dist = dist;
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                RelaxTask left = new RelaxTask(graph, dist, nodes, from, middle, light);
+                RelaxTask right = new RelaxTask(graph, dist, nodes, middle, to, light);
+                left.fork();
+                int[] rightLowered = right.compute();
+                int[] leftLowered = left.join();
+                int[] lowered = Arrays.copyOf(leftLowered, leftLowered.length + rightLowered.length);
+                System.arraycopy(rightLowered, 0, lowered, leftLowered.length, rightLowered.length);
+                return lowered;
+            }
+            IntList lowered = new IntList();
+            for (int i = from; i < to; i++) {
+                int id = nodes[i];
+                double base = Double.longBitsToDouble(dist.get(id));
+                for (int k = graph.getEdgeStart(id); k < graph.getEdgeEnd(id); k++) {
+                    double weight = graph.getWeight(k);
+                    if ((weight <= delta) == light && lower(graph.getTarget(k), base + weight)) {
+                        lowered.add(graph.getTarget(k));
+                    }
+                }
+            }
+            return lowered.toArray();
+        }
+
+        /**
+         * Lowers the tentative distance of a node to the passed-in distance if that is smaller.
+         *
+         * @param id the id of the node
+         * @param candidate the distance of a path to the node
+         * @return true iff the node's tentative distance was lowered
+         */
+        private boolean lower(int id, double candidate) {
+            long candidateBits = Double.doubleToLongBits(candidate);
+            while (true) {
+                long currentBits = dist.get(id);
+                if (candidateBits >= currentBits) {
+                    return false;
+                }
+                if (dist.compareAndSet(id, currentBits, candidateBits)) {
+                    return true;
+                }
+            }
+        }
+
+        public static final long serialVersionUID = 3497;
+    }
+
+    /**
+     * <p>IntList is a growable list of ints that does not box them.</p>
+     */
+    private static final class IntList {
+
+        /** The elements of the list, in values[0] to values[size - 1]. */
+        private int[] values = new int[8];
+
+        /** The number of elements of the list. */
+        private int size;
+
+        /**
+         * @param value the int to append
+         */
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * @param other the list whose elements to append
+         */
+        private void addAll(IntList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        /**
+         * @return a new array with the elements of the list
+         */
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        /**
+         * Returns the distinct elements of the list that pass the passed-in test, using stamp to drop repeats.
+         *
+         * @param test the test that an element must pass
+         * @param stamp a scratch array with one element per possible value
+         * @param generation a number that no element of stamp holds yet
+         * @return a new array with each passing element once
+         */
+        private int[] retain(IntPredicate test, int[] stamp, int generation) {
+            IntList kept = new IntList();
+            for (int i = 0; i < size; i++) {
+                int value = values[i];
+                if (stamp[value] != generation && test.test(value)) {
+                    stamp[value] = generation;
+                    kept.add(value);
+                }
+            }
+            return kept.toArray();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * <p>This mutable class represents a binary min-heap of node ids in [0, capacity) ordered by a double key.
+ * Each id is in the heap at most once, and the heap remembers where every id is stored, so the key of an id
+ * that is already in the heap can be lowered in place (decrease-key) instead of inserting a duplicate.</p>
+ *
+ * @spec.specfield <p>entries : a set of (id, key) pairs with distinct ids. // The ids in the heap.</p>
+ * @spec.specfield <p>capacity : int // One more than the largest id that the heap can hold.</p>
+ */
+public class IndexedMinHeap implements NodeQueue {
+
+    /** The ids in the heap, in binary-heap order in heap[0] to heap[size - 1]. */
+    private final int[] heap;
+
+    /** The index in heap of each id, or -1 if the id is not in the heap. */
+    private final int[] position;
+
+    /** The key of each id that is in the heap. */
+    private final double[] keys;
+
+    /** The number of ids in the heap. */
+    private int size;
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    // AF(this) =
+    //      entries => {(heap[i], keys[heap[i]]) | 0 <= i < size}
+    //      capacity => position.length
+
+    // Rep Invariant:
+    //      heap != null && position != null && keys != null &&
+    //      heap.length == position.length == keys.length &&
+    //      0 <= size <= heap.length &&
+    //      for all 0 <= i < size, position[heap[i]] == i &&
+    //      for all 0 < i < size, keys[heap[(i - 1) / 2]] <= keys[heap[i]] &&
+    //      for every id not in heap[0..size), position[id] == -1
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert heap.length == position.length && heap.length == keys.length : "arrays have different lengths";
+        assert 0 <= size && size <= heap.length : "size is out of range";
+        if (DEBUG) {
+            for (int i = 0; i < size; i++) {
+                assert position[heap[i]] == i : "an id does not map back to its index";
+                assert i == 0 || keys[heap[(i - 1) / 2]] <= keys[heap[i]] : "heap order is broken";
+            }
+        }
+    }
+
+    /**
+     * Creates a new empty heap that can hold the ids 0 through capacity - 1.
+     *
+     * @param capacity one more than the largest id that the heap can hold
+     * @throws IllegalArgumentException if capacity &lt; 0
+     */
+    public IndexedMinHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity may not be negative.");
+        }
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        this.size = 0;
+        Arrays.fill(position, -1);
+        checkRep();
+    }
+
+    /**
+     * @return true iff there are no ids in the heap
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of ids in the heap
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id an id in [0, capacity)
+     * @return true iff the id is in the heap
+     */
+    @Override
+    public boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    /**
+     * @param id an id that is in the heap
+     * @return the key of the id
+     */
+    @Override
+    public double getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Adds the id with the given key, or lowers its key if it is already in the heap with a larger key.
+     * Does nothing if the id is already in the heap with a key that is no larger.
+     *
+     * @param id an id in [0, capacity)
+     * @param key the key to store for the id
+     * @return true iff the id was added or its key was lowered
+     */
+    @Override
+    public boolean insertOrDecrease(int id, double key) {
+        int index = position[id];
+        if (index < 0) {
+            index = size;
+            size++;
+            heap[index] = id;
+            position[id] = index;
+        } else if (key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(index);
+        checkRep();
+        return true;
+    }
+
+    /**
+     * @return the id with the smallest key
+     * @throws IllegalStateException if the heap is empty
+     */
+    @Override
+    public int peekMin() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return the id with the smallest key
+     * @throws IllegalStateException if the heap is empty
+     */
+    @Override
+    public int pollMin() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        checkRep();
+        return min;
+    }
+
+    /**
+     * Removes every id from the heap. Takes time proportional to the number of ids in the heap, not to its
+     * capacity.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the id at the given index up until its parent's key is no larger.
+     *
+     * @param index the index in heap of the id to move
+     */
+    private void siftUp(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[index] = parent;
+            position[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    /**
+     * Moves the id at the given index down until neither child has a smaller key.
+     *
+     * @param index the index in heap of the id to move
+     */
+    private void siftDown(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        int half = size >>> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < size && keys[heap[rightIndex]] < keys[child]) {
+                childIndex = rightIndex;
+                child = heap[childIndex];
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            heap[index] = child;
+            position[child] = index;
+            index = childIndex;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+}
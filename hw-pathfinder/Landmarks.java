@@ -0,0 +1,257 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * <p>This immutable class represents a set of landmark nodes of a weighted snapshot together with the distance
+ * from every landmark to every node and from every node to every landmark. These tables give a lower bound on
+ * the distance between any two nodes through the triangle inequality: for a landmark L, the distance from v to t
+ * is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L). The largest of these bounds over all landmarks
+ * guides A* search (the ALT algorithm), and works even where the straight-line distance is a poor estimate, for
+ * example when the only way around a lake or a large building is long.</p>
+ *
+ * <p>A set of Landmarks is only valid for the snapshot it was built for: removing an edge can make the bounds
+ * overestimate.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>graph : the weighted snapshot that the landmarks were chosen in. // The graph.</p>
+ * @spec.specfield <p>landmarks : a sequence of distinct node ids of graph. // The landmarks.</p>
+ */
+public class Landmarks<N> {
+
+    /** The weighted snapshot that the landmarks were chosen in. */
+    private final DoubleWeightedGraph<N> graph;
+
+    /** The node ids of the landmarks. */
+    private final int[] landmarks;
+
+    /** The distance from each landmark (first index) to each node id (second index), or infinity. */
+    private final double[][] fromLandmark;
+
+    /** The distance from each node id (second index) to each landmark (first index), or infinity. */
+    private final double[][] toLandmark;
+
+    // Abstraction Function:
+    //    AF(r) = landmarks l such that
+    //      l.graph = r.graph
+    //      l.landmarks = r.landmarks
+    //
+    // Representation Invariant for every Landmarks l:
+    //  graph != null && landmarks != null && fromLandmark != null && toLandmark != null &&
+    //  the landmarks are distinct node ids of graph &&
+    //  fromLandmark.length == toLandmark.length == landmarks.length &&
+    //  for all i and node ids v, fromLandmark[i][v] is the shortest distance in graph from landmarks[i] to v,
+    //  and toLandmark[i][v] is the shortest distance in graph from v to landmarks[i]
+    //  In other words:
+    //  - Every table has one row per landmark
+    //  - The tables hold exact shortest distances in the snapshot
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert graph != null && landmarks != null : "landmarks should be created";
+        assert fromLandmark.length == landmarks.length && toLandmark.length == landmarks.length
+                : "there should be one table per landmark";
+    }
+
+    /**
+     * Creates a new set of Landmarks and computes the distance tables of all of the landmarks in parallel,
+     * except for the rows of fromLandmark that are already known.
+     *
+     * @param graph the weighted snapshot that the landmarks are in
+     * @param landmarks the node ids of the landmarks
+     * @param fromLandmark the distance from each landmark to each node id, or a null row where it is not known
+     * @spec.requires the landmarks are distinct node ids of graph, fromLandmark.length == landmarks.length, every
+     *                row of fromLandmark that is not null holds the distances from its landmark, and neither
+     *                array is modified afterwards
+     * @spec.effects sets graph and landmarks as the passed-in values
+     */
+    private Landmarks(DoubleWeightedGraph<N> graph, int[] landmarks, double[][] fromLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = new double[landmarks.length][];
+        DoubleWeightedGraph<N> reverse = graph.reverse();
+        // every table is a separate search that only writes its own row
+        IntStream.range(0, 2 * landmarks.length).parallel().forEach(task -> {
+            int i = task / 2;
+            if (task % 2 == 1) {
+                toLandmark[i] = ShortestPath.getDistancesById(reverse, landmarks[i]);
+            } else if (fromLandmark[i] == null) {
+                fromLandmark[i] = ShortestPath.getDistancesById(graph, landmarks[i]);
+            }
+        });
+        checkRep();
+    }
+
+    /**
+     * Chooses up to the passed-in number of landmarks in the passed-in snapshot by farthest-point selection,
+     * and computes their distance tables. The first landmark is the node farthest from node 0, and each later
+     * landmark is the node whose distance from the closest landmark chosen so far is largest. Nodes that no
+     * chosen landmark can reach count as farthest, so every part of a disconnected graph gets a landmark.
+     * Landmarks on the edge of the map, which this picks, give the tightest bounds. The distances from each
+     * landmark that the selection measures are kept as its table, so only the distances to the landmarks are
+     * computed afterwards.
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot to choose the landmarks in
+     * @param count the number of landmarks to choose
+     * @throws IllegalArgumentException if graph == null or count &lt; 0
+     * @return Landmarks with min(count, graph.getNodeCount()) landmarks in graph
+     */
+    public static <N> Landmarks<N> select(DoubleWeightedGraph<N> graph, int count)
+            throws IllegalArgumentException {
+        if (graph == null || count < 0) {
+            throw new IllegalArgumentException();
+        }
+        int landmarkCount = Math.min(count, graph.getNodeCount());
+        int[] chosen = new int[landmarkCount];
+        double[][] fromChosen = new double[landmarkCount][];
+        if (landmarkCount > 0) {
+            double[] closest = ShortestPath.getDistancesById(graph, 0);
+            // node 0 only seeds the selection, it is not a landmark itself
+            chosen[0] = farthest(closest, chosen, 0);
+            Arrays.fill(closest, Double.POSITIVE_INFINITY);
+            for (int i = 0; i < landmarkCount; i++) {
+                fromChosen[i] = ShortestPath.getDistancesById(graph, chosen[i]);
+                for (int id = 0; id < closest.length; id++) {
+                    closest[id] = Math.min(closest[id], fromChosen[i][id]);
+                }
+                if (i + 1 < landmarkCount) {
+                    chosen[i + 1] = farthest(closest, chosen, i + 1);
+                }
+            }
+        }
+        return new Landmarks<>(graph, chosen, fromChosen);
+    }
+
+    /**
+     * Creates Landmarks at the passed-in node ids, for example ones chosen by hand on the edge of a map, and
+     * computes their distance tables.
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot that the landmarks are in
+     * @param landmarkIds the node ids of the landmarks
+     * @throws IllegalArgumentException if graph == null or landmarkIds == null, or if the ids are not distinct
+     *                                  node ids of graph
+     * @return Landmarks at the passed-in node ids
+     */
+    public static <N> Landmarks<N> of(DoubleWeightedGraph<N> graph, int... landmarkIds)
+            throws IllegalArgumentException {
+        if (graph == null || landmarkIds == null) {
+            throw new IllegalArgumentException();
+        }
+        boolean[] seen = new boolean[graph.getNodeCount()];
+        for (int id : landmarkIds) {
+            if (id < 0 || id >= seen.length || seen[id]) {
+                throw new IllegalArgumentException();
+            }
+            seen[id] = true;
+        }
+        return new Landmarks<>(graph, landmarkIds.clone(), new double[landmarkIds.length][]);
+    }
+
+    /**
+     * Finds the node that is farthest from the closest chosen landmark, treating unreachable nodes as farthest
+     * (helper procedure).
+     *
+     * @param closest the distance of each node id from the closest chosen landmark
+     * @param chosen the landmarks chosen so far, in chosen[0] to chosen[chosenCount - 1]
+     * @param chosenCount the number of landmarks chosen so far
+     * @spec.requires closest.length &gt; chosenCount
+     * @return the id of a node that has not been chosen and is farthest from the chosen landmarks
+     */
+    private static int farthest(double[] closest, int[] chosen, int chosenCount) {
+        int best = -1;
+        for (int id = 0; id < closest.length; id++) {
+            boolean isChosen = false;
+            for (int i = 0; i < chosenCount; i++) {
+                isChosen = isChosen || chosen[i] == id;
+            }
+            if (!isChosen && (best == -1 || closest[id] > closest[best])) {
+                best = id;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the weighted snapshot that these landmarks were chosen in
+     */
+    public DoubleWeightedGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the number of landmarks
+     */
+    public int size() {
+        return landmarks.length;
+    }
+
+    /**
+     * @param i the index of a landmark
+     * @spec.requires 0 &lt;= i &lt; size()
+     * @return the node id of the landmark with the passed-in index
+     */
+    public int getLandmark(int i) {
+        return landmarks[i];
+    }
+
+    /**
+     * Returns a lower bound on the cost of the shortest path between the nodes with the passed-in ids. The
+     * bound is consistent along every edge into a node that can reach endId, which are the only edges that a
+     * path to endId uses, so it can be used as the estimate of an A* search towards endId.
+     *
+     * @param id the id of the node to estimate the cost from
+     * @param endId the id of the node to estimate the cost to
+     * @spec.requires 0 &lt;= id, endId &lt; getGraph().getNodeCount()
+     * @return the largest triangle-inequality bound over all landmarks, or 0 if none applies
+     */
+    public double lowerBound(int id, int endId) {
+        double bound = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] from = fromLandmark[i];
+            double[] to = toLandmark[i];
+            // a bound that involves an unreachable node is not a finite number and is left out
+            if (from[endId] != Double.POSITIVE_INFINITY && from[id] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, from[endId] - from[id]);
+            }
+            if (to[id] != Double.POSITIVE_INFINITY && to[endId] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, to[id] - to[endId]);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Returns the estimate of the cost from each node id to the node with the passed-in id, for use with
+     * ShortestPath#getShortestPathByIdGuided(DoubleWeightedGraph, int, int, IntToDoubleFunction).
+     *
+     * @param endId the id of the node to estimate the cost to
+     * @spec.requires 0 &lt;= endId &lt; getGraph().getNodeCount()
+     * @return a function from a node id to lowerBound(id, endId)
+     */
+    public IntToDoubleFunction estimateTo(int endId) {
+        return id -> lowerBound(id, endId);
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes of the snapshot with the
+     * provided ids, using A* search guided by the landmark bounds.
+     *
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @spec.requires 0 &lt;= startId, endId &lt; getGraph().getNodeCount()
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public Path<N> getShortestPathById(int startId, int endId) {
+        return ShortestPath.getShortestPathByIdGuided(graph, startId, endId, estimateTo(endId));
+    }
+}
@@ -0,0 +1,67 @@
+package pathfinder.datastructures;
+
+/**
+ * <p>A NodeQueue is a min-priority queue of node ids in [0, capacity) ordered by a double key, in which each id
+ * is at most once and the key of an id that is already queued can be lowered in place. It is the queue that the
+ * searches of ShortestPath finish nodes from, and QueueKind chooses which implementation they use.</p>
+ *
+ * <p>Some implementations (see QueueKind#RADIX) require the keys to be non-negative and monotone: no key that is
+ * inserted or lowered may be smaller than the key of the last id that was removed. Dijkstra search on
+ * non-negative weights, and A* search with a consistent estimate, both only use monotone keys.</p>
+ *
+ * @spec.specfield <p>entries : a set of (id, key) pairs with distinct ids. // The ids in the queue.</p>
+ * @spec.specfield <p>capacity : int // One more than the largest id that the queue can hold.</p>
+ */
+public interface NodeQueue {
+
+    /**
+     * @return true iff there are no ids in the queue
+     */
+    boolean isEmpty();
+
+    /**
+     * @return the number of ids in the queue
+     */
+    int size();
+
+    /**
+     * @param id an id in [0, capacity)
+     * @return true iff the id is in the queue
+     */
+    boolean contains(int id);
+
+    /**
+     * @param id an id that is in the queue
+     * @return the key of the id
+     */
+    double getKey(int id);
+
+    /**
+     * Adds the id with the given key, or lowers its key if it is already in the queue with a larger key.
+     * Does nothing if the id is already in the queue with a key that is no larger.
+     *
+     * @param id an id in [0, capacity)
+     * @param key the key to store for the id
+     * @return true iff the id was added or its key was lowered
+     */
+    boolean insertOrDecrease(int id, double key);
+
+    /**
+     * @return the id with the smallest key
+     * @throws IllegalStateException if the queue is empty
+     */
+    int peekMin();
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return the id with the smallest key
+     * @throws IllegalStateException if the queue is empty
+     */
+    int pollMin();
+
+    /**
+     * Removes every id from the queue.
+     */
+    void clear();
+}
@@ -0,0 +1,278 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * <p>This mutable class represents a pairing heap of node ids in [0, capacity) ordered by a double key. Inserting
+ * an id and lowering its key only link one tree below another root, so both take constant time, and the work of
+ * keeping the heap in order is put off until the smallest id is removed, when the children of the old root are
+ * merged in pairs. On searches that lower many keys this can beat a binary heap.</p>
+ *
+ * <p>The trees are kept in arrays indexed by id, so an id is never boxed and the heap allocates nothing after it
+ * is created, except to grow the list of children that it merges.</p>
+ *
+ * @spec.specfield <p>entries : a set of (id, key) pairs with distinct ids. // The ids in the heap.</p>
+ * @spec.specfield <p>capacity : int // One more than the largest id that the heap can hold.</p>
+ */
+public class PairingHeap implements NodeQueue {
+
+    /** The id of the root of the heap, or -1 if the heap is empty. */
+    private int root;
+
+    /** The first (leftmost) child of each id, or -1 if it has none. */
+    private final int[] child;
+
+    /** The next sibling to the right of each id, or -1 if it has none. */
+    private final int[] sibling;
+
+    /** The left sibling of each id, or its parent if it is the first child, or -1 if it is the root. */
+    private final int[] previous;
+
+    /** The ids whose trees clear still has to take apart, in stack[0] to stack[top - 1] while it runs. */
+    private final int[] stack;
+
+    /** Whether each id is in the heap. */
+    private final boolean[] inHeap;
+
+    /** The key of each id that is in the heap. */
+    private final double[] keys;
+
+    /** The roots that are being merged by pollMin, in merges[0] to merges[mergeCount - 1]. */
+    private int[] merges;
+
+    /** The number of ids in the heap. */
+    private int size;
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    // AF(this) =
+    //      entries => {(id, keys[id]) | inHeap[id]}
+    //      capacity => keys.length
+
+    // Rep Invariant:
+    //      child, sibling, previous, stack, inHeap and keys != null and all have the same length &&
+    //      (size == 0) == (root == -1) &&
+    //      the ids reachable from root through child and sibling are exactly the ids with inHeap[id], and there
+    //      are size of them &&
+    //      for every id in the heap other than root, keys[parent] <= keys[id], where parent is the id whose first
+    //      child is the leftmost sibling of id &&
+    //      previous[child[p]] == p and previous[sibling[s]] == s whenever the child or sibling is not -1
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert child.length == keys.length && sibling.length == keys.length && previous.length == keys.length
+                && stack.length == keys.length && inHeap.length == keys.length : "arrays have different lengths";
+        assert (size == 0) == (root == -1) : "root does not match size";
+        if (DEBUG) {
+            assert root == -1 || previous[root] == -1 && sibling[root] == -1 : "root has a parent or a sibling";
+            assert count(root) == size : "size does not match the trees";
+        }
+    }
+
+    /**
+     * Counts the ids in the tree below the passed-in id and in the trees of its right siblings, checking heap
+     * order on the way (helper procedure for checkRep).
+     *
+     * @param id the id to start counting at, or -1
+     * @return the number of ids that were counted
+     */
+    private int count(int id) {
+        int counted = 0;
+        for (int s = id; s != -1; s = sibling[s]) {
+            assert inHeap[s] : "a linked id is not in the heap";
+            for (int c = child[s]; c != -1; c = sibling[c]) {
+                assert keys[s] <= keys[c] : "heap order is broken";
+            }
+            counted += 1 + count(child[s]);
+        }
+        return counted;
+    }
+
+    /**
+     * Creates a new empty heap that can hold the ids 0 through capacity - 1.
+     *
+     * @param capacity one more than the largest id that the heap can hold
+     * @throws IllegalArgumentException if capacity &lt; 0
+     */
+    public PairingHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity may not be negative.");
+        }
+        this.root = -1;
+        this.child = new int[capacity];
+        this.sibling = new int[capacity];
+        this.previous = new int[capacity];
+        this.stack = new int[capacity];
+        this.inHeap = new boolean[capacity];
+        this.keys = new double[capacity];
+        this.merges = new int[16];
+        this.size = 0;
+        Arrays.fill(child, -1);
+        Arrays.fill(sibling, -1);
+        Arrays.fill(previous, -1);
+        checkRep();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return inHeap[id];
+    }
+
+    @Override
+    public double getKey(int id) {
+        return keys[id];
+    }
+
+    @Override
+    public boolean insertOrDecrease(int id, double key) {
+        if (inHeap[id]) {
+            if (keys[id] <= key) {
+                return false;
+            }
+            keys[id] = key;
+            if (id != root) {
+                cut(id);
+                root = link(root, id);
+            }
+        } else {
+            keys[id] = key;
+            inHeap[id] = true;
+            size++;
+            root = root == -1 ? id : link(root, id);
+        }
+        checkRep();
+        return true;
+    }
+
+    @Override
+    public int peekMin() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        return root;
+    }
+
+    @Override
+    public int pollMin() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        int min = root;
+        // first pass: link the children of the old root in pairs, from left to right
+        int mergeCount = 0;
+        int next = child[min];
+        while (next != -1) {
+            int first = next;
+            int second = sibling[first];
+            next = second == -1 ? -1 : sibling[second];
+            detach(first);
+            if (second != -1) {
+                detach(second);
+                first = link(first, second);
+            }
+            if (mergeCount == merges.length) {
+                merges = Arrays.copyOf(merges, 2 * mergeCount);
+            }
+            merges[mergeCount++] = first;
+        }
+        // second pass: link the pairs together, from right to left
+        root = -1;
+        for (int i = mergeCount - 1; i >= 0; i--) {
+            root = root == -1 ? merges[i] : link(merges[i], root);
+        }
+        child[min] = -1;
+        inHeap[min] = false;
+        size--;
+        checkRep();
+        return min;
+    }
+
+    /**
+     * Removes every id from the heap. Takes time proportional to the number of ids in the heap, not to its
+     * capacity, and allocates nothing.
+     */
+    @Override
+    public void clear() {
+        if (root != -1) {
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int id = stack[--top];
+                for (int c = child[id]; c != -1; c = sibling[c]) {
+                    stack[top++] = c;
+                }
+                child[id] = -1;
+                sibling[id] = -1;
+                previous[id] = -1;
+                inHeap[id] = false;
+            }
+        }
+        root = -1;
+        size = 0;
+        checkRep();
+    }
+
+    /**
+     * Makes the root with the larger key the first child of the root with the smaller key.
+     *
+     * @param a the root of a tree that has no parent and no siblings
+     * @param b the root of another tree that has no parent and no siblings
+     * @return the root of the linked tree
+     */
+    private int link(int a, int b) {
+        if (keys[b] < keys[a]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        int first = child[a];
+        sibling[b] = first;
+        if (first != -1) {
+            previous[first] = b;
+        }
+        previous[b] = a;
+        child[a] = b;
+        return a;
+    }
+
+    /**
+     * Removes the tree below the passed-in id from its parent and siblings.
+     *
+     * @param id an id in the heap that is not the root
+     */
+    private void cut(int id) {
+        int before = previous[id];
+        if (child[before] == id) {
+            child[before] = sibling[id];
+        } else {
+            sibling[before] = sibling[id];
+        }
+        if (sibling[id] != -1) {
+            previous[sibling[id]] = before;
+        }
+        sibling[id] = -1;
+        previous[id] = -1;
+    }
+
+    /**
+     * Forgets the parent and siblings of a child of a root that is being removed.
+     *
+     * @param id a child of the root that is being removed
+     */
+    private void detach(int id) {
+        sibling[id] = -1;
+        previous[id] = -1;
+    }
+}
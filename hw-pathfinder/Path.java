@@ -94,6 +94,43 @@ public class Path<E> implements Iterable<Path<E>.Segment> {
         return extendedPath;
     }
 
+    /**
+     * Appends a sequence of segments to the end of this path in a single copy. The first segment
+     * originates at the current last node in this path and terminates at {@code newEnds.get(0)},
+     * and each later segment i terminates at {@code newEnds.get(i)}, with a cost of
+     * {@code segmentCosts[i]}. The returned Path is equal to the one made by calling
+     * Path#extend(Object, double) once per segment, in order.
+     *
+     * @param newEnds      The nodes at the ends of the segments being appended, in order.
+     * @param segmentCosts The costs of the segments being appended, in the same order.
+     * @throws IllegalArgumentException if newEnds.size() != segmentCosts.length
+     * @return A new path representing the current path with the given segments appended to the end.
+     */
+    public Path<E> extend(List<E> newEnds, double[] segmentCosts) {
+        checkRep();
+        if(newEnds.size() != segmentCosts.length) {
+            throw new IllegalArgumentException("Every new node needs exactly one segment cost.");
+        }
+        //
+        Path<E> extendedPath = new Path<>(start);
+        extendedPath.path = new ArrayList<>(this.path.size() + newEnds.size());
+        extendedPath.path.addAll(this.path);
+        E segmentStart = this.getEnd();
+        double extendedCost = this.cost;
+        for(int i = 0; i < segmentCosts.length; i++) {
+            E segmentEnd = newEnds.get(i);
+            extendedPath.path.add(new Segment(segmentStart, segmentEnd, segmentCosts[i]));
+            extendedCost = extendedCost + segmentCosts[i];
+            segmentStart = segmentEnd;
+        }
+        extendedPath.cost = extendedCost;
+        //
+        extendedPath.checkRep();
+        checkRep();
+        //
+        return extendedPath;
+    }
+
     /**
      * @return The total cost along this path.
      */
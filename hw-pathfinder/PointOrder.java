@@ -0,0 +1,139 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import graph.NodeOrder;
+import pathfinder.datastructures.Point;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * <p>PointOrder orders the locations of a map along a space-filling curve, for DoubleWeightedGraph#renumber(int[]).
+ * A space-filling curve visits every cell of a grid laid over the map, so locations that are close to each other
+ * on the map tend to be close along the curve and get nearby ids. A search spreads out over the map, so with
+ * these ids the arrays it touches stay close together in memory.</p>
+ *
+ * <p>The Hilbert curve only ever steps to a neighboring cell, so it keeps nearby locations together better than
+ * the Z-order curve, which jumps between quadrants but is cheaper to compute.</p>
+ */
+public class PointOrder {
+
+    /** The number of bits of each coordinate of a grid cell, so the grid has 2^CELL_BITS cells on a side. */
+    private static final int CELL_BITS = 16;
+
+    /**
+     * Orders the locations of the passed-in snapshot along the Hilbert curve over their coordinates.
+     *
+     * @param graph the snapshot to order the locations of
+     * @throws IllegalArgumentException if graph == null
+     * @return an array holding, at each new id, the old id of the location that takes it
+     */
+    public static int[] hilbert(DoubleWeightedGraph<Point> graph) throws IllegalArgumentException {
+        return PointOrder.alongCurve(graph, PointOrder::hilbertIndex);
+    }
+
+    /**
+     * Orders the locations of the passed-in snapshot along the Z-order (Morton) curve over their coordinates.
+     *
+     * @param graph the snapshot to order the locations of
+     * @throws IllegalArgumentException if graph == null
+     * @return an array holding, at each new id, the old id of the location that takes it
+     */
+    public static int[] zOrder(DoubleWeightedGraph<Point> graph) throws IllegalArgumentException {
+        return PointOrder.alongCurve(graph, (x, y) -> spread(x) | (spread(y) << 1));
+    }
+
+    /**
+     * Orders the locations of the passed-in snapshot by the position of their grid cells along a curve (helper
+     * procedure). The grid covers the bounding box of the locations.
+     *
+     * @param graph the snapshot to order the locations of
+     * @param curve gives the position along the curve of the cell with the passed-in column and row
+     * @throws IllegalArgumentException if graph == null
+     * @return an array holding, at each new id, the old id of the location that takes it
+     */
+    private static int[] alongCurve(DoubleWeightedGraph<Point> graph, LongBinaryOperator curve)
+            throws IllegalArgumentException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        int nodeCount = graph.getNodeCount();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int id = 0; id < nodeCount; id++) {
+            Point point = graph.getNode(id);
+            minX = Math.min(minX, point.getX());
+            minY = Math.min(minY, point.getY());
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+        }
+        long[] keys = new long[nodeCount];
+        for (int id = 0; id < nodeCount; id++) {
+            Point point = graph.getNode(id);
+            keys[id] = curve.applyAsLong(cell(point.getX(), minX, maxX), cell(point.getY(), minY, maxY));
+        }
+        return NodeOrder.byKey(keys);
+    }
+
+    /**
+     * Finds the grid column or row of the passed-in coordinate (helper procedure).
+     *
+     * @param value the coordinate
+     * @param min the smallest coordinate of any location
+     * @param max the largest coordinate of any location
+     * @return the column or row, from 0 to 2^CELL_BITS - 1, that value falls in
+     */
+    private static long cell(double value, double min, double max) {
+        double extent = max - min;
+        if (!(extent > 0) || Double.isInfinite(extent)) {
+            return 0;
+        }
+        long last = (1L << CELL_BITS) - 1;
+        return Math.min(last, (long) ((value - min) / extent * last));
+    }
+
+    /**
+     * Finds the position along the Hilbert curve of the cell with the passed-in column and row (helper
+     * procedure). Starting from the whole grid, each step picks the quadrant that holds the cell, adds the number
+     * of cells in the quadrants that the curve visits before it, and then turns the cell into the orientation of
+     * the curve inside that quadrant.
+     *
+     * @param x the column of the cell
+     * @param y the row of the cell
+     * @return the position of the cell along the curve, from 0 to 2^(2 * CELL_BITS) - 1
+     */
+    private static long hilbertIndex(long x, long y) {
+        long side = 1L << CELL_BITS;
+        long index = 0;
+        for (long half = side / 2; half > 0; half /= 2) {
+            long right = ((x & half) != 0) ? 1 : 0;
+            long top = ((y & half) != 0) ? 1 : 0;
+            index += half * half * ((3 * right) ^ top);
+            if (top == 0) {
+                if (right == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                long swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Spreads the bits of the passed-in column or row apart, so that bit i moves to bit 2i (helper procedure).
+     *
+     * @param value a column or row of the grid
+     * @return value with a zero bit after each of its bits
+     */
+    private static long spread(long value) {
+        value = (value | (value << 8)) & 0x00FF00FFL;
+        value = (value | (value << 4)) & 0x0F0F0F0FL;
+        value = (value | (value << 2)) & 0x33333333L;
+        value = (value | (value << 1)) & 0x55555555L;
+        return value;
+    }
+}
@@ -0,0 +1,72 @@
+package pathfinder.datastructures;
+
+import java.util.Locale;
+
+/**
+ * <p>QueueKind represents the implementations of NodeQueue that a search can finish its nodes from. Which one
+ * is fastest depends on the graph and on the search, so it is chosen by configuration instead of in the code:
+ * {@link #fromConfiguration()} reads the name of a kind from the system property {@value #PROPERTY}, for
+ * example {@code -Dpathfinder.queue=radix}.</p>
+ */
+public enum QueueKind {
+
+    /**
+     * A binary heap (IndexedMinHeap). Takes logarithmic time per operation, and works with any keys.
+     */
+    BINARY {
+        @Override
+        public NodeQueue create(int capacity) {
+            return new IndexedMinHeap(capacity);
+        }
+    },
+
+    /**
+     * A pairing heap (PairingHeap). Inserts and lowers keys in constant time, and works with any keys.
+     */
+    PAIRING {
+        @Override
+        public NodeQueue create(int capacity) {
+            return new PairingHeap(capacity);
+        }
+    },
+
+    /**
+     * A radix heap (RadixHeap). Moves each id at most 64 times over a whole search, but only works with
+     * non-negative, monotone keys such as those of Dijkstra search.
+     */
+    RADIX {
+        @Override
+        public NodeQueue create(int capacity) {
+            return new RadixHeap(capacity);
+        }
+    };
+
+    /** The system property that names the kind that fromConfiguration returns. */
+    public static final String PROPERTY = "pathfinder.queue";
+
+    /**
+     * Creates a new empty queue of this kind.
+     *
+     * @param capacity one more than the largest id that the queue can hold
+     * @throws IllegalArgumentException if capacity &lt; 0
+     * @return a new empty NodeQueue of this kind that can hold the ids 0 through capacity - 1
+     */
+    public abstract NodeQueue create(int capacity);
+
+    /**
+     * Finds the kind named by the system property {@value #PROPERTY}, ignoring case.
+     *
+     * @return the kind named by the property, or BINARY if the property is not set or names no kind
+     */
+    public static QueueKind fromConfiguration() {
+        String name = System.getProperty(PROPERTY);
+        if (name != null) {
+            for (QueueKind kind : values()) {
+                if (kind.name().equals(name.trim().toUpperCase(Locale.ROOT))) {
+                    return kind;
+                }
+            }
+        }
+        return BINARY;
+    }
+}
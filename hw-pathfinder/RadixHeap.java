@@ -0,0 +1,286 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * <p>This mutable class represents a radix heap of node ids in [0, capacity) ordered by a non-negative double
+ * key. A radix heap is a monotone queue: no key that is inserted or lowered may be smaller than the key of the
+ * last id that was removed, which is true of the keys of Dijkstra search. It sorts the ids into buckets by the
+ * highest bit in which their key differs from that last key, so an id only ever moves to a lower bucket, and each
+ * id moves at most 64 times over a whole search instead of doing a logarithmic number of comparisons per
+ * operation.</p>
+ *
+ * <p>The buckets are kept over the IEEE 754 bits of each key rather than over a quantized distance. For
+ * non-negative doubles the order of the bits as longs is the same as the order of the values, so the heap is
+ * exact: nearly equal costs come out in the order of their keys, and no rounding of the keys has to be fixed up
+ * afterwards. Ids with equal keys come out in no particular order, which is not always the order that a
+ * comparison heap would give.</p>
+ *
+ * <p>A key that is smaller than the last key by a rounding error, as floating-point estimates of A* search can
+ * produce, is treated as equal to the last key, so that it can still be removed next. A rounding error is at most
+ * {@value #TOLERANCE} times the last key; a key that is smaller than that is rejected, since it means the keys
+ * are not monotone and the heap could not return the ids in order.</p>
+ *
+ * @spec.specfield <p>entries : a set of (id, key) pairs with distinct ids. // The ids in the heap.</p>
+ * @spec.specfield <p>capacity : int // One more than the largest id that the heap can hold.</p>
+ * @spec.specfield <p>last : double // The key of the last id that was removed, or 0.</p>
+ */
+public class RadixHeap implements NodeQueue {
+
+    /** The number of buckets: one for keys equal to last, and one for each bit in which a key can differ. */
+    private static final int BUCKET_COUNT = 65;
+
+    /** How far below the last key, relative to it, a key may be and still be treated as equal to it. */
+    private static final double TOLERANCE = 1e-9;
+
+    /** The ids in each bucket, in buckets[b][0] to buckets[b][bucketSizes[b] - 1]. */
+    private final int[][] buckets;
+
+    /** The number of ids in each bucket. */
+    private final int[] bucketSizes;
+
+    /** The bucket of each id, or -1 if the id is not in the heap. */
+    private final int[] bucketOf;
+
+    /** The index of each id in its bucket. */
+    private final int[] indexInBucket;
+
+    /** The key of each id that is in the heap. */
+    private final double[] keys;
+
+    /** The bits of the key of each id that is in the heap, as used to find its bucket. */
+    private final long[] bits;
+
+    /** The bits of the key of the last id that was removed, or of 0. */
+    private long last;
+
+    /** The number of ids in the heap. */
+    private int size;
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    // AF(this) =
+    //      entries => {(id, keys[id]) | bucketOf[id] != -1}
+    //      capacity => keys.length
+    //      last => Double.longBitsToDouble(last)
+
+    // Rep Invariant:
+    //      buckets.length == bucketSizes.length == BUCKET_COUNT &&
+    //      bucketOf, indexInBucket, keys and bits have the same length &&
+    //      for every bucket b and 0 <= i < bucketSizes[b], bucketOf[buckets[b][i]] == b &&
+    //      indexInBucket[buckets[b][i]] == i &&
+    //      for every id in the heap, last <= bits[id] && bucketOf[id] == bucket(bits[id]) &&
+    //      size is the sum of bucketSizes
+    //  In other words:
+    //  - Every id in the heap is in the bucket of the highest bit in which its key differs from last, or in
+    //    bucket 0 if its key equals last
+    //  - No key in the heap is smaller than last
+
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert buckets.length == BUCKET_COUNT && bucketSizes.length == BUCKET_COUNT : "wrong number of buckets";
+        assert bucketOf.length == keys.length && indexInBucket.length == keys.length
+                && bits.length == keys.length : "arrays have different lengths";
+        if (DEBUG) {
+            int counted = 0;
+            for (int b = 0; b < BUCKET_COUNT; b++) {
+                for (int i = 0; i < bucketSizes[b]; i++) {
+                    int id = buckets[b][i];
+                    assert bucketOf[id] == b && indexInBucket[id] == i : "an id does not map back to its bucket";
+                    assert last <= bits[id] && bucket(bits[id]) == b : "an id is in the wrong bucket";
+                }
+                counted += bucketSizes[b];
+            }
+            assert counted == size : "size does not match the buckets";
+        }
+    }
+
+    /**
+     * Creates a new empty heap that can hold the ids 0 through capacity - 1.
+     *
+     * @param capacity one more than the largest id that the heap can hold
+     * @throws IllegalArgumentException if capacity &lt; 0
+     */
+    public RadixHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity may not be negative.");
+        }
+        this.buckets = new int[BUCKET_COUNT][];
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            buckets[b] = new int[4];
+        }
+        this.bucketSizes = new int[BUCKET_COUNT];
+        this.bucketOf = new int[capacity];
+        this.indexInBucket = new int[capacity];
+        this.keys = new double[capacity];
+        this.bits = new long[capacity];
+        this.last = 0;
+        this.size = 0;
+        Arrays.fill(bucketOf, -1);
+        checkRep();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return bucketOf[id] != -1;
+    }
+
+    @Override
+    public double getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if key &lt; 0 or key is NaN, or if key is smaller than the last key by
+     *                                  more than a rounding error
+     */
+    @Override
+    public boolean insertOrDecrease(int id, double key) {
+        if (!(key >= 0)) {
+            throw new IllegalArgumentException("Keys of a radix heap may not be negative.");
+        }
+        boolean present = bucketOf[id] != -1;
+        if (present && keys[id] <= key) {
+            return false;
+        }
+        // adding 0.0 turns -0.0 into 0.0, whose bits are the smallest
+        long keyBits = Double.doubleToLongBits(key + 0.0);
+        if (keyBits < last) {
+            double lastKey = Double.longBitsToDouble(last);
+            if (lastKey - key > TOLERANCE * lastKey) {
+                throw new IllegalArgumentException("Keys of a radix heap may not be smaller than the last key.");
+            }
+            keyBits = last;
+        }
+        if (present) {
+            remove(id);
+        } else {
+            size++;
+        }
+        keys[id] = key;
+        bits[id] = keyBits;
+        add(id, bucket(keyBits));
+        checkRep();
+        return true;
+    }
+
+    @Override
+    public int peekMin() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+        if (bucketSizes[0] == 0) {
+            redistribute();
+        }
+        return buckets[0][bucketSizes[0] - 1];
+    }
+
+    @Override
+    public int pollMin() {
+        int min = peekMin();
+        remove(min);
+        size--;
+        checkRep();
+        return min;
+    }
+
+    /**
+     * Removes every id from the heap and sets last back to 0. Takes time proportional to the number of ids in
+     * the heap, not to its capacity.
+     */
+    @Override
+    public void clear() {
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            for (int i = 0; i < bucketSizes[b]; i++) {
+                bucketOf[buckets[b][i]] = -1;
+            }
+            bucketSizes[b] = 0;
+        }
+        last = 0;
+        size = 0;
+        checkRep();
+    }
+
+    /**
+     * Finds the bucket of the passed-in key bits relative to last.
+     *
+     * @param keyBits the bits of a key
+     * @spec.requires keyBits &gt;= last
+     * @return 0 if keyBits == last, and otherwise one more than the index of the highest bit in which keyBits
+     * differs from last
+     */
+    private int bucket(long keyBits) {
+        return 64 - Long.numberOfLeadingZeros(keyBits ^ last);
+    }
+
+    /**
+     * Moves last to the smallest key in the heap, and moves the ids of the first non-empty bucket down into the
+     * buckets that they belong in relative to the new last, so that bucket 0 is no longer empty.
+     *
+     * @spec.requires size &gt; 0 and bucket 0 is empty
+     */
+    private void redistribute() {
+        int b = 1;
+        while (bucketSizes[b] == 0) {
+            b++;
+        }
+        int[] moving = buckets[b];
+        int movingCount = bucketSizes[b];
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0; i < movingCount; i++) {
+            smallest = Math.min(smallest, bits[moving[i]]);
+        }
+        last = smallest;
+        // every id of bucket b agrees with the new last above bit b - 1, so it moves to a lower bucket and
+        // the array of bucket b is not written while it is read
+        bucketSizes[b] = 0;
+        for (int i = 0; i < movingCount; i++) {
+            int id = moving[i];
+            add(id, bucket(bits[id]));
+        }
+    }
+
+    /**
+     * Appends the id to the passed-in bucket.
+     *
+     * @param id an id that is not in any bucket
+     * @param b the bucket to add it to
+     */
+    private void add(int id, int b) {
+        if (bucketSizes[b] == buckets[b].length) {
+            buckets[b] = Arrays.copyOf(buckets[b], 2 * buckets[b].length);
+        }
+        buckets[b][bucketSizes[b]] = id;
+        bucketOf[id] = b;
+        indexInBucket[id] = bucketSizes[b];
+        bucketSizes[b]++;
+    }
+
+    /**
+     * Removes the id from its bucket by moving the last id of the bucket into its place.
+     *
+     * @param id an id that is in a bucket
+     */
+    private void remove(int id) {
+        int b = bucketOf[id];
+        int lastIndex = --bucketSizes[b];
+        int moved = buckets[b][lastIndex];
+        buckets[b][indexInBucket[id]] = moved;
+        indexInBucket[moved] = indexInBucket[id];
+        bucketOf[id] = -1;
+    }
+}
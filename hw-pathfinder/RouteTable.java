@@ -0,0 +1,213 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <p>This immutable class represents the precomputed shortest paths from each of a fixed set of source nodes,
+ * such as the buildings of a campus, to every node of a weighted snapshot. It is built with one single-source
+ * search per source, run in parallel, and afterwards answers any query from a source with a lookup of the cost
+ * and a walk back along the predecessors, without searching at all.</p>
+ *
+ * <p>The costs between every pair of sources are also kept in a matrix of their own, so that the costs between
+ * sources can be read without going through the trees.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>graph : the weighted snapshot that the table was built for. // The graph.</p>
+ * @spec.specfield <p>sources : a sequence of distinct node ids of graph. // The nodes that queries start at.</p>
+ * @spec.specfield <p>trees : the ShortestPathTree of each source. // The precomputed paths.</p>
+ */
+public class RouteTable<N> {
+
+    /** The weighted snapshot that the table was built for. */
+    private final DoubleWeightedGraph<N> graph;
+
+    /** The node ids of the sources. */
+    private final int[] sources;
+
+    /** The row of each node id in trees and costs, or -1 if the node is not a source. */
+    private final int[] rowOf;
+
+    /** The ShortestPathTree of each source, in the order of sources. */
+    private final List<ShortestPathTree<N>> trees;
+
+    /** The cost of the shortest path from sources[i] to sources[j] at costs[i][j], or infinity. */
+    private final double[][] costs;
+
+    // Abstraction Function:
+    //    AF(r) = route table t such that
+    //      t.graph = r.graph
+    //      t.sources = r.sources
+    //      t.trees = r.trees
+    //
+    // Representation Invariant for every RouteTable t:
+    //  graph != null && sources, rowOf, trees and costs != null &&
+    //  rowOf.length == graph.getNodeCount() && trees.size() == costs.length == sources.length &&
+    //  for all i, rowOf[sources[i]] == i && trees.get(i).getSourceId() == sources[i] &&
+    //      trees.get(i).getGraph() == graph &&
+    //      for all j, costs[i][j] == trees.get(i).getDistance(sources[j]) &&
+    //  rowOf[id] == -1 for every id that is not a source
+    //  In other words:
+    //  - There is one tree and one row of costs per source, and rowOf finds them from a node id
+    //  - The cost matrix agrees with the trees
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert graph != null && sources != null && rowOf != null : "table should be created";
+        assert trees.size() == sources.length && costs.length == sources.length : "one row per source";
+    }
+
+    /**
+     * Creates a new RouteTable from the trees of its sources.
+     *
+     * @param graph the weighted snapshot that the trees were found in
+     * @param sources the node ids of the sources
+     * @param trees the ShortestPathTree of each source, in the order of sources
+     * @spec.requires the sources are distinct node ids of graph and the trees were found in graph
+     */
+    private RouteTable(DoubleWeightedGraph<N> graph, int[] sources, List<ShortestPathTree<N>> trees) {
+        this.graph = graph;
+        this.sources = sources;
+        this.trees = trees;
+        this.rowOf = new int[graph.getNodeCount()];
+        Arrays.fill(rowOf, -1);
+        for (int i = 0; i < sources.length; i++) {
+            rowOf[sources[i]] = i;
+        }
+        this.costs = new double[sources.length][sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < sources.length; j++) {
+                costs[i][j] = trees.get(i).getDistance(sources[j]);
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Builds a RouteTable for the passed-in sources, running their searches on the common ForkJoinPool.
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot to build the table for
+     * @param sourceIds the node ids of the sources
+     * @throws IllegalArgumentException under the same conditions as build(DoubleWeightedGraph, int[], ForkJoinPool)
+     * @return a RouteTable with the shortest paths from every source
+     */
+    public static <N> RouteTable<N> build(DoubleWeightedGraph<N> graph, int[] sourceIds)
+            throws IllegalArgumentException {
+        return RouteTable.build(graph, sourceIds, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds a RouteTable for the passed-in sources. Each source gets its own single-source search, and the
+     * searches run in parallel as separate tasks on the passed-in pool; this method waits for all of them.
+     *
+     * @param <N> the node type
+     * @param graph the weighted snapshot to build the table for
+     * @param sourceIds the node ids of the sources
+     * @param pool the pool to run the searches on
+     * @throws IllegalArgumentException if any argument is null, or if the ids are not distinct node ids of graph
+     * @return a RouteTable with the shortest paths from every source
+     */
+    public static <N> RouteTable<N> build(DoubleWeightedGraph<N> graph, int[] sourceIds, ForkJoinPool pool)
+            throws IllegalArgumentException {
+        if (graph == null || sourceIds == null || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        boolean[] seen = new boolean[graph.getNodeCount()];
+        for (int id : sourceIds) {
+            if (id < 0 || id >= seen.length || seen[id]) {
+                throw new IllegalArgumentException();
+            }
+            seen[id] = true;
+        }
+        int[] sources = sourceIds.clone();
+        List<ForkJoinTask<ShortestPathTree<N>>> tasks = new ArrayList<>(sources.length);
+        for (int id : sources) {
+            tasks.add(pool.submit(() -> ShortestPath.getShortestPathTree(graph, id)));
+        }
+        List<ShortestPathTree<N>> trees = new ArrayList<>(sources.length);
+        for (ForkJoinTask<ShortestPathTree<N>> task : tasks) {
+            trees.add(task.join());
+        }
+        return new RouteTable<>(graph, sources, trees);
+    }
+
+    /**
+     * @return the weighted snapshot that this table was built for
+     */
+    public DoubleWeightedGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @param id the id of a node of the snapshot
+     * @return true iff the node with the passed-in id is a source of this table
+     */
+    public boolean isSource(int id) {
+        return id >= 0 && id < rowOf.length && rowOf[id] != -1;
+    }
+
+    /**
+     * Gets the precomputed tree of shortest paths from the passed-in source.
+     *
+     * @param sourceId the id of a source of this table
+     * @throws IllegalArgumentException if !(isSource(sourceId))
+     * @return the ShortestPathTree from the source with the passed-in id
+     */
+    public ShortestPathTree<N> getTree(int sourceId) throws IllegalArgumentException {
+        return trees.get(row(sourceId));
+    }
+
+    /**
+     * Gets the cost of the shortest path from a source to a node.
+     *
+     * @param sourceId the id of a source of this table
+     * @param endId the id of a node of the snapshot
+     * @throws IllegalArgumentException if !(isSource(sourceId))
+     * @spec.requires 0 &lt;= endId &lt; getGraph().getNodeCount()
+     * @return the cost of the shortest path between the two nodes, or {@link Double#POSITIVE_INFINITY} if there
+     * is none
+     */
+    public double getCost(int sourceId, int endId) throws IllegalArgumentException {
+        int row = row(sourceId);
+        if (rowOf[endId] != -1) {
+            return costs[row][rowOf[endId]];
+        }
+        return trees.get(row).getDistance(endId);
+    }
+
+    /**
+     * Gets the shortest path from a source to a node by walking back along the precomputed tree of the source.
+     *
+     * @param sourceId the id of a source of this table
+     * @param endId the id of a node of the snapshot
+     * @throws IllegalArgumentException if !(isSource(sourceId))
+     * @spec.requires 0 &lt;= endId &lt; getGraph().getNodeCount()
+     * @return A path between the nodes with ids {@code sourceId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public Path<N> getShortestPathById(int sourceId, int endId) throws IllegalArgumentException {
+        return trees.get(row(sourceId)).pathTo(endId);
+    }
+
+    /**
+     * Finds the row of the passed-in source (helper procedure).
+     *
+     * @param sourceId the id of a node of the snapshot
+     * @throws IllegalArgumentException if !(isSource(sourceId))
+     * @return the row of the source in trees and costs
+     */
+    private int row(int sourceId) throws IllegalArgumentException {
+        if (!(isSource(sourceId))) {
+            throw new IllegalArgumentException();
+        }
+        return rowOf[sourceId];
+    }
+}
@@ -0,0 +1,88 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * <p>A RoutingEngine finds the shortest path between two nodes of a weighted snapshot by some search
+ * algorithm. Every correct engine returns a path with the same cost, so engines can be swapped for each other,
+ * and compared, without changing the answers; they only differ in how fast they find them. Engines are
+ * registered by name in a RoutingEngineRegistry, which is how a CampusMap chooses one per query.</p>
+ *
+ * <p>An engine may answer from structures that it precomputed for an earlier snapshot, such as a Contraction
+ * Hierarchy, as long as they describe the same nodes and ids.</p>
+ *
+ * @param <N> the node type
+ */
+@FunctionalInterface
+public interface RoutingEngine<N> {
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids,
+     * giving up once the passed-in budget is used up. Engines that only look up precomputed paths, or whose
+     * searches are small by construction, may ignore the budget.
+     *
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @param budget the limit on the work of the search
+     * @throws SearchBudgetExceededException if the budget is used up before the engine is done
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount(), budget != null
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    Path<N> getShortestPathById(DoubleWeightedGraph<N> graph, int startId, int endId, SearchBudget budget)
+            throws SearchBudgetExceededException;
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids,
+     * without any limit on the work of the search.
+     *
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount()
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    default Path<N> getShortestPathById(DoubleWeightedGraph<N> graph, int startId, int endId) {
+        return getShortestPathById(graph, startId, endId, SearchBudget.unlimited());
+    }
+
+    /**
+     * @param <N> the node type
+     * @return an engine that runs Dijkstra search from the start node
+     */
+    static <N> RoutingEngine<N> dijkstra() {
+        return ShortestPath::getShortestPathById;
+    }
+
+    /**
+     * @param <N> the node type
+     * @return an engine that runs Dijkstra search from both ends at once
+     */
+    static <N> RoutingEngine<N> bidirectional() {
+        return ShortestPath::getShortestPathBidirectionalById;
+    }
+
+    /**
+     * @param <N> the node type
+     * @param heuristic a consistent estimate of the cost between two nodes
+     * @throws IllegalArgumentException if heuristic == null
+     * @return an engine that runs A* search from the start node, guided by heuristic
+     */
+    static <N> RoutingEngine<N> aStar(ToDoubleBiFunction<N,N> heuristic) throws IllegalArgumentException {
+        if (heuristic == null) {
+            throw new IllegalArgumentException();
+        }
+        return (graph, startId, endId, budget) -> {
+            N end = graph.getNode(endId);
+            return ShortestPath.getShortestPathByIdGuided(graph, startId, endId,
+                    id -> heuristic.applyAsDouble(graph.getNode(id), end), budget);
+        };
+    }
+}
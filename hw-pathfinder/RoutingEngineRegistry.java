@@ -0,0 +1,90 @@
+package pathfinder;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>This mutable, thread-safe class represents a set of RoutingEngines, each registered under a distinct name
+ * such as "dijkstra" or "astar". Looking up an engine never blocks, so an engine can be chosen by name for every
+ * query, and an engine can be added or replaced while queries are running.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>engines : a map from distinct names to RoutingEngines. // The registered engines.</p>
+ */
+public class RoutingEngineRegistry<N> {
+
+    /** The registered engines by name. */
+    private final Map<String, RoutingEngine<N>> engines;
+
+    // Abstraction Function:
+    //    AF(r) = registry g such that g.engines = r.engines
+    //
+    // Representation Invariant for every RoutingEngineRegistry g:
+    //  engines != null && no name or engine in engines is null
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert engines != null : "engines should be created";
+    }
+
+    /**
+     * Creates a new registry with no engines.
+     *
+     * @spec.effects sets engines as empty
+     */
+    public RoutingEngineRegistry() {
+        this.engines = new ConcurrentHashMap<>();
+        checkRep();
+    }
+
+    /**
+     * Registers the passed-in engine under the passed-in name, replacing any engine that had that name.
+     *
+     * @param name the name to register the engine under
+     * @param engine the engine to register
+     * @throws IllegalArgumentException if name == null or engine == null
+     * @spec.modifies engines
+     * @spec.effects maps name to engine
+     */
+    public void register(String name, RoutingEngine<N> engine) throws IllegalArgumentException {
+        if (name == null || engine == null) {
+            throw new IllegalArgumentException();
+        }
+        engines.put(name, engine);
+        checkRep();
+    }
+
+    /**
+     * @param name the name to look up
+     * @return true iff an engine is registered under the passed-in name
+     */
+    public boolean contains(String name) {
+        return name != null && engines.containsKey(name);
+    }
+
+    /**
+     * Gets the engine registered under the passed-in name.
+     *
+     * @param name the name of the engine
+     * @throws IllegalArgumentException if !(contains(name))
+     * @return the engine registered under the passed-in name
+     */
+    public RoutingEngine<N> get(String name) throws IllegalArgumentException {
+        RoutingEngine<N> engine = (name == null) ? null : engines.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("No routing engine is named " + name + ".");
+        }
+        return engine;
+    }
+
+    /**
+     * @return an unmodifiable set of the names of the registered engines, in alphabetical order
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(new TreeSet<>(engines.keySet()));
+    }
+}
@@ -0,0 +1,156 @@
+package pathfinder;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>This immutable class represents a limit on how much work a single search may do: at most a number of
+ * finished (settled) nodes, until a deadline, and only until a cancellation flag is raised. A search that is
+ * given a budget checks it as it finishes nodes, and throws a SearchBudgetExceededException as soon as any part
+ * of it is used up, so a query to an unreachable or far-away node cannot hold its thread for long.</p>
+ *
+ * <p>The node limit is checked for every finished node. The deadline and the cancellation flag cost more to read,
+ * so they are only checked for the first finished node and then once every CHECK_INTERVAL finished nodes; a
+ * search may therefore run for that many nodes past its deadline or its cancellation.</p>
+ *
+ * <p>A budget is built from unlimited() by the with methods, which each return a new budget, for example
+ * {@code SearchBudget.unlimited().withMaxSettledNodes(50000).withTimeout(Duration.ofMillis(200))}.</p>
+ *
+ * @spec.specfield <p>maxSettledNodes : int // The most nodes a search may finish.</p>
+ * @spec.specfield <p>deadline : the point in time after which a search must stop, or none.</p>
+ * @spec.specfield <p>cancelled : the flag that stops a search once it is true, or none.</p>
+ */
+public final class SearchBudget {
+
+    /** The number of finished nodes between two checks of the deadline and the cancellation flag. */
+    public static final int CHECK_INTERVAL = 256;
+
+    /** The budget that never stops a search. */
+    private static final SearchBudget UNLIMITED = new SearchBudget(Integer.MAX_VALUE, false, 0, null);
+
+    /** The most nodes a search may finish. */
+    private final int maxSettledNodes;
+
+    /** Whether the budget has a deadline. */
+    private final boolean hasDeadline;
+
+    /** The deadline, as a value of System.nanoTime(), only used if hasDeadline. */
+    private final long deadlineNanos;
+
+    /** The flag that stops a search once it is true, or null. */
+    private final BooleanSupplier cancelled;
+
+    // Abstraction Function:
+    //    AF(r) = budget b such that
+    //      b.maxSettledNodes = r.maxSettledNodes
+    //      b.deadline = r.deadlineNanos if r.hasDeadline, and none otherwise
+    //      b.cancelled = r.cancelled, or none if it is null
+    //
+    // Representation Invariant for every SearchBudget b:
+    //  maxSettledNodes >= 0
+
+    /**
+     * Creates a new budget.
+     *
+     * @param maxSettledNodes the most nodes a search may finish
+     * @param hasDeadline whether the budget has a deadline
+     * @param deadlineNanos the deadline as a value of System.nanoTime()
+     * @param cancelled the flag that stops a search, or null
+     * @spec.requires maxSettledNodes &gt;= 0
+     */
+    private SearchBudget(int maxSettledNodes, boolean hasDeadline, long deadlineNanos, BooleanSupplier cancelled) {
+        this.maxSettledNodes = maxSettledNodes;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * @return a budget with no node limit, no deadline and no cancellation flag
+     */
+    public static SearchBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * @param maxSettledNodes the most nodes a search may finish
+     * @throws IllegalArgumentException if maxSettledNodes &lt; 0
+     * @return a budget that is the same as this one, except that it allows at most maxSettledNodes finished nodes
+     */
+    public SearchBudget withMaxSettledNodes(int maxSettledNodes) throws IllegalArgumentException {
+        if (maxSettledNodes < 0) {
+            throw new IllegalArgumentException();
+        }
+        return new SearchBudget(maxSettledNodes, hasDeadline, deadlineNanos, cancelled);
+    }
+
+    /**
+     * Sets a deadline the passed-in time from now, so the clock starts when this method is called, not when the
+     * search starts.
+     *
+     * @param timeout how long from now a search may run
+     * @throws IllegalArgumentException if timeout == null or timeout is negative
+     * @return a budget that is the same as this one, except that its deadline is timeout from now
+     */
+    public SearchBudget withTimeout(Duration timeout) throws IllegalArgumentException {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException();
+        }
+        long nanos;
+        try {
+            nanos = timeout.toNanos();
+        } catch (ArithmeticException e) {
+            // a timeout of centuries is the same as none
+            return new SearchBudget(maxSettledNodes, false, 0, cancelled);
+        }
+        return new SearchBudget(maxSettledNodes, true, System.nanoTime() + nanos, cancelled);
+    }
+
+    /**
+     * Sets a cancellation flag, for example the get method of an AtomicBoolean that another thread sets when
+     * the client of the query has gone away.
+     *
+     * @param cancelled the flag that stops a search once it returns true
+     * @throws IllegalArgumentException if cancelled == null
+     * @return a budget that is the same as this one, except that searches stop once cancelled returns true
+     */
+    public SearchBudget withCancellation(BooleanSupplier cancelled) throws IllegalArgumentException {
+        if (cancelled == null) {
+            throw new IllegalArgumentException();
+        }
+        return new SearchBudget(maxSettledNodes, hasDeadline, deadlineNanos, cancelled);
+    }
+
+    /**
+     * @return the most nodes a search may finish
+     */
+    public int getMaxSettledNodes() {
+        return maxSettledNodes;
+    }
+
+    /**
+     * Checks the budget of a search that is about to finish another node. Searches call this once for every
+     * node that they finish.
+     *
+     * @param settledCount the number of nodes the search has finished, counting the one it is about to finish
+     * @throws SearchBudgetExceededException if the search may not finish that many nodes, or if the deadline
+     *                                       has passed or the search was cancelled
+     */
+    public void check(int settledCount) throws SearchBudgetExceededException {
+        if (settledCount > maxSettledNodes) {
+            throw new SearchBudgetExceededException(SearchBudgetExceededException.Reason.SETTLED_NODES,
+                    settledCount - 1);
+        }
+        // the first node is checked too, so a search that starts too late stops at once
+        if (settledCount % CHECK_INTERVAL == 1) {
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                throw new SearchBudgetExceededException(SearchBudgetExceededException.Reason.CANCELLED,
+                        settledCount - 1);
+            }
+            if (hasDeadline && System.nanoTime() - deadlineNanos > 0) {
+                throw new SearchBudgetExceededException(SearchBudgetExceededException.Reason.DEADLINE,
+                        settledCount - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package pathfinder;
+
+/**
+ * This exception results when a search is stopped because it used up its SearchBudget, before it could tell
+ * whether there is a path. It is distinct from a search returning null, which means that there is no path.
+ */
+public class SearchBudgetExceededException extends RuntimeException {
+
+    /**
+     * Reason names the part of a SearchBudget that was used up.
+     */
+    public enum Reason {
+        /** The search finished as many nodes as it was allowed to. */
+        SETTLED_NODES,
+        /** The deadline of the search passed. */
+        DEADLINE,
+        /** The search was cancelled. */
+        CANCELLED
+    }
+
+    /** The part of the budget that was used up. */
+    private final Reason reason;
+
+    /** The number of nodes the search had finished when it was stopped. */
+    private final int settledCount;
+
+    /**
+     * Creates a new exception for a search that was stopped.
+     *
+     * @param reason the part of the budget that was used up
+     * @param settledCount the number of nodes the search had finished when it was stopped
+     */
+    public SearchBudgetExceededException(Reason reason, int settledCount) {
+        super("Search stopped after finishing " + settledCount + " nodes: " + reason);
+        this.reason = reason;
+        this.settledCount = settledCount;
+    }
+
+    /**
+     * @return the part of the budget that was used up
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return the number of nodes the search had finished when it was stopped
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    public static final long serialVersionUID = 3496;
+}
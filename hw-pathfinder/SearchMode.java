@@ -0,0 +1,50 @@
+package pathfinder;
+
+/**
+ * SearchMode names the search algorithms that CampusMap can use to find the shortest path between two
+ * buildings. Every mode finds a path with the same cost; they differ only in how much of the map they have to
+ * look at to find it. Each mode is the RoutingEngine that a CampusMap registers under the mode's engine name.
+ */
+public enum SearchMode {
+
+    /** Dijkstra search from the start, which finishes every location closer than the end. */
+    DIJKSTRA("dijkstra"),
+
+    /** A* search from the start, guided towards the end by the straight-line distance. */
+    A_STAR("astar"),
+
+    /**
+     * A* search from the start, guided towards the end by the larger of the straight-line distance and the
+     * landmark (ALT) lower bound.
+     */
+    LANDMARKS("alt"),
+
+    /** Dijkstra search from both ends at once, which stops when the two searches meet in the middle. */
+    BIDIRECTIONAL("bidirectional"),
+
+    /** Upward bidirectional search over a Contraction Hierarchy that is built once for the map. */
+    CONTRACTION_HIERARCHY("ch"),
+
+    /** Dijkstra search over the map with every chain of walkway points collapsed into a single edge. */
+    CHAINS("chains"),
+
+    /** No search at all: a lookup in the shortest paths from every building, which are found once for the map. */
+    ROUTE_TABLE("table");
+
+    /** The name that the engine of this mode is registered under. */
+    private final String engineName;
+
+    /**
+     * @param engineName the name that the engine of this mode is registered under
+     */
+    SearchMode(String engineName) {
+        this.engineName = engineName;
+    }
+
+    /**
+     * @return the name that a CampusMap registers the engine of this mode under
+     */
+    public String getEngineName() {
+        return engineName;
+    }
+}
@@ -0,0 +1,303 @@
+package pathfinder;
+
+import pathfinder.datastructures.NodeQueue;
+import pathfinder.datastructures.QueueKind;
+
+import java.util.Arrays;
+
+/**
+ * <p>This mutable class represents the scratch memory of a search: for each of up to two sides (the forward
+ * and the backward search of a bidirectional query), the tentative distance, the predecessor and the
+ * estimate of every node id, which ids have been reached and finished, and the queue of the side. A workspace
+ * is kept per thread and reused by every query on that thread, so a query in a steady state allocates nothing
+ * except its result.</p>
+ *
+ * <p>Instead of clearing its arrays between queries, a side stamps each id that it reaches or finishes with the
+ * number of the current query, its generation. Starting a new query only increments the generation, which makes
+ * every id unreached again in constant time, whatever the size of the graph.</p>
+ *
+ * <p>A workspace is not thread-safe. Each thread gets its own one from acquire(), and a search that starts on a
+ * thread while another search on the same thread holds the workspace, for example from inside an estimate,
+ * gets a fresh one instead.</p>
+ *
+ * @spec.specfield <p>forward, backward : Side // The two sides of a search.</p>
+ * @spec.specfield <p>inUse : boolean // Whether a search is using the workspace.</p>
+ */
+final class SearchWorkspace {
+
+    /** The workspace of each thread. */
+    private static final ThreadLocal<SearchWorkspace> PER_THREAD = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    /** The side of a search that starts at the start node. */
+    private final Side forward;
+
+    /** The side of a search that starts at the end node, only used by bidirectional searches. */
+    private final Side backward;
+
+    /** Whether a search is using the workspace. */
+    private boolean inUse;
+
+    // Abstraction Function:
+    //    AF(r) = workspace w such that
+    //      w.forward = r.forward, w.backward = r.backward
+    //      w.inUse = r.inUse
+    //
+    // Representation Invariant for every SearchWorkspace w:
+    //  forward != null && backward != null && forward != backward
+
+    /**
+     * Creates a new workspace whose sides can hold no nodes yet.
+     */
+    private SearchWorkspace() {
+        this.forward = new Side();
+        this.backward = new Side();
+        this.inUse = false;
+    }
+
+    /**
+     * Gets a workspace for a search on the current thread. The caller must call release() when the search is
+     * done, and begin() on each side that it uses before using it.
+     *
+     * @spec.effects sets inUse of the returned workspace as true
+     * @return the workspace of the current thread, or a new workspace if that one is in use
+     */
+    static SearchWorkspace acquire() {
+        SearchWorkspace workspace = PER_THREAD.get();
+        if (workspace.inUse) {
+            workspace = new SearchWorkspace();
+        }
+        workspace.inUse = true;
+        return workspace;
+    }
+
+    /**
+     * Gives the workspace back after a search, so the next search on the thread can use it.
+     *
+     * @spec.effects sets inUse as false
+     */
+    void release() {
+        inUse = false;
+    }
+
+    /**
+     * @return the side of a search that starts at the start node
+     */
+    Side forward() {
+        return forward;
+    }
+
+    /**
+     * @return the side of a search that starts at the end node
+     */
+    Side backward() {
+        return backward;
+    }
+
+    /**
+     * <p>This mutable class represents one side of a search: the nodes that it has reached and finished, with
+     * their distance, predecessor and estimate, and its queue. Reading the distance of an id that has not been
+     * reached in the current generation gives infinity; the predecessor and estimate of such an id are
+     * meaningless.</p>
+     *
+     * @spec.specfield <p>reached : a set of node ids, each with a distance, a predecessor, the weight of the edge
+     *                              from its predecessor and an estimate. // The nodes reached so far.</p>
+     * @spec.specfield <p>finished : a set of node ids // The nodes whose distance is final.</p>
+     * @spec.specfield <p>queue : NodeQueue // The queue of the side.</p>
+     */
+    static final class Side {
+
+        /** The tentative distance of each id that was reached in the current generation. */
+        private double[] dist;
+
+        /** The predecessor (or any id or arc the search wants to remember) of each reached id. */
+        private int[] pred;
+
+        /** The weight of the edge from the predecessor of each reached id. */
+        private double[] predWeight;
+
+        /** The estimate of the cost to the end of each reached id. */
+        private double[] estimate;
+
+        /** The generation in which each id was last reached. */
+        private int[] reachedIn;
+
+        /** The generation in which each id was last finished. */
+        private int[] finishedIn;
+
+        /** The number of the current query. */
+        private int generation;
+
+        /** The queue of the side, created for the length of the arrays. */
+        private NodeQueue queue;
+
+        /** The kind of queue. */
+        private QueueKind queueKind;
+
+        // Abstraction Function:
+        //    AF(r) = side s such that
+        //      s.reached = {id | r.reachedIn[id] == r.generation}, with the values at id in dist, pred,
+        //                  predWeight and estimate
+        //      s.finished = {id | r.finishedIn[id] == r.generation}
+        //      s.queue = r.queue
+        //
+        // Representation Invariant for every Side s:
+        //  dist, pred, predWeight, estimate, reachedIn and finishedIn != null and have the same length &&
+        //  generation > 0 && every stamp in reachedIn and finishedIn is at most generation &&
+        //  (queue == null) == (queueKind == null)
+        //  In other words:
+        //  - No id carries a stamp from a later query, so incrementing the generation forgets every id
+
+        /**
+         * Creates a new side that can hold no nodes yet.
+         */
+        private Side() {
+            this.dist = new double[0];
+            this.pred = new int[0];
+            this.predWeight = new double[0];
+            this.estimate = new double[0];
+            this.reachedIn = new int[0];
+            this.finishedIn = new int[0];
+            this.generation = 1;
+            this.queue = null;
+            this.queueKind = null;
+        }
+
+        /**
+         * Starts a new query on this side, making every id unreached and the queue empty. Only grows the arrays
+         * (the only allocation) when the graph has more nodes than any graph searched before on this side.
+         *
+         * @param nodeCount the number of nodes of the graph to search
+         * @param kind the kind of queue to search with
+         * @spec.modifies reached, finished, queue
+         * @spec.effects sets reached and finished as empty and queue as an empty queue of the passed-in kind
+         *               that can hold the ids 0 through nodeCount - 1
+         */
+        void begin(int nodeCount, QueueKind kind) {
+            if (nodeCount > dist.length) {
+                dist = new double[nodeCount];
+                pred = new int[nodeCount];
+                predWeight = new double[nodeCount];
+                estimate = new double[nodeCount];
+                reachedIn = new int[nodeCount];
+                finishedIn = new int[nodeCount];
+                generation = 1;
+                queue = null;
+            } else if (generation == Integer.MAX_VALUE) {
+                // the stamps would wrap around, so forget them the slow way once
+                Arrays.fill(reachedIn, 0);
+                Arrays.fill(finishedIn, 0);
+                generation = 1;
+            } else {
+                generation++;
+            }
+            if (queue == null || queueKind != kind) {
+                queue = kind.create(dist.length);
+                queueKind = kind;
+            } else {
+                queue.clear();
+            }
+        }
+
+        /**
+         * @return the queue of this side
+         */
+        NodeQueue queue() {
+            return queue;
+        }
+
+        /**
+         * @param id a node id
+         * @return true iff the id was reached in the current query
+         */
+        boolean isReached(int id) {
+            return reachedIn[id] == generation;
+        }
+
+        /**
+         * @param id a node id
+         * @return the tentative distance of the id, or infinity if it has not been reached
+         */
+        double dist(int id) {
+            return (reachedIn[id] == generation) ? dist[id] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Records a (shorter) way to an id.
+         *
+         * @param id a node id
+         * @param distance the tentative distance of the id
+         * @param predecessor the id (or arc) that the way comes from, or -1 if the id is where the side starts
+         * @param weight the weight of the edge from the predecessor
+         * @spec.modifies reached
+         * @spec.effects adds id to reached with the passed-in values, keeping its estimate
+         */
+        void reach(int id, double distance, int predecessor, double weight) {
+            reachedIn[id] = generation;
+            dist[id] = distance;
+            pred[id] = predecessor;
+            predWeight[id] = weight;
+        }
+
+        /**
+         * @param id a reached node id
+         * @return the estimate that was set for the id
+         */
+        double estimate(int id) {
+            return estimate[id];
+        }
+
+        /**
+         * @param id a node id
+         * @param value the estimate of the cost from the id to the end of the search
+         * @spec.modifies reached
+         * @spec.effects sets the estimate of id as value
+         */
+        void setEstimate(int id, double value) {
+            estimate[id] = value;
+        }
+
+        /**
+         * @param id a node id
+         * @return true iff the id was finished in the current query
+         */
+        boolean isFinished(int id) {
+            return finishedIn[id] == generation;
+        }
+
+        /**
+         * @param id a node id
+         * @spec.modifies finished
+         * @spec.effects adds id to finished
+         */
+        void finish(int id) {
+            finishedIn[id] = generation;
+        }
+
+        /**
+         * @param id a reached node id
+         * @return the predecessor that was recorded for the id
+         */
+        int pred(int id) {
+            return pred[id];
+        }
+
+        /**
+         * Gets the array of predecessors, for walking a path back without copying it. Only the entries of
+         * reached ids are meaningful, and the array may be longer than the graph.
+         *
+         * @return the predecessor of each node id
+         */
+        int[] predecessors() {
+            return pred;
+        }
+
+        /**
+         * Gets the array of edge weights from the predecessors, under the same terms as predecessors().
+         *
+         * @return the weight of the edge from its predecessor to each node id
+         */
+        double[] predecessorWeights() {
+            return predWeight;
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package pathfinder;
 
+import graph.CompiledGraph;
+import graph.DoubleWeightedGraph;
 import graph.Graph;
+import pathfinder.datastructures.NodeQueue;
 import pathfinder.datastructures.Path;
+import pathfinder.datastructures.QueueKind;
 
 import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
 /**
  * ShortestPath represents a class that finds the minimum-cost path between two nodes
  * from a weighted Graph with non-negative edges, where the minimum-cost path is defined as
@@ -14,6 +23,33 @@ public class ShortestPath {
 
     // Because this class is not an ADT, there is no abstraction function and rep invariant, although
     // both of them would go here.
+
+    /** The kind of queue that the id-based searches finish their nodes from. */
+    private static volatile QueueKind queueKind = QueueKind.fromConfiguration();
+
+    /**
+     * @return the kind of queue that the id-based searches finish their nodes from, which is read from the
+     * system property {@value QueueKind#PROPERTY} when this class is loaded
+     */
+    public static QueueKind getQueueKind() {
+        return queueKind;
+    }
+
+    /**
+     * Sets the kind of queue that later id-based searches finish their nodes from. Searches that have already
+     * started keep their queue.
+     *
+     * @param kind the kind of queue to use
+     * @throws IllegalArgumentException if kind == null
+     * @spec.effects every id-based search that starts afterwards uses a queue of the passed-in kind
+     */
+    public static void setQueueKind(QueueKind kind) throws IllegalArgumentException {
+        if (kind == null) {
+            throw new IllegalArgumentException();
+        }
+        queueKind = kind;
+    }
+
     /**
      * Finds the shortest path, by the weights of the edges, between the two provided nodes
      * within a weighted graph with non-negative weights.
@@ -28,46 +64,920 @@ public class ShortestPath {
      * if none exists.
      */
     public static <N> Path<N> getShortestPath(Graph<N,Double> graph, N startPt, N endPt) {
-        N start = startPt;
-        N end = endPt;
-        PriorityQueue<Path<N>> active = new PriorityQueue<>(new Comparator<>() {
-            @Override
-            public int compare(Path<N> o1, Path<N> o2) {
-                int compare = Double.compare(o1.getCost(), o2.getCost());
-                if (compare > 0) {
-                    return 1;
-                } else if (compare < 0) {
-                    return -1;
-                } else {
-                    return 0;
+        return getShortestPath(graph, startPt, endPt, Double::doubleValue);
+    }
+
+    /**
+     * Finds the shortest path between the two provided nodes within a Graph with any kind of edge label, where
+     * the weight of each edge is read from its label by the passed-in function. A single Graph whose labels
+     * describe an edge in several ways (its length, whether it has stairs, whether it is covered) can then be
+     * searched under several cost models, without building a separate weighted graph for each one.
+     *
+     * <p>The search works with the ids of the Graph's nodes, keeping the best known distance and the
+     * predecessor of every node in the arrays of a SearchWorkspace, and only touches the nodes that it settles
+     * and their Edges, so the Graph is never copied. Looking up the children of a node still goes through the
+     * Graph's maps, so a caller that runs many queries on a Graph that does not change can compile it once and
+     * use getShortestPath(CompiledGraph, N, N, ToDoubleFunction) instead.</p>
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param <E> the edge label type of the passed-in graph
+     * @param graph the Graph to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @param weight the function that gives the weight of an edge from its label
+     * @throws IllegalArgumentException if weight == null, or if startPt or endPt is not in graph
+     * @spec.requires graph is a valid graph and weight gives a non-negative, finite weight for every label
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N,E> Path<N> getShortestPath(Graph<N,E> graph, N startPt, N endPt,
+                                                ToDoubleFunction<? super E> weight)
+            throws IllegalArgumentException {
+        return getShortestPath(graph, startPt, endPt, weight, SearchBudget.unlimited());
+    }
+
+    /**
+     * Finds the shortest path between the two provided nodes within a Graph with any kind of edge label, where
+     * the weight of each edge is read from its label by the passed-in function, giving up once the passed-in
+     * budget is used up. Otherwise behaves the same as getShortestPath(Graph, N, N, ToDoubleFunction).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param <E> the edge label type of the passed-in graph
+     * @param graph the Graph to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @param weight the function that gives the weight of an edge from its label
+     * @param budget the limit on the work of the search
+     * @throws IllegalArgumentException if weight == null or budget == null, or if startPt or endPt is not in
+     *                                  graph
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @spec.requires graph is a valid graph and weight gives a non-negative, finite weight for every label
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N,E> Path<N> getShortestPath(Graph<N,E> graph, N startPt, N endPt,
+                                                ToDoubleFunction<? super E> weight, SearchBudget budget)
+            throws IllegalArgumentException, SearchBudgetExceededException {
+        if (weight == null || budget == null) {
+            throw new IllegalArgumentException();
+        }
+        int startId = graph.getNodeId(startPt);
+        int endId = graph.getNodeId(endPt);
+        // the trivial path needs no search, so no budget can run out before it is found
+        if (startId == endId) {
+            return new Path<>(graph.getNode(startId));
+        }
+        SearchWorkspace workspace = SearchWorkspace.acquire();
+        try {
+            SearchWorkspace.Side side = workspace.forward();
+            side.begin(graph.getNodeSet().size(), queueKind);
+            NodeQueue active = side.queue();
+
+            side.reach(startId, 0, -1, 0);
+            active.insertOrDecrease(startId, 0);
+            int settled = 0;
+            while (!(active.isEmpty())) {
+                budget.check(++settled);
+                int minId = active.pollMin();
+                if (minId == endId) {
+                    return buildPath(graph::getNode, side.predecessors(), side.predecessorWeights(), null, null,
+                            endId);
+                }
+                side.finish(minId);
+                double minDist = side.dist(minId);
+                for (Graph.Edge<N,E> e : graph.getChildrenOf(graph.getNode(minId))) {
+                    int child = graph.getNodeId(e.getDestination());
+                    if (!(side.isFinished(child))) {
+                        double edgeWeight = weight.applyAsDouble(e.getLabel());
+                        double childDist = minDist + edgeWeight;
+                        if (childDist < side.dist(child)) {
+                            side.reach(child, childDist, minId, edgeWeight);
+                            active.insertOrDecrease(child, childDist);
+                        }
+                    }
+                }
+            }
+            return null;
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * Finds the shortest path between the two provided nodes within a compiled graph with any kind of edge
+     * label, where the weight of each edge is read from its label by the passed-in function. The same snapshot
+     * can be searched under several cost models by passing in a different function for each one.
+     *
+     * <p>The search walks the compressed-sparse-row arrays of the snapshot by node id, keeping the best known
+     * distance and the predecessor of every node in the arrays of a SearchWorkspace, so the only work per edge
+     * that it relaxes is one call to the function. A caller that runs many queries under the same cost model
+     * can instead unbox the weights once with DoubleWeightedGraph.of(CompiledGraph, ToDoubleFunction).</p>
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param <E> the edge label type of the passed-in graph
+     * @param graph the compiled graph to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @param weight the function that gives the weight of an edge from its label
+     * @throws IllegalArgumentException if weight == null, or if startPt or endPt is not in graph
+     * @spec.requires graph is a valid graph and weight gives a non-negative, finite weight for every label
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N,E> Path<N> getShortestPath(CompiledGraph<N,E> graph, N startPt, N endPt,
+                                                ToDoubleFunction<? super E> weight)
+            throws IllegalArgumentException {
+        return getShortestPath(graph, startPt, endPt, weight, SearchBudget.unlimited());
+    }
+
+    /**
+     * Finds the shortest path between the two provided nodes within a compiled graph with any kind of edge
+     * label, where the weight of each edge is read from its label by the passed-in function, giving up once
+     * the passed-in budget is used up. Otherwise behaves the same as getShortestPath(CompiledGraph, N, N,
+     * ToDoubleFunction).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param <E> the edge label type of the passed-in graph
+     * @param graph the compiled graph to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @param weight the function that gives the weight of an edge from its label
+     * @param budget the limit on the work of the search
+     * @throws IllegalArgumentException if weight == null or budget == null, or if startPt or endPt is not in
+     *                                  graph
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @spec.requires graph is a valid graph and weight gives a non-negative, finite weight for every label
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N,E> Path<N> getShortestPath(CompiledGraph<N,E> graph, N startPt, N endPt,
+                                                ToDoubleFunction<? super E> weight, SearchBudget budget)
+            throws IllegalArgumentException, SearchBudgetExceededException {
+        if (weight == null || budget == null) {
+            throw new IllegalArgumentException();
+        }
+        return search(graph, graph.getId(startPt), graph.getId(endPt), weight, budget);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm between the two nodes with the provided ids in a compiled graph, reading the
+     * weight of each edge from its label by the passed-in function (helper procedure).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param <E> the edge label type of the passed-in graph
+     * @param graph the compiled graph to search
+     * @param startId the id of the starting node
+     * @param endId the id of the ending node
+     * @param weight the function that gives the weight of an edge from its label
+     * @param budget the limit on the work of the search
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @spec.requires 0 &lt;= startId, endId &lt; graph.getNodeCount() and weight, budget != null
+     * @return the shortest path between the two nodes, or null if none exists
+     */
+    private static <N,E> Path<N> search(CompiledGraph<N,E> graph, int startId, int endId,
+                                        ToDoubleFunction<? super E> weight, SearchBudget budget)
+            throws SearchBudgetExceededException {
+        // the trivial path needs no search, so no budget can run out before it is found
+        if (startId == endId) {
+            return new Path<>(graph.getNode(startId));
+        }
+        SearchWorkspace workspace = SearchWorkspace.acquire();
+        try {
+            SearchWorkspace.Side side = workspace.forward();
+            side.begin(graph.getNodeCount(), queueKind);
+            NodeQueue active = side.queue();
+
+            side.reach(startId, 0, -1, 0);
+            active.insertOrDecrease(startId, 0);
+            int settled = 0;
+            while (!(active.isEmpty())) {
+                budget.check(++settled);
+                int minId = active.pollMin();
+                if (minId == endId) {
+                    return buildPath(graph::getNode, side.predecessors(), side.predecessorWeights(), null, null,
+                            endId);
+                }
+                side.finish(minId);
+                double minDist = side.dist(minId);
+                for (int edge = graph.getEdgeStart(minId), last = graph.getEdgeEnd(minId); edge < last; edge++) {
+                    int child = graph.getTarget(edge);
+                    if (!(side.isFinished(child))) {
+                        double edgeWeight = weight.applyAsDouble(graph.getLabel(edge));
+                        double childDist = minDist + edgeWeight;
+                        if (childDist < side.dist(child)) {
+                            side.reach(child, childDist, minId, edgeWeight);
+                            active.insertOrDecrease(child, childDist);
+                        }
+                    }
+                }
+            }
+            return null;
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two provided nodes
+     * within a compiled weighted graph with non-negative weights. Unboxes the weights into a
+     * DoubleWeightedGraph and then behaves the same as getShortestPath(DoubleWeightedGraph, N, N), so a caller
+     * that searches the same graph many times should make the DoubleWeightedGraph once instead.
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the compiled weighted graph to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  startPt and endPt are valid nodes within the graph are not null
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPath(CompiledGraph<N,Double> graph, N startPt, N endPt) {
+        return getShortestPath(DoubleWeightedGraph.of(graph), startPt, endPt);
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two provided nodes
+     * within a weighted snapshot with non-negative weights. Looks up the ids of the two nodes and
+     * then behaves the same as getShortestPathById(DoubleWeightedGraph, int, int).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  startPt and endPt are valid nodes within the graph are not null
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPath(DoubleWeightedGraph<N> graph, N startPt, N endPt) {
+        return getShortestPathById(graph, graph.getId(startPt), graph.getId(endPt));
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids
+     * within a weighted snapshot with non-negative weights. The search only works with node ids and reads
+     * the unboxed weights through a single reusable EdgeCursor, so it never hashes a node.
+     *
+     * <p>Rather than keeping a Path for every entry of the active queue, the search keeps the best known
+     * distance and the predecessor of every node in arrays, and keeps each node on a NodeQueue of the kind
+     * given by getQueueKind() at most once, lowering its key when a shorter way to it is found. The Path is
+     * only built once, by walking the predecessors back from the end node after it is finished.</p>
+     *
+     * <p>The arrays and the queue belong to a SearchWorkspace that is kept per thread and reset in constant
+     * time between queries, so once a thread has searched a graph of this size, a query allocates nothing but
+     * the Path it returns.</p>
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount()
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathById(DoubleWeightedGraph<N> graph, int startId, int endId) {
+        return search(graph, startId, endId, null, SearchBudget.unlimited());
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids
+     * within a weighted snapshot with non-negative weights, giving up once the passed-in budget is used up.
+     * Otherwise behaves the same as getShortestPathById(DoubleWeightedGraph, int, int).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @param budget the limit on the work of the search
+     * @throws IllegalArgumentException if budget == null
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount()
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathById(DoubleWeightedGraph<N> graph, int startId, int endId,
+                                                  SearchBudget budget)
+            throws IllegalArgumentException, SearchBudgetExceededException {
+        if (budget == null) {
+            throw new IllegalArgumentException();
+        }
+        return search(graph, startId, endId, null, budget);
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two provided nodes
+     * within a weighted snapshot with non-negative weights, using A* search guided by the passed-in
+     * heuristic. Looks up the ids of the two nodes and then behaves the same as
+     * getShortestPathById(DoubleWeightedGraph, int, int, ToDoubleBiFunction).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @param heuristic the estimate of the cost from a node (first argument) to endPt (second argument)
+     * @throws IllegalArgumentException if heuristic == null
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  startPt and endPt are valid nodes within the graph are not null,
+     *                  heuristic is consistent for endPt
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPath(DoubleWeightedGraph<N> graph, N startPt, N endPt,
+                                              ToDoubleBiFunction<N,N> heuristic) {
+        return getShortestPathById(graph, graph.getId(startPt), graph.getId(endPt), heuristic);
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids
+     * within a weighted snapshot with non-negative weights, using A* search guided by the passed-in
+     * heuristic. The active queue is ordered by the distance to a node plus the heuristic's estimate of the
+     * cost from that node to the end node, so the search heads towards the end node and finishes far fewer
+     * nodes than getShortestPathById(DoubleWeightedGraph, int, int) when the estimate is good. The heuristic
+     * is called at most once per node that the search reaches.
+     *
+     * <p>The heuristic must be consistent: for every edge (u, v) with weight w, heuristic(u, end) must be at
+     * most w + heuristic(v, end), and heuristic(end, end) must be 0. Then it never overestimates, and the Path
+     * found has the same cost as the one found without it. A heuristic that always returns 0 gives a plain
+     * Dijkstra search.</p>
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @param heuristic the estimate of the cost from a node (first argument) to the end node (second argument)
+     * @throws IllegalArgumentException if heuristic == null
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount(),
+     *                  heuristic is consistent for the end node
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathById(DoubleWeightedGraph<N> graph, int startId, int endId,
+                                                  ToDoubleBiFunction<N,N> heuristic) {
+        if (heuristic == null) {
+            throw new IllegalArgumentException();
+        }
+        N end = graph.getNode(endId);
+        return search(graph, startId, endId, id -> heuristic.applyAsDouble(graph.getNode(id), end),
+                SearchBudget.unlimited());
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids
+     * within a weighted snapshot with non-negative weights, using A* search guided by an estimate that works
+     * on node ids. Behaves the same as getShortestPathById(DoubleWeightedGraph, int, int, ToDoubleBiFunction),
+     * but suits estimates that are precomputed per id, such as Landmarks, since it never looks up a node.
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @param estimateToEnd the estimate of the cost from the node with the passed-in id to the end node
+     * @throws IllegalArgumentException if estimateToEnd == null
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount(),
+     *                  estimateToEnd is consistent for the end node
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathByIdGuided(DoubleWeightedGraph<N> graph, int startId, int endId,
+                                                        IntToDoubleFunction estimateToEnd) {
+        return getShortestPathByIdGuided(graph, startId, endId, estimateToEnd, SearchBudget.unlimited());
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids
+     * within a weighted snapshot with non-negative weights, using A* search guided by an estimate that works
+     * on node ids and giving up once the passed-in budget is used up. Otherwise behaves the same as
+     * getShortestPathByIdGuided(DoubleWeightedGraph, int, int, IntToDoubleFunction).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @param estimateToEnd the estimate of the cost from the node with the passed-in id to the end node
+     * @param budget the limit on the work of the search
+     * @throws IllegalArgumentException if estimateToEnd == null or budget == null
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount(),
+     *                  estimateToEnd is consistent for the end node
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathByIdGuided(DoubleWeightedGraph<N> graph, int startId, int endId,
+                                                        IntToDoubleFunction estimateToEnd, SearchBudget budget)
+            throws IllegalArgumentException, SearchBudgetExceededException {
+        if (estimateToEnd == null || budget == null) {
+            throw new IllegalArgumentException();
+        }
+        return search(graph, startId, endId, estimateToEnd, budget);
+    }
+
+    /**
+     * Finds the distance, by the weights of the edges, from the node with the provided id to every node of a
+     * weighted snapshot with non-negative weights.
+     *
+     * @param <N> the data that is stored within the passed-in graph's nodes
+     * @param graph the weighted snapshot to search
+     * @param sourceId the id of the node to measure the distances from
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= sourceId &lt; graph.getNodeCount()
+     * @return an array holding, at each node id, the cost of the shortest path from the source node to that
+     * node, or {@link Double#POSITIVE_INFINITY} if there is no such path
+     */
+    public static <N> double[] getDistancesById(DoubleWeightedGraph<N> graph, int sourceId) {
+        double[] dist = new double[graph.getNodeCount()];
+        NodeQueue active = queueKind.create(graph.getNodeCount());
+        DoubleWeightedGraph<N>.EdgeCursor cursor = graph.cursor();
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[sourceId] = 0;
+        active.insertOrDecrease(sourceId, 0);
+        while (!(active.isEmpty())) {
+            int minId = active.pollMin();
+            for (cursor.at(minId); cursor.next(); ) {
+                int child = cursor.targetId();
+                double childDist = dist[minId] + cursor.weight();
+                // a finished node already has its final distance, so this never lowers it
+                if (childDist < dist[child]) {
+                    dist[child] = childDist;
+                    active.insertOrDecrease(child, childDist);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Finds the distance, by the weights of the edges, from the provided source node to each of the provided
+     * target nodes within a weighted snapshot with non-negative weights. Looks up the ids of the nodes and then
+     * behaves the same as distancesFromById(DoubleWeightedGraph, int, int[]).
+     *
+     * @param <N> the data that is stored within the passed-in graph's nodes
+     * @param graph the weighted snapshot to search
+     * @param source the node to measure the distances from
+     * @param targets the nodes to measure the distances to
+     * @throws IllegalArgumentException if targets == null, or if source or any target is not in graph
+     * @spec.requires graph is a valid, weighted graph with non-negative edges
+     * @return an array holding, at each index i, the cost of the shortest path from source to targets.get(i),
+     * or {@link Double#POSITIVE_INFINITY} if there is no such path
+     */
+    public static <N> double[] distancesFrom(DoubleWeightedGraph<N> graph, N source, List<N> targets)
+            throws IllegalArgumentException {
+        return distancesFromById(graph, graph.getId(source), toIds(graph, targets));
+    }
+
+    /**
+     * Finds the distance, by the weights of the edges, from the node with the provided id to each of the nodes
+     * with the provided target ids within a weighted snapshot with non-negative weights. A single search is run
+     * from the source, and it stops as soon as every target is finished instead of going on to the rest of the
+     * graph.
+     *
+     * @param <N> the data that is stored within the passed-in graph's nodes
+     * @param graph the weighted snapshot to search
+     * @param sourceId the id of the node to measure the distances from
+     * @param targetIds the ids of the nodes to measure the distances to, which may repeat
+     * @throws IllegalArgumentException if targetIds == null
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= sourceId &lt; graph.getNodeCount(), every target id is a node id of graph
+     * @return an array holding, at each index i, the cost of the shortest path from the source to the node with
+     * id targetIds[i], or {@link Double#POSITIVE_INFINITY} if there is no such path
+     */
+    public static <N> double[] distancesFromById(DoubleWeightedGraph<N> graph, int sourceId, int[] targetIds)
+            throws IllegalArgumentException {
+        if (targetIds == null) {
+            throw new IllegalArgumentException();
+        }
+        SearchWorkspace workspace = SearchWorkspace.acquire();
+        try {
+            SearchWorkspace.Side side = workspace.forward();
+            side.begin(graph.getNodeCount(), queueKind);
+            // the backward side is not searched, its finished set only marks the targets
+            SearchWorkspace.Side targets = workspace.backward();
+            targets.begin(graph.getNodeCount(), queueKind);
+            int remaining = 0;
+            for (int id : targetIds) {
+                if (!(targets.isFinished(id))) {
+                    targets.finish(id);
+                    remaining++;
+                }
+            }
+            NodeQueue active = side.queue();
+            DoubleWeightedGraph<N>.EdgeCursor cursor = graph.cursor();
+
+            side.reach(sourceId, 0, -1, 0);
+            active.insertOrDecrease(sourceId, 0);
+            while (remaining > 0 && !(active.isEmpty())) {
+                int minId = active.pollMin();
+                if (targets.isFinished(minId)) {
+                    remaining--;
+                }
+                double minDist = side.dist(minId);
+                for (cursor.at(minId); cursor.next(); ) {
+                    int child = cursor.targetId();
+                    double childDist = minDist + cursor.weight();
+                    if (childDist < side.dist(child)) {
+                        side.reach(child, childDist, minId, cursor.weight());
+                        active.insertOrDecrease(child, childDist);
+                    }
                 }
             }
+            double[] result = new double[targetIds.length];
+            for (int i = 0; i < targetIds.length; i++) {
+                // every target is finished unless the source cannot reach it
+                result[i] = side.dist(targetIds[i]);
+            }
+            return result;
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * Finds the distance, by the weights of the edges, from each of the provided source nodes to each of the
+     * provided target nodes within a weighted snapshot with non-negative weights. Looks up the ids of the nodes
+     * and then behaves the same as distanceMatrixById(DoubleWeightedGraph, int[], int[]).
+     *
+     * @param <N> the data that is stored within the passed-in graph's nodes
+     * @param graph the weighted snapshot to search
+     * @param sources the nodes to measure the distances from
+     * @param targets the nodes to measure the distances to
+     * @throws IllegalArgumentException if sources == null or targets == null, or if any of the nodes is not in
+     *                                  graph
+     * @spec.requires graph is a valid, weighted graph with non-negative edges
+     * @return a matrix holding, at [i][j], the cost of the shortest path from sources.get(i) to targets.get(j),
+     * or {@link Double#POSITIVE_INFINITY} if there is no such path
+     */
+    public static <N> double[][] distanceMatrix(DoubleWeightedGraph<N> graph, List<N> sources, List<N> targets)
+            throws IllegalArgumentException {
+        return distanceMatrixById(graph, toIds(graph, sources), toIds(graph, targets));
+    }
+
+    /**
+     * Finds the distance, by the weights of the edges, from each of the nodes with the provided source ids to
+     * each of the nodes with the provided target ids within a weighted snapshot with non-negative weights. Each
+     * row is a separate distancesFromById(DoubleWeightedGraph, int, int[]) search, and the rows are computed in
+     * parallel on the common ForkJoinPool.
+     *
+     * @param <N> the data that is stored within the passed-in graph's nodes
+     * @param graph the weighted snapshot to search
+     * @param sourceIds the ids of the nodes to measure the distances from
+     * @param targetIds the ids of the nodes to measure the distances to
+     * @throws IllegalArgumentException if sourceIds == null or targetIds == null
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  every source and target id is a node id of graph
+     * @return a matrix holding, at [i][j], the cost of the shortest path from the node with id sourceIds[i] to
+     * the node with id targetIds[j], or {@link Double#POSITIVE_INFINITY} if there is no such path
+     */
+    public static <N> double[][] distanceMatrixById(DoubleWeightedGraph<N> graph, int[] sourceIds,
+                                                    int[] targetIds) throws IllegalArgumentException {
+        if (sourceIds == null || targetIds == null) {
+            throw new IllegalArgumentException();
+        }
+        double[][] matrix = new double[sourceIds.length][];
+        // every row is a separate search that only writes its own row
+        IntStream.range(0, sourceIds.length).parallel().forEach(
+                i -> matrix[i] = distancesFromById(graph, sourceIds[i], targetIds));
+        return matrix;
+    }
+
+    /**
+     * Looks up the ids of the passed-in nodes (helper procedure).
+     *
+     * @param <N> the data that is stored within the passed-in graph's nodes
+     * @param graph the weighted snapshot that the nodes are in
+     * @param nodes the nodes to look up
+     * @throws IllegalArgumentException if nodes == null or if any node is not in graph
+     * @return an array holding the id of nodes.get(i) at each index i
+     */
+    private static <N> int[] toIds(DoubleWeightedGraph<N> graph, List<N> nodes) throws IllegalArgumentException {
+        if (nodes == null) {
+            throw new IllegalArgumentException();
+        }
+        int[] ids = new int[nodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = graph.getId(nodes.get(i));
         }
-        );
-        Set<N> finished = new HashSet<>();
+        return ids;
+    }
 
-        Path<N> startPath = new Path<>(start);
-        active.add(startPath);
+    /**
+     * Finds the shortest path from the node with the provided id to every node of a weighted snapshot with
+     * non-negative weights, in a single search. The result answers a query to any destination from the same
+     * source without searching again.
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to search
+     * @param sourceId the id of the node that every path starts at
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= sourceId &lt; graph.getNodeCount()
+     * @return the tree of shortest paths from the source node to every node that it can reach
+     */
+    public static <N> ShortestPathTree<N> getShortestPathTree(DoubleWeightedGraph<N> graph, int sourceId) {
+        int nodeCount = graph.getNodeCount();
+        double[] dist = new double[nodeCount];
+        int[] pred = new int[nodeCount];
+        double[] predWeight = new double[nodeCount];
+        NodeQueue active = queueKind.create(nodeCount);
+        DoubleWeightedGraph<N>.EdgeCursor cursor = graph.cursor();
 
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(pred, -1);
+        dist[sourceId] = 0;
+        active.insertOrDecrease(sourceId, 0);
         while (!(active.isEmpty())) {
-            Path<N> minPath = active.poll();
-            N minDest = minPath.getEnd();
-            if (minDest.equals(endPt)) {
-                return minPath;
+            int minId = active.pollMin();
+            for (cursor.at(minId); cursor.next(); ) {
+                int child = cursor.targetId();
+                double childDist = dist[minId] + cursor.weight();
+                // a finished node already has its final distance, so this never lowers it
+                if (childDist < dist[child]) {
+                    dist[child] = childDist;
+                    pred[child] = minId;
+                    predWeight[child] = cursor.weight();
+                    active.insertOrDecrease(child, childDist);
+                }
+            }
+        }
+        return new ShortestPathTree<>(graph, sourceId, dist, pred, predWeight);
+    }
+
+    /**
+     * Runs the array-based search shared by Dijkstra and A* from the node with id startId until the node with
+     * id endId is finished (helper procedure).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to search
+     * @param startId the id of the starting node
+     * @param endId the id of the ending node
+     * @param estimateToEnd the consistent estimate of the cost from a node id to the end node, or null to use
+     *                      no estimate
+     * @param budget the limit on the work of the search
+     * @throws SearchBudgetExceededException if the budget is used up before the end node is finished
+     * @spec.requires 0 &lt;= startId, endId &lt; graph.getNodeCount() and budget != null
+     * @return the shortest Path between the two nodes, or null if none exists
+     */
+    private static <N> Path<N> search(DoubleWeightedGraph<N> graph, int startId, int endId,
+                                      IntToDoubleFunction estimateToEnd, SearchBudget budget)
+            throws SearchBudgetExceededException {
+        // the trivial path needs no search, so no budget can run out before it is found
+        if (startId == endId) {
+            return new Path<>(graph.getNode(startId));
+        }
+        SearchWorkspace workspace = SearchWorkspace.acquire();
+        try {
+            SearchWorkspace.Side side = workspace.forward();
+            side.begin(graph.getNodeCount(), queueKind);
+            NodeQueue active = side.queue();
+            DoubleWeightedGraph<N>.EdgeCursor cursor = graph.cursor();
+
+            side.reach(startId, 0, -1, 0);
+            if (estimateToEnd != null) {
+                side.setEstimate(startId, estimateToEnd.applyAsDouble(startId));
             }
-            if (!(finished.contains(minDest))) {
-                Set<Graph.Edge<N, Double>> children = graph.getChildrenOf(minDest);
-                for (Graph.Edge<N, Double> e : children) {
-                    if (!(finished.contains(e.getDestination()))) {
-                        Path<N> newPath = minPath.extend(e.getDestination(), e.getLabel());
-                        // extend path based off of new ending point and distance
-                        active.add(newPath);
+            active.insertOrDecrease(startId, (estimateToEnd == null) ? 0 : side.estimate(startId));
+
+            int settled = 0;
+            while (!(active.isEmpty())) {
+                budget.check(++settled);
+                int minId = active.pollMin();
+                if (minId == endId) {
+                    return buildPath(graph, side.predecessors(), side.predecessorWeights(), endId);
+                }
+                side.finish(minId);
+                double minDist = side.dist(minId);
+                for (cursor.at(minId); cursor.next(); ) {
+                    int child = cursor.targetId();
+                    double childDist = minDist + cursor.weight();
+                    if (!(side.isFinished(child)) && childDist < side.dist(child)) {
+                        if (estimateToEnd != null && !(side.isReached(child))) {
+                            // first time child is reached
+                            side.setEstimate(child, estimateToEnd.applyAsDouble(child));
+                        }
+                        // found a shorter way to child, so remember how we got there
+                        side.reach(child, childDist, minId, cursor.weight());
+                        active.insertOrDecrease(child,
+                                (estimateToEnd == null) ? childDist : childDist + side.estimate(child));
                     }
                 }
-                finished.add(minDest);
             }
+            return null;
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two provided nodes
+     * within a weighted snapshot with non-negative weights, using bidirectional Dijkstra search. Looks up the
+     * ids of the two nodes and then behaves the same as
+     * getShortestPathBidirectionalById(DoubleWeightedGraph, int, int).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startPt The value that represents the starting node of this path.
+     * @param endPt   The value that represents the ending node of this path.
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  startPt and endPt are valid nodes within the graph are not null
+     * @return A path between {@code startPt} and {@code endPt}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathBidirectional(DoubleWeightedGraph<N> graph, N startPt, N endPt) {
+        return getShortestPathBidirectionalById(graph, graph.getId(startPt), graph.getId(endPt));
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids
+     * within a weighted snapshot with non-negative weights, using bidirectional Dijkstra search.
+     *
+     * <p>One search runs forward from the start node over graph, and another runs backward from the end node
+     * over graph.reverse(). Each step finishes a node on whichever side has the smaller distance at the front
+     * of its queue, so both searches grow at the same rate. Whenever one side reaches a node that the other side
+     * has already reached, the two halves are joined into a candidate path, and the search stops once the
+     * smallest distances of the two queues add up to at least the cost of the best candidate. Each search then
+     * only has to reach about half of the way, which on a map finishes far fewer nodes than a single search.
+     * The Path found has the same cost as the one found by getShortestPathById(DoubleWeightedGraph, int, int).</p>
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount()
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathBidirectionalById(DoubleWeightedGraph<N> graph,
+                                                               int startId, int endId) {
+        return getShortestPathBidirectionalById(graph, startId, endId, SearchBudget.unlimited());
+    }
+
+    /**
+     * Finds the shortest path, by the weights of the edges, between the two nodes with the provided ids
+     * within a weighted snapshot with non-negative weights, using bidirectional Dijkstra search and giving up
+     * once the passed-in budget is used up. The nodes finished by both searches count against the budget.
+     * Otherwise behaves the same as getShortestPathBidirectionalById(DoubleWeightedGraph, int, int).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot to look for the shortest path in.
+     * @param startId The id of the starting node of this path.
+     * @param endId   The id of the ending node of this path.
+     * @param budget the limit on the work of the search
+     * @throws IllegalArgumentException if budget == null
+     * @throws SearchBudgetExceededException if the budget is used up before the search is done
+     * @spec.requires graph is a valid, weighted graph with non-negative edges,
+     *                  0 &lt;= startId, endId &lt; graph.getNodeCount()
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public static <N> Path<N> getShortestPathBidirectionalById(DoubleWeightedGraph<N> graph,
+                                                               int startId, int endId, SearchBudget budget)
+            throws IllegalArgumentException, SearchBudgetExceededException {
+        if (budget == null) {
+            throw new IllegalArgumentException();
+        }
+        if (startId == endId) {
+            return new Path<>(graph.getNode(startId));
+        }
+        DoubleWeightedGraph<N> reverse = graph.reverse();
+        SearchWorkspace workspace = SearchWorkspace.acquire();
+        try {
+            // the forward search from the start node
+            SearchWorkspace.Side fromStart = workspace.forward();
+            fromStart.begin(graph.getNodeCount(), queueKind);
+            NodeQueue activeFromStart = fromStart.queue();
+            DoubleWeightedGraph<N>.EdgeCursor forward = graph.cursor();
+            // the backward search from the end node, whose predecessors are the successors on the path
+            SearchWorkspace.Side toEnd = workspace.backward();
+            toEnd.begin(graph.getNodeCount(), queueKind);
+            NodeQueue activeToEnd = toEnd.queue();
+            DoubleWeightedGraph<N>.EdgeCursor backward = reverse.cursor();
+
+            fromStart.reach(startId, 0, -1, 0);
+            activeFromStart.insertOrDecrease(startId, 0);
+            toEnd.reach(endId, 0, -1, 0);
+            activeToEnd.insertOrDecrease(endId, 0);
+
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+            int settled = 0;
+            while (!(activeFromStart.isEmpty()) && !(activeToEnd.isEmpty())) {
+                double frontFromStart = activeFromStart.getKey(activeFromStart.peekMin());
+                double frontToEnd = activeToEnd.getKey(activeToEnd.peekMin());
+                if (frontFromStart + frontToEnd >= best) {
+                    // no path through an unfinished node can be shorter than the best candidate
+                    break;
+                }
+                budget.check(++settled);
+                if (frontFromStart <= frontToEnd) {
+                    int minId = activeFromStart.pollMin();
+                    fromStart.finish(minId);
+                    for (forward.at(minId); forward.next(); ) {
+                        int child = forward.targetId();
+                        double childDist = fromStart.dist(minId) + forward.weight();
+                        if (!(fromStart.isFinished(child)) && childDist < fromStart.dist(child)) {
+                            fromStart.reach(child, childDist, minId, forward.weight());
+                            activeFromStart.insertOrDecrease(child, childDist);
+                        }
+                        if (fromStart.dist(child) + toEnd.dist(child) < best) {
+                            best = fromStart.dist(child) + toEnd.dist(child);
+                            meeting = child;
+                        }
+                    }
+                } else {
+                    int minId = activeToEnd.pollMin();
+                    toEnd.finish(minId);
+                    for (backward.at(minId); backward.next(); ) {
+                        int parent = backward.targetId();
+                        double parentDist = toEnd.dist(minId) + backward.weight();
+                        if (!(toEnd.isFinished(parent)) && parentDist < toEnd.dist(parent)) {
+                            toEnd.reach(parent, parentDist, minId, backward.weight());
+                            activeToEnd.insertOrDecrease(parent, parentDist);
+                        }
+                        if (fromStart.dist(parent) + toEnd.dist(parent) < best) {
+                            best = fromStart.dist(parent) + toEnd.dist(parent);
+                            meeting = parent;
+                        }
+                    }
+                }
+            }
+            if (meeting < 0) {
+                return null;
+            }
+            return buildPath(graph::getNode, fromStart.predecessors(), fromStart.predecessorWeights(),
+                    toEnd.predecessors(), toEnd.predecessorWeights(), meeting);
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * Builds the Path from the start of a search to the passed-in node by walking the predecessors back from
+     * that node (helper procedure, also used by ShortestPathTree).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within passed-in graph's node)
+     * @param graph the weighted snapshot that was searched
+     * @param pred the id of the node before each node on its shortest path, or -1 for the start node
+     * @param predWeight the weight of the edge from pred[id] to each node id
+     * @param endId the id of the node that the Path ends at
+     * @spec.requires following pred from endId reaches a node whose pred is -1
+     * @return the Path from the start node to the node with id endId
+     */
+    static <N> Path<N> buildPath(DoubleWeightedGraph<N> graph, int[] pred, double[] predWeight,
+                                         int endId) {
+        return buildPath(graph::getNode, pred, predWeight, null, null, endId);
+    }
+
+    /**
+     * Builds the Path from the start of a search to its end through the passed-in meeting node, by walking the
+     * predecessors back from the meeting node to the start and the successors on from the meeting node to the
+     * end (helper procedure).
+     *
+     * @param <N> the data that is stored within the Path (also the data stored within the searched graph's node)
+     * @param nodeOf the function that gives the node of the searched graph with a given id
+     * @param pred the id of the node before each node on its shortest path, or -1 for the start node
+     * @param predWeight the weight of the edge from pred[id] to each node id
+     * @param succ the id of the node after each node on its shortest path to the end, or -1 for the end node,
+     *             or null if the Path ends at the meeting node
+     * @param succWeight the weight of the edge from each node id to succ[id], or null if succ is null
+     * @param meetingId the id of a node on the Path
+     * @spec.requires following pred from meetingId reaches a node whose pred is -1, and if succ != null,
+     *                  following succ from meetingId reaches a node whose succ is -1
+     * @return the Path from the start node through the node with id meetingId to the end node
+     */
+    private static <N> Path<N> buildPath(IntFunction<N> nodeOf, int[] pred, double[] predWeight,
+                                         int[] succ, double[] succWeight, int meetingId) {
+        int before = 0;
+        int startId = meetingId;
+        while (pred[startId] != -1) {
+            startId = pred[startId];
+            before++;
+        }
+        int after = 0;
+        if (succ != null) {
+            for (int id = meetingId; succ[id] != -1; id = succ[id]) {
+                after++;
+            }
+        }
+        List<N> nodes = new ArrayList<>(Collections.nCopies(before + after, null));
+        double[] costs = new double[before + after];
+        int id = meetingId;
+        for (int i = before - 1; i >= 0; i--) {
+            nodes.set(i, nodeOf.apply(id));
+            costs[i] = predWeight[id];
+            id = pred[id];
+        }
+        id = meetingId;
+        for (int i = before; i < before + after; i++) {
+            costs[i] = succWeight[id];
+            id = succ[id];
+            nodes.set(i, nodeOf.apply(id));
         }
-        return null;
+        return new Path<>(nodeOf.apply(startId)).extend(nodes, costs);
     }
 
 }
@@ -0,0 +1,126 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import pathfinder.datastructures.Path;
+
+/**
+ * <p>This immutable class represents the shortest paths from one source node to every node of a weighted
+ * snapshot, as found by a single search. For every node it keeps the distance from the source and the node
+ * before it on its shortest path, so the shortest path to any node is found by walking the predecessors back to
+ * the source, without searching again.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>graph : the weighted snapshot that the tree was found in. // The graph.</p>
+ * @spec.specfield <p>source : the id of the node that every path of the tree starts at. // The source.</p>
+ * @spec.specfield <p>paths : a shortest path from source to each node that source can reach. // The paths.</p>
+ */
+public class ShortestPathTree<N> {
+
+    /** The weighted snapshot that the tree was found in. */
+    private final DoubleWeightedGraph<N> graph;
+
+    /** The id of the node that every path of the tree starts at. */
+    private final int sourceId;
+
+    /** The distance from the source to each node id, or infinity if the source cannot reach it. */
+    private final double[] dist;
+
+    /** The id of the node before each node id on its shortest path, or -1 for the source and unreached nodes. */
+    private final int[] pred;
+
+    /** The weight of the edge from pred[id] to each node id. */
+    private final double[] predWeight;
+
+    // Abstraction Function:
+    //    AF(r) = tree t such that
+    //      t.graph = r.graph
+    //      t.source = r.sourceId
+    //      t.paths = for each id with r.dist[id] finite, the path from r.sourceId that follows r.pred back from id
+    //
+    // Representation Invariant for every ShortestPathTree t:
+    //  graph != null && dist, pred and predWeight have graph.getNodeCount() elements &&
+    //  dist[sourceId] == 0 && pred[sourceId] == -1 &&
+    //  for every id != sourceId with dist[id] finite, pred[id] != -1 &&
+    //      dist[id] is the cost of a shortest path from sourceId to id in graph &&
+    //      graph has an edge from pred[id] to id with weight predWeight[id]
+    //  In other words:
+    //  - The arrays have one element per node of the snapshot
+    //  - Following the predecessors from any reached node leads back to the source along edges of the snapshot
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert graph != null : "graph should be set";
+        assert dist.length == graph.getNodeCount() && pred.length == dist.length && predWeight.length == dist.length
+                : "the arrays should have one element per node";
+        assert dist[sourceId] == 0 && pred[sourceId] == -1 : "the source should be the root of the tree";
+    }
+
+    /**
+     * Creates a new ShortestPathTree from the arrays left behind by a completed search.
+     *
+     * @param graph the weighted snapshot that was searched
+     * @param sourceId the id of the node that the search started at
+     * @param dist the distance from the source to each node id, or infinity
+     * @param pred the id of the node before each node id on its shortest path, or -1
+     * @param predWeight the weight of the edge from pred[id] to each node id
+     * @spec.requires the arguments satisfy the representation invariant and are not modified afterwards
+     */
+    ShortestPathTree(DoubleWeightedGraph<N> graph, int sourceId, double[] dist, int[] pred, double[] predWeight) {
+        this.graph = graph;
+        this.sourceId = sourceId;
+        this.dist = dist;
+        this.pred = pred;
+        this.predWeight = predWeight;
+        checkRep();
+    }
+
+    /**
+     * @return the weighted snapshot that this tree was found in
+     */
+    public DoubleWeightedGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the id of the node that every path of this tree starts at
+     */
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * @param id the id of a node of the snapshot
+     * @spec.requires 0 &lt;= id &lt; getGraph().getNodeCount()
+     * @return true iff the source can reach the node with the passed-in id
+     */
+    public boolean hasPathTo(int id) {
+        return dist[id] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param id the id of a node of the snapshot
+     * @spec.requires 0 &lt;= id &lt; getGraph().getNodeCount()
+     * @return the cost of the shortest path from the source to the node with the passed-in id, or
+     * {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    public double getDistance(int id) {
+        return dist[id];
+    }
+
+    /**
+     * Builds the shortest path from the source to the node with the passed-in id by walking the predecessors
+     * back to the source. Takes time proportional to the length of the path.
+     *
+     * @param id the id of the node that the path should end at
+     * @spec.requires 0 &lt;= id &lt; getGraph().getNodeCount()
+     * @return the shortest path from the source to the node with the passed-in id, or {@literal null} if
+     * there is none
+     */
+    public Path<N> pathTo(int id) {
+        if (!(hasPathTo(id))) {
+            return null;
+        }
+        return ShortestPath.buildPath(graph, pred, predWeight, id);
+    }
+}
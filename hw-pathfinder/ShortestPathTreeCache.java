@@ -0,0 +1,203 @@
+package pathfinder;
+
+import graph.DoubleWeightedGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>This mutable, thread-safe class represents a bounded cache of ShortestPathTrees keyed by their source node.
+ * A single search from a source answers a query to every destination, so once the tree of a source is cached,
+ * any later query from that source is only a walk back along the tree. When the cache is full, the tree that
+ * was used least recently is evicted.</p>
+ *
+ * <p>Each cached tree remembers the snapshot it was found in. A lookup for a different snapshot, for example
+ * after a path was closed, counts as a miss and replaces the old tree, so the cache never returns a path from an
+ * outdated map.</p>
+ *
+ * <p>Trees are found outside of the lock, so a slow search never blocks lookups of other sources. Two threads
+ * that miss on the same source at the same time may both search; the later tree then replaces the earlier
+ * one.</p>
+ *
+ * @param <N> the node type
+ * @spec.specfield <p>trees : a sequence of at most capacity ShortestPathTrees with distinct sources, from least
+ *                              to most recently used. // The cached trees.</p>
+ * @spec.specfield <p>capacity : int // The most trees that are kept.</p>
+ * @spec.specfield <p>hits, misses, evictions : long // The number of lookups found in the cache, the number
+ *                              of lookups that had to search, and the number of trees evicted.</p>
+ */
+public class ShortestPathTreeCache<N> {
+
+    private static final boolean DEBUG = false; // MAKE SURE TO TURN OFF BEFORE END
+
+    /** The most trees that are kept. */
+    private final int capacity;
+
+    /** The cached trees by source id, in access order. */
+    private final LinkedHashMap<Integer, ShortestPathTree<N>> trees;
+
+    /** The number of lookups that were found in the cache. */
+    private long hits;
+
+    /** The number of lookups that had to search. */
+    private long misses;
+
+    /** The number of trees that were evicted to make room for another one. */
+    private long evictions;
+
+    // Abstraction Function:
+    //    AF(r) = cache c such that
+    //      c.trees = r.trees.values(), in the iteration order of r.trees
+    //      c.capacity = r.capacity
+    //      c.hits = r.hits, c.misses = r.misses, c.evictions = r.evictions
+    //
+    // Representation Invariant for every ShortestPathTreeCache c:
+    //  capacity > 0 && trees != null && trees.size() <= capacity &&
+    //  for each source id s in trees, trees.get(s) != null && trees.get(s).getSourceId() == s &&
+    //  hits >= 0 && misses >= 0 && evictions >= 0
+    //  In other words:
+    //  - The cache never holds more than capacity trees
+    //  - Each tree is stored under its own source
+    //  - The counters are not negative
+    /**
+     * Throws an exception if the representation invariant is violated.
+     */
+    private void checkRep() {
+        assert capacity > 0 && trees != null : "cache should be created";
+        assert trees.size() <= capacity : "cache holds too many trees";
+        assert hits >= 0 && misses >= 0 && evictions >= 0 : "a counter is negative";
+        if (DEBUG) {
+            // iterate over the entries, since get would count as a use and reorder the trees
+            for (Map.Entry<Integer, ShortestPathTree<N>> entry : trees.entrySet()) {
+                assert entry.getValue() != null : "a tree is null";
+                assert entry.getValue().getSourceId() == entry.getKey() : "a tree is stored under another source!";
+            }
+        }
+    }
+
+    /**
+     * Creates a new empty cache that keeps at most the passed-in number of trees.
+     *
+     * @param capacity the most trees that the cache keeps
+     * @throws IllegalArgumentException if capacity &lt;= 0
+     * @spec.effects sets trees as empty, capacity as the passed-in value and every counter as 0
+     */
+    public ShortestPathTreeCache(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree<N>> eldest) {
+                if (size() > ShortestPathTreeCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        checkRep();
+    }
+
+    /**
+     * Gets the ShortestPathTree from the passed-in source in the passed-in snapshot, from the cache if it is
+     * there, or by searching and then caching the result if it is not.
+     *
+     * @param graph the weighted snapshot to find the tree in
+     * @param sourceId the id of the node that the tree starts at
+     * @throws IllegalArgumentException if graph == null, or if sourceId is not a node id of graph
+     * @spec.modifies trees, hits, misses, evictions
+     * @spec.effects makes the tree of sourceId the most recently used one, adding it if it is not cached for
+     *               graph, and counts the lookup as a hit or a miss
+     * @return the ShortestPathTree from the node with id sourceId in graph
+     */
+    public ShortestPathTree<N> getTree(DoubleWeightedGraph<N> graph, int sourceId)
+            throws IllegalArgumentException {
+        if (graph == null || sourceId < 0 || sourceId >= graph.getNodeCount()) {
+            throw new IllegalArgumentException();
+        }
+        synchronized (this) {
+            ShortestPathTree<N> cached = trees.get(sourceId);
+            if (cached != null && cached.getGraph() == graph) {
+                hits++;
+                checkRep();
+                return cached;
+            }
+            misses++;
+        }
+        // search without holding the lock
+        ShortestPathTree<N> tree = ShortestPath.getShortestPathTree(graph, sourceId);
+        synchronized (this) {
+            trees.put(sourceId, tree);
+            checkRep();
+        }
+        return tree;
+    }
+
+    /**
+     * Finds the shortest path between the nodes with the passed-in ids by walking back along the tree of the
+     * start node, which is found and cached first if it is not cached yet.
+     *
+     * @param graph the weighted snapshot to look for the shortest path in
+     * @param startId the id of the starting node of the path
+     * @param endId the id of the ending node of the path
+     * @throws IllegalArgumentException if graph == null, or if startId is not a node id of graph
+     * @spec.requires 0 &lt;= endId &lt; graph.getNodeCount()
+     * @spec.modifies trees, hits, misses, evictions
+     * @spec.effects the same as getTree(graph, startId)
+     * @return A path between the nodes with ids {@code startId} and {@code endId}, or {@literal null}
+     * if none exists.
+     */
+    public Path<N> getShortestPathById(DoubleWeightedGraph<N> graph, int startId, int endId)
+            throws IllegalArgumentException {
+        return getTree(graph, startId).pathTo(endId);
+    }
+
+    /**
+     * Removes every tree from the cache. The counters keep their values.
+     *
+     * @spec.modifies trees
+     * @spec.effects sets trees as empty
+     */
+    public synchronized void clear() {
+        trees.clear();
+        checkRep();
+    }
+
+    /**
+     * @return the most trees that the cache keeps
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of trees in the cache
+     */
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    /**
+     * @return the number of lookups that were found in the cache
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that were not found in the cache and had to search
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the number of trees that were evicted to make room for another one
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+}
@@ -0,0 +1,111 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class CampusMapTest {
+
+    private final static String UNKNOWN_ENGINE = "no-such-engine";
+
+    /** Returns the short names of the buildings of the passed-in map, sorted. */
+    private static List<String> shortNames(CampusMap map) {
+        List<String> names = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    private static double costOf(Path<?> path) {
+        return (path == null) ? Double.POSITIVE_INFINITY : path.getCost();
+    }
+
+    @Test
+    public void everySearchModeHasAnEngine() {
+        CampusMap map = new CampusMap();
+        for (SearchMode mode : SearchMode.values()) {
+            assertTrue(map.hasEngine(mode.getEngineName()));
+            assertTrue(map.engineNames().contains(mode.getEngineName()));
+        }
+        assertTrue(map.hasEngine(map.getDefaultEngine()));
+    }
+
+    @Test
+    public void everyEngineFindsTheSameCost() {
+        CampusMap map = new CampusMap();
+        List<String> names = shortNames(map);
+        for (String start : names) {
+            for (String end : names) {
+                double expected = costOf(map.findShortestPath(start, end, SearchMode.DIJKSTRA));
+                for (String engine : map.engineNames()) {
+                    assertEquals("engine " + engine + " found a different cost!", expected,
+                            costOf(map.findShortestPath(start, end, engine)), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void setDefaultEngineSwitchesEngine() {
+        CampusMap map = new CampusMap();
+        List<String> names = shortNames(map);
+        map.setDefaultEngine(SearchMode.DIJKSTRA.getEngineName());
+        assertEquals(SearchMode.DIJKSTRA.getEngineName(), map.getDefaultEngine());
+        try {
+            map.setDefaultEngine(UNKNOWN_ENGINE);
+            fail("an unknown engine should be rejected!");
+        } catch (IllegalArgumentException e) {
+            assertEquals("a rejected engine should not become the default!", SearchMode.DIJKSTRA.getEngineName(),
+                    map.getDefaultEngine());
+        }
+        int[] calls = new int[1];
+        map.registerEngine("counting", (graph, startId, endId, budget) -> {
+            calls[0]++;
+            return ShortestPath.getShortestPathById(graph, startId, endId, budget);
+        });
+        map.setDefaultEngine("counting");
+        map.findShortestPath(names.get(0), names.get(names.size() - 1));
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    public void registerEngineReplacesSearchModeEngine() {
+        CampusMap map = new CampusMap();
+        List<String> names = shortNames(map);
+        String start = names.get(0);
+        String end = names.get(names.size() - 1);
+        Path<Point> expected = map.findShortestPath(start, end, SearchMode.A_STAR);
+        assertNotNull(expected);
+        map.registerEngine(SearchMode.A_STAR.getEngineName(), (graph, startId, endId, budget) -> null);
+        assertNull("the replaced engine should not be used!", map.findShortestPath(start, end, SearchMode.A_STAR));
+        assertEquals(expected.getCost(), map.findShortestPath(start, end, SearchMode.DIJKSTRA).getCost(), 1e-9);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkUnknownEngine() {
+        CampusMap map = new CampusMap();
+        List<String> names = shortNames(map);
+        map.findShortestPath(names.get(0), names.get(1), UNKNOWN_ENGINE);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNullEngine() {
+        CampusMap map = new CampusMap();
+        List<String> names = shortNames(map);
+        map.findShortestPath(names.get(0), names.get(1), (String) null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkSetNullDefaultEngine() {
+        new CampusMap().setDefaultEngine(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkRegisterNullEngine() {
+        new CampusMap().registerEngine("broken", null);
+    }
+}
@@ -0,0 +1,223 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+public final class ChainContractionTest {
+
+    private final static String hubA = "hubA";
+    private final static String hubB = "hubB";
+    private final static String hubC = "hubC";
+    private final static String p1 = "p1";
+    private final static String p2 = "p2";
+    private final static String q1 = "q1";
+    private final static String r1 = "r1";
+    private final static String r2 = "r2";
+    private final static String loop1 = "loop1";
+    private final static String loop2 = "loop2";
+    private final static int NUM_OF_HUBS = 12;
+    private final static double EPSILON = 1e-9;
+    private final static SearchBudget UNLIMITED = SearchBudget.unlimited();
+
+    /**
+     * Makes two parallel chains between hubA and hubB, hubA - p1 - p2 - hubB and hubA - q1 - hubB, then the chain
+     * hubB - r1 - r2 - hubC. Every edge has its own weight, and the two directions of each link differ.
+     */
+    private static DoubleWeightedGraph<String> makeParallelChains() {
+        return DoubleWeightedGraph.of(new Graph.Builder<String,Double>(8, 14)
+                .addEdge(hubA, p1, 1.0).addEdge(p1, hubA, 8.0)
+                .addEdge(p1, p2, 2.0).addEdge(p2, p1, 7.0)
+                .addEdge(p2, hubB, 3.0).addEdge(hubB, p2, 6.0)
+                .addEdge(hubA, q1, 4.0).addEdge(q1, hubA, 1.5)
+                .addEdge(q1, hubB, 5.0).addEdge(hubB, q1, 0.5)
+                .addEdge(hubB, r1, 10.0).addEdge(r1, hubB, 13.0)
+                .addEdge(r1, r2, 11.0).addEdge(r2, r1, 14.0)
+                .addEdge(r2, hubC, 12.0).addEdge(hubC, r2, 15.0)
+                .build());
+    }
+
+    /** Keeps the hubs of the passed-in graph, whose names start with "hub". */
+    private static IntPredicate hubsOf(DoubleWeightedGraph<String> graph) {
+        return id -> graph.getNode(id).startsWith("hub");
+    }
+
+    /**
+     * Makes hubs joined by random chains of up to three pass-through nodes, with different random weights in the
+     * two directions. Some chains loop back to the hub they start at, some hubs are joined by parallel chains, and
+     * some hubs end up with only two neighbors.
+     */
+    private static DoubleWeightedGraph<Integer> makeWalkways(long seed) {
+        Random random = new Random(seed);
+        Graph.Builder<Integer,Double> builder = new Graph.Builder<>(8 * NUM_OF_HUBS, 16 * NUM_OF_HUBS);
+        for (int i = 0; i < NUM_OF_HUBS; i++) {
+            builder.addNode(i);
+        }
+        int next = NUM_OF_HUBS;
+        for (int c = 0; c < 2 * NUM_OF_HUBS; c++) {
+            int previous = random.nextInt(NUM_OF_HUBS);
+            int end = random.nextInt(NUM_OF_HUBS);
+            int length = random.nextInt(4);
+            if (previous == end && length < 2) {
+                continue;
+            }
+            for (int i = 0; i <= length; i++) {
+                int current = (i == length) ? end : next++;
+                builder.addEdge(previous, current, random.nextInt(20) / 2.0);
+                builder.addEdge(current, previous, random.nextInt(20) / 2.0);
+                previous = current;
+            }
+        }
+        return DoubleWeightedGraph.of(builder.build());
+    }
+
+    /** Checks that every segment of the passed-in path is an edge of the graph, so every super-edge was expanded. */
+    private static <N> void assertFollowsEdges(DoubleWeightedGraph<N> graph, int start, int end, Path<N> path) {
+        assertEquals(graph.getNode(start), path.getStart());
+        assertEquals(graph.getNode(end), path.getEnd());
+        for (Path<N>.Segment segment : path) {
+            int from = graph.getId(segment.getStart());
+            int to = graph.getId(segment.getEnd());
+            boolean found = false;
+            for (int k = graph.getEdgeStart(from); k < graph.getEdgeEnd(from); k++) {
+                found |= graph.getTarget(k) == to && graph.getWeight(k) == segment.getCost();
+            }
+            assertTrue("segment " + segment + " is not an edge!", found);
+        }
+    }
+
+    private static <N> Path<N> find(ChainContraction<N> chains, N start, N end) {
+        DoubleWeightedGraph<N> graph = chains.getGraph();
+        return chains.getShortestPathById(graph.getId(start), graph.getId(end), UNLIMITED);
+    }
+
+    @Test
+    public void chainsCollapseIntoSuperEdges() {
+        DoubleWeightedGraph<String> graph = makeParallelChains();
+        ChainContraction<String> chains = ChainContraction.build(graph, hubsOf(graph));
+        for (int id = 0; id < graph.getNodeCount(); id++) {
+            assertEquals(graph.getNode(id) + " should remain iff it is a hub!",
+                    graph.getNode(id).startsWith("hub"), chains.isRemaining(id));
+        }
+        DoubleWeightedGraph<Integer> contracted = chains.getContractedGraph();
+        assertEquals(3, contracted.getNodeCount());
+        assertEquals("each chain should become one arc in each direction!", 6, contracted.getEdgeCount());
+    }
+
+    @Test
+    public void parallelChainsExpandTheLighterOne() {
+        DoubleWeightedGraph<String> graph = makeParallelChains();
+        ChainContraction<String> chains = ChainContraction.build(graph, hubsOf(graph));
+        assertEquals("hubA to hubB should take the p chain!",
+                new Path<>(hubA).extend(Arrays.asList(p1, p2, hubB), new double[] {1, 2, 3}),
+                find(chains, hubA, hubB));
+        assertEquals("hubB to hubA should take the q chain!",
+                new Path<>(hubB).extend(Arrays.asList(q1, hubA), new double[] {0.5, 1.5}),
+                find(chains, hubB, hubA));
+    }
+
+    @Test
+    public void laterSuperEdgesExpandTheirOwnHops() {
+        // the super-edges out of hubB come after the ones out of hubA, so their hops start further along
+        DoubleWeightedGraph<String> graph = makeParallelChains();
+        ChainContraction<String> chains = ChainContraction.build(graph, hubsOf(graph));
+        assertEquals(new Path<>(hubA).extend(Arrays.asList(p1, p2, hubB, r1, r2, hubC),
+                new double[] {1, 2, 3, 10, 11, 12}), find(chains, hubA, hubC));
+        assertEquals(new Path<>(hubC).extend(Arrays.asList(r2, r1, hubB, q1, hubA),
+                new double[] {15, 14, 13, 0.5, 1.5}), find(chains, hubC, hubA));
+    }
+
+    @Test
+    public void loopBackToTheSameHubIsDiscarded() {
+        DoubleWeightedGraph<String> graph = DoubleWeightedGraph.of(new Graph.Builder<String,Double>(5, 10)
+                .addBidirectionalEdge(hubA, loop1, 1.0)
+                .addBidirectionalEdge(loop1, loop2, 1.0)
+                .addBidirectionalEdge(loop2, hubA, 1.0)
+                .addBidirectionalEdge(hubA, p1, 2.0)
+                .addBidirectionalEdge(p1, hubB, 3.0)
+                .build());
+        ChainContraction<String> chains = ChainContraction.build(graph, hubsOf(graph));
+        assertFalse(chains.isRemaining(graph.getId(loop1)));
+        assertFalse(chains.isRemaining(graph.getId(loop2)));
+        assertEquals("only the chain through p1 should remain!", 2, chains.getContractedGraph().getEdgeCount());
+        assertEquals(new Path<>(hubA).extend(Arrays.asList(p1, hubB), new double[] {2, 3}), find(chains, hubA, hubB));
+        assertEquals(new Path<>(hubA), find(chains, hubA, hubA));
+        assertEquals("a loop node should still be reachable!",
+                new Path<>(hubB).extend(Arrays.asList(p1, hubA, loop1), new double[] {3, 2, 1}),
+                find(chains, hubB, loop1));
+    }
+
+    @Test
+    public void passThroughEndpointSearchesTheOriginalSnapshot() {
+        DoubleWeightedGraph<String> graph = makeParallelChains();
+        ChainContraction<String> chains = ChainContraction.build(graph, hubsOf(graph));
+        assertEquals(new Path<>(p2).extend(Arrays.asList(hubB, r1), new double[] {3, 10}), find(chains, p2, r1));
+        assertEquals(new Path<>(hubC).extend(Arrays.asList(r2, r1, hubB, q1), new double[] {15, 14, 13, 0.5}),
+                find(chains, hubC, q1));
+        assertEquals(new Path<>(p1).extend(Arrays.asList(p2, hubB, r1, r2, hubC), new double[] {2, 3, 10, 11, 12}),
+                find(chains, p1, hubC));
+    }
+
+    @Test
+    public void unreachableHubHasNoPath() {
+        DoubleWeightedGraph<String> graph = DoubleWeightedGraph.of(new Graph.Builder<String,Double>(4, 4)
+                .addBidirectionalEdge(hubA, p1, 1.0)
+                .addBidirectionalEdge(p1, hubB, 1.0)
+                .addNode(hubC)
+                .build());
+        ChainContraction<String> chains = ChainContraction.build(graph, hubsOf(graph));
+        assertNull(find(chains, hubA, hubC));
+        assertNull(find(chains, p1, hubC));
+    }
+
+    @Test
+    public void chainsMatchDijkstraOnWalkways() {
+        for (long seed = 0; seed < 8; seed++) {
+            DoubleWeightedGraph<Integer> graph = makeWalkways(seed);
+            ChainContraction<Integer> chains = ChainContraction.build(graph, id -> id % 3 == 0);
+            int remaining = 0;
+            for (int start = 0; start < graph.getNodeCount(); start++) {
+                remaining += chains.isRemaining(start) ? 1 : 0;
+                double[] distances = ShortestPath.getDistancesById(graph, start);
+                for (int end = 0; end < graph.getNodeCount(); end++) {
+                    Path<Integer> path = chains.getShortestPathById(start, end, UNLIMITED);
+                    if (path == null) {
+                        assertEquals("chains missed a path!", Double.POSITIVE_INFINITY, distances[end], 0.0);
+                    } else {
+                        assertEquals("chains found a different cost!", distances[end], path.getCost(), EPSILON);
+                        assertFollowsEdges(graph, start, end, path);
+                    }
+                }
+            }
+            assertTrue("some chains should have collapsed!", remaining < graph.getNodeCount());
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkBuildNullGraph() {
+        ChainContraction.build((DoubleWeightedGraph<String>) null, id -> true);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkBuildNullKeep() {
+        ChainContraction.build(makeParallelChains(), null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkSearchNullBudget() {
+        DoubleWeightedGraph<String> graph = makeParallelChains();
+        ChainContraction.build(graph, hubsOf(graph)).getShortestPathById(0, 1, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkSearchBadId() {
+        DoubleWeightedGraph<String> graph = makeParallelChains();
+        ChainContraction.build(graph, hubsOf(graph)).getShortestPathById(0, graph.getNodeCount(), UNLIMITED);
+    }
+}
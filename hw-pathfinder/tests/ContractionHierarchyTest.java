@@ -0,0 +1,170 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public final class ContractionHierarchyTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String node3 = "node3";
+    private final static String node4 = "node4";
+    private final static int NUM_OF_NODES = 40;
+    private final static int NUM_OF_EDGES = 3 * NUM_OF_NODES;
+    private final static int GRID_SIDE = 30;
+    private final static double EPSILON = 1e-9;
+
+    /** Makes the chain node1 - node2 - node3 - node4 with an edge each way between neighbors. */
+    private static DoubleWeightedGraph<String> makeChain() {
+        return DoubleWeightedGraph.of(new Graph.Builder<String,Double>(4, 6)
+                .addBidirectionalEdge(node1, node2, 1.0)
+                .addBidirectionalEdge(node2, node3, 2.0)
+                .addBidirectionalEdge(node3, node4, 4.0)
+                .build());
+    }
+
+    /**
+     * Makes a grid with unit weights plus two bridge nodes, each joined to opposite corners by heavy edges. The
+     * bridges are contracted while the grid is whole, and the search for a witness path between two opposite
+     * corners settles more nodes than the witness search allows, so it stops early and adds a shortcut anyway.
+     */
+    private static DoubleWeightedGraph<Integer> makeBridgedGrid() {
+        int last = GRID_SIDE * GRID_SIDE - 1;
+        Graph.Builder<Integer,Double> builder = new Graph.Builder<>(last + 3, 2 * last + 10);
+        for (int x = 0; x < GRID_SIDE; x++) {
+            for (int y = 0; y < GRID_SIDE; y++) {
+                int id = x * GRID_SIDE + y;
+                builder.addNode(id);
+                if (x > 0) {
+                    builder.addBidirectionalEdge(id - GRID_SIDE, id, 1.0);
+                }
+                if (y > 0) {
+                    builder.addBidirectionalEdge(id - 1, id, 1.0);
+                }
+            }
+        }
+        builder.addBidirectionalEdge(last + 1, 0, 1000.0);
+        builder.addBidirectionalEdge(last + 1, last, 1000.0);
+        builder.addBidirectionalEdge(last + 2, GRID_SIDE - 1, 1000.0);
+        builder.addBidirectionalEdge(last + 2, last + 1 - GRID_SIDE, 1000.0);
+        return DoubleWeightedGraph.of(builder.build());
+    }
+
+    private static double costOf(Path<?> path) {
+        return (path == null) ? Double.POSITIVE_INFINITY : path.getCost();
+    }
+
+    /** Checks that every segment of the passed-in path is an edge of the graph, so every shortcut was unpacked. */
+    private static <N> void assertFollowsEdges(DoubleWeightedGraph<N> graph, int start, int end, Path<N> path) {
+        assertEquals(graph.getNode(start), path.getStart());
+        assertEquals(graph.getNode(end), path.getEnd());
+        for (Path<N>.Segment segment : path) {
+            int from = graph.getId(segment.getStart());
+            int to = graph.getId(segment.getEnd());
+            boolean found = false;
+            for (int k = graph.getEdgeStart(from); k < graph.getEdgeEnd(from); k++) {
+                found |= graph.getTarget(k) == to && graph.getWeight(k) == segment.getCost();
+            }
+            assertTrue("segment " + segment + " is not an edge!", found);
+        }
+    }
+
+    private static <N> void assertMatchesDijkstra(ContractionHierarchy<N> hierarchy, int step) {
+        DoubleWeightedGraph<N> graph = hierarchy.getGraph();
+        for (int start = 0; start < graph.getNodeCount(); start += step) {
+            double[] distances = ShortestPath.getDistancesById(graph, start);
+            for (int end = 0; end < graph.getNodeCount(); end++) {
+                Path<N> path = hierarchy.getShortestPathById(start, end);
+                assertEquals("hierarchy found a different cost!", distances[end], costOf(path), EPSILON);
+                if (path != null) {
+                    assertFollowsEdges(graph, start, end, path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void chainUnpacksShortcuts() {
+        ContractionHierarchy<String> hierarchy = ContractionHierarchy.build(makeChain());
+        Path<String> path = hierarchy.getShortestPath(node1, node4);
+        assertEquals(7.0, path.getCost(), 0.0);
+        Path<String> expected = new Path<>(node1).extend(Arrays.asList(node2, node3, node4), new double[] {1, 2, 4});
+        assertEquals("path should list every node of the chain!", expected, path);
+        assertEquals(new Path<>(node3), hierarchy.getShortestPath(node3, node3));
+    }
+
+    @Test
+    public void hierarchyMatchesDijkstraOnDirectedGraphs() {
+        for (long seed = 0; seed < 8; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_NODES, NUM_OF_EDGES);
+            assertMatchesDijkstra(ContractionHierarchy.build(graph), 1);
+        }
+    }
+
+    @Test
+    public void hierarchyMatchesDijkstraBeyondWitnessLimit() {
+        assertMatchesDijkstra(ContractionHierarchy.build(makeBridgedGrid()), 29);
+    }
+
+    @Test
+    public void unreachablePairHasNoPath() {
+        DoubleWeightedGraph<String> graph = DoubleWeightedGraph.of(new Graph.Builder<String,Double>(2, 1)
+                .addEdge(node1, node2, 1.0)
+                .build());
+        ContractionHierarchy<String> hierarchy = ContractionHierarchy.build(graph);
+        assertNull(hierarchy.getShortestPath(node2, node1));
+        assertEquals(1.0, hierarchy.getShortestPath(node1, node2).getCost(), 0.0);
+    }
+
+    @Test
+    public void savedHierarchyReadsBack() throws IOException {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(20, NUM_OF_NODES, NUM_OF_EDGES);
+        ContractionHierarchy<Integer> built = ContractionHierarchy.build(graph);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        built.writeTo(out);
+        ContractionHierarchy<Integer> read = ContractionHierarchy.readFrom(new ByteArrayInputStream(out.toByteArray()),
+                graph);
+        assertEquals(built.getShortcutCount(), read.getShortcutCount());
+        for (int start = 0; start < graph.getNodeCount(); start++) {
+            for (int end = 0; end < graph.getNodeCount(); end++) {
+                assertEquals("read hierarchy answers differently!", built.getShortestPathById(start, end),
+                        read.getShortestPathById(start, end));
+            }
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkReadForDifferentGraph() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContractionHierarchy.build(RandomGraphs.makeDirected(21, NUM_OF_NODES, NUM_OF_EDGES)).writeTo(out);
+        ContractionHierarchy.readFrom(new ByteArrayInputStream(out.toByteArray()),
+                RandomGraphs.makeDirected(22, NUM_OF_NODES, NUM_OF_EDGES));
+    }
+
+    @Test(expected=IOException.class)
+    public void checkReadTruncatedStream() throws IOException {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(23, NUM_OF_NODES, NUM_OF_EDGES);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContractionHierarchy.build(graph).writeTo(out);
+        byte[] saved = out.toByteArray();
+        ContractionHierarchy.readFrom(new ByteArrayInputStream(Arrays.copyOf(saved, saved.length - 3)), graph);
+    }
+
+    @Test(expected=IOException.class)
+    public void checkReadStreamWithoutHierarchy() throws IOException {
+        ContractionHierarchy.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}), makeChain());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkBuildNull() {
+        ContractionHierarchy.build((DoubleWeightedGraph<String>) null);
+    }
+}
@@ -0,0 +1,87 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public final class DeltaSteppingTest {
+
+    private final static int NUM_OF_NODES = 60;
+    private final static int NUM_OF_BIG_NODES = 5000;
+    private final static double[] DELTAS = {0.25, 1.0, 2.5, 7.0, 1000.0};
+
+    @Test
+    public void matchesDijkstraForEveryDelta() {
+        for (long seed = 0; seed < 4; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_NODES, 3 * NUM_OF_NODES);
+            for (double delta : DELTAS) {
+                DeltaStepping engine = new DeltaStepping(delta);
+                for (int source = 0; source < NUM_OF_NODES; source += 7) {
+                    assertArrayEquals("delta " + delta, ShortestPath.getDistancesById(graph, source),
+                            engine.distancesFromById(graph, source), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matchesDijkstraOnLargeGraph() {
+        // the buckets of a large graph hold enough nodes to be split into several tasks
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(10, NUM_OF_BIG_NODES, 3 * NUM_OF_BIG_NODES);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (double delta : new double[] {DeltaStepping.suggestDelta(graph), 50.0}) {
+                assertArrayEquals("delta " + delta, ShortestPath.getDistancesById(graph, 0),
+                        new DeltaStepping(delta, pool).distancesFromById(graph, 0), 0.0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void onlyZeroWeightEdges() {
+        DoubleWeightedGraph<String> graph = DoubleWeightedGraph.of(new Graph.Builder<String,Double>(4, 3)
+                .addEdge("a", "b", 0.0)
+                .addEdge("b", "c", 0.0)
+                .addEdge("c", "a", 0.0)
+                .addNode("d")
+                .build());
+        assertEquals(1.0, DeltaStepping.suggestDelta(graph), 0.0);
+        double[] distances = new DeltaStepping(DeltaStepping.suggestDelta(graph)).distancesFromById(graph,
+                graph.getId("b"));
+        assertEquals(0.0, distances[graph.getId("a")], 0.0);
+        assertEquals(0.0, distances[graph.getId("c")], 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, distances[graph.getId("d")], 0.0);
+    }
+
+    @Test
+    public void distancesFromGraphUsesNodeIds() {
+        Graph<String,Double> graph = new Graph.Builder<String,Double>(3, 2)
+                .addEdge("a", "b", 1.5)
+                .addEdge("b", "c", 2.0)
+                .build();
+        double[] distances = new DeltaStepping(1.0).distancesFrom(graph, "a");
+        assertEquals(3.5, distances[graph.getNodeId("c")], 0.0);
+        assertEquals(1.5, distances[graph.getNodeId("b")], 0.0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkZeroDelta() {
+        new DeltaStepping(0.0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkInfiniteDelta() {
+        new DeltaStepping(Double.POSITIVE_INFINITY);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkSourceOutOfRange() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(20, NUM_OF_NODES, 3 * NUM_OF_NODES);
+        new DeltaStepping(1.0).distancesFromById(graph, NUM_OF_NODES);
+    }
+}
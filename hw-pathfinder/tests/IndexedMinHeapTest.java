@@ -0,0 +1,100 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public final class IndexedMinHeapTest {
+
+    private final static int CAPACITY = 64;
+    private final static int NUM_OF_OPERATIONS = 5000;
+
+    @Test
+    public void pollReturnsIdsInKeyOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(CAPACITY);
+        heap.insertOrDecrease(3, 3.0);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 2.0);
+        assertEquals(3, heap.size());
+        assertEquals(1, heap.peekMin());
+        assertEquals(1, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+        assertEquals(3, heap.pollMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void decreaseKeyMovesIdForward() {
+        IndexedMinHeap heap = new IndexedMinHeap(CAPACITY);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 5.0);
+        assertTrue("lower key should be accepted!", heap.insertOrDecrease(2, 0.5));
+        assertEquals("id should not be added twice!", 2, heap.size());
+        assertEquals(0.5, heap.getKey(2), 0.0);
+        assertEquals(2, heap.pollMin());
+    }
+
+    @Test
+    public void largerKeyIsIgnored() {
+        IndexedMinHeap heap = new IndexedMinHeap(CAPACITY);
+        heap.insertOrDecrease(1, 1.0);
+        assertFalse("larger key should be ignored!", heap.insertOrDecrease(1, 2.0));
+        assertFalse(heap.insertOrDecrease(1, 1.0));
+        assertEquals(1.0, heap.getKey(1), 0.0);
+    }
+
+    @Test
+    public void clearEmptiesHeap() {
+        IndexedMinHeap heap = new IndexedMinHeap(CAPACITY);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 2.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse("cleared id should be gone!", heap.contains(1));
+        heap.insertOrDecrease(2, 7.0);
+        assertEquals("cleared id should be added again with its new key!", 7.0, heap.getKey(2), 0.0);
+        assertEquals(2, heap.pollMin());
+    }
+
+    @Test
+    public void randomOperationsMatchReference() {
+        Random random = new Random(331);
+        IndexedMinHeap heap = new IndexedMinHeap(CAPACITY);
+        Map<Integer,Double> reference = new HashMap<>();
+        for (int i = 0; i < NUM_OF_OPERATIONS; i++) {
+            if (random.nextInt(3) == 0 && !reference.isEmpty()) {
+                double min = reference.values().stream().min(Double::compare).get();
+                int id = heap.pollMin();
+                assertEquals("heap returned an id without the smallest key!", min, reference.remove(id), 0.0);
+            } else {
+                int id = random.nextInt(CAPACITY);
+                double key = random.nextDouble();
+                boolean changed = !reference.containsKey(id) || key < reference.get(id);
+                assertEquals(changed, heap.insertOrDecrease(id, key));
+                if (changed) {
+                    reference.put(id, key);
+                }
+            }
+            assertEquals(reference.size(), heap.size());
+        }
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void checkPollEmptyHeap() {
+        new IndexedMinHeap(CAPACITY).pollMin();
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void checkPeekEmptyHeap() {
+        new IndexedMinHeap(CAPACITY).peekMin();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeCapacity() {
+        new IndexedMinHeap(-1);
+    }
+}
@@ -0,0 +1,117 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+public final class LandmarksTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String node3 = "node3";
+    private final static int NUM_OF_NODES = 50;
+    private final static int NUM_OF_LANDMARKS = 4;
+    private final static double EPSILON = 1e-9;
+
+    private static double costOf(Path<?> path) {
+        return (path == null) ? Double.POSITIVE_INFINITY : path.getCost();
+    }
+
+    @Test
+    public void lowerBoundNeverOverestimates() {
+        for (long seed = 0; seed < 5; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_NODES);
+            Landmarks<Integer> landmarks = Landmarks.select(graph, NUM_OF_LANDMARKS);
+            for (int endId = 0; endId < NUM_OF_NODES; endId++) {
+                double[] toEnd = ShortestPath.getDistancesById(graph.reverse(), endId);
+                for (int id = 0; id < NUM_OF_NODES; id++) {
+                    double bound = landmarks.lowerBound(id, endId);
+                    assertTrue("bound should be a finite number!", bound >= 0 && bound < Double.POSITIVE_INFINITY);
+                    assertTrue("bound overestimates!", bound <= toEnd[id] + EPSILON);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lowerBoundIsConsistent() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(5, NUM_OF_NODES);
+        Landmarks<Integer> landmarks = Landmarks.select(graph, NUM_OF_LANDMARKS);
+        for (int endId = 0; endId < NUM_OF_NODES; endId++) {
+            double[] toEnd = ShortestPath.getDistancesById(graph.reverse(), endId);
+            for (int id = 0; id < NUM_OF_NODES; id++) {
+                for (int k = graph.getEdgeStart(id); k < graph.getEdgeEnd(id); k++) {
+                    // no path to endId leads through a node that cannot reach it, so its bound does not matter
+                    if (toEnd[graph.getTarget(k)] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    assertTrue("bound drops by more than an edge!", landmarks.lowerBound(id, endId)
+                            <= graph.getWeight(k) + landmarks.lowerBound(graph.getTarget(k), endId) + EPSILON);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lowerBoundSkipsUnreachableLandmark() {
+        // node3 cannot reach the landmark and the landmark cannot reach node3
+        DoubleWeightedGraph<String> graph = DoubleWeightedGraph.of(new Graph.Builder<String,Double>(3, 2)
+                .addEdge(node1, node2, 1.0)
+                .addEdge(node3, node2, 5.0)
+                .build());
+        Landmarks<String> landmarks = Landmarks.of(graph, graph.getId(node1));
+        assertEquals(0.0, landmarks.lowerBound(graph.getId(node3), graph.getId(node2)), 0.0);
+        assertEquals(0.0, landmarks.lowerBound(graph.getId(node2), graph.getId(node3)), 0.0);
+        assertEquals(1.0, landmarks.lowerBound(graph.getId(node1), graph.getId(node2)), 0.0);
+    }
+
+    @Test
+    public void guidedSearchMatchesDijkstra() {
+        for (long seed = 10; seed < 14; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_NODES);
+            Landmarks<Integer> landmarks = Landmarks.select(graph, NUM_OF_LANDMARKS);
+            for (int start = 0; start < NUM_OF_NODES; start++) {
+                double[] distances = ShortestPath.getDistancesById(graph, start);
+                for (int end = 0; end < NUM_OF_NODES; end++) {
+                    assertEquals("landmarks found a different cost!", distances[end],
+                            costOf(landmarks.getShortestPathById(start, end)), EPSILON);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void selectChoosesAtMostEveryNode() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(20, NUM_OF_NODES);
+        assertEquals(NUM_OF_NODES, Landmarks.select(graph, 2 * NUM_OF_NODES).size());
+        assertEquals(0, Landmarks.select(graph, 0).size());
+    }
+
+    @Test
+    public void selectedTablesMatchGivenLandmarks() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(23, NUM_OF_NODES);
+        Landmarks<Integer> selected = Landmarks.select(graph, NUM_OF_LANDMARKS);
+        int[] ids = new int[selected.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = selected.getLandmark(i);
+        }
+        Landmarks<Integer> given = Landmarks.of(graph, ids);
+        for (int id = 0; id < NUM_OF_NODES; id++) {
+            for (int endId = 0; endId < NUM_OF_NODES; endId++) {
+                assertEquals(given.lowerBound(id, endId), selected.lowerBound(id, endId), 0.0);
+            }
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkSelectNegativeCount() {
+        Landmarks.select(RandomGraphs.makeDirected(21, NUM_OF_NODES), -1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkOfRepeatedLandmark() {
+        Landmarks.of(RandomGraphs.makeDirected(22, NUM_OF_NODES), 3, 3);
+    }
+}
@@ -0,0 +1,149 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public final class PairingHeapTest {
+
+    private final static int CAPACITY = 64;
+    private final static int NUM_OF_OPERATIONS = 20000;
+
+    /** Polls every id of the passed-in heap and checks that the keys come out in order. */
+    private static void assertPollsInOrder(PairingHeap heap, int count) {
+        double previous = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double key = heap.getKey(heap.peekMin());
+            assertTrue("keys came out of order!", previous <= key);
+            heap.pollMin();
+            previous = key;
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void pollReturnsIdsInKeyOrder() {
+        PairingHeap heap = new PairingHeap(CAPACITY);
+        heap.insertOrDecrease(3, 3.0);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 2.0);
+        assertEquals(1, heap.peekMin());
+        assertEquals(1, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+        assertEquals(3, heap.pollMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void pollMergesOddAndEvenNumbersOfChildren() {
+        for (int children = 1; children <= 6; children++) {
+            PairingHeap heap = new PairingHeap(CAPACITY);
+            // every id is linked below id 0, so polling 0 merges all of them in pairs
+            heap.insertOrDecrease(0, 0.0);
+            for (int id = 1; id <= children; id++) {
+                heap.insertOrDecrease(id, (id * 7) % 5 + 1.0);
+            }
+            assertEquals(0, heap.pollMin());
+            assertPollsInOrder(heap, children);
+        }
+    }
+
+    @Test
+    public void decreaseCutsFirstChildAndLaterSibling() {
+        PairingHeap heap = new PairingHeap(CAPACITY);
+        heap.insertOrDecrease(0, 0.0);
+        for (int id = 1; id <= 5; id++) {
+            heap.insertOrDecrease(id, 10.0 + id);
+        }
+        // id 5 was linked last, so it is the first child of the root; id 3 is a sibling in the middle
+        assertTrue(heap.insertOrDecrease(5, 1.0));
+        assertTrue(heap.insertOrDecrease(3, 2.0));
+        assertEquals(0, heap.pollMin());
+        assertEquals(5, heap.pollMin());
+        // id 4 is now below another id, so this cuts a subtree that is not a child of the root
+        assertTrue(heap.insertOrDecrease(4, 0.5));
+        assertEquals(4, heap.pollMin());
+        assertEquals(3, heap.pollMin());
+        assertEquals(1, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void decreaseRootKeepsRoot() {
+        PairingHeap heap = new PairingHeap(CAPACITY);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 2.0);
+        assertTrue(heap.insertOrDecrease(1, 0.5));
+        assertFalse("larger key should be ignored!", heap.insertOrDecrease(2, 3.0));
+        assertEquals(0.5, heap.getKey(1), 0.0);
+        assertEquals(1, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+    }
+
+    @Test
+    public void clearFullHeapTwice() {
+        PairingHeap heap = new PairingHeap(CAPACITY);
+        for (int round = 0; round < 2; round++) {
+            for (int id = 0; id < CAPACITY; id++) {
+                heap.insertOrDecrease(id, CAPACITY - id);
+            }
+            heap.pollMin();
+            heap.clear();
+            assertTrue(heap.isEmpty());
+            for (int id = 0; id < CAPACITY; id++) {
+                assertFalse(heap.contains(id));
+            }
+        }
+    }
+
+    @Test
+    public void randomOperationsMatchReference() {
+        Random random = new Random(331);
+        PairingHeap heap = new PairingHeap(CAPACITY);
+        Map<Integer,Double> reference = new HashMap<>();
+        for (int i = 0; i < NUM_OF_OPERATIONS; i++) {
+            int choice = random.nextInt(10);
+            if (choice < 3 && !reference.isEmpty()) {
+                double min = reference.values().stream().min(Double::compare).get();
+                int id = heap.pollMin();
+                assertEquals("heap returned an id without the smallest key!", min, reference.remove(id), 0.0);
+            } else if (choice == 3) {
+                heap.clear();
+                reference.clear();
+            } else {
+                int id = random.nextInt(CAPACITY);
+                // few distinct keys, so that ties and lowering a key to an equal one both happen
+                double key = random.nextInt(50) / 4.0;
+                boolean changed = !reference.containsKey(id) || key < reference.get(id);
+                assertEquals(changed, heap.insertOrDecrease(id, key));
+                if (changed) {
+                    reference.put(id, key);
+                }
+            }
+            assertEquals(reference.size(), heap.size());
+            for (int id : reference.keySet()) {
+                assertTrue(heap.contains(id));
+            }
+        }
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void checkPollEmptyHeap() {
+        new PairingHeap(CAPACITY).pollMin();
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void checkPeekEmptyHeap() {
+        new PairingHeap(CAPACITY).peekMin();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeCapacity() {
+        new PairingHeap(-1);
+    }
+}
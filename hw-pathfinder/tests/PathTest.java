@@ -0,0 +1,45 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public final class PathTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String node3 = "node3";
+    private final static String node4 = "node4";
+
+    @Test
+    public void bulkExtendMatchesSingleExtends() {
+        Path<String> start = new Path<>(node1).extend(node2, 1.5);
+        Path<String> bulk = start.extend(Arrays.asList(node3, node4), new double[] {2.0, 0.25});
+        Path<String> single = start.extend(node3, 2.0).extend(node4, 0.25);
+        assertEquals("bulk extend should equal one extend per segment!", single, bulk);
+        assertEquals(3.75, bulk.getCost(), 0.0);
+        assertEquals(node4, bulk.getEnd());
+    }
+
+    @Test
+    public void bulkExtendDoesNotChangeOriginal() {
+        Path<String> start = new Path<>(node1);
+        start.extend(Collections.singletonList(node2), new double[] {1.0});
+        assertEquals(node1, start.getEnd());
+        assertEquals(0.0, start.getCost(), 0.0);
+    }
+
+    @Test
+    public void bulkExtendWithNothing() {
+        Path<String> start = new Path<>(node1).extend(node2, 1.0);
+        assertEquals(start, start.extend(Collections.emptyList(), new double[0]));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkBulkExtendWithMissingCost() {
+        new Path<>(node1).extend(Arrays.asList(node2, node3), new double[] {1.0});
+    }
+}
@@ -0,0 +1,129 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public final class PointOrderTest {
+
+    private final static int SMALL_SIDE = 4;
+    private final static int LARGE_SIDE = 8;
+
+    /**
+     * Makes a side-by-side grid of locations with coordinates from 0 to side - 1, added in a random order. With a
+     * side that is a power of two, each location falls in its own block of grid cells, and the blocks are in the
+     * same layout as the locations.
+     */
+    private static DoubleWeightedGraph<Point> makeGrid(int side, long seed) {
+        List<Point> points = new ArrayList<>();
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                points.add(new Point(x, y));
+            }
+        }
+        Collections.shuffle(points, new Random(seed));
+        Graph.Builder<Point,Double> builder = new Graph.Builder<>(points.size(), 0);
+        for (Point point : points) {
+            builder.addNode(point);
+        }
+        return DoubleWeightedGraph.of(builder.build());
+    }
+
+    /** Lists the locations of the passed-in snapshot in the passed-in order, checking it is a permutation. */
+    private static List<Point> inOrder(DoubleWeightedGraph<Point> graph, int[] order) {
+        assertEquals(graph.getNodeCount(), order.length);
+        boolean[] seen = new boolean[order.length];
+        List<Point> points = new ArrayList<>();
+        for (int oldId : order) {
+            assertFalse("id " + oldId + " appears twice!", seen[oldId]);
+            seen[oldId] = true;
+            points.add(graph.getNode(oldId));
+        }
+        return points;
+    }
+
+    private static double distance(Point first, Point second) {
+        return Math.abs(first.getX() - second.getX()) + Math.abs(first.getY() - second.getY());
+    }
+
+    /** Checks that the passed-in locations fill the square with the passed-in side at the origin. */
+    private static void assertFillsSquare(List<Point> points, int side) {
+        assertEquals(side * side, points.size());
+        for (Point point : points) {
+            assertTrue(point + " is outside the first " + side + " by " + side + " block!",
+                    point.getX() < side && point.getY() < side);
+        }
+    }
+
+    @Test
+    public void hilbertOnlyStepsToNeighbors() {
+        DoubleWeightedGraph<Point> graph = makeGrid(LARGE_SIDE, 0);
+        List<Point> points = inOrder(graph, PointOrder.hilbert(graph));
+        assertEquals(new Point(0, 0), points.get(0));
+        for (int i = 1; i < points.size(); i++) {
+            assertEquals(points.get(i - 1) + " and " + points.get(i) + " should be neighbors!",
+                    1.0, distance(points.get(i - 1), points.get(i)), 0.0);
+        }
+    }
+
+    @Test
+    public void hilbertFillsBlocksBeforeMovingOn() {
+        DoubleWeightedGraph<Point> graph = makeGrid(LARGE_SIDE, 1);
+        List<Point> points = inOrder(graph, PointOrder.hilbert(graph));
+        assertFillsSquare(points.subList(0, 4), 2);
+        assertFillsSquare(points.subList(0, 16), 4);
+    }
+
+    @Test
+    public void zOrderInterleavesBits() {
+        DoubleWeightedGraph<Point> graph = makeGrid(SMALL_SIDE, 2);
+        List<Point> points = inOrder(graph, PointOrder.zOrder(graph));
+        // the bits of the position along the curve are y1 x1 y0 x0
+        int[][] expected = {{0, 0}, {1, 0}, {0, 1}, {1, 1}, {2, 0}, {3, 0}, {2, 1}, {3, 1},
+                            {0, 2}, {1, 2}, {0, 3}, {1, 3}, {2, 2}, {3, 2}, {2, 3}, {3, 3}};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("wrong location at position " + i + "!",
+                    new Point(expected[i][0], expected[i][1]), points.get(i));
+        }
+    }
+
+    @Test
+    public void singleLocationKeepsItsId() {
+        DoubleWeightedGraph<Point> graph = DoubleWeightedGraph.of(new Graph.Builder<Point,Double>(1, 0)
+                .addNode(new Point(5, 5))
+                .build());
+        assertArrayEquals(new int[] {0}, PointOrder.hilbert(graph));
+        assertArrayEquals(new int[] {0}, PointOrder.zOrder(graph));
+    }
+
+    @Test
+    public void locationsOnALineAreOrderedAlongIt() {
+        Graph.Builder<Point,Double> builder = new Graph.Builder<>(4, 0);
+        for (int x : new int[] {3, 0, 2, 1}) {
+            builder.addNode(new Point(x, 7));
+        }
+        DoubleWeightedGraph<Point> graph = DoubleWeightedGraph.of(builder.build());
+        List<Point> points = inOrder(graph, PointOrder.zOrder(graph));
+        for (int x = 0; x < points.size(); x++) {
+            assertEquals(new Point(x, 7), points.get(x));
+        }
+        inOrder(graph, PointOrder.hilbert(graph));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkHilbertNull() {
+        PointOrder.hilbert(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkZOrderNull() {
+        PointOrder.zOrder(null);
+    }
+}
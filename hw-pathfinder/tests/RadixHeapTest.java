@@ -0,0 +1,147 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public final class RadixHeapTest {
+
+    private final static int CAPACITY = 64;
+    private final static int NUM_OF_OPERATIONS = 20000;
+
+    @Test
+    public void pollReturnsIdsInKeyOrder() {
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        heap.insertOrDecrease(3, 3.0);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 2.0);
+        assertEquals(1, heap.peekMin());
+        assertEquals(1, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+        assertEquals(3, heap.pollMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void redistributeSortsKeysOfEveryMagnitude() {
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        double[] keys = {1e300, 0.0, 3.5, 1e-300, 3.25, Double.MIN_VALUE, 1024.0, 3.5, 1e10, 1025.0};
+        for (int id = 0; id < keys.length; id++) {
+            heap.insertOrDecrease(id, keys[id]);
+        }
+        double previous = -1;
+        for (int i = 0; i < keys.length; i++) {
+            int id = heap.pollMin();
+            assertTrue("keys came out of order!", previous <= keys[id]);
+            previous = keys[id];
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void decreaseMovesIdToLowerBucket() {
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        heap.insertOrDecrease(1, 100.0);
+        heap.insertOrDecrease(2, 200.0);
+        heap.insertOrDecrease(0, 1.0);
+        assertEquals(0, heap.pollMin());
+        assertTrue(heap.insertOrDecrease(2, 50.0));
+        assertFalse("larger key should be ignored!", heap.insertOrDecrease(1, 150.0));
+        assertEquals(2, heap.pollMin());
+        assertEquals(1, heap.pollMin());
+    }
+
+    @Test
+    public void keyBelowLastIsClampedToLast() {
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        heap.insertOrDecrease(1, 5.0);
+        heap.insertOrDecrease(2, 5.0 + 1e-9);
+        assertEquals(1, heap.pollMin());
+        // a rounding error below the last key must still come out before every larger key
+        heap.insertOrDecrease(3, 5.0 - 1e-12);
+        assertEquals("the key that was passed in is kept", 5.0 - 1e-12, heap.getKey(3), 0.0);
+        assertEquals(3, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+    }
+
+    @Test
+    public void negativeZeroIsZero() {
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, -0.0);
+        assertEquals(2, heap.pollMin());
+        assertEquals(1, heap.pollMin());
+    }
+
+    @Test
+    public void clearResetsLastKey() {
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        heap.insertOrDecrease(1, 10.0);
+        heap.pollMin();
+        heap.insertOrDecrease(2, 20.0);
+        heap.clear();
+        assertFalse(heap.contains(2));
+        heap.insertOrDecrease(2, 3.0);
+        heap.insertOrDecrease(3, 1.0);
+        assertEquals(3, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+    }
+
+    @Test
+    public void randomMonotoneOperationsMatchReference() {
+        Random random = new Random(331);
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        Map<Integer,Double> reference = new HashMap<>();
+        double last = 0;
+        for (int i = 0; i < NUM_OF_OPERATIONS; i++) {
+            if (random.nextInt(3) == 0 && !reference.isEmpty()) {
+                double min = reference.values().stream().min(Double::compare).get();
+                int id = heap.pollMin();
+                assertEquals("heap returned an id without the smallest key!", min, reference.remove(id), 0.0);
+                last = min;
+            } else {
+                int id = random.nextInt(CAPACITY);
+                // keys never go below the last one removed, as in Dijkstra search, and often tie with it
+                double key = last + ((random.nextInt(4) == 0) ? 0 : random.nextInt(1 << random.nextInt(20)) / 8.0);
+                boolean changed = !reference.containsKey(id) || key < reference.get(id);
+                assertEquals(changed, heap.insertOrDecrease(id, key));
+                if (changed) {
+                    reference.put(id, key);
+                }
+            }
+            assertEquals(reference.size(), heap.size());
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeKey() {
+        new RadixHeap(CAPACITY).insertOrDecrease(0, -1.0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkKeyFarBelowLast() {
+        RadixHeap heap = new RadixHeap(CAPACITY);
+        heap.insertOrDecrease(1, 5.0);
+        heap.pollMin();
+        heap.insertOrDecrease(2, 4.0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNaNKey() {
+        new RadixHeap(CAPACITY).insertOrDecrease(0, Double.NaN);
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void checkPollEmptyHeap() {
+        new RadixHeap(CAPACITY).pollMin();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeCapacity() {
+        new RadixHeap(-1);
+    }
+}
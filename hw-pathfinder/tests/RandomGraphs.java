@@ -0,0 +1,74 @@
+package pathfinder.junitTests;
+
+import graph.*;
+
+import java.util.Random;
+
+/**
+ * RandomGraphs makes the random graphs that the search tests compare against each other.
+ */
+final class RandomGraphs {
+
+    private RandomGraphs() {
+    }
+
+    /**
+     * Makes a random directed graph with twice as many edges as nodes. Otherwise behaves the same as
+     * makeDirected(long, int, int).
+     *
+     * @param seed the seed of the random numbers
+     * @param nodeCount the number of nodes
+     * @return the random graph
+     */
+    static DoubleWeightedGraph<Integer> makeDirected(long seed, int nodeCount) {
+        return makeDirected(seed, nodeCount, 2 * nodeCount);
+    }
+
+    /**
+     * Makes a random directed graph with unboxed weights. Otherwise behaves the same as
+     * makeDirectedGraph(long, int, int).
+     *
+     * @param seed the seed of the random numbers
+     * @param nodeCount the number of nodes
+     * @param edgeCount the number of random edges to add
+     * @return the random graph
+     */
+    static DoubleWeightedGraph<Integer> makeDirected(long seed, int nodeCount, int edgeCount) {
+        return DoubleWeightedGraph.of(makeDirectedGraph(seed, nodeCount, edgeCount));
+    }
+
+    /**
+     * Makes a random directed Graph with twice as many edges as nodes. Otherwise behaves the same as
+     * makeDirectedGraph(long, int, int).
+     *
+     * @param seed the seed of the random numbers
+     * @param nodeCount the number of nodes
+     * @return the random Graph
+     */
+    static Graph<Integer,Double> makeDirectedGraph(long seed, int nodeCount) {
+        return makeDirectedGraph(seed, nodeCount, 2 * nodeCount);
+    }
+
+    /**
+     * Makes a random directed Graph whose nodes are the numbers 0 to nodeCount - 1, where about a fifth of the
+     * edges weigh nothing and some nodes cannot reach each other. The weights are multiples of 0.5, so every sum
+     * of them is exact, and the same seed always gives the same graph.
+     *
+     * @param seed the seed of the random numbers
+     * @param nodeCount the number of nodes
+     * @param edgeCount the number of random edges to add
+     * @return the random Graph
+     */
+    static Graph<Integer,Double> makeDirectedGraph(long seed, int nodeCount, int edgeCount) {
+        Random random = new Random(seed);
+        Graph.Builder<Integer,Double> builder = new Graph.Builder<>(nodeCount, edgeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            builder.addNode(i);
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            double weight = (random.nextInt(5) == 0) ? 0.0 : random.nextInt(20) / 2.0;
+            builder.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), weight);
+        }
+        return builder.build();
+    }
+}
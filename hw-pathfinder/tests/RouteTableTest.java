@@ -0,0 +1,88 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public final class RouteTableTest {
+
+    private final static int NUM_OF_NODES = 50;
+    private final static int[] SOURCES = {0, 7, 13, 42};
+    private final static double EPSILON = 1e-9;
+
+    @Test
+    public void tableMatchesDijkstra() {
+        for (long seed = 0; seed < 5; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_NODES);
+            RouteTable<Integer> table = RouteTable.build(graph, SOURCES);
+            for (int source : SOURCES) {
+                assertTrue(table.isSource(source));
+                assertEquals(source, table.getTree(source).getSourceId());
+                for (int end = 0; end < NUM_OF_NODES; end++) {
+                    Path<Integer> expected = ShortestPath.getShortestPathById(graph, source, end);
+                    Path<Integer> path = table.getShortestPathById(source, end);
+                    assertEquals("table disagrees on reachability!", expected == null, path == null);
+                    if (path == null) {
+                        assertEquals(Double.POSITIVE_INFINITY, table.getCost(source, end), 0.0);
+                    } else {
+                        assertEquals("table found a different cost!", expected.getCost(), path.getCost(), EPSILON);
+                        assertEquals(path.getCost(), table.getCost(source, end), EPSILON);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tableOnOwnPoolMatchesCommonPool() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(5, NUM_OF_NODES);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            RouteTable<Integer> own = RouteTable.build(graph, SOURCES, pool);
+            RouteTable<Integer> common = RouteTable.build(graph, SOURCES);
+            for (int source : SOURCES) {
+                for (int end = 0; end < NUM_OF_NODES; end++) {
+                    assertEquals(common.getShortestPathById(source, end), own.getShortestPathById(source, end));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void onlySourcesAreSources() {
+        RouteTable<Integer> table = RouteTable.build(RandomGraphs.makeDirected(6, NUM_OF_NODES), SOURCES);
+        assertFalse(table.isSource(1));
+        assertFalse(table.isSource(NUM_OF_NODES - 1));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkPathFromNonSource() {
+        RouteTable.build(RandomGraphs.makeDirected(7, NUM_OF_NODES), SOURCES).getShortestPathById(1, 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkCostFromNonSource() {
+        RouteTable.build(RandomGraphs.makeDirected(8, NUM_OF_NODES), SOURCES).getCost(1, 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkTreeOfNonSource() {
+        RouteTable.build(RandomGraphs.makeDirected(9, NUM_OF_NODES), SOURCES).getTree(1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkBuildRepeatedSource() {
+        RouteTable.build(RandomGraphs.makeDirected(10, NUM_OF_NODES), new int[] {3, 3});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkBuildSourceOutOfRange() {
+        RouteTable.build(RandomGraphs.makeDirected(11, NUM_OF_NODES), new int[] {NUM_OF_NODES});
+    }
+}
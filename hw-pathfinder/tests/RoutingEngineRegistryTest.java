@@ -0,0 +1,81 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+
+public final class RoutingEngineRegistryTest {
+
+    private final static String engine1 = "engine1";
+    private final static String engine2 = "engine2";
+
+    /** Makes the chain a -> b -> c. */
+    private static DoubleWeightedGraph<String> makeChain() {
+        return DoubleWeightedGraph.of(new Graph.Builder<String,Double>(3, 2)
+                .addEdge("a", "b", 1.0)
+                .addEdge("b", "c", 2.0)
+                .build());
+    }
+
+    @Test
+    public void registeredEngineIsFound() {
+        RoutingEngineRegistry<String> registry = new RoutingEngineRegistry<>();
+        assertFalse(registry.contains(engine1));
+        registry.register(engine1, RoutingEngine.dijkstra());
+        assertTrue(registry.contains(engine1));
+        DoubleWeightedGraph<String> graph = makeChain();
+        assertEquals(3.0, registry.get(engine1).getShortestPathById(graph, 0, 2).getCost(), 0.0);
+    }
+
+    @Test
+    public void registerReplacesEngine() {
+        RoutingEngineRegistry<String> registry = new RoutingEngineRegistry<>();
+        RoutingEngine<String> first = RoutingEngine.dijkstra();
+        RoutingEngine<String> second = (graph, startId, endId, budget) -> null;
+        registry.register(engine1, first);
+        registry.register(engine1, second);
+        assertSame(second, registry.get(engine1));
+        assertEquals(1, registry.names().size());
+    }
+
+    @Test
+    public void namesAreSortedAndUnmodifiable() {
+        RoutingEngineRegistry<String> registry = new RoutingEngineRegistry<>();
+        registry.register(engine2, RoutingEngine.dijkstra());
+        registry.register(engine1, RoutingEngine.bidirectional());
+        assertEquals(Arrays.asList(engine1, engine2), new ArrayList<>(registry.names()));
+        try {
+            registry.names().add("engine3");
+            fail("names should not be modifiable!");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void containsNullIsFalse() {
+        assertFalse(new RoutingEngineRegistry<String>().contains(null));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkGetUnknownEngine() {
+        RoutingEngineRegistry<String> registry = new RoutingEngineRegistry<>();
+        registry.register(engine1, RoutingEngine.dijkstra());
+        registry.get(engine2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkRegisterNullName() {
+        new RoutingEngineRegistry<String>().register(null, RoutingEngine.dijkstra());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkRegisterNullEngine() {
+        new RoutingEngineRegistry<String>().register(engine1, null);
+    }
+}
@@ -0,0 +1,131 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class SearchBudgetTest {
+
+    private final static int NUM_OF_NODES = 100;
+
+    /** Makes the chain 0 -> 1 -> ... -> NUM_OF_NODES - 1, plus a node NUM_OF_NODES that nothing reaches. */
+    private static Graph<Integer,Double> makeChain() {
+        Graph.Builder<Integer,Double> builder = new Graph.Builder<>(NUM_OF_NODES + 1, NUM_OF_NODES);
+        for (int i = 1; i < NUM_OF_NODES; i++) {
+            builder.addEdge(i - 1, i, 1.0);
+        }
+        builder.addNode(NUM_OF_NODES);
+        return builder.build();
+    }
+
+    /** Runs a Dijkstra search along the whole chain and returns why it was stopped. */
+    private static SearchBudgetExceededException stop(SearchBudget budget) {
+        DoubleWeightedGraph<Integer> graph = DoubleWeightedGraph.of(makeChain());
+        try {
+            ShortestPath.getShortestPathById(graph, 0, NUM_OF_NODES - 1, budget);
+        } catch (SearchBudgetExceededException e) {
+            return e;
+        }
+        fail("search should have been stopped!");
+        return null;
+    }
+
+    @Test
+    public void settledLimitStopsSearch() {
+        SearchBudgetExceededException e = stop(SearchBudget.unlimited().withMaxSettledNodes(10));
+        assertEquals(SearchBudgetExceededException.Reason.SETTLED_NODES, e.getReason());
+        assertEquals(10, e.getSettledCount());
+    }
+
+    @Test
+    public void settledLimitThatIsJustEnough() {
+        DoubleWeightedGraph<Integer> graph = DoubleWeightedGraph.of(makeChain());
+        // the search finishes every node of the chain, counting the end node
+        Path<Integer> path = ShortestPath.getShortestPathById(graph, 0, NUM_OF_NODES - 1,
+                SearchBudget.unlimited().withMaxSettledNodes(NUM_OF_NODES));
+        assertEquals(NUM_OF_NODES - 1, path.getCost(), 0.0);
+        assertEquals(SearchBudgetExceededException.Reason.SETTLED_NODES,
+                stop(SearchBudget.unlimited().withMaxSettledNodes(NUM_OF_NODES - 1)).getReason());
+    }
+
+    @Test
+    public void passedDeadlineStopsSearchAtOnce() {
+        SearchBudgetExceededException e = stop(SearchBudget.unlimited().withTimeout(Duration.ZERO));
+        assertEquals(SearchBudgetExceededException.Reason.DEADLINE, e.getReason());
+        assertEquals(0, e.getSettledCount());
+    }
+
+    @Test
+    public void cancellationStopsSearch() {
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+        SearchBudgetExceededException e = stop(SearchBudget.unlimited().withCancellation(cancelled::get));
+        assertEquals(SearchBudgetExceededException.Reason.CANCELLED, e.getReason());
+        assertEquals(0, e.getSettledCount());
+        cancelled.set(false);
+        DoubleWeightedGraph<Integer> graph = DoubleWeightedGraph.of(makeChain());
+        assertNotNull(ShortestPath.getShortestPathById(graph, 0, NUM_OF_NODES - 1,
+                SearchBudget.unlimited().withCancellation(cancelled::get)));
+    }
+
+    @Test
+    public void unreachableIsNullButExceededThrows() {
+        DoubleWeightedGraph<Integer> graph = DoubleWeightedGraph.of(makeChain());
+        // with no budget, running out of nodes to search means there is no path
+        assertNull(ShortestPath.getShortestPathById(graph, 0, NUM_OF_NODES, SearchBudget.unlimited()));
+        assertNull(ShortestPath.getShortestPathBidirectionalById(graph, 0, NUM_OF_NODES, SearchBudget.unlimited()));
+        try {
+            ShortestPath.getShortestPathById(graph, 0, NUM_OF_NODES, SearchBudget.unlimited().withMaxSettledNodes(5));
+            fail("a search that is stopped should not look like one that found no path!");
+        } catch (SearchBudgetExceededException e) {
+            assertEquals(5, e.getSettledCount());
+        }
+    }
+
+    @Test
+    public void pathToSelfNeedsNoBudget() {
+        Graph<Integer,Double> chain = makeChain();
+        DoubleWeightedGraph<Integer> graph = DoubleWeightedGraph.of(chain);
+        SearchBudget none = SearchBudget.unlimited().withMaxSettledNodes(0);
+        Path<Integer> self = new Path<>(7);
+        assertEquals(self, ShortestPath.getShortestPathById(graph, 7, 7, none));
+        assertEquals(self, ShortestPath.getShortestPathByIdGuided(graph, 7, 7, id -> 0.0, none));
+        assertEquals(self, ShortestPath.getShortestPathBidirectionalById(graph, 7, 7, none));
+        assertEquals(self, ShortestPath.getShortestPath(chain, 7, 7, Double::doubleValue, none));
+    }
+
+    @Test
+    public void labelSearchHonorsBudget() {
+        try {
+            ShortestPath.getShortestPath(makeChain(), 0, NUM_OF_NODES - 1, Double::doubleValue,
+                    SearchBudget.unlimited().withMaxSettledNodes(3));
+            fail("search should have been stopped!");
+        } catch (SearchBudgetExceededException e) {
+            assertEquals(SearchBudgetExceededException.Reason.SETTLED_NODES, e.getReason());
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeSettledLimit() {
+        SearchBudget.unlimited().withMaxSettledNodes(-1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNegativeTimeout() {
+        SearchBudget.unlimited().withTimeout(Duration.ofMillis(-1));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNullCancellation() {
+        SearchBudget.unlimited().withCancellation(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNullBudget() {
+        ShortestPath.getShortestPathById(DoubleWeightedGraph.of(makeChain()), 0, 1, (SearchBudget) null);
+    }
+}
@@ -0,0 +1,121 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests the reuse of the per-thread search arrays through the public searches of ShortestPath. The expected
+ * distances come from DeltaStepping, which does not use those arrays.
+ */
+public final class SearchWorkspaceTest {
+
+    private final static int SMALL = 20;
+    private final static int LARGE = 400;
+
+    private static double costOf(Path<?> path) {
+        return (path == null) ? Double.POSITIVE_INFINITY : path.getCost();
+    }
+
+    /** Checks every search of ShortestPath from the passed-in source against DeltaStepping. */
+    private static void assertSearchesCorrect(DoubleWeightedGraph<Integer> graph, int source) {
+        double[] expected = new DeltaStepping(1.0).distancesFromById(graph, source);
+        assertArrayEquals(expected, ShortestPath.getDistancesById(graph, source), 0.0);
+        for (int end = 0; end < graph.getNodeCount(); end++) {
+            assertEquals(expected[end], costOf(ShortestPath.getShortestPathById(graph, source, end)), 0.0);
+            assertEquals(expected[end],
+                    costOf(ShortestPath.getShortestPathBidirectionalById(graph, source, end)), 0.0);
+        }
+    }
+
+    /** Runs the passed-in checks on a new thread, whose workspace has never been used, and waits for them. */
+    private static void onFreshThread(Runnable checks) throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                checks.run();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        thread.start();
+        thread.join();
+        if (failure.get() instanceof Error) {
+            throw (Error) failure.get();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    @Test
+    public void smallGraphAfterLargeGraph() throws InterruptedException {
+        DoubleWeightedGraph<Integer> large = RandomGraphs.makeDirected(0, LARGE);
+        DoubleWeightedGraph<Integer> small = RandomGraphs.makeDirected(1, SMALL);
+        onFreshThread(() -> {
+            assertSearchesCorrect(large, 0);
+            for (int source = 0; source < SMALL; source++) {
+                assertSearchesCorrect(small, source);
+            }
+        });
+    }
+
+    @Test
+    public void largeGraphAfterSmallGraph() throws InterruptedException {
+        DoubleWeightedGraph<Integer> large = RandomGraphs.makeDirected(2, LARGE);
+        DoubleWeightedGraph<Integer> small = RandomGraphs.makeDirected(3, SMALL);
+        onFreshThread(() -> {
+            assertSearchesCorrect(small, 0);
+            assertSearchesCorrect(large, 0);
+            assertSearchesCorrect(small, 1);
+            assertSearchesCorrect(large, LARGE - 1);
+        });
+    }
+
+    @Test
+    public void queueKindChangesBetweenQueries() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(4, LARGE);
+        QueueKind original = ShortestPath.getQueueKind();
+        try {
+            for (int round = 0; round < 2; round++) {
+                for (QueueKind kind : QueueKind.values()) {
+                    ShortestPath.setQueueKind(kind);
+                    assertEquals(kind, ShortestPath.getQueueKind());
+                    assertSearchesCorrect(graph, 7 * round + kind.ordinal());
+                }
+            }
+        } finally {
+            ShortestPath.setQueueKind(original);
+        }
+    }
+
+    @Test
+    public void searchInsideEstimate() {
+        DoubleWeightedGraph<Integer> outer = RandomGraphs.makeDirected(5, LARGE);
+        DoubleWeightedGraph<Integer> inner = RandomGraphs.makeDirected(6, SMALL);
+        double[] expectedOuter = new DeltaStepping(1.0).distancesFromById(outer, 0);
+        double[] expectedInner = new DeltaStepping(1.0).distancesFromById(inner, 0);
+        for (int end = 0; end < LARGE; end += 37) {
+            int target = end;
+            Path<Integer> path = ShortestPath.getShortestPathByIdGuided(outer, 0, end, id -> {
+                // a search on the same thread while the outer search holds its arrays
+                int innerEnd = id % SMALL;
+                assertEquals(expectedInner[innerEnd],
+                        costOf(ShortestPath.getShortestPathById(inner, 0, innerEnd)), 0.0);
+                return 0.0;
+            });
+            assertEquals("outer search was disturbed!", expectedOuter[target], costOf(path), 0.0);
+        }
+        // the outer workspace is free again afterwards
+        assertSearchesCorrect(outer, 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkSetNullQueueKind() {
+        ShortestPath.setQueueKind(null);
+    }
+}
@@ -0,0 +1,295 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+public final class ShortestPathTest {
+
+    private final static int NUM_OF_POINTS = 60;
+    private final static double EPSILON = 1e-9;
+
+    /**
+     * Makes a map of random points where each point has walkways in both directions to three random others,
+     * and each walkway is between 1.5 and 3.5 times as long as the straight line it follows.
+     */
+    private static DoubleWeightedGraph<Point> makeMap(long seed) {
+        Random random = new Random(seed);
+        Point[] points = new Point[NUM_OF_POINTS];
+        Graph.Builder<Point,Double> builder = new Graph.Builder<>(NUM_OF_POINTS, 6 * NUM_OF_POINTS);
+        for (int i = 0; i < NUM_OF_POINTS; i++) {
+            points[i] = new Point(random.nextInt(1000), random.nextInt(1000));
+            builder.addNode(points[i]);
+        }
+        for (int i = 0; i < NUM_OF_POINTS; i++) {
+            for (int k = 0; k < 3; k++) {
+                Point other = points[random.nextInt(NUM_OF_POINTS)];
+                double length = Math.hypot(points[i].getX() - other.getX(), points[i].getY() - other.getY());
+                builder.addBidirectionalEdge(points[i], other, length * (1.5 + 2 * random.nextDouble()));
+            }
+        }
+        return DoubleWeightedGraph.of(builder.build());
+    }
+
+    /**
+     * Checks that the passed-in path runs along edges of the graph from start to end and that its cost is the
+     * sum of the weights of those edges.
+     */
+    private static <N> void assertFollowsEdges(DoubleWeightedGraph<N> graph, int start, int end, Path<N> path) {
+        assertEquals(graph.getNode(start), path.getStart());
+        assertEquals(graph.getNode(end), path.getEnd());
+        double total = 0;
+        for (Path<N>.Segment segment : path) {
+            int from = graph.getId(segment.getStart());
+            int to = graph.getId(segment.getEnd());
+            boolean found = false;
+            for (int k = graph.getEdgeStart(from); k < graph.getEdgeEnd(from); k++) {
+                found |= graph.getTarget(k) == to && graph.getWeight(k) == segment.getCost();
+            }
+            assertTrue("segment " + segment + " is not an edge!", found);
+            total += segment.getCost();
+        }
+        assertEquals(total, path.getCost(), EPSILON);
+    }
+
+    /** The label of a walkway, which has a length and may or may not have stairs on it. */
+    private static final class Walkway {
+
+        private final double length;
+        private final boolean stairs;
+
+        Walkway(double length, boolean stairs) {
+            this.length = length;
+            this.stairs = stairs;
+        }
+    }
+
+    /**
+     * Makes a map where the short way from "gate" to "library" climbs a stairway, and a longer way around it
+     * is flat.
+     */
+    private static Graph<String,Walkway> makeWalkways() {
+        Graph<String,Walkway> graph = new Graph<>();
+        for (String node : Arrays.asList("gate", "stairway", "ramp", "plaza", "library")) {
+            graph.addNode(node);
+        }
+        graph.addEdge("gate", "stairway", new Walkway(2, false));
+        graph.addEdge("stairway", "library", new Walkway(3, true));
+        graph.addEdge("gate", "ramp", new Walkway(4, false));
+        graph.addEdge("ramp", "plaza", new Walkway(4, false));
+        graph.addEdge("plaza", "library", new Walkway(1, false));
+        return graph;
+    }
+
+    private static double costOf(Path<?> path) {
+        return (path == null) ? Double.POSITIVE_INFINITY : path.getCost();
+    }
+
+    @Test
+    public void straightLineHeuristicNeverOverestimates() {
+        DoubleWeightedGraph<Point> graph = makeMap(1);
+        ToDoubleBiFunction<Point,Point> heuristic = CampusMap.straightLineHeuristic(graph);
+        for (int start = 0; start < graph.getNodeCount(); start++) {
+            double[] distances = ShortestPath.getDistancesById(graph, start);
+            for (int end = 0; end < graph.getNodeCount(); end++) {
+                double estimate = heuristic.applyAsDouble(graph.getNode(start), graph.getNode(end));
+                assertTrue("estimate is larger than the distance!", estimate <= distances[end] + EPSILON);
+            }
+            assertEquals(0.0, heuristic.applyAsDouble(graph.getNode(start), graph.getNode(start)), 0.0);
+        }
+    }
+
+    @Test
+    public void straightLineHeuristicIsConsistent() {
+        DoubleWeightedGraph<Point> graph = makeMap(2);
+        ToDoubleBiFunction<Point,Point> heuristic = CampusMap.straightLineHeuristic(graph);
+        Point end = graph.getNode(0);
+        for (int id = 0; id < graph.getNodeCount(); id++) {
+            for (int k = graph.getEdgeStart(id); k < graph.getEdgeEnd(id); k++) {
+                double here = heuristic.applyAsDouble(graph.getNode(id), end);
+                double there = heuristic.applyAsDouble(graph.getNode(graph.getTarget(k)), end);
+                assertTrue("estimate drops by more than an edge weight!", here <= graph.getWeight(k) + there + EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void aStarMatchesDijkstra() {
+        for (long seed = 3; seed < 6; seed++) {
+            DoubleWeightedGraph<Point> graph = makeMap(seed);
+            ToDoubleBiFunction<Point,Point> heuristic = CampusMap.straightLineHeuristic(graph);
+            for (int start = 0; start < graph.getNodeCount(); start += 3) {
+                for (int end = 0; end < graph.getNodeCount(); end++) {
+                    Path<Point> dijkstra = ShortestPath.getShortestPathById(graph, start, end);
+                    Path<Point> aStar = ShortestPath.getShortestPathById(graph, start, end, heuristic);
+                    assertEquals("A* found a different cost!", costOf(dijkstra), costOf(aStar), EPSILON);
+                    if (aStar != null) {
+                        assertEquals(graph.getNode(start), aStar.getStart());
+                        assertEquals(graph.getNode(end), aStar.getEnd());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void aStarWithZeroHeuristicIsDijkstra() {
+        DoubleWeightedGraph<Point> graph = makeMap(6);
+        for (int end = 0; end < graph.getNodeCount(); end++) {
+            assertEquals(costOf(ShortestPath.getShortestPathById(graph, 0, end)),
+                    costOf(ShortestPath.getShortestPathById(graph, 0, end, (from, to) -> 0.0)), 0.0);
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkAStarWithNullHeuristic() {
+        ShortestPath.getShortestPathById(makeMap(7), 0, 1, (ToDoubleBiFunction<Point,Point>) null);
+    }
+
+    @Test
+    public void bidirectionalMatchesDijkstra() {
+        for (long seed = 10; seed < 16; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_POINTS);
+            for (int start = 0; start < graph.getNodeCount(); start++) {
+                for (int end = 0; end < graph.getNodeCount(); end++) {
+                    Path<Integer> dijkstra = ShortestPath.getShortestPathById(graph, start, end);
+                    Path<Integer> bidirectional = ShortestPath.getShortestPathBidirectionalById(graph, start, end);
+                    assertEquals("bidirectional search found a different cost!", costOf(dijkstra),
+                            costOf(bidirectional), EPSILON);
+                    if (bidirectional != null) {
+                        assertFollowsEdges(graph, start, end, bidirectional);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bidirectionalOnUndirectedMap() {
+        DoubleWeightedGraph<Point> graph = makeMap(16);
+        for (int end = 0; end < graph.getNodeCount(); end++) {
+            Path<Point> bidirectional = ShortestPath.getShortestPathBidirectionalById(graph, 5, end);
+            assertEquals(costOf(ShortestPath.getShortestPathById(graph, 5, end)), costOf(bidirectional), EPSILON);
+            assertFollowsEdges(graph, 5, end, bidirectional);
+        }
+    }
+
+    @Test
+    public void distancesFromMatchesDijkstra() {
+        for (long seed = 20; seed < 25; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_POINTS);
+            int[] targets = {3, 17, 3, 59, 0, 17, 42};
+            for (int source = 0; source < NUM_OF_POINTS; source += 6) {
+                double[] all = ShortestPath.getDistancesById(graph, source);
+                double[] distances = ShortestPath.distancesFromById(graph, source, targets);
+                assertEquals(targets.length, distances.length);
+                for (int i = 0; i < targets.length; i++) {
+                    assertEquals("different distance to " + targets[i], all[targets[i]], distances[i], EPSILON);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void distancesFromRepeatedAndUnreachableTargets() {
+        DoubleWeightedGraph<String> graph = DoubleWeightedGraph.of(new Graph.Builder<String,Double>(4, 2)
+                .addEdge("a", "b", 2.0)
+                .addEdge("b", "c", 3.0)
+                .addNode("d")
+                .build());
+        double[] distances = ShortestPath.distancesFrom(graph, "a",
+                Arrays.asList("c", "d", "c", "a", "b", "d"));
+        assertArrayEquals(new double[] {5, Double.POSITIVE_INFINITY, 5, 0, 2, Double.POSITIVE_INFINITY},
+                distances, 0.0);
+        assertEquals(0, ShortestPath.distancesFromById(graph, 0, new int[0]).length);
+    }
+
+    @Test
+    public void distancesFromWaitsForTargetToBeFinished() {
+        // the direct edge reaches the target first, but the search may only stop once the cheaper detour is in
+        DoubleWeightedGraph<String> graph = DoubleWeightedGraph.of(new Graph.Builder<String,Double>(5, 5)
+                .addEdge("source", "target", 10.0)
+                .addEdge("source", "a", 1.0)
+                .addEdge("a", "b", 0.0)
+                .addEdge("b", "target", 2.0)
+                .addEdge("target", "far", 1.0)
+                .build());
+        double[] distances = ShortestPath.distancesFrom(graph, "source",
+                Arrays.asList("target", "source"));
+        assertArrayEquals(new double[] {3, 0}, distances, 0.0);
+    }
+
+    @Test
+    public void distanceMatrixMatchesRows() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(30, NUM_OF_POINTS);
+        int[] sources = {5, 0, 5, 59, 33};
+        int[] targets = {1, 5, 1, 44, 59};
+        double[][] matrix = ShortestPath.distanceMatrixById(graph, sources, targets);
+        assertEquals(sources.length, matrix.length);
+        for (int i = 0; i < sources.length; i++) {
+            double[] all = ShortestPath.getDistancesById(graph, sources[i]);
+            for (int j = 0; j < targets.length; j++) {
+                assertEquals(all[targets[j]], matrix[i][j], EPSILON);
+            }
+        }
+        assertEquals(0, ShortestPath.distanceMatrixById(graph, new int[0], targets).length);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkDistancesFromNullTargets() {
+        ShortestPath.distancesFromById(RandomGraphs.makeDirected(31, NUM_OF_POINTS), 0, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkDistanceMatrixUnknownNode() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(32, NUM_OF_POINTS);
+        ShortestPath.distanceMatrix(graph, Arrays.asList(0, 1), Arrays.asList(NUM_OF_POINTS));
+    }
+
+    @Test
+    public void compiledGraphMatchesSnapshot() {
+        Graph<Integer,Double> graph = RandomGraphs.makeDirectedGraph(40, NUM_OF_POINTS);
+        CompiledGraph<Integer,Double> compiled = graph.compile();
+        for (int start = 0; start < NUM_OF_POINTS; start += 9) {
+            for (int end = 0; end < NUM_OF_POINTS; end++) {
+                assertEquals(costOf(ShortestPath.getShortestPath(graph, start, end)),
+                        costOf(ShortestPath.getShortestPath(compiled, start, end)), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void weightFunctionsPickDifferentRoutes() {
+        Graph<String,Walkway> graph = makeWalkways();
+        ToDoubleFunction<Walkway> shortest = w -> w.length;
+        ToDoubleFunction<Walkway> noStairs = w -> w.stairs ? 10 * w.length : w.length;
+
+        Path<String> expectedShortest = new Path<>("gate").extend("stairway", 2).extend("library", 3);
+        Path<String> expectedFlat = new Path<>("gate").extend("ramp", 4).extend("plaza", 4).extend("library", 1);
+        assertEquals(expectedShortest, ShortestPath.getShortestPath(graph, "gate", "library", shortest));
+        assertEquals(expectedFlat, ShortestPath.getShortestPath(graph, "gate", "library", noStairs));
+
+        CompiledGraph<String,Walkway> compiled = graph.compile();
+        assertEquals(expectedShortest, ShortestPath.getShortestPath(compiled, "gate", "library", shortest));
+        assertEquals(expectedFlat, ShortestPath.getShortestPath(compiled, "gate", "library", noStairs));
+    }
+
+    @Test
+    public void weightFunctionWithNoRoute() {
+        Graph<String,Walkway> graph = makeWalkways();
+        assertNull(ShortestPath.getShortestPath(graph, "library", "gate", w -> w.length));
+        assertEquals(new Path<>("plaza"), ShortestPath.getShortestPath(graph, "plaza", "plaza", w -> w.length));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkNullWeightFunction() {
+        ShortestPath.getShortestPath(makeWalkways().compile(), "gate", "library", null);
+    }
+}
@@ -0,0 +1,90 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+public final class ShortestPathTreeCacheTest {
+
+    private final static int NUM_OF_NODES = 30;
+    private final static int CAPACITY = 2;
+
+    /** Checks the hit, miss and eviction counters and the size of the passed-in cache. */
+    private static void assertCounts(ShortestPathTreeCache<?> cache, long hits, long misses, long evictions,
+                                     int size) {
+        assertEquals("hits", hits, cache.getHitCount());
+        assertEquals("misses", misses, cache.getMissCount());
+        assertEquals("evictions", evictions, cache.getEvictionCount());
+        assertEquals("size", size, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedTreeIsEvicted() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(0, NUM_OF_NODES);
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(CAPACITY);
+        ShortestPathTree<Integer> first = cache.getTree(graph, 1);
+        ShortestPathTree<Integer> second = cache.getTree(graph, 2);
+        assertCounts(cache, 0, 2, 0, 2);
+        // using 1 again makes 2 the least recently used tree
+        assertSame(first, cache.getTree(graph, 1));
+        cache.getTree(graph, 3);
+        assertCounts(cache, 1, 3, 1, 2);
+        assertSame(first, cache.getTree(graph, 1));
+        assertTrue("tree of 2 should have been evicted!", second != cache.getTree(graph, 2));
+        assertCounts(cache, 2, 4, 2, 2);
+    }
+
+    @Test
+    public void differentSnapshotMisses() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(1, NUM_OF_NODES);
+        DoubleWeightedGraph<Integer> other = RandomGraphs.makeDirected(2, NUM_OF_NODES);
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(CAPACITY);
+        ShortestPathTree<Integer> tree = cache.getTree(graph, 5);
+        ShortestPathTree<Integer> otherTree = cache.getTree(other, 5);
+        assertSame(other, otherTree.getGraph());
+        assertCounts(cache, 0, 2, 0, 1);
+        assertSame(otherTree, cache.getTree(other, 5));
+        // the tree of the first snapshot was replaced, so it has to be found again
+        assertTrue(tree != cache.getTree(graph, 5));
+        assertCounts(cache, 1, 3, 0, 1);
+    }
+
+    @Test
+    public void cachedPathsMatchDijkstra() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(3, NUM_OF_NODES);
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(CAPACITY);
+        for (int start = 0; start < NUM_OF_NODES; start += 10) {
+            for (int end = 0; end < NUM_OF_NODES; end++) {
+                assertEquals(ShortestPath.getShortestPathById(graph, start, end),
+                        cache.getShortestPathById(graph, start, end));
+            }
+        }
+        assertCounts(cache, 3 * NUM_OF_NODES - 3, 3, 1, 2);
+    }
+
+    @Test
+    public void clearKeepsCounters() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(4, NUM_OF_NODES);
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(CAPACITY);
+        cache.getTree(graph, 0);
+        cache.getTree(graph, 0);
+        cache.clear();
+        assertCounts(cache, 1, 1, 0, 0);
+        cache.getTree(graph, 0);
+        assertCounts(cache, 1, 2, 0, 1);
+        assertEquals(CAPACITY, cache.getCapacity());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkZeroCapacity() {
+        new ShortestPathTreeCache<Integer>(0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void checkSourceOutOfRange() {
+        DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(5, NUM_OF_NODES);
+        new ShortestPathTreeCache<Integer>(CAPACITY).getTree(graph, NUM_OF_NODES);
+    }
+}
@@ -0,0 +1,75 @@
+package pathfinder.junitTests;
+
+import static org.junit.Assert.*;
+import graph.*;
+import pathfinder.*;
+import pathfinder.datastructures.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public final class ShortestPathTreeTest {
+
+    private final static String node1 = "node1";
+    private final static String node2 = "node2";
+    private final static String node3 = "node3";
+    private final static String node4 = "node4";
+    private final static String node5 = "node5";
+    private final static int NUM_OF_NODES = 50;
+    private final static double EPSILON = 1e-9;
+
+    /** Makes node1 -> node2 -> node3 with a longer direct edge node1 -> node3, node4 -> node1, and a lone node5. */
+    private static DoubleWeightedGraph<String> makeSmall() {
+        return DoubleWeightedGraph.of(new Graph.Builder<String,Double>(5, 4)
+                .addEdge(node1, node2, 1.0)
+                .addEdge(node2, node3, 2.0)
+                .addEdge(node1, node3, 5.0)
+                .addEdge(node4, node1, 1.0)
+                .addNode(node5)
+                .build());
+    }
+
+    @Test
+    public void pathToFollowsPredecessors() {
+        DoubleWeightedGraph<String> graph = makeSmall();
+        ShortestPathTree<String> tree = ShortestPath.getShortestPathTree(graph, graph.getId(node1));
+        assertEquals(graph.getId(node1), tree.getSourceId());
+        assertSame(graph, tree.getGraph());
+        Path<String> expected = new Path<>(node1).extend(Arrays.asList(node2, node3), new double[] {1, 2});
+        assertEquals(expected, tree.pathTo(graph.getId(node3)));
+        assertEquals(3.0, tree.getDistance(graph.getId(node3)), 0.0);
+        assertEquals(new Path<>(node1), tree.pathTo(graph.getId(node1)));
+    }
+
+    @Test
+    public void unreachableNodeHasNoPath() {
+        DoubleWeightedGraph<String> graph = makeSmall();
+        ShortestPathTree<String> tree = ShortestPath.getShortestPathTree(graph, graph.getId(node1));
+        for (String node : Arrays.asList(node4, node5)) {
+            assertFalse(tree.hasPathTo(graph.getId(node)));
+            assertNull(tree.pathTo(graph.getId(node)));
+            assertEquals(Double.POSITIVE_INFINITY, tree.getDistance(graph.getId(node)), 0.0);
+        }
+    }
+
+    @Test
+    public void treeMatchesDijkstra() {
+        for (long seed = 0; seed < 5; seed++) {
+            DoubleWeightedGraph<Integer> graph = RandomGraphs.makeDirected(seed, NUM_OF_NODES);
+            for (int start = 0; start < NUM_OF_NODES; start += 7) {
+                ShortestPathTree<Integer> tree = ShortestPath.getShortestPathTree(graph, start);
+                for (int end = 0; end < NUM_OF_NODES; end++) {
+                    Path<Integer> expected = ShortestPath.getShortestPathById(graph, start, end);
+                    Path<Integer> path = tree.pathTo(end);
+                    assertEquals(expected == null, path == null);
+                    if (path != null) {
+                        assertEquals("tree found a different cost!", expected.getCost(), path.getCost(), EPSILON);
+                        assertEquals(path.getCost(), tree.getDistance(end), EPSILON);
+                        assertEquals(Integer.valueOf(start), path.getStart());
+                        assertEquals(Integer.valueOf(end), path.getEnd());
+                    }
+                }
+            }
+        }
+    }
+}